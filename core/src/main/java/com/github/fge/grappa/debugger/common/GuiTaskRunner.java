@@ -1,17 +1,28 @@
 package com.github.fge.grappa.debugger.common;
 
+import com.github.fge.lambdas.ThrownByLambdaException;
 import com.github.fge.lambdas.runnable.ThrowingRunnable;
 import com.github.fge.lambdas.supplier.ThrowingSupplier;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import javafx.application.Platform;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -89,6 +100,19 @@ import java.util.function.Supplier;
  * <p>For the two latter variants, this library makes use of <a
  * href="https://github.com/fge/throwing-lambdas">throwing-lambdas</a>.</p>
  *
+ * <p>Finally, background tasks can be submitted with a key, using {@link
+ * #computeLatest(Object, Supplier, Consumer)} or {@link #runLatest(Object,
+ * Runnable, Runnable, Runnable)}; only the latest task submitted with a given
+ * key matters. Tasks with the same key run one at a time; a task which has
+ * not started yet when a newer task with the same key is submitted will never
+ * run, and a running task is not interrupted but its UI thread task is
+ * dropped. This is meant for tasks triggered by user input, such as selecting
+ * a node in a tree, where only the last selection should be displayed.</p>
+ *
+ * <p>All methods submitting a background task return a {@link Future} for
+ * it; cancelling such a future before the background task completes also
+ * prevents its UI thread task from running.</p>
+ *
  * <p>Note that the constructors and methods of this class do not accept null
  * arguments; if a null argument is passed, a {@link NullPointerException} will
  * be thrown.</p>
@@ -100,30 +124,78 @@ import java.util.function.Supplier;
 @ParametersAreNonnullByDefault
 public final class GuiTaskRunner
 {
+    private static final int DEFAULT_NR_THREADS
+        = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final Consumer<Object> NOTHING = ignored -> {};
+    /*
+     * For tasks without an exception handler: pass the exception to the
+     * uncaught exception handler of the UI thread
+     */
+    private static final Consumer<Throwable> UNCAUGHT = throwable -> {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread,
+            throwable);
+    };
+
     private final ExecutorService executor;
     private final Executor frontExecutor;
 
+    /*
+     * Keyed tasks: at most one running task and one pending task per key;
+     * both maps are guarded by the lock.
+     */
+    private final Object keyedTasks = new Object();
+    private final Map<Object, GuiTask<?>> runningTasks = new HashMap<>();
+    private final Map<Object, GuiTask<?>> pendingTasks = new HashMap<>();
+
     /**
      * Main constructor
      *
-     * <p>This will build a {@link Executors#newCachedThreadPool(ThreadFactory)
-     * cache thread pool executor} whose threads are {@link
-     * Thread#setDaemon(boolean) daemon threads}.</p>
+     * <p>This will build a thread pool executor with as many threads as there
+     * are available processors, and at least four; see {@link
+     * #GuiTaskRunner(String, Executor, int)}.</p>
+     *
+     * @param fmt the thread name format string
+     * @param frontExecutor the frontend executor
+     */
+    public GuiTaskRunner(final String fmt, final Executor frontExecutor)
+    {
+        this(fmt, frontExecutor, DEFAULT_NR_THREADS);
+    }
+
+    /**
+     * Constructor with a bounded number of threads
+     *
+     * <p>This will build a {@link ThreadPoolExecutor thread pool executor} with
+     * at most {@code nrThreads} threads, which are {@link
+     * Thread#setDaemon(boolean) daemon threads}; tasks submitted while all
+     * threads are busy are queued. Idle threads are terminated after one
+     * minute.</p>
      *
      * @param fmt the thread name format string
      * @param frontExecutor the frontend executor
+     * @param nrThreads the maximum number of threads
      *
      * @see ThreadFactoryBuilder#setNameFormat(String)
      * @see ThreadFactoryBuilder#setDaemon(boolean)
      */
-    public GuiTaskRunner(final String fmt, final Executor frontExecutor)
+    public GuiTaskRunner(final String fmt, final Executor frontExecutor,
+        final int nrThreads)
     {
         Objects.requireNonNull(fmt);
         Objects.requireNonNull(frontExecutor);
+        if (nrThreads <= 0)
+            throw new IllegalArgumentException("number of threads must be "
+                + "strictly positive");
 
         final ThreadFactory factory = new ThreadFactoryBuilder()
             .setNameFormat(fmt).setDaemon(true).build();
-        executor = Executors.newCachedThreadPool(factory);
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(nrThreads,
+            nrThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            factory);
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
         this.frontExecutor = frontExecutor;
     }
 
@@ -157,13 +229,14 @@ public final class GuiTaskRunner
         frontExecutor.execute(runnable);
     }
 
-    public void executeBackground(@OnBackgroundThread final Runnable runnable)
+    public Future<?> executeBackground(
+        @OnBackgroundThread final Runnable runnable)
     {
         Objects.requireNonNull(runnable);
-        executor.submit(runnable);
+        return submit(null, toSupplier(runnable), NOTHING, UNCAUGHT);
     }
 
-    public void executeBackgroundOrFail(
+    public Future<?> executeBackgroundOrFail(
         @OnBackgroundThread final ThrowingRunnable runnable,
         @OnUiThread final Consumer<Throwable> onError
     )
@@ -171,13 +244,7 @@ public final class GuiTaskRunner
         Objects.requireNonNull(runnable);
         Objects.requireNonNull(onError);
 
-        executor.submit(() -> {
-            try {
-                runnable.doRun();
-            } catch (Throwable throwable) {
-                frontExecutor.execute(() -> onError.accept(throwable));
-            }
-        });
+        return submit(null, toSupplier(runnable), NOTHING, onError);
     }
 
     /**
@@ -187,16 +254,14 @@ public final class GuiTaskRunner
      * @param task the background task
      * @param after the task to run on the ui thread
      */
-    public void run(@OnBackgroundThread final Runnable task,
+    public Future<?> run(@OnBackgroundThread final Runnable task,
         @OnUiThread final Runnable after)
     {
         Objects.requireNonNull(task);
         Objects.requireNonNull(after);
 
-        executor.execute(() -> {
-            task.run();
-            frontExecutor.execute(after);
-        });
+        return submit(null, toSupplier(task), ignored -> after.run(),
+            UNCAUGHT);
     }
 
     /**
@@ -207,17 +272,14 @@ public final class GuiTaskRunner
      * @param consumer the UI thread task consuming that value
      * @param <T> type parameter of the produced/consume value
      */
-    public <T> void compute(
+    public <T> Future<?> compute(
         @OnBackgroundThread final Supplier<? extends T> supplier,
         @OnUiThread final Consumer<? super T> consumer)
     {
         Objects.requireNonNull(supplier);
         Objects.requireNonNull(consumer);
 
-        executor.submit(() -> {
-            final T t = supplier.get();
-            frontExecutor.execute(() -> consumer.accept(t));
-        });
+        return submit(null, supplier::get, consumer, UNCAUGHT);
     }
 
     /**
@@ -228,7 +290,7 @@ public final class GuiTaskRunner
      * @param task the background task
      * @param after the task to run on the ui thread
      */
-    public void run(@OnUiThread final Runnable before,
+    public Future<?> run(@OnUiThread final Runnable before,
         @OnBackgroundThread final Runnable task,
         @OnUiThread final Runnable after)
     {
@@ -238,10 +300,8 @@ public final class GuiTaskRunner
 
         frontExecutor.execute(before);
 
-        executor.submit(() -> {
-            task.run();
-            frontExecutor.execute(after);
-        });
+        return submit(null, toSupplier(task), ignored -> after.run(),
+            UNCAUGHT);
     }
 
     /**
@@ -253,7 +313,7 @@ public final class GuiTaskRunner
      * @param consumer the UI thread task consuming that value
      * @param <T> type parameter of the produced/consume value
      */
-    public <T> void compute(@OnUiThread final Runnable before,
+    public <T> Future<?> compute(@OnUiThread final Runnable before,
         @OnBackgroundThread final Supplier<? extends T> supplier,
         @OnUiThread final Consumer<? super T> consumer)
     {
@@ -263,10 +323,7 @@ public final class GuiTaskRunner
 
         frontExecutor.execute(before);
 
-        executor.submit(() -> {
-            final T t = supplier.get();
-            frontExecutor.execute(() -> consumer.accept(t));
-        });
+        return submit(null, supplier::get, consumer, UNCAUGHT);
     }
 
     /**
@@ -284,7 +341,7 @@ public final class GuiTaskRunner
      *
      * @see ThrowingRunnable#doRun()
      */
-    public void runOrFail(@OnBackgroundThread final ThrowingRunnable task,
+    public Future<?> runOrFail(@OnBackgroundThread final ThrowingRunnable task,
         @OnUiThread final Runnable after,
         @OnUiThread final Consumer<Throwable> onError)
     {
@@ -292,14 +349,8 @@ public final class GuiTaskRunner
         Objects.requireNonNull(after);
         Objects.requireNonNull(onError);
 
-        executor.execute(() -> {
-            try {
-                task.doRun();
-                frontExecutor.execute(after);
-            } catch (Throwable throwable) {
-                frontExecutor.execute(() -> onError.accept(throwable));
-            }
-        });
+        return submit(null, toSupplier(task), ignored -> after.run(),
+            onError);
     }
 
     /**
@@ -315,7 +366,7 @@ public final class GuiTaskRunner
      * @param onError the exception handler
      * @param <T> type parameter of the produced/consumed value
      */
-    public <T> void computeOrFail(
+    public <T> Future<?> computeOrFail(
         @OnBackgroundThread final ThrowingSupplier<? extends T> supplier,
         @OnUiThread final Consumer<? super T> consumer,
         @OnUiThread final Consumer<Throwable> onError)
@@ -324,14 +375,7 @@ public final class GuiTaskRunner
         Objects.requireNonNull(consumer);
         Objects.requireNonNull(onError);
 
-        executor.submit(() -> {
-            try {
-                final T t = supplier.doGet();
-                frontExecutor.execute(() -> consumer.accept(t));
-            } catch (Throwable throwable) {
-                frontExecutor.execute(() -> onError.accept(throwable));
-            }
-        });
+        return submit(null, supplier, consumer, onError);
     }
 
     /**
@@ -352,7 +396,7 @@ public final class GuiTaskRunner
      *
      * @see ThrowingRunnable#doRun()
      */
-    public void runOrFail(@OnUiThread final Runnable before,
+    public Future<?> runOrFail(@OnUiThread final Runnable before,
         @OnBackgroundThread final ThrowingRunnable task,
         @OnUiThread final Runnable after,
         @OnUiThread final Consumer<Throwable> onError)
@@ -364,14 +408,8 @@ public final class GuiTaskRunner
 
         frontExecutor.execute(before);
 
-        executor.execute(() -> {
-            try {
-                task.doRun();
-                frontExecutor.execute(after);
-            } catch (Throwable throwable) {
-                frontExecutor.execute(() -> onError.accept(throwable));
-            }
-        });
+        return submit(null, toSupplier(task), ignored -> after.run(),
+            onError);
     }
 
     /**
@@ -391,7 +429,7 @@ public final class GuiTaskRunner
      * @param onError the exception handler
      * @param <T> parameter type of the produced/consumed value
      */
-    public <T> void computeOrFail(@OnUiThread final Runnable before,
+    public <T> Future<?> computeOrFail(@OnUiThread final Runnable before,
         @OnBackgroundThread final ThrowingSupplier<? extends T> supplier,
         @OnUiThread final Consumer<? super T> consumer,
         @OnUiThread final Consumer<Throwable> onError)
@@ -403,18 +441,285 @@ public final class GuiTaskRunner
 
         frontExecutor.execute(before);
 
-        executor.submit(() -> {
-            try {
-                final T t = supplier.doGet();
-                frontExecutor.execute(() -> consumer.accept(t));
-            } catch (Throwable throwable) {
-                frontExecutor.execute(() -> onError.accept(throwable));
+        return submit(null, supplier, consumer, onError);
+    }
+
+    /**
+     * Once a stage completes, run a potentially failing producing task in the
+     * background; schedule a consuming task to run on the UI thread on success;
+     * specify an exception handler on failure
+     *
+     * <p>If the stage completes exceptionally, the background task is not run
+     * and the exception handler is called with the exception which completed
+     * the stage. No thread is blocked while waiting for the stage.</p>
+     *
+     * @param stage the stage to wait for
+     * @param supplier the potentially failing producing task
+     * @param consumer the consumer task to run on the UI thread
+     * @param onError the exception handler
+     * @param <T> type parameter of the produced/consumed value
+     */
+    public <T> void computeAfterOrFail(final CompletionStage<?> stage,
+        @OnBackgroundThread final ThrowingSupplier<? extends T> supplier,
+        @OnUiThread final Consumer<? super T> consumer,
+        @OnUiThread final Consumer<Throwable> onError)
+    {
+        Objects.requireNonNull(stage);
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(consumer);
+        Objects.requireNonNull(onError);
+
+        stage.whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                submit(null, supplier, consumer, onError);
+                return;
             }
+            final Throwable cause = throwable instanceof CompletionException
+                ? throwable.getCause() : throwable;
+            frontExecutor.execute(() -> onError.accept(cause));
         });
     }
 
+    /**
+     * Run a task in the background producing a value, superseding all other
+     * tasks submitted with the same key; schedule a task consuming that value
+     * on the UI thread, unless the task is itself superseded
+     *
+     * @param key the key
+     * @param supplier the background task producing a value
+     * @param consumer the UI thread task consuming that value
+     * @param <T> type parameter of the produced/consumed value
+     * @return a future for the background task
+     *
+     * @see #cancel(Object)
+     */
+    public <T> Future<?> computeLatest(final Object key,
+        @OnBackgroundThread final Supplier<? extends T> supplier,
+        @OnUiThread final Consumer<? super T> consumer)
+    {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(consumer);
+
+        return submit(key, supplier::get, consumer, UNCAUGHT);
+    }
+
+    /**
+     * Run a preliminary task on the UI thread; run a background task,
+     * superseding all other tasks submitted with the same key; schedule a task
+     * to run on the UI thread after the background task completes, unless the
+     * task is itself superseded
+     *
+     * @param key the key
+     * @param before the preliminary task
+     * @param task the background task
+     * @param after the task to run on the UI thread
+     * @return a future for the background task
+     *
+     * @see #cancel(Object)
+     */
+    public Future<?> runLatest(final Object key,
+        @OnUiThread final Runnable before,
+        @OnBackgroundThread final Runnable task,
+        @OnUiThread final Runnable after)
+    {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(before);
+        Objects.requireNonNull(task);
+        Objects.requireNonNull(after);
+
+        frontExecutor.execute(before);
+
+        return submit(key, toSupplier(task), ignored -> after.run(),
+            UNCAUGHT);
+    }
+
+    /**
+     * Cancel all tasks submitted with a given key
+     *
+     * <p>A task which has not started yet will never run; a running task is
+     * not interrupted, but its UI thread task will not be run.</p>
+     *
+     * @param key the key
+     */
+    public void cancel(final Object key)
+    {
+        Objects.requireNonNull(key);
+
+        final GuiTask<?> running;
+        final GuiTask<?> pending;
+
+        synchronized (keyedTasks) {
+            running = runningTasks.get(key);
+            pending = pendingTasks.remove(key);
+        }
+
+        if (running != null)
+            running.discard();
+        if (pending != null)
+            pending.cancel(false);
+    }
+
     public void dispose()
     {
         executor.shutdownNow();
     }
+
+    private <T> Future<?> submit(@Nullable final Object key,
+        final ThrowingSupplier<? extends T> supplier,
+        final Consumer<? super T> consumer,
+        final Consumer<Throwable> onError)
+    {
+        final GuiTask<T> task = new GuiTask<>(key, supplier, consumer, onError);
+
+        if (key == null) {
+            executor.execute(task);
+            return task;
+        }
+
+        final GuiTask<?> running;
+        final GuiTask<?> previous;
+
+        synchronized (keyedTasks) {
+            running = runningTasks.get(key);
+            if (running == null) {
+                runningTasks.put(key, task);
+                previous = null;
+            } else {
+                previous = pendingTasks.put(key, task);
+            }
+        }
+
+        if (previous != null)
+            previous.cancel(false);
+
+        if (running == null)
+            executor.execute(task);
+        else
+            running.discard();
+
+        return task;
+    }
+
+    /*
+     * Called when the running task for a key returns, whether it completed or
+     * was cancelled: start the pending task for this key, if any.
+     *
+     * This must not be called when the task is merely cancelled, since
+     * cancelling a running task does not stop it; a pending task which is
+     * cancelled stays pending, and returns as soon as it is run.
+     */
+    private void keyedTaskDone(final Object key)
+    {
+        final GuiTask<?> next;
+
+        synchronized (keyedTasks) {
+            next = pendingTasks.remove(key);
+            if (next == null)
+                runningTasks.remove(key);
+            else
+                runningTasks.put(key, next);
+        }
+
+        if (next != null)
+            executor.execute(next);
+    }
+
+    private static ThrowingSupplier<Void> toSupplier(
+        final ThrowingRunnable runnable)
+    {
+        return () -> {
+            runnable.doRun();
+            return null;
+        };
+    }
+
+    private static ThrowingSupplier<Void> toSupplier(final Runnable runnable)
+    {
+        return () -> {
+            runnable.run();
+            return null;
+        };
+    }
+
+    /*
+     * A background task, followed by either a UI thread task consuming its
+     * result, or an exception handler also run on the UI thread. Neither is
+     * run if the task is cancelled, or discarded, before they get to run.
+     */
+    private final class GuiTask<T>
+        extends FutureTask<T>
+    {
+        @Nullable
+        private final Object key;
+        private final Consumer<? super T> consumer;
+        private final Consumer<Throwable> onError;
+
+        private volatile boolean discarded = false;
+
+        private GuiTask(@Nullable final Object key,
+            final ThrowingSupplier<? extends T> supplier,
+            final Consumer<? super T> consumer,
+            final Consumer<Throwable> onError)
+        {
+            super(supplier::get);
+            this.key = key;
+            this.consumer = consumer;
+            this.onError = onError;
+        }
+
+        private void discard()
+        {
+            discarded = true;
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning)
+        {
+            discarded = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public void run()
+        {
+            try {
+                super.run();
+            } finally {
+                if (key != null)
+                    keyedTaskDone(key);
+            }
+        }
+
+        @Override
+        protected void done()
+        {
+            if (isCancelled() || discarded)
+                return;
+
+            final T value;
+
+            try {
+                value = get();
+            } catch (InterruptedException ignored) {
+                // Cannot happen, the task is done
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause()
+                    instanceof ThrownByLambdaException
+                    ? e.getCause().getCause() : e.getCause();
+                frontExecutor.execute(() -> {
+                    if (!discarded)
+                        onError.accept(cause);
+                });
+                return;
+            }
+
+            frontExecutor.execute(() -> {
+                if (!discarded)
+                    consumer.accept(value);
+            });
+        }
+    }
 }
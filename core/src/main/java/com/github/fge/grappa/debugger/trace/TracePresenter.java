@@ -2,6 +2,8 @@ package com.github.fge.grappa.debugger.trace;
 
 import com.github.fge.grappa.debugger.ParseInfo;
 import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadListener;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
 import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 import com.github.fge.grappa.debugger.common.BasePresenter;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
@@ -10,6 +12,7 @@ import com.github.fge.grappa.debugger.common.OnUiThread;
 import com.github.fge.grappa.debugger.main.MainWindowView;
 import com.github.fge.grappa.debugger.trace.tabs.TabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.matches.MatchesTabPresenter;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.rules.RulesTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.treedepth.TreeDepthTabPresenter;
@@ -21,8 +24,9 @@ import com.google.common.annotations.VisibleForTesting;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @NonFinalForTesting
 public class TracePresenter
@@ -46,43 +50,69 @@ public class TracePresenter
     @Override
     public void load()
     {
-        taskRunner.executeBackgroundOrFail(this::pollStatus, this::loadError);
+        taskRunner.executeBackgroundOrFail(this::watchStatus, this::loadError);
         loadTreeTab();
         loadMatchesTab();
         loadRulesTab();
         loadTreeDepthTab();
+        loadProfilerTab();
     }
 
-    // TODO: delegate this to GuiTaskRunner
+    /*
+     * Load progress is pushed by the database; while a report is pending on
+     * the UI thread, further progress events are not scheduled.
+     */
     @VisibleForTesting
     @OnBackgroundThread
-    void pollStatus()
-        throws InterruptedException
+    void watchStatus()
     {
         final TraceDbLoadStatus status = traceDb.getLoadStatus();
+        final CompletableFuture<Void> ready = status.whenReady();
 
-        if (status.isReady())
+        if (ready.isDone() && !ready.isCompletedExceptionally())
             return;
 
         final ParseInfo info = traceDb.getParseInfo();
         final int total = info.getNrMatchers() + info.getNrNodes();
+        final AtomicBoolean reportPending = new AtomicBoolean(false);
+
+        final TraceDbLoadListener listener = ignored -> {
+            if (reportPending.compareAndSet(false, true))
+                taskRunner.executeFront(() -> {
+                    reportPending.set(false);
+                    reportStatus(status, total);
+                });
+        };
 
         taskRunner.executeFront(view::showLoadToolbar);
 
-        while (!status.isReady()) {
-            pause();
-            final int current
-                = status.getLoadedMatchers() + status.getLoadedNodes();
-            taskRunner.executeFront(() -> view.reportStatus(total, current));
-        }
-        taskRunner.executeFront(view::showLoadComplete);
+        status.addListener(listener);
+        listener.loadProgress(status);
+
+        ready.whenComplete((ignored, throwable) -> {
+            status.removeListener(listener);
+            taskRunner.executeFront(throwable == null
+                ? view::showLoadComplete
+                : () -> loadError(throwable));
+        });
     }
 
     @VisibleForTesting
-    void pause()
-        throws InterruptedException
+    @OnUiThread
+    void reportStatus(final TraceDbLoadStatus status, final int total)
     {
-        TimeUnit.SECONDS.sleep(1L);
+        final TraceDbLoadStage stage = status.getStage();
+
+        if (stage == TraceDbLoadStage.READY)
+            return;
+
+        if (stage == TraceDbLoadStage.INDEXING) {
+            view.reportIndexing();
+            return;
+        }
+
+        view.reportStatus(total,
+            status.getLoadedMatchers() + status.getLoadedNodes());
     }
 
     @OnUiThread
@@ -150,6 +180,23 @@ public class TracePresenter
         return new TreeDepthTabPresenter(taskRunner, mainView, traceDb);
     }
 
+    @OnUiThread
+    @VisibleForTesting
+    void loadProfilerTab()
+    {
+        final ProfilerTabPresenter tabPresenter = createProfilerTabPresenter();
+        view.loadProfilerTab(tabPresenter);
+        tabPresenter.load();
+        tabs.add(tabPresenter);
+    }
+
+    @OnUiThread
+    @VisibleForTesting
+    ProfilerTabPresenter createProfilerTabPresenter()
+    {
+        return new ProfilerTabPresenter(taskRunner, mainView, traceDb);
+    }
+
     public void handleTabsRefreshEvent()
     {
         taskRunner.run(
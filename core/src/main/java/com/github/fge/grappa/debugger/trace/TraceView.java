@@ -1,6 +1,7 @@
 package com.github.fge.grappa.debugger.trace;
 
 import com.github.fge.grappa.debugger.trace.tabs.matches.MatchesTabPresenter;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.rules.RulesTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.treedepth
@@ -12,6 +13,8 @@ public interface TraceView
 
     void reportStatus(int total, int loaded);
 
+    void reportIndexing();
+
     void showLoadComplete();
 
     void hideLoadToolbar();
@@ -27,4 +30,6 @@ public interface TraceView
     void loadRulesTab(RulesTabPresenter tabPresenter);
 
     void loadTreeDepthTab(TreeDepthTabPresenter tabPresenter);
+
+    void loadProfilerTab(ProfilerTabPresenter tabPresenter);
 }
@@ -0,0 +1,100 @@
+package com.github.fge.grappa.debugger.trace.tabs.profiler;
+
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.common.GuiTaskRunner;
+import com.github.fge.grappa.debugger.common.OnBackgroundThread;
+import com.github.fge.grappa.debugger.common.OnUiThread;
+import com.github.fge.grappa.debugger.main.MainWindowView;
+import com.github.fge.grappa.debugger.model.TraceModel;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.trace.tabs.TabPresenter;
+import com.github.fge.grappa.internal.NonFinalForTesting;
+import com.github.fge.lambdas.Throwing;
+import com.github.fge.lambdas.supplier.ThrowingSupplier;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+@NonFinalForTesting
+public class ProfilerTabPresenter
+    extends TabPresenter<ProfilerTabView>
+{
+    private final TraceModel model;
+
+    public ProfilerTabPresenter(final GuiTaskRunner taskRunner,
+        final MainWindowView mainView, final TraceDb traceDb)
+    {
+        super(taskRunner, mainView, traceDb);
+        model = traceDb.getModel();
+    }
+
+    @Override
+    public CountDownLatch refresh()
+    {
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        refreshRuleProfiles(latch);
+        refreshMemoizationCandidates(latch);
+
+        return latch;
+    }
+
+    @Override
+    public void load()
+    {
+        displayRuleProfiles();
+        displayMemoizationCandidates();
+    }
+
+    // Profiles and candidates are computed once the trace is loaded
+    public void displayRuleProfiles()
+    {
+        taskRunner.computeAfterOrFail(traceDb.getLoadStatus().whenReady(),
+            Throwing.supplier(model::getRuleProfiles),
+            view::displayRuleProfiles, this::loadError);
+    }
+
+    public void displayMemoizationCandidates()
+    {
+        taskRunner.computeAfterOrFail(traceDb.getLoadStatus().whenReady(),
+            Throwing.supplier(model::getMemoizationCandidates),
+            view::displayMemoizationCandidates, this::loadError);
+    }
+
+    @OnUiThread
+    public void loadError(final Throwable throwable)
+    {
+        showError("Load error", "Cannot load profiler data", throwable);
+    }
+
+    @OnBackgroundThread
+    public void refreshRuleProfiles(final CountDownLatch latch)
+    {
+        final ThrowingSupplier<List<RuleProfile>> supplier = () -> {
+            try {
+                return model.getRuleProfiles();
+            } finally {
+                latch.countDown();
+            }
+        };
+
+        taskRunner.computeOrFail(supplier, view::displayRuleProfiles,
+            this::loadError);
+    }
+
+    @OnBackgroundThread
+    public void refreshMemoizationCandidates(final CountDownLatch latch)
+    {
+        final ThrowingSupplier<List<MemoizationCandidate>> supplier = () -> {
+            try {
+                return model.getMemoizationCandidates();
+            } finally {
+                latch.countDown();
+            }
+        };
+
+        taskRunner.computeOrFail(supplier, view::displayMemoizationCandidates,
+            this::loadError);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.fge.grappa.debugger.trace.tabs.profiler;
+
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.trace.tabs.TabView;
+
+import java.util.List;
+
+public interface ProfilerTabView
+    extends TabView
+{
+    void displayRuleProfiles(List<RuleProfile> profiles);
+
+    void displayMemoizationCandidates(List<MemoizationCandidate> candidates);
+}
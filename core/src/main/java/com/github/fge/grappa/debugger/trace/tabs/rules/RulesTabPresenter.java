@@ -1,7 +1,6 @@
 package com.github.fge.grappa.debugger.trace.tabs.rules;
 
 import com.github.fge.grappa.debugger.TraceDb;
-import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.common.OnBackgroundThread;
 import com.github.fge.grappa.debugger.common.OnUiThread;
@@ -15,7 +14,6 @@ import com.google.common.annotations.VisibleForTesting;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 public class RulesTabPresenter
@@ -53,7 +51,8 @@ public class RulesTabPresenter
     void loadParseTime()
     {
         // TODO: define methods for {Int,Double,Long}Supplier etc
-        taskRunner.computeOrFail(
+        taskRunner.computeAfterOrFail(
+            traceDb.getLoadStatus().whenReady(),
             this::getParseTime,
             view::displayParseTime,
             this::loadError
@@ -78,13 +77,7 @@ public class RulesTabPresenter
     @VisibleForTesting
     @OnBackgroundThread
     long getParseTime()
-        throws InterruptedException
     {
-        final TraceDbLoadStatus status = traceDb.getLoadStatus();
-
-        while (!status.isReady())
-            TimeUnit.SECONDS.sleep(1L);
-
         return model.getNodeById(0).getNanos();
     }
 
@@ -92,8 +85,7 @@ public class RulesTabPresenter
     @OnUiThread
     void loadError(final Throwable throwable)
     {
-        if (!(throwable instanceof InterruptedException))
-            showError("Load error", "Unable to load data", throwable);
+        showError("Load error", "Unable to load data", throwable);
     }
 
     @VisibleForTesting
@@ -0,0 +1,57 @@
+package com.github.fge.grappa.debugger.trace.tabs.tree;
+
+import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
+
+import java.util.List;
+
+/**
+ * A page of the children of a node, along with its total number of children
+ */
+public final class ChildrenPage
+{
+    private final int nrChildren;
+    private final int offset;
+    private final List<ParseTreeNode> children;
+
+    /**
+     * Constructor for the first page of children
+     *
+     * @param nrChildren the total number of children
+     * @param children the children in this page
+     */
+    public ChildrenPage(final int nrChildren,
+        final List<ParseTreeNode> children)
+    {
+        this(nrChildren, 0, children);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param nrChildren the total number of children
+     * @param offset the number of children before this page
+     * @param children the children in this page
+     */
+    public ChildrenPage(final int nrChildren, final int offset,
+        final List<ParseTreeNode> children)
+    {
+        this.nrChildren = nrChildren;
+        this.offset = offset;
+        this.children = children;
+    }
+
+    public int getNrChildren()
+    {
+        return nrChildren;
+    }
+
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    public List<ParseTreeNode> getChildren()
+    {
+        return children;
+    }
+}
@@ -1,7 +1,6 @@
 package com.github.fge.grappa.debugger.trace.tabs.tree;
 
 import com.github.fge.grappa.debugger.TraceDb;
-import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.main.MainWindowView;
 import com.github.fge.grappa.debugger.model.TraceModel;
@@ -10,8 +9,10 @@ import com.github.fge.grappa.debugger.trace.tabs.TabPresenter;
 import com.github.fge.grappa.internal.NonFinalForTesting;
 import com.google.common.annotations.VisibleForTesting;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @NonFinalForTesting
 public class TreeTabPresenter
@@ -19,8 +20,19 @@ public class TreeTabPresenter
 {
     private static final CountDownLatch LATCH = new CountDownLatch(0);
 
+    /*
+     * Children are loaded by pages of this size; some nodes, such as a
+     * ZeroOrMore over a large input, can have hundreds of thousands of
+     * children.
+     */
+    @VisibleForTesting
+    static final int CHILDREN_PAGE_SIZE = 1000;
+
     private final TraceModel model;
 
+    // Only the latest node to reveal is revealed
+    private final Object revealKey = new Object();
+
     public TreeTabPresenter(final GuiTaskRunner taskRunner,
         final MainWindowView mainView, final TraceDb traceDb)
     {
@@ -51,28 +63,20 @@ public class TreeTabPresenter
     @VisibleForTesting
     void loadParseTree()
     {
-        taskRunner.computeOrFail(this::getRootNode, view::displayTree,
-            this::handleLoadTreeError);
+        taskRunner.computeAfterOrFail(traceDb.getLoadStatus().whenReady(),
+            this::getRootNode, view::displayTree, this::handleLoadTreeError);
     }
 
     @VisibleForTesting
     ParseTreeNode getRootNode()
-        throws InterruptedException
     {
-        final TraceDbLoadStatus status = traceDb.getLoadStatus();
-
-        while (!status.isReady())
-            TimeUnit.SECONDS.sleep(1L);
-
         return model.getNodeById(0);
     }
 
     @VisibleForTesting
     void handleLoadTreeError(final Throwable throwable)
     {
-        if (!(throwable instanceof InterruptedException))
-            showError("Tree load failure", "Failed to load parse tree",
-                throwable);
+        showError("Tree load failure", "Failed to load parse tree", throwable);
     }
 
     public void handleParseTreeNodeShow(final ParseTreeNode node)
@@ -85,12 +89,145 @@ public class TreeTabPresenter
             view.highlightFailure(end);
     }
 
-    public void handleNeedChildren(final ParseTreeNode value)
+    /**
+     * Reveal the innermost node matching a position of the input text
+     *
+     * @param index the position
+     *
+     * @see #handleRevealNode(int)
+     */
+    public void handleInputTextClick(final int index)
+    {
+        taskRunner.computeLatest(revealKey,
+            () -> loadPath(model.getNodePathAt(index)), this::revealPath);
+    }
+
+    /**
+     * Expand the parse tree down to a node, and show this node
+     *
+     * <p>The ancestors of the node are fetched at once; for each of them, only
+     * the page of children which includes the next node on the path is
+     * loaded. The tree is then expanded in one go. Only the latest node is
+     * revealed if nodes are requested faster than they are loaded.</p>
+     *
+     * @param nodeId the id of the node
+     */
+    public void handleRevealNode(final int nodeId)
+    {
+        taskRunner.computeLatest(revealKey,
+            () -> loadPath(model.getAncestry(nodeId)), this::revealPath);
+    }
+
+    @VisibleForTesting
+    LoadedPath loadPath(final List<ParseTreeNode> path)
+    {
+        final int size = path.size();
+        final List<ChildrenPage> pages = new ArrayList<>(size);
+
+        for (int i = 1; i < size; i++)
+            pages.add(loadChildrenPage(path.get(i - 1).getId(),
+                path.get(i).getId()));
+
+        return new LoadedPath(path, pages);
+    }
+
+    /*
+     * Pages start at multiples of the page size, so that pages loaded from
+     * the placeholders around this one line up with it.
+     */
+    private ChildrenPage loadChildrenPage(final int nodeId, final int childId)
+    {
+        final int before = model.getNrChildrenBefore(nodeId, childId);
+        final int offset = before - before % CHILDREN_PAGE_SIZE;
+
+        return new ChildrenPage(model.getNrChildren(nodeId), offset,
+            model.getNodeChildren(nodeId, offset, CHILDREN_PAGE_SIZE));
+    }
+
+    @VisibleForTesting
+    void revealPath(final LoadedPath loaded)
+    {
+        final List<ParseTreeNode> path = loaded.path;
+
+        if (path.isEmpty())
+            return;
+
+        view.revealNode(path, loaded.pages);
+        handleParseTreeNodeShow(path.get(path.size() - 1));
+        view.showNodePath(path);
+    }
+
+    /**
+     * Load the first page of children of a node
+     *
+     * <p>The page is given to the caller instead of to the view, since
+     * several nodes may be waiting for their children at the same time.</p>
+     *
+     * @param value the node
+     * @param onLoaded run on the UI thread with the page
+     */
+    public void handleNeedChildren(final ParseTreeNode value,
+        final Consumer<? super ChildrenPage> onLoaded)
+    {
+        final int nodeId = value.getId();
+
+        taskRunner.compute(
+            () -> new ChildrenPage(model.getNrChildren(nodeId),
+                model.getNodeChildren(nodeId, 0, CHILDREN_PAGE_SIZE)),
+            onLoaded
+        );
+    }
+
+    /**
+     * Load the next page of children of a node
+     *
+     * @param value the node
+     * @param offset the number of children already loaded
+     * @param onLoaded run on the UI thread with the children
+     *
+     * @see #handleNeedChildren(ParseTreeNode, Consumer)
+     */
+    public void handleNeedMoreChildren(final ParseTreeNode value,
+        final int offset, final Consumer<? super List<ParseTreeNode>> onLoaded)
     {
         taskRunner.compute(
-            view::waitForChildren,
-            () -> model.getNodeChildren(value.getId()),
-            view::setTreeChildren
+            () -> model.getNodeChildren(value.getId(), offset,
+                CHILDREN_PAGE_SIZE),
+            onLoaded
         );
     }
+
+    /**
+     * Load the page of children of a node before the ones already loaded
+     *
+     * @param value the node
+     * @param end the number of children before the ones already loaded
+     * @param onLoaded run on the UI thread with the children
+     *
+     * @see #handleRevealNode(int)
+     */
+    public void handleNeedEarlierChildren(final ParseTreeNode value,
+        final int end, final Consumer<? super List<ParseTreeNode>> onLoaded)
+    {
+        final int offset = Math.max(0, end - CHILDREN_PAGE_SIZE);
+
+        taskRunner.compute(
+            () -> model.getNodeChildren(value.getId(), offset, end - offset),
+            onLoaded
+        );
+    }
+
+    @VisibleForTesting
+    static final class LoadedPath
+    {
+        private final List<ParseTreeNode> path;
+        private final List<ChildrenPage> pages;
+
+        private LoadedPath(final List<ParseTreeNode> path,
+            final List<ChildrenPage> pages)
+        {
+            this.path = path;
+            this.pages = pages;
+        }
+    }
 }
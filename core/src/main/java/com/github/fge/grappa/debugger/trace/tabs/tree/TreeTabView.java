@@ -19,7 +19,23 @@ public interface TreeTabView
 
     void showParseTreeNode(ParseTreeNode node);
 
-    void waitForChildren();
-
-    void setTreeChildren(List<ParseTreeNode> children);
+    /**
+     * Expand the tree down to a node, and select it
+     *
+     * <p>Children already loaded are kept if they include the next node on
+     * the path; otherwise, they are replaced with the given ones.</p>
+     *
+     * @param path the nodes from the root of the tree to the node
+     * @param pages the children of each node of the path but the last; they
+     * include the next node on the path
+     */
+    void revealNode(List<ParseTreeNode> path, List<ChildrenPage> pages);
+
+    /**
+     * Show the ancestors of the node shown by {@link
+     * #showParseTreeNode(ParseTreeNode)}
+     *
+     * @param path the nodes from the root of the tree to the shown node
+     */
+    void showNodePath(List<ParseTreeNode> path);
 }
@@ -2,16 +2,33 @@ package com.github.fge.grappa.debugger.trace.tabs.treedepth;
 
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.grappa.internal.NonFinalForTesting;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.DiscreteDomain;
 import com.google.common.collect.Range;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * The tree depth of a range of lines of the input
+ *
+ * <p>When more than {@link #MAX_POINTS} lines are displayed, lines are grouped
+ * in buckets of equal size; the depth of a bucket is the maximum depth of its
+ * lines, and is keyed by the first line of the bucket.</p>
+ */
 @NonFinalForTesting
 @SuppressWarnings({ "AutoBoxing", "AutoUnboxing" })
 public class TreeDepthInfo
 {
+    /**
+     * Number of displayed lines meaning "all lines of the input"
+     */
+    public static final int ALL_LINES = Integer.MAX_VALUE;
+
+    @VisibleForTesting
+    static final int MAX_POINTS = 1000;
+
     private static final long INITIAL_START_LINE = 1L;
     private static final long INITIAL_DISPLAYED_LINES = 25L;
 
@@ -107,9 +124,32 @@ public class TreeDepthInfo
         hasPrevious = startLine > 1;
         hasNext = endLine < nrLines;
 
-        // TODO: change prototype of method?
-        // We need +2 because the end is exclusive
-        depths = model.getDepthMap((int) startLine,
-            (int) (endLine - startLine + 2));
+        final int nrDisplayed = (int) (endLine - startLine + 1);
+        final Map<Integer, Integer> map
+            = model.getDepthMap((int) startLine, nrDisplayed);
+
+        depths = nrDisplayed <= MAX_POINTS ? map
+            : downsample(map, (int) startLine, nrDisplayed);
+    }
+
+    private static Map<Integer, Integer> downsample(
+        final Map<Integer, Integer> map, final int startLine,
+        final int nrLines)
+    {
+        final int bucketSize = (nrLines + MAX_POINTS - 1) / MAX_POINTS;
+        final int endLine = startLine + nrLines;
+        final Map<Integer, Integer> ret = new HashMap<>(MAX_POINTS);
+
+        int bucketEnd, max;
+
+        for (int bucket = startLine; bucket < endLine; bucket += bucketSize) {
+            bucketEnd = Math.min(bucket + bucketSize, endLine);
+            max = 0;
+            for (int line = bucket; line < bucketEnd; line++)
+                max = Math.max(max, map.getOrDefault(line, 0));
+            ret.put(bucket, max);
+        }
+
+        return ret;
     }
 }
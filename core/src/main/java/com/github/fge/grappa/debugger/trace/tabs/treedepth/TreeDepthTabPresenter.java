@@ -75,7 +75,7 @@ public class TreeDepthTabPresenter
 
     public void doChangeStartLine(final int startLine)
     {
-        doUpdate(() -> treeDepthInfo.setStartLine(startLine));
+        doUpdateLatest(() -> treeDepthInfo.setStartLine(startLine));
     }
 
     public void handlePreviousLines()
@@ -90,7 +90,8 @@ public class TreeDepthTabPresenter
 
     public void handleChangedDisplayedLines(final int displayedLines)
     {
-        doUpdate(() -> treeDepthInfo.setDisplayedLines(displayedLines));
+        doUpdateLatest(
+            () -> treeDepthInfo.setDisplayedLines(displayedLines));
     }
 
     @VisibleForTesting
@@ -102,4 +103,20 @@ public class TreeDepthTabPresenter
             () -> view.displayTreeDepthInfo(treeDepthInfo)
         );
     }
+
+    /*
+     * Only for updates which set the displayed range to absolute values: a
+     * pending update is dropped when a newer one is submitted, which would
+     * lose relative moves, or leave a refresh latch which is never counted
+     * down.
+     */
+    @VisibleForTesting
+    void doUpdateLatest(final Runnable runnable)
+    {
+        taskRunner.runLatest(this,
+            view::disableTreeDepthToolbar,
+            runnable,
+            () -> view.displayTreeDepthInfo(treeDepthInfo)
+        );
+    }
 }
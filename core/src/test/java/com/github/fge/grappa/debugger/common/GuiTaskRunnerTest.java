@@ -0,0 +1,200 @@
+package com.github.fge.grappa.debugger.common;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public final class GuiTaskRunnerTest
+{
+    private static final Object KEY = new Object();
+
+    private QueueExecutorService executor;
+    private GuiTaskRunner taskRunner;
+    private List<String> displayed;
+
+    @BeforeMethod
+    public void init()
+    {
+        executor = new QueueExecutorService();
+        taskRunner = new GuiTaskRunner(executor, Runnable::run);
+        displayed = new ArrayList<>();
+    }
+
+    @Test
+    public void onlyLatestPendingTaskRunsTest()
+    {
+        final List<String> computed = new ArrayList<>();
+
+        taskRunner.computeLatest(KEY, () -> compute(computed, "a"),
+            displayed::add);
+        taskRunner.computeLatest(KEY, () -> compute(computed, "b"),
+            displayed::add);
+        taskRunner.computeLatest(KEY, () -> compute(computed, "c"),
+            displayed::add);
+
+        executor.runAll();
+
+        assertThat(computed).containsExactly("a", "c");
+        assertThat(displayed).containsExactly("c");
+    }
+
+    @Test
+    public void tasksWithDifferentKeysAreIndependentTest()
+    {
+        taskRunner.computeLatest(KEY, () -> "a", displayed::add);
+        taskRunner.computeLatest(new Object(), () -> "b", displayed::add);
+
+        executor.runAll();
+
+        assertThat(displayed).containsExactly("a", "b");
+    }
+
+    @Test
+    public void cancelledKeyDisplaysNothingTest()
+    {
+        taskRunner.computeLatest(KEY, () -> "a", displayed::add);
+        taskRunner.computeLatest(KEY, () -> "b", displayed::add);
+        taskRunner.cancel(KEY);
+
+        executor.runAll();
+
+        assertThat(displayed).isEmpty();
+
+        taskRunner.computeLatest(KEY, () -> "c", displayed::add);
+
+        executor.runAll();
+
+        assertThat(displayed).containsExactly("c");
+    }
+
+    @Test
+    public void cancelledFutureRunsNoUiTaskTest()
+    {
+        final Future<?> future
+            = taskRunner.compute(() -> "a", displayed::add);
+
+        assertThat(future.cancel(false)).isTrue();
+
+        executor.runAll();
+
+        assertThat(displayed).isEmpty();
+    }
+
+    /*
+     * Cancelling the future of a running keyed task does not stop it; the
+     * pending task for the same key must not be started before it returns.
+     */
+    @Test
+    public void cancelledRunningTaskRunsAloneTest()
+    {
+        final List<String> computed = new ArrayList<>();
+        final List<Future<?>> futures = new ArrayList<>();
+        final List<Integer> queued = new ArrayList<>();
+
+        futures.add(taskRunner.computeLatest(KEY, () -> {
+            taskRunner.computeLatest(KEY, () -> compute(computed, "b"),
+                displayed::add);
+            futures.get(0).cancel(false);
+            queued.add(executor.queue.size());
+            return compute(computed, "a");
+        }, displayed::add));
+
+        executor.runAll();
+
+        assertThat(queued).containsExactly(0);
+        assertThat(computed).containsExactly("a", "b");
+        assertThat(displayed).containsExactly("b");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void failureIsReportedTest()
+    {
+        final Consumer<Throwable> onError = mock(Consumer.class);
+        final Consumer<Object> consumer = mock(Consumer.class);
+        final Exception exception = new Exception();
+
+        final GuiTaskRunner runner = new GuiTaskRunner(
+            MoreExecutors.newDirectExecutorService(), Runnable::run);
+
+        runner.computeOrFail(() -> { throw exception; }, consumer, onError);
+
+        verify(onError).accept(exception);
+        verifyZeroInteractions(consumer);
+    }
+
+    private static String compute(final List<String> computed,
+        final String value)
+    {
+        computed.add(value);
+        return value;
+    }
+
+    /*
+     * Runs submitted tasks, in order, only when told to
+     */
+    private static final class QueueExecutorService
+        extends AbstractExecutorService
+    {
+        private final Queue<Runnable> queue = new ArrayDeque<>();
+
+        private void runAll()
+        {
+            Runnable runnable;
+
+            while ((runnable = queue.poll()) != null)
+                runnable.run();
+        }
+
+        @Override
+        public void execute(final Runnable command)
+        {
+            queue.add(command);
+        }
+
+        @Override
+        public void shutdown()
+        {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow()
+        {
+            return new ArrayList<>(queue);
+        }
+
+        @Override
+        public boolean isShutdown()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout,
+            final TimeUnit unit)
+        {
+            return false;
+        }
+    }
+}
@@ -2,26 +2,33 @@ package com.github.fge.grappa.debugger.trace;
 
 import com.github.fge.grappa.debugger.ParseInfo;
 import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadListener;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
 import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.main.MainWindowView;
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.grappa.debugger.trace.tabs.TabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.matches.MatchesTabPresenter;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.rules.RulesTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
 import com.google.common.util.concurrent.MoreExecutors;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -58,53 +65,52 @@ public class TracePresenterTest
 
     @Test
     public void loadTest()
-        throws InterruptedException
     {
-        doNothing().when(presenter).pollStatus();
+        doNothing().when(presenter).watchStatus();
         doNothing().when(presenter).loadTreeTab();
         doNothing().when(presenter).loadMatchesTab();
         doNothing().when(presenter).loadRulesTab();
         doNothing().when(presenter).loadTreeDepthTab();
+        doNothing().when(presenter).loadProfilerTab();
 
         presenter.load();
 
-        verify(presenter).pollStatus();
+        verify(presenter).watchStatus();
         verify(presenter).loadTreeTab();
         verify(presenter).loadMatchesTab();
         verify(presenter).loadRulesTab();
         verify(presenter).loadTreeDepthTab();
+        verify(presenter).loadProfilerTab();
     }
 
-    @SuppressWarnings("AutoBoxing")
     @Test
-    public void pollStatusAlreadyLoadedTest()
-        throws InterruptedException
+    public void watchStatusAlreadyLoadedTest()
     {
         final TraceDbLoadStatus status = mock(TraceDbLoadStatus.class);
 
-        when(status.isReady()).thenReturn(true);
+        when(status.whenReady())
+            .thenReturn(CompletableFuture.completedFuture(null));
 
         when(traceDb.getLoadStatus()).thenReturn(status);
 
-        presenter.pollStatus();
+        presenter.watchStatus();
 
         verifyZeroInteractions(view);
     }
 
-    // TODO: delegate that to GuiTaskRunner
     @SuppressWarnings("AutoBoxing")
     @Test
-    public void pollStatusNotLoadedTest()
-        throws InterruptedException
+    public void watchStatusProgressTest()
     {
         final TraceDbLoadStatus status = mock(TraceDbLoadStatus.class);
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
         final int loadedMatchers = 12;
         final int loadedNodes = 24;
 
-        when(status.isReady())
-            .thenReturn(false)
-            .thenReturn(false)
-            .thenReturn(true);
+        when(status.whenReady()).thenReturn(ready);
+        when(status.getStage())
+            .thenReturn(TraceDbLoadStage.LOADING)
+            .thenReturn(TraceDbLoadStage.INDEXING);
         when(status.getLoadedMatchers()).thenReturn(loadedMatchers);
         when(status.getLoadedNodes()).thenReturn(loadedNodes);
 
@@ -122,18 +128,47 @@ public class TracePresenterTest
         final int total = nrMatchers + nrNodes;
         final int current = loadedMatchers + loadedNodes;
 
-        doNothing().when(presenter).pause();
+        presenter.watchStatus();
 
-        presenter.pollStatus();
+        final ArgumentCaptor<TraceDbLoadListener> captor
+            = ArgumentCaptor.forClass(TraceDbLoadListener.class);
 
-        final InOrder inOrder = inOrder(presenter, view);
+        verify(status).addListener(captor.capture());
 
-        inOrder.verify(view).showLoadToolbar();
+        final TraceDbLoadListener listener = captor.getValue();
 
-        inOrder.verify(presenter).pause();
-        inOrder.verify(view).reportStatus(total, current);
+        listener.loadProgress(status);
+        ready.complete(null);
+
+        final InOrder inOrder = inOrder(view);
 
+        inOrder.verify(view).showLoadToolbar();
+        inOrder.verify(view).reportStatus(total, current);
+        inOrder.verify(view).reportIndexing();
         inOrder.verify(view).showLoadComplete();
+
+        verify(status).removeListener(same(listener));
+    }
+
+    @Test
+    public void watchStatusErrorTest()
+    {
+        final TraceDbLoadStatus status = mock(TraceDbLoadStatus.class);
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
+        final Exception exception = new Exception();
+
+        when(status.whenReady()).thenReturn(ready);
+        when(status.getStage()).thenReturn(TraceDbLoadStage.LOADING);
+
+        when(traceDb.getLoadStatus()).thenReturn(status);
+        when(traceDb.getParseInfo()).thenReturn(mock(ParseInfo.class));
+
+        presenter.watchStatus();
+
+        ready.completeExceptionally(exception);
+
+        verify(presenter).loadError(same(exception));
+        verify(view, never()).showLoadComplete();
     }
 
     @Test
@@ -188,6 +223,24 @@ public class TracePresenterTest
         assertThat(presenter.tabs).contains(tabPresenter);
     }
 
+    @Test
+    public void loadProfilerTabTest()
+    {
+        final ProfilerTabPresenter tabPresenter
+            = mock(ProfilerTabPresenter.class);
+
+        doReturn(tabPresenter).when(presenter).createProfilerTabPresenter();
+
+        final InOrder inOrder = inOrder(tabPresenter, view);
+
+        presenter.loadProfilerTab();
+
+        inOrder.verify(view).loadProfilerTab(tabPresenter);
+        inOrder.verify(tabPresenter).load();
+
+        assertThat(presenter.tabs).contains(tabPresenter);
+    }
+
     @Test
     public void tabsRefreshEventTest()
     {
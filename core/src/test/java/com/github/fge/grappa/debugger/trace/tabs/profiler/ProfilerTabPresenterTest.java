@@ -0,0 +1,261 @@
+package com.github.fge.grappa.debugger.trace.tabs.profiler;
+
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+import com.github.fge.grappa.debugger.common.GuiTaskRunner;
+import com.github.fge.grappa.debugger.main.MainWindowView;
+import com.github.fge.grappa.debugger.model.TraceModel;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.mockito.InOrder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProfilerTabPresenterTest
+{
+    private final GuiTaskRunner taskRunner = new GuiTaskRunner(
+        MoreExecutors.newDirectExecutorService(), Runnable::run);
+
+    private MainWindowView mainView;
+    private TraceDb traceDb;
+    private TraceModel model;
+    private ParseInfo info;
+    private TraceDbLoadStatus status;
+    private CompletableFuture<Void> ready;
+
+    private ProfilerTabPresenter presenter;
+
+    private ProfilerTabView view;
+
+    @BeforeMethod
+    public void init()
+    {
+        mainView = mock(MainWindowView.class);
+        traceDb = mock(TraceDb.class);
+
+        info = mock(ParseInfo.class);
+        when(traceDb.getParseInfo()).thenReturn(info);
+
+        model = mock(TraceModel.class);
+        when(traceDb.getModel()).thenReturn(model);
+
+        status = mock(TraceDbLoadStatus.class);
+        ready = new CompletableFuture<>();
+        when(status.whenReady()).thenReturn(ready);
+        when(traceDb.getLoadStatus()).thenReturn(status);
+
+        presenter
+            = spy(new ProfilerTabPresenter(taskRunner, mainView, traceDb));
+
+        view = mock(ProfilerTabView.class);
+
+        presenter.setView(view);
+    }
+
+    @Test
+    public void displayRuleProfilesSuccessTest()
+    {
+        final List<RuleProfile> data = Collections.singletonList(
+            mock(RuleProfile.class));
+
+        when(model.getRuleProfiles()).thenReturn(data);
+
+        presenter.displayRuleProfiles();
+
+        verify(model, never()).getRuleProfiles();
+
+        ready.complete(null);
+
+        verify(model).getRuleProfiles();
+        verify(view).displayRuleProfiles(same(data));
+        verify(presenter, never()).loadError(any(Throwable.class));
+    }
+
+    @Test
+    public void displayRuleProfilesFailureTest()
+    {
+        final RuntimeException exception = new RuntimeException();
+
+        when(model.getRuleProfiles()).thenThrow(exception);
+
+        doNothing().when(presenter).loadError(any(Throwable.class));
+        ready.complete(null);
+        presenter.displayRuleProfiles();
+
+        verify(model).getRuleProfiles();
+        verify(view, never())
+            .displayRuleProfiles(anyListOf(RuleProfile.class));
+        verify(presenter).loadError(same(exception));
+    }
+
+    @Test
+    public void displayMemoizationCandidatesSuccessTest()
+    {
+        final List<MemoizationCandidate> data = Collections.singletonList(
+            mock(MemoizationCandidate.class));
+
+        when(model.getMemoizationCandidates()).thenReturn(data);
+
+        presenter.displayMemoizationCandidates();
+
+        verify(model, never()).getMemoizationCandidates();
+
+        ready.complete(null);
+
+        verify(model).getMemoizationCandidates();
+        verify(view).displayMemoizationCandidates(same(data));
+        verify(presenter, never()).loadError(any(Throwable.class));
+    }
+
+    @Test
+    public void displayMemoizationCandidatesFailureTest()
+    {
+        final RuntimeException exception = new RuntimeException();
+
+        when(model.getMemoizationCandidates()).thenThrow(exception);
+
+        doNothing().when(presenter).loadError(any(Throwable.class));
+        ready.complete(null);
+        presenter.displayMemoizationCandidates();
+
+        verify(model).getMemoizationCandidates();
+        verify(view, never()).displayMemoizationCandidates(
+            anyListOf(MemoizationCandidate.class));
+        verify(presenter).loadError(same(exception));
+    }
+
+    @Test
+    public void displayAfterLoadFailureTest()
+    {
+        final RuntimeException exception = new RuntimeException();
+
+        doNothing().when(presenter).loadError(any(Throwable.class));
+        ready.completeExceptionally(exception);
+
+        presenter.displayRuleProfiles();
+        presenter.displayMemoizationCandidates();
+
+        verify(model, never()).getRuleProfiles();
+        verify(model, never()).getMemoizationCandidates();
+        verify(presenter, times(2)).loadError(same(exception));
+    }
+
+    @Test
+    public void loadTest()
+    {
+        doNothing().when(presenter).displayRuleProfiles();
+        doNothing().when(presenter).displayMemoizationCandidates();
+
+        presenter.load();
+
+        verify(presenter).displayRuleProfiles();
+        verify(presenter).displayMemoizationCandidates();
+    }
+
+    @Test
+    public void refreshTest()
+    {
+        final CountDownLatch latch = presenter.refresh();
+
+        verify(presenter).refreshRuleProfiles(same(latch));
+        verify(presenter).refreshMemoizationCandidates(same(latch));
+
+        assertThat(latch.getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void refreshRuleProfilesSuccessTest()
+    {
+        final List<RuleProfile> data = Collections.singletonList(
+            mock(RuleProfile.class));
+
+        when(model.getRuleProfiles()).thenReturn(data);
+
+        final CountDownLatch latch = mock(CountDownLatch.class);
+        presenter.refreshRuleProfiles(latch);
+
+        final InOrder inOrder = inOrder(model, view, presenter, latch);
+
+        inOrder.verify(model).getRuleProfiles();
+        inOrder.verify(latch).countDown();
+        inOrder.verify(view).displayRuleProfiles(same(data));
+        inOrder.verify(presenter, never()).loadError(any(Throwable.class));
+    }
+
+    @Test
+    public void refreshRuleProfilesFailureTest()
+    {
+        final RuntimeException exception = new RuntimeException();
+
+        when(model.getRuleProfiles()).thenThrow(exception);
+
+        final CountDownLatch latch = mock(CountDownLatch.class);
+        presenter.refreshRuleProfiles(latch);
+
+        final InOrder inOrder = inOrder(model, view, presenter, latch);
+
+        inOrder.verify(model).getRuleProfiles();
+        inOrder.verify(latch).countDown();
+        inOrder.verify(view, never())
+            .displayRuleProfiles(anyListOf(RuleProfile.class));
+        inOrder.verify(presenter).loadError(same(exception));
+    }
+
+    @Test
+    public void refreshMemoizationCandidatesSuccessTest()
+    {
+        final List<MemoizationCandidate> data = Collections.singletonList(
+            mock(MemoizationCandidate.class));
+
+        when(model.getMemoizationCandidates()).thenReturn(data);
+
+        final CountDownLatch latch = mock(CountDownLatch.class);
+        presenter.refreshMemoizationCandidates(latch);
+
+        final InOrder inOrder = inOrder(model, view, presenter, latch);
+
+        inOrder.verify(model).getMemoizationCandidates();
+        inOrder.verify(latch).countDown();
+        inOrder.verify(view).displayMemoizationCandidates(same(data));
+        inOrder.verify(presenter, never()).loadError(any(Throwable.class));
+    }
+
+    @Test
+    public void refreshMemoizationCandidatesFailureTest()
+    {
+        final RuntimeException exception = new RuntimeException();
+
+        when(model.getMemoizationCandidates()).thenThrow(exception);
+
+        final CountDownLatch latch = mock(CountDownLatch.class);
+        presenter.refreshMemoizationCandidates(latch);
+
+        final InOrder inOrder = inOrder(model, view, presenter, latch);
+
+        inOrder.verify(model).getMemoizationCandidates();
+        inOrder.verify(latch).countDown();
+        inOrder.verify(view, never()).displayMemoizationCandidates(
+            anyListOf(MemoizationCandidate.class));
+        inOrder.verify(presenter).loadError(same(exception));
+    }
+}
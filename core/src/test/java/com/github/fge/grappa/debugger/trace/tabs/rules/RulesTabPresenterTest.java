@@ -1,6 +1,7 @@
 package com.github.fge.grappa.debugger.trace.tabs.rules;
 
 import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.main.MainWindowView;
 import com.github.fge.grappa.debugger.model.TraceModel;
@@ -13,6 +14,7 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -72,9 +74,13 @@ public class RulesTabPresenterTest
     @SuppressWarnings("AutoBoxing")
     @Test
     public void loadParseTimeTest()
-        throws InterruptedException
     {
         final long value = 42L;
+        final TraceDbLoadStatus status = mock(TraceDbLoadStatus.class);
+
+        when(status.whenReady())
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(traceDb.getLoadStatus()).thenReturn(status);
 
         doReturn(value).when(presenter).getParseTime();
 
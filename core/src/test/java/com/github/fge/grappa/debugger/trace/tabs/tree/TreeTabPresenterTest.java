@@ -2,18 +2,27 @@ package com.github.fge.grappa.debugger.trace.tabs.tree;
 
 import com.github.fge.grappa.buffers.InputBuffer;
 import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.main.MainWindowView;
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
 import com.google.common.util.concurrent.MoreExecutors;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -21,6 +30,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -81,14 +91,19 @@ public class TreeTabPresenterTest
 
     @Test
     public void loadParseTreeSuccessTest()
-        throws InterruptedException
     {
         final ParseTreeNode node = mock(ParseTreeNode.class);
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
 
+        stubLoadStatus(ready);
         doReturn(node).when(presenter).getRootNode();
 
         presenter.loadParseTree();
 
+        verify(presenter, never()).getRootNode();
+
+        ready.complete(null);
+
         verify(presenter).getRootNode();
         verify(view).displayTree(same(node));
         verify(presenter, never()).handleLoadTreeError(any(Throwable.class));
@@ -96,10 +111,10 @@ public class TreeTabPresenterTest
 
     @Test
     public void loadParseTreeErrorTest()
-        throws InterruptedException
     {
-        final InterruptedException exception = new InterruptedException();
+        final RuntimeException exception = new IllegalStateException();
 
+        stubLoadStatus(CompletableFuture.completedFuture(null));
         doThrow(exception).when(presenter).getRootNode();
 
         presenter.loadParseTree();
@@ -109,6 +124,23 @@ public class TreeTabPresenterTest
         verify(presenter).handleLoadTreeError(same(exception));
     }
 
+    @Test
+    public void loadParseTreeLoadFailureTest()
+    {
+        final Exception exception = new Exception();
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+        stubLoadStatus(ready);
+
+        presenter.loadParseTree();
+
+        ready.completeExceptionally(exception);
+
+        verify(presenter, never()).getRootNode();
+        verify(view, never()).displayTree(any(ParseTreeNode.class));
+        verify(presenter).handleLoadTreeError(same(exception));
+    }
+
     @SuppressWarnings("AutoBoxing")
     @Test
     public void handleParseTreeNodeShowSuccessTest()
@@ -160,12 +192,191 @@ public class TreeTabPresenterTest
         @SuppressWarnings("unchecked")
         final List<ParseTreeNode> children = mock(List.class);
 
-        when(model.getNodeChildren(anyInt())).thenReturn(children);
+        final int nrChildren = 5000;
+
+        when(model.getNrChildren(anyInt())).thenReturn(nrChildren);
+        when(model.getNodeChildren(anyInt(), anyInt(), anyInt()))
+            .thenReturn(children);
+
+        @SuppressWarnings("unchecked")
+        final Consumer<ChildrenPage> onLoaded = mock(Consumer.class);
+
+        presenter.handleNeedChildren(node, onLoaded);
+
+        verify(model).getNrChildren(id);
+        verify(model).getNodeChildren(id, 0,
+            TreeTabPresenter.CHILDREN_PAGE_SIZE);
+
+        final ArgumentCaptor<ChildrenPage> captor
+            = ArgumentCaptor.forClass(ChildrenPage.class);
+
+        verify(onLoaded).accept(captor.capture());
+
+        final ChildrenPage page = captor.getValue();
+
+        assertThat(page.getChildren()).isSameAs(children);
+        assertThat(page.getNrChildren()).isEqualTo(nrChildren);
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void handleNeedMoreChildrenTest()
+    {
+        final ParseTreeNode node = mock(ParseTreeNode.class);
+
+        final int id = 42;
+        final int offset = 1000;
+
+        when(node.getId()).thenReturn(id);
+
+        @SuppressWarnings("unchecked")
+        final List<ParseTreeNode> children = mock(List.class);
+
+        when(model.getNodeChildren(anyInt(), anyInt(), anyInt()))
+            .thenReturn(children);
+
+        @SuppressWarnings("unchecked")
+        final Consumer<List<ParseTreeNode>> onLoaded = mock(Consumer.class);
+
+        presenter.handleNeedMoreChildren(node, offset, onLoaded);
+
+        verify(model).getNodeChildren(id, offset,
+            TreeTabPresenter.CHILDREN_PAGE_SIZE);
+        verify(onLoaded).accept(same(children));
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void handleInputTextClickTest()
+    {
+        final ParseTreeNode root = mock(ParseTreeNode.class);
+        final ParseTreeNode node = mock(ParseTreeNode.class);
+        final List<ParseTreeNode> path = Arrays.asList(root, node);
+
+        final int index = 30;
+        final int startIndex = 24;
+        final int endIndex = 42;
+
+        when(node.isSuccess()).thenReturn(true);
+        when(node.getStartIndex()).thenReturn(startIndex);
+        when(node.getEndIndex()).thenReturn(endIndex);
+        when(model.getNodePathAt(anyInt())).thenReturn(path);
 
-        presenter.handleNeedChildren(node);
+        presenter.handleInputTextClick(index);
+
+        verify(model).getNodePathAt(index);
+        verify(view).revealNode(same(path), anyListOf(ChildrenPage.class));
+        verify(view).showParseTreeNode(node);
+        verify(view).highlightSuccess(startIndex, endIndex);
+        verify(view).showNodePath(path);
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void handleInputTextClickNoNodeTest()
+    {
+        when(model.getNodePathAt(anyInt()))
+            .thenReturn(Collections.emptyList());
+
+        presenter.handleInputTextClick(30);
+
+        verify(view, never()).revealNode(anyListOf(ParseTreeNode.class),
+            anyListOf(ChildrenPage.class));
+        verify(view, never()).showParseTreeNode(any(ParseTreeNode.class));
+        verify(view, never()).showNodePath(anyListOf(ParseTreeNode.class));
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void handleRevealNodeTest()
+    {
+        final int pageSize = TreeTabPresenter.CHILDREN_PAGE_SIZE;
+
+        final ParseTreeNode root = mockNode(0);
+        final ParseTreeNode node = mockNode(2 * pageSize + 501);
+        final List<ParseTreeNode> path = Arrays.asList(root, node);
+
+        final List<ParseTreeNode> page = mockNodes(2 * pageSize + 1,
+            pageSize);
+        final int nrChildren = 4 * pageSize;
+
+        when(model.getAncestry(anyInt())).thenReturn(path);
+        when(model.getNrChildrenBefore(0, node.getId()))
+            .thenReturn(2 * pageSize + 500);
+        when(model.getNodeChildren(0, 2 * pageSize, pageSize))
+            .thenReturn(page);
+        when(model.getNrChildren(0)).thenReturn(nrChildren);
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final ArgumentCaptor<List<ChildrenPage>> captor
+            = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+
+        presenter.handleRevealNode(node.getId());
+
+        verify(model).getAncestry(node.getId());
+        verify(model).getNodeChildren(0, 2 * pageSize, pageSize);
+        verify(model).getNodeChildren(anyInt(), anyInt(), anyInt());
+        verify(view).revealNode(same(path), captor.capture());
+        verify(view).showParseTreeNode(node);
+        verify(view).showNodePath(path);
+
+        final List<ChildrenPage> pages = captor.getValue();
+
+        assertThat(pages).hasSize(1);
+        assertThat(pages.get(0).getNrChildren()).isEqualTo(nrChildren);
+        assertThat(pages.get(0).getOffset()).isEqualTo(2 * pageSize);
+        assertThat(pages.get(0).getChildren()).isSameAs(page);
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void handleNeedEarlierChildrenTest()
+    {
+        final int pageSize = TreeTabPresenter.CHILDREN_PAGE_SIZE;
+        final ParseTreeNode node = mockNode(42);
+
+        @SuppressWarnings("unchecked")
+        final List<ParseTreeNode> children = mock(List.class);
+
+        when(model.getNodeChildren(anyInt(), anyInt(), anyInt()))
+            .thenReturn(children);
+
+        @SuppressWarnings("unchecked")
+        final Consumer<List<ParseTreeNode>> onLoaded = mock(Consumer.class);
+
+        presenter.handleNeedEarlierChildren(node, 3 * pageSize, onLoaded);
+        presenter.handleNeedEarlierChildren(node, 20, onLoaded);
+
+        verify(model).getNodeChildren(42, 2 * pageSize, pageSize);
+        verify(model).getNodeChildren(42, 0, 20);
+        verify(onLoaded, times(2)).accept(same(children));
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    private static ParseTreeNode mockNode(final int id)
+    {
+        final ParseTreeNode node = mock(ParseTreeNode.class);
+
+        when(node.getId()).thenReturn(id);
+        return node;
+    }
+
+    private static List<ParseTreeNode> mockNodes(final int firstId,
+        final int nrNodes)
+    {
+        final List<ParseTreeNode> ret = new ArrayList<>(nrNodes);
+
+        for (int i = 0; i < nrNodes; i++)
+            ret.add(mockNode(firstId + i));
+
+        return ret;
+    }
+
+    private void stubLoadStatus(final CompletableFuture<Void> ready)
+    {
+        final TraceDbLoadStatus status = mock(TraceDbLoadStatus.class);
 
-        verify(view).waitForChildren();
-        verify(model).getNodeChildren(id);
-        verify(view).setTreeChildren(same(children));
+        when(status.whenReady()).thenReturn(ready);
+        when(traceDb.getLoadStatus()).thenReturn(status);
     }
 }
@@ -4,8 +4,14 @@ import com.github.fge.grappa.debugger.model.TraceModel;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public final class TreeDepthInfoTest
 {
@@ -113,4 +119,45 @@ public final class TreeDepthInfoTest
         assertThat(treeDepthInfo.hasPreviousLines()).isFalse();
         assertThat(treeDepthInfo.hasNextLines()).isTrue();
     }
+
+    @Test
+    public void allLinesTest()
+    {
+        treeDepthInfo = new TreeDepthInfo(42, model);
+
+        treeDepthInfo.setStartLine(10);
+        treeDepthInfo.setDisplayedLines(TreeDepthInfo.ALL_LINES);
+
+        assertThat(treeDepthInfo.getStartLine()).isEqualTo(1);
+        assertThat(treeDepthInfo.getEndLine()).isEqualTo(42);
+
+        assertThat(treeDepthInfo.hasPreviousLines()).isFalse();
+        assertThat(treeDepthInfo.hasNextLines()).isFalse();
+
+        verify(model).getDepthMap(1, 42);
+    }
+
+    @Test
+    public void downsamplingTest()
+    {
+        final int nrLines = 2 * TreeDepthInfo.MAX_POINTS + 1;
+        final Map<Integer, Integer> map = new HashMap<>();
+
+        for (int line = 1; line <= nrLines; line++)
+            map.put(line, line % 7);
+
+        when(model.getDepthMap(anyInt(), anyInt())).thenReturn(map);
+
+        treeDepthInfo = new TreeDepthInfo(nrLines, model);
+        treeDepthInfo.setDisplayedLines(TreeDepthInfo.ALL_LINES);
+
+        final Map<Integer, Integer> depths = treeDepthInfo.getDepths();
+
+        // 667 buckets of 3 lines
+        assertThat(depths).hasSize(667);
+        assertThat(depths.get(1)).isEqualTo(3);
+        assertThat(depths.get(4)).isEqualTo(6);
+        assertThat(depths.get(7)).isEqualTo(2);
+        assertThat(depths.get(nrLines - 2)).isEqualTo(6);
+    }
 }
@@ -10,14 +10,18 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -137,7 +141,7 @@ public class TreeDepthTabPresenterTest
 
         presenter.doChangeStartLine(startLine);
 
-        verify(presenter).doUpdate(any(Runnable.class));
+        verify(presenter).doUpdateLatest(any(Runnable.class));
 
         verify(treeDepthInfo).setStartLine(startLine);
     }
@@ -169,7 +173,7 @@ public class TreeDepthTabPresenterTest
 
         presenter.handleChangedDisplayedLines(displayedLines);
 
-        verify(presenter).doUpdate(any(Runnable.class));
+        verify(presenter).doUpdateLatest(any(Runnable.class));
 
         verify(treeDepthInfo).setDisplayedLines(displayedLines);
     }
@@ -187,4 +191,60 @@ public class TreeDepthTabPresenterTest
         inOrder.verify(runnable).run();
         inOrder.verify(view).displayTreeDepthInfo(same(treeDepthInfo));
     }
+
+    @Test
+    public void doUpdateLatestTest()
+    {
+        final Runnable runnable = mock(Runnable.class);
+
+        presenter.doUpdateLatest(runnable);
+
+        final InOrder inOrder = inOrder(view, runnable);
+
+        inOrder.verify(view).disableTreeDepthToolbar();
+        inOrder.verify(runnable).run();
+        inOrder.verify(view).displayTreeDepthInfo(same(treeDepthInfo));
+    }
+
+    /*
+     * Relative moves and refreshes are never dropped in favor of a newer
+     * update
+     */
+    @Test
+    public void updatesNotDroppedTest()
+    {
+        final List<Runnable> tasks = new ArrayList<>();
+        final ExecutorService executor = mock(ExecutorService.class);
+
+        doAnswer(invocation -> {
+            tasks.add((Runnable) invocation.getArguments()[0]);
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        presenter = spy(new TreeDepthTabPresenter(
+            new GuiTaskRunner(executor, Runnable::run), mainView, traceDb,
+            treeDepthInfo));
+        presenter.setView(view);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        presenter.doChangeStartLine(10);
+        presenter.handleNextLines();
+        presenter.doRefresh(latch);
+        presenter.handleChangedDisplayedLines(30);
+        presenter.handlePreviousLines();
+        presenter.handleChangedDisplayedLines(40);
+
+        for (int i = 0; i < tasks.size(); i++)
+            tasks.get(i).run();
+
+        assertThat(latch.getCount()).isZero();
+
+        verify(treeDepthInfo).setStartLine(10);
+        verify(treeDepthInfo).nextLines();
+        verify(treeDepthInfo).update();
+        verify(treeDepthInfo).previousLines();
+        verify(treeDepthInfo, never()).setDisplayedLines(30);
+        verify(treeDepthInfo).setDisplayedLines(40);
+    }
 }
@@ -0,0 +1,114 @@
+package com.github.fge.grappa.debugger;
+
+import com.github.fge.grappa.debugger.model.TraceModelException;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Base load status for databases loaded in the background
+ *
+ * <p>This class handles the stage of the load, its listeners and the future
+ * returned by {@link #whenReady()}; implementations only have to count
+ * processed matchers and nodes, and call {@link #fireProgress()} when they
+ * see fit.</p>
+ */
+@ParametersAreNonnullByDefault
+public abstract class BaseTraceDbLoadStatus
+    implements TraceDbLoadStatus
+{
+    private final AtomicReference<Throwable> loadError;
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final List<TraceDbLoadListener> listeners
+        = new CopyOnWriteArrayList<>();
+
+    private volatile TraceDbLoadStage stage = TraceDbLoadStage.LOADING;
+
+    protected BaseTraceDbLoadStatus(final AtomicReference<Throwable> loadError)
+    {
+        this.loadError = Objects.requireNonNull(loadError);
+    }
+
+    /**
+     * Change the stage of the load
+     *
+     * <p>Listeners are notified; when the stage is {@link
+     * TraceDbLoadStage#READY}, the future returned by {@link #whenReady()} is
+     * completed, exceptionally if a load error was recorded, and all
+     * listeners are unregistered.</p>
+     *
+     * @param stage the new stage
+     */
+    protected final void setStage(final TraceDbLoadStage stage)
+    {
+        this.stage = stage;
+        fireProgress();
+
+        if (stage != TraceDbLoadStage.READY)
+            return;
+
+        listeners.clear();
+
+        final Throwable throwable = loadError.get();
+
+        if (throwable == null)
+            ready.complete(null);
+        else
+            ready.completeExceptionally(throwable);
+    }
+
+    /**
+     * Notify all listeners of the progress of the load
+     */
+    protected final void fireProgress()
+    {
+        for (final TraceDbLoadListener listener: listeners)
+            listener.loadProgress(this);
+    }
+
+    @Override
+    public final boolean isReady()
+    {
+        final Throwable throwable = loadError.get();
+
+        if (throwable == null)
+            return stage == TraceDbLoadStage.READY;
+
+        if (throwable instanceof Error)
+            throw (Error) throwable;
+        if (throwable instanceof RuntimeException)
+            throw (RuntimeException) throwable;
+        throw new TraceModelException(throwable);
+    }
+
+    @Override
+    public final TraceDbLoadStage getStage()
+    {
+        return stage;
+    }
+
+    @Override
+    public final CompletableFuture<Void> whenReady()
+    {
+        return ready;
+    }
+
+    @Override
+    public final void addListener(final TraceDbLoadListener listener)
+    {
+        Objects.requireNonNull(listener);
+
+        if (!ready.isDone())
+            listeners.add(listener);
+    }
+
+    @Override
+    public final void removeListener(final TraceDbLoadListener listener)
+    {
+        listeners.remove(listener);
+    }
+}
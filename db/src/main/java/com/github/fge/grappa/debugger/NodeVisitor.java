@@ -0,0 +1,19 @@
+package com.github.fge.grappa.debugger;
+
+import java.io.IOException;
+
+/**
+ * Receives the nodes of a {@link TraceSource}, already decoded
+ *
+ * <p>Arguments are the columns of {@code nodes.csv} in trace zips, in the
+ * same order.</p>
+ *
+ * @see TraceSource#visitNodes(NodeVisitor)
+ */
+@FunctionalInterface
+public interface NodeVisitor
+{
+    void visitNode(int parentId, int id, int level, boolean success,
+        int matcherId, int startIndex, int endIndex, long time)
+        throws IOException;
+}
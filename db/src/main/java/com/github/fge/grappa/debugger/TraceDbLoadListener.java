@@ -0,0 +1,22 @@
+package com.github.fge.grappa.debugger;
+
+/**
+ * A listener for the progress of a trace database load
+ *
+ * @see TraceDbLoadStatus#addListener(TraceDbLoadListener)
+ */
+@FunctionalInterface
+public interface TraceDbLoadListener
+{
+    /**
+     * Called when the load progresses, or its stage changes
+     *
+     * <p>This method is called by the loading threads, possibly concurrently;
+     * implementations must return quickly, and must not block. There is no
+     * guarantee that this method is called for each and every processed
+     * matcher or node.</p>
+     *
+     * @param status the status of the load
+     */
+    void loadProgress(TraceDbLoadStatus status);
+}
@@ -0,0 +1,23 @@
+package com.github.fge.grappa.debugger;
+
+/**
+ * The current stage of a trace database load
+ *
+ * @see TraceDbLoadStatus#getStage()
+ */
+public enum TraceDbLoadStage
+{
+    /**
+     * Matchers and nodes are being inserted
+     */
+    LOADING,
+    /**
+     * All data is inserted; indexes and constraints are being built
+     */
+    INDEXING,
+    /**
+     * The database is fully loaded
+     */
+    READY,
+    ;
+}
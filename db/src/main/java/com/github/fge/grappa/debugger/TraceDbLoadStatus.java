@@ -1,10 +1,43 @@
 package com.github.fge.grappa.debugger;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface TraceDbLoadStatus
 {
     boolean isReady();
 
+    TraceDbLoadStage getStage();
+
     int getLoadedMatchers();
 
     int getLoadedNodes();
+
+    /**
+     * Return a future completed when the database is ready
+     *
+     * <p>If the load fails, the future is completed exceptionally with the
+     * load error. Note that dependent actions of the future run on the
+     * loading thread, unless the database is already ready when they are
+     * registered.</p>
+     *
+     * @return the future; it is always the same for a given load
+     */
+    CompletableFuture<Void> whenReady();
+
+    /**
+     * Register a listener for the progress of the load
+     *
+     * <p>Listeners registered once the database is ready are never called.
+     * </p>
+     *
+     * @param listener the listener
+     */
+    void addListener(TraceDbLoadListener listener);
+
+    /**
+     * Unregister a listener
+     *
+     * @param listener the listener
+     */
+    void removeListener(TraceDbLoadListener listener);
 }
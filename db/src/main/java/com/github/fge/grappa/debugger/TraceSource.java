@@ -0,0 +1,57 @@
+package com.github.fge.grappa.debugger;
+
+import com.google.common.io.CharSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.stream.Stream;
+
+/**
+ * A trace file, whatever its format
+ *
+ * <p>Matchers are returned as lines in the format of {@code matchers.csv} in
+ * trace zips; nodes are handed to a {@link NodeVisitor}, decoded. The order
+ * of matchers and nodes is unspecified.</p>
+ *
+ * @see ZipTraceSource
+ */
+public interface TraceSource
+    extends Closeable
+{
+    ParseInfo getParseInfo()
+        throws IOException;
+
+    CharSequence getInputText()
+        throws IOException;
+
+    /**
+     * Open the input text for reading
+     *
+     * <p>Sources which do not hold the input text in memory should override
+     * this method so that the text is not read all at once.</p>
+     *
+     * @return a reader over the input text
+     * @throws IOException failed to open the input text
+     */
+    default Reader openInputText()
+        throws IOException
+    {
+        return CharSource.wrap(getInputText()).openStream();
+    }
+
+    Stream<String> getMatcherLines()
+        throws IOException;
+
+    /**
+     * Hand all nodes to a visitor
+     *
+     * <p>An exception thrown by the visitor stops the visit and is propagated
+     * to the caller.</p>
+     *
+     * @param visitor the visitor
+     * @throws IOException failed to read the nodes, or thrown by the visitor
+     */
+    void visitNodes(NodeVisitor visitor)
+        throws IOException;
+}
@@ -0,0 +1,83 @@
+package com.github.fge.grappa.debugger;
+
+import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.google.common.io.CharStreams;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.regex.Pattern;
+
+/**
+ * Helper methods to read the parse information and input text of a trace zip
+ *
+ * <p>The file system argument of all methods is a zip file system opened on
+ * the trace file.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class TraceZip
+{
+    public static final String INFO_PATH = "/info.csv";
+    public static final String INPUT_TEXT_PATH = "/input.txt";
+    public static final String MATCHERS_PATH = "/matchers.csv";
+    public static final String NODES_PATH = "/nodes.csv";
+
+    private static final Pattern SEMICOLON = Pattern.compile(";");
+    private static final Charset UTF8 = StandardCharsets.UTF_8;
+
+    private TraceZip()
+    {
+        throw new Error("nice try!");
+    }
+
+    public static ParseInfo readParseInfo(final FileSystem fs)
+        throws IOException
+    {
+        final Path path = fs.getPath(INFO_PATH);
+
+        try (
+            final BufferedReader reader = Files.newBufferedReader(path, UTF8);
+        ) {
+            final String[] elements = SEMICOLON.split(reader.readLine());
+
+            final long epoch = Long.parseLong(elements[0]);
+            final Instant instant = Instant.ofEpochMilli(epoch);
+            final ZoneId zone = ZoneId.systemDefault();
+            final LocalDateTime time = LocalDateTime.ofInstant(instant, zone);
+
+            final int treeDepth = Integer.parseInt(elements[1]);
+            final int nrMatchers = Integer.parseInt(elements[2]);
+            final int nrLines = Integer.parseInt(elements[3]);
+            final int nrChars = Integer.parseInt(elements[4]);
+            final int nrCodePoints = Integer.parseInt(elements[5]);
+            final int nrInvocations = Integer.parseInt(elements[6]);
+
+            return new ParseInfo(time, treeDepth, nrMatchers, nrLines, nrChars,
+                nrCodePoints, nrInvocations);
+        }
+    }
+
+    public static InputBuffer readInputBuffer(final FileSystem fs)
+        throws IOException
+    {
+        final Path path = fs.getPath(INPUT_TEXT_PATH);
+
+        try (
+            final BufferedReader reader = Files.newBufferedReader(path, UTF8);
+        ) {
+            final StringBuilder sb = new StringBuilder();
+            CharStreams.copy(reader, sb);
+
+            return new CharSequenceInputBuffer(sb);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.fge.grappa.debugger;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * A {@link TraceSource} over a zip file system opened on a trace zip
+ */
+@ParametersAreNonnullByDefault
+public final class ZipTraceSource
+    implements TraceSource
+{
+    private static final Map<String, ?> ENV
+        = Collections.singletonMap("readonly", "true");
+
+    private static final Pattern SEMICOLON = Pattern.compile(";");
+    private static final int NR_NODE_COLUMNS = 8;
+
+    private final FileSystem fs;
+
+    /**
+     * Open a trace zip, read only
+     *
+     * @param zipfile the path to the trace zip
+     * @return a new source
+     * @throws IOException failed to open the zip
+     */
+    public static ZipTraceSource open(final Path zipfile)
+        throws IOException
+    {
+        final URI uri = URI.create("jar:" + zipfile.toUri());
+        return new ZipTraceSource(FileSystems.newFileSystem(uri, ENV));
+    }
+
+    public ZipTraceSource(final FileSystem fs)
+    {
+        this.fs = fs;
+    }
+
+    @Override
+    public ParseInfo getParseInfo()
+        throws IOException
+    {
+        return TraceZip.readParseInfo(fs);
+    }
+
+    @Override
+    public CharSequence getInputText()
+        throws IOException
+    {
+        final Path path = fs.getPath(TraceZip.INPUT_TEXT_PATH);
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Reader openInputText()
+        throws IOException
+    {
+        final Path path = fs.getPath(TraceZip.INPUT_TEXT_PATH);
+        return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Stream<String> getMatcherLines()
+        throws IOException
+    {
+        final Path path = fs.getPath(TraceZip.MATCHERS_PATH);
+        return Files.lines(path, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void visitNodes(final NodeVisitor visitor)
+        throws IOException
+    {
+        final Path path = fs.getPath(TraceZip.NODES_PATH);
+
+        try (
+            final BufferedReader reader = Files.newBufferedReader(path,
+                StandardCharsets.UTF_8);
+        ) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                visitLine(visitor, line);
+        }
+    }
+
+    private static void visitLine(final NodeVisitor visitor,
+        final String line)
+        throws IOException
+    {
+        final String[] parts = SEMICOLON.split(line);
+
+        if (parts.length != NR_NODE_COLUMNS)
+            throw new IOException("malformed node line: " + line);
+
+        visitor.visitNode(Integer.parseInt(parts[0]),
+            Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+            Integer.parseInt(parts[3]) == 1, Integer.parseInt(parts[4]),
+            Integer.parseInt(parts[5]), Integer.parseInt(parts[6]),
+            Long.parseLong(parts[7]));
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        fs.close();
+    }
+}
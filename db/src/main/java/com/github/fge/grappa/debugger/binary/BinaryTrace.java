@@ -0,0 +1,283 @@
+package com.github.fge.grappa.debugger.binary;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.debugger.NodeVisitor;
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.TraceSource;
+import com.github.fge.grappa.debugger.buffers.MappedInputBuffer;
+import com.github.fge.grappa.debugger.memory.db.MatcherTable;
+import com.github.fge.grappa.debugger.memory.db.NodeStore;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.matchers.MatcherType;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.CHILDREN_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.EPOCH_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.HEADER_SIZE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.INPUT_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MAGIC;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MAGIC_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHERS_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_CLASS_NAME;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_ID;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_NAME;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_RECORDS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_RECORD_SIZE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_TYPE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODES_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_CHARS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_CODE_POINTS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_LINES_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_MATCHERS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_NODES_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.ORDER;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.STRINGS_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.TREE_DEPTH_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.VERSION;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.VERSION_OFFSET;
+
+/**
+ * A binary trace file, as written by {@link Zip2Bin}
+ *
+ * <p>Opening a binary trace only decodes its header and matchers; node
+ * records, the children index and the input text are mapped in memory using
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)}, and read on
+ * demand.</p>
+ *
+ * <p>Each section is mapped separately, which means that no section may be
+ * larger than 2 GiB.</p>
+ *
+ * @see BinaryTraceFormat
+ */
+@ParametersAreNonnullByDefault
+public final class BinaryTrace
+    implements TraceSource
+{
+    private final FileChannel channel;
+
+    private final ParseInfo info;
+    private final MatcherTable matchers;
+    private final MappedNodeStore nodes;
+    private final CharBuffer inputText;
+
+    /**
+     * Tell whether a file is a binary trace
+     *
+     * <p>Only the magic number at the start of the file is checked.</p>
+     *
+     * @param path the path to the file
+     * @return true if the file starts with the binary trace magic number
+     * @throws IOException failed to read from the file
+     */
+    public static boolean isBinaryTrace(final Path path)
+        throws IOException
+    {
+        if (!Files.isRegularFile(path))
+            return false;
+
+        try (
+            final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ);
+        ) {
+            final ByteBuffer buf = ByteBuffer.allocate(Integer.BYTES)
+                .order(ORDER);
+
+            while (buf.hasRemaining())
+                if (channel.read(buf) == -1)
+                    return false;
+
+            return buf.getInt(MAGIC_OFFSET) == MAGIC;
+        }
+    }
+
+    public static BinaryTrace open(final Path path)
+        throws IOException
+    {
+        final FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.READ);
+
+        try {
+            return new BinaryTrace(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private BinaryTrace(final FileChannel channel)
+        throws IOException
+    {
+        this.channel = channel;
+
+        if (channel.size() < HEADER_SIZE)
+            throw new IOException("not a binary trace (file too short)");
+
+        final ByteBuffer header = map(0L, HEADER_SIZE);
+
+        if (header.getInt(MAGIC_OFFSET) != MAGIC)
+            throw new IOException("not a binary trace (bad magic number)");
+
+        final int version = header.getInt(VERSION_OFFSET);
+        if (version != VERSION)
+            throw new IOException("unsupported binary trace version "
+                + version + " (expected " + VERSION + ')');
+
+        info = readParseInfo(header);
+
+        final long matchersOffset = header.getLong(MATCHERS_SECTION_OFFSET);
+        final long stringsOffset = header.getLong(STRINGS_SECTION_OFFSET);
+        final long nodesOffset = header.getLong(NODES_SECTION_OFFSET);
+        final long childrenOffset = header.getLong(CHILDREN_SECTION_OFFSET);
+        final long inputOffset = header.getLong(INPUT_SECTION_OFFSET);
+
+        matchers = readMatchers(header.getInt(MATCHER_RECORDS_OFFSET),
+            map(matchersOffset, stringsOffset - matchersOffset),
+            map(stringsOffset, nodesOffset - stringsOffset));
+
+        nodes = new MappedNodeStore(info.getNrNodes(),
+            map(nodesOffset, childrenOffset - nodesOffset),
+            map(childrenOffset, inputOffset - childrenOffset));
+
+        final ByteBuffer input = map(inputOffset, channel.size() - inputOffset);
+        final int length = input.getInt(0);
+        input.position(Integer.BYTES);
+        inputText = input.slice().order(ORDER).asCharBuffer();
+        inputText.limit(length);
+    }
+
+    public MatcherTable getMatchers()
+    {
+        return matchers;
+    }
+
+    public NodeStore getNodes()
+    {
+        return nodes;
+    }
+
+    public InputBuffer getInputBuffer()
+    {
+        return MappedInputBuffer.wrap(inputText.duplicate());
+    }
+
+    @Override
+    public ParseInfo getParseInfo()
+    {
+        return info;
+    }
+
+    @Override
+    public CharSequence getInputText()
+    {
+        return inputText.duplicate();
+    }
+
+    @Override
+    public Stream<String> getMatcherLines()
+    {
+        return IntStream.range(0, matchers.size())
+            .filter(id -> matchers.get(id) != null)
+            .mapToObj(id -> {
+                final RuleInfo ruleInfo = matchers.get(id);
+                return id + ";" + ruleInfo.getClassName() + ';'
+                    + ruleInfo.getType() + ';' + ruleInfo.getName();
+            });
+    }
+
+    /*
+     * Records are read straight from the mapped section, by ascending id.
+     */
+    @Override
+    public void visitNodes(final NodeVisitor visitor)
+        throws IOException
+    {
+        final int nrNodes = nodes.size();
+
+        for (int id = 0; id < nrNodes; id++)
+            visitor.visitNode(nodes.getParentId(id), id, nodes.getLevel(id),
+                nodes.isSuccess(id), nodes.getMatcherId(id),
+                nodes.getStartIndex(id), nodes.getEndIndex(id),
+                nodes.getTime(id));
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        channel.close();
+    }
+
+    private ByteBuffer map(final long offset, final long size)
+        throws IOException
+    {
+        if (offset < 0L || size < 0L || offset + size > channel.size())
+            throw new IOException("corrupt binary trace (section out of"
+                + " bounds)");
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("section too large to be mapped");
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size)
+            .order(ORDER);
+    }
+
+    private static ParseInfo readParseInfo(final ByteBuffer header)
+    {
+        final Instant instant = Instant.ofEpochMilli(
+            header.getLong(EPOCH_OFFSET));
+        final LocalDateTime time = LocalDateTime.ofInstant(instant,
+            ZoneId.systemDefault());
+
+        return new ParseInfo(time, header.getInt(TREE_DEPTH_OFFSET),
+            header.getInt(NR_MATCHERS_OFFSET), header.getInt(NR_LINES_OFFSET),
+            header.getInt(NR_CHARS_OFFSET),
+            header.getInt(NR_CODE_POINTS_OFFSET),
+            header.getInt(NR_NODES_OFFSET));
+    }
+
+    private static MatcherTable readMatchers(final int nrRecords,
+        final ByteBuffer records, final ByteBuffer strings)
+    {
+        final MatcherTable ret = new MatcherTable(nrRecords);
+
+        int offset;
+        String className, type, name;
+
+        for (int i = 0; i < nrRecords; i++) {
+            offset = i * MATCHER_RECORD_SIZE;
+            className = readString(strings,
+                records.getInt(offset + MATCHER_CLASS_NAME));
+            type = readString(strings, records.getInt(offset + MATCHER_TYPE));
+            name = readString(strings, records.getInt(offset + MATCHER_NAME));
+            ret.add(records.getInt(offset + MATCHER_ID),
+                new RuleInfo(className, MatcherType.valueOf(type), name));
+        }
+
+        return ret;
+    }
+
+    private static String readString(final ByteBuffer strings,
+        final int offset)
+    {
+        final byte[] bytes = new byte[strings.getInt(offset)];
+        final ByteBuffer buf = strings.duplicate();
+
+        buf.position(offset + Integer.BYTES);
+        buf.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.fge.grappa.debugger.binary;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+import com.github.fge.grappa.debugger.memory.model.MemoryTraceModel;
+import com.github.fge.grappa.debugger.model.TraceModel;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A {@link TraceDb} over a {@link BinaryTrace}
+ *
+ * <p>There is no load step: the trace is usable as soon as it is opened, and
+ * queries are answered by a {@link MemoryTraceModel} reading the mapped
+ * file.</p>
+ *
+ * <p>The {@link LineDepthIndex} and the {@link NodePositionIndex} of the
+ * trace, and the {@link RuleProfile profiles} of its matchers, are built the
+ * first time they are needed.</p>
+ */
+public final class BinaryTraceDb
+    implements TraceDb
+{
+    private final BinaryTrace trace;
+    private final InputBuffer inputBuffer;
+    private final TraceDbLoadStatus status;
+    private final Supplier<LineDepthIndex> lineDepths;
+    private final Supplier<NodePositionIndex> nodePositions;
+    private final Supplier<List<RuleProfile>> ruleProfiles;
+
+    public BinaryTraceDb(final Path path)
+        throws IOException
+    {
+        trace = BinaryTrace.open(path);
+        inputBuffer = trace.getInputBuffer();
+        status = new BinaryTraceDbLoadStatus(trace.getParseInfo());
+        lineDepths = Suppliers.memoize(() -> MemoryTraceModel
+            .buildLineDepths(trace.getNodes(), inputBuffer));
+        nodePositions = Suppliers.memoize(() -> MemoryTraceModel
+            .buildNodePositions(trace.getNodes()));
+        ruleProfiles = Suppliers.memoize(() -> MemoryTraceModel
+            .buildRuleProfiles(trace.getMatchers(), trace.getNodes()));
+    }
+
+    @Override
+    public TraceDbLoadStatus getLoadStatus()
+    {
+        return status;
+    }
+
+    @Override
+    public ParseInfo getParseInfo()
+    {
+        return trace.getParseInfo();
+    }
+
+    @Override
+    public InputBuffer getInputBuffer()
+    {
+        return inputBuffer;
+    }
+
+    @Override
+    public TraceModel getModel()
+    {
+        return new MemoryTraceModel(trace.getMatchers(), trace.getNodes(),
+            inputBuffer, lineDepths::get, nodePositions::get,
+            ruleProfiles::get);
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        trace.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.fge.grappa.debugger.binary;
+
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.TraceDbLoadListener;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The load status of a {@link BinaryTraceDb}; there is nothing to load, so it
+ * is always ready
+ */
+final class BinaryTraceDbLoadStatus
+    implements TraceDbLoadStatus
+{
+    private final CompletableFuture<Void> ready
+        = CompletableFuture.completedFuture(null);
+
+    private final ParseInfo info;
+
+    BinaryTraceDbLoadStatus(final ParseInfo info)
+    {
+        this.info = info;
+    }
+
+    @Override
+    public boolean isReady()
+    {
+        return true;
+    }
+
+    @Override
+    public TraceDbLoadStage getStage()
+    {
+        return TraceDbLoadStage.READY;
+    }
+
+    @Override
+    public int getLoadedMatchers()
+    {
+        return info.getNrMatchers();
+    }
+
+    @Override
+    public int getLoadedNodes()
+    {
+        return info.getNrNodes();
+    }
+
+    @Override
+    public CompletableFuture<Void> whenReady()
+    {
+        return ready;
+    }
+
+    @Override
+    public void addListener(final TraceDbLoadListener listener)
+    {
+    }
+
+    @Override
+    public void removeListener(final TraceDbLoadListener listener)
+    {
+    }
+}
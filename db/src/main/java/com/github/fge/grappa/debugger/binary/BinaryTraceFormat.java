@@ -0,0 +1,79 @@
+package com.github.fge.grappa.debugger.binary;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of binary trace files
+ *
+ * <p>All values are little endian. A file is made of the following sections,
+ * in this order:</p>
+ *
+ * <ul>
+ *     <li>a header of {@link #HEADER_SIZE} bytes, with the {@code ParseInfo}
+ *     fields, the number of matcher records and the offsets of all other
+ *     sections;</li>
+ *     <li>matcher records of {@link #MATCHER_RECORD_SIZE} bytes: id, then
+ *     the offsets of the class name, matcher type and name in the string
+ *     pool;</li>
+ *     <li>the string pool: each string is its length in bytes, followed by
+ *     its UTF-8 encoding;</li>
+ *     <li>node records of {@link #NODE_RECORD_SIZE} bytes, in node id order
+ *     (the record number is the node id): parent id, level, matcher id,
+ *     start index, end index, flags (bit 0: success) and time in
+ *     nanoseconds;</li>
+ *     <li>the children index: {@code nrNodes + 1} start offsets, then the
+ *     children ids of all nodes, each list in ascending order;</li>
+ *     <li>the input text: its length in chars, then the chars as UTF-16.</li>
+ * </ul>
+ */
+final class BinaryTraceFormat
+{
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // "GTRC", read as a little endian int
+    static final int MAGIC = 0x43525447;
+    static final int VERSION = 1;
+
+    // Header fields
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int EPOCH_OFFSET = 8;
+    static final int TREE_DEPTH_OFFSET = 16;
+    static final int NR_MATCHERS_OFFSET = 20;
+    static final int NR_LINES_OFFSET = 24;
+    static final int NR_CHARS_OFFSET = 28;
+    static final int NR_CODE_POINTS_OFFSET = 32;
+    static final int NR_NODES_OFFSET = 36;
+    static final int MATCHER_RECORDS_OFFSET = 40;
+    // 4 reserved bytes
+    static final int MATCHERS_SECTION_OFFSET = 48;
+    static final int STRINGS_SECTION_OFFSET = 56;
+    static final int NODES_SECTION_OFFSET = 64;
+    static final int CHILDREN_SECTION_OFFSET = 72;
+    static final int INPUT_SECTION_OFFSET = 80;
+    static final int HEADER_SIZE = 88;
+
+    // Matcher records
+    static final int MATCHER_RECORD_SIZE = 16;
+    static final int MATCHER_ID = 0;
+    static final int MATCHER_CLASS_NAME = 4;
+    static final int MATCHER_TYPE = 8;
+    static final int MATCHER_NAME = 12;
+
+    // Node records
+    static final int NODE_RECORD_SIZE = 32;
+    static final int NODE_PARENT_ID = 0;
+    static final int NODE_LEVEL = 4;
+    static final int NODE_MATCHER_ID = 8;
+    static final int NODE_START_INDEX = 12;
+    static final int NODE_END_INDEX = 16;
+    static final int NODE_FLAGS = 20;
+    static final int NODE_TIME = 24;
+
+    static final int FLAG_SUCCESS = 1;
+
+    private BinaryTraceFormat()
+    {
+        throw new Error("nice try!");
+    }
+}
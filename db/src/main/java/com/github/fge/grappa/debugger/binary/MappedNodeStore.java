@@ -0,0 +1,126 @@
+package com.github.fge.grappa.debugger.binary;
+
+import com.github.fge.grappa.debugger.memory.db.NodeStore;
+
+import java.nio.ByteBuffer;
+
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.FLAG_SUCCESS;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_END_INDEX;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_FLAGS;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_LEVEL;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_MATCHER_ID;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_PARENT_ID;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_RECORD_SIZE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_START_INDEX;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_TIME;
+
+/**
+ * A {@link NodeStore} reading node records and the children index straight
+ * from mapped sections of a binary trace file
+ *
+ * <p>Rows are node ids, and the children index is always available.</p>
+ */
+final class MappedNodeStore
+    implements NodeStore
+{
+    private final int nrNodes;
+    private final ByteBuffer nodes;
+    private final ByteBuffer children;
+
+    // Offset of the children lists, after the start offsets
+    private final int childListOffset;
+
+    MappedNodeStore(final int nrNodes, final ByteBuffer nodes,
+        final ByteBuffer children)
+    {
+        this.nrNodes = nrNodes;
+        this.nodes = nodes;
+        this.children = children;
+        childListOffset = Integer.BYTES * (nrNodes + 1);
+    }
+
+    @Override
+    public int size()
+    {
+        return nrNodes;
+    }
+
+    @Override
+    public boolean isIndexed()
+    {
+        return true;
+    }
+
+    @Override
+    public int getRow(final int id)
+    {
+        return id >= 0 && id < nrNodes ? id : NO_ROW;
+    }
+
+    @Override
+    public int getId(final int row)
+    {
+        return row;
+    }
+
+    @Override
+    public int getParentId(final int row)
+    {
+        return nodes.getInt(row * NODE_RECORD_SIZE + NODE_PARENT_ID);
+    }
+
+    @Override
+    public int getLevel(final int row)
+    {
+        return nodes.getInt(row * NODE_RECORD_SIZE + NODE_LEVEL);
+    }
+
+    @Override
+    public boolean isSuccess(final int row)
+    {
+        final int flags = nodes.getInt(row * NODE_RECORD_SIZE + NODE_FLAGS);
+        return (flags & FLAG_SUCCESS) != 0;
+    }
+
+    @Override
+    public int getMatcherId(final int row)
+    {
+        return nodes.getInt(row * NODE_RECORD_SIZE + NODE_MATCHER_ID);
+    }
+
+    @Override
+    public int getStartIndex(final int row)
+    {
+        return nodes.getInt(row * NODE_RECORD_SIZE + NODE_START_INDEX);
+    }
+
+    @Override
+    public int getEndIndex(final int row)
+    {
+        return nodes.getInt(row * NODE_RECORD_SIZE + NODE_END_INDEX);
+    }
+
+    @Override
+    public long getTime(final int row)
+    {
+        return nodes.getLong(row * NODE_RECORD_SIZE + NODE_TIME);
+    }
+
+    @Override
+    public int getChildrenStart(final int id)
+    {
+        return children.getInt(Integer.BYTES * id);
+    }
+
+    @Override
+    public int getChildrenEnd(final int id)
+    {
+        return children.getInt(Integer.BYTES * (id + 1));
+    }
+
+    @Override
+    public int getChild(final int index)
+    {
+        return children.getInt(childListOffset + Integer.BYTES * index);
+    }
+}
@@ -0,0 +1,377 @@
+package com.github.fge.grappa.debugger.binary;
+
+import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.ZipTraceSource;
+import com.github.fge.grappa.debugger.memory.db.MatcherTable;
+import com.github.fge.grappa.debugger.memory.db.NodeColumns;
+import com.github.fge.grappa.debugger.memory.db.NodeStore;
+import com.github.fge.grappa.debugger.memory.db.load.MemoryTraceDbLoader;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.google.common.base.Stopwatch;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.CHILDREN_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.EPOCH_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.FLAG_SUCCESS;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.HEADER_SIZE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.INPUT_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MAGIC;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MAGIC_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHERS_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_RECORDS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.MATCHER_RECORD_SIZE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODES_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NODE_RECORD_SIZE;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_CHARS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_CODE_POINTS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_LINES_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_MATCHERS_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.NR_NODES_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.ORDER;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.STRINGS_SECTION_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.TREE_DEPTH_OFFSET;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.VERSION;
+import static com.github.fge.grappa.debugger.binary.BinaryTraceFormat.VERSION_OFFSET;
+
+/**
+ * Converts a trace zip to a binary trace
+ *
+ * <p>The whole trace is first loaded in memory; node ids must be dense, that
+ * is, go from 0 to the number of nodes minus one.</p>
+ *
+ * @see BinaryTraceFormat
+ */
+@ParametersAreNonnullByDefault
+public final class Zip2Bin
+{
+    private static final Map<String, ?> ENV
+        = Collections.singletonMap("readonly", "true");
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int ALIGNMENT = Long.BYTES;
+
+    private final ParseInfo info;
+    private final CharSequence inputText;
+    private final MatcherTable matchers;
+    private final NodeColumns nodes;
+    private final int nrChildren;
+
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE)
+        .order(ORDER);
+
+    public Zip2Bin(final Path zipfile)
+        throws IOException
+    {
+        final URI uri = URI.create("jar:" + zipfile.toUri());
+        final FileSystem fs = FileSystems.newFileSystem(uri, ENV);
+
+        final AtomicReference<Throwable> loadError = new AtomicReference<>();
+
+        final ZipTraceSource source = new ZipTraceSource(fs);
+
+        // The loader closes the file system
+        try {
+            info = source.getParseInfo();
+            inputText = source.getInputText();
+        } catch (IOException | RuntimeException e) {
+            fs.close();
+            throw e;
+        }
+
+        matchers = new MatcherTable(info.getNrMatchers());
+        nodes = new NodeColumns(info.getNrNodes());
+
+        new MemoryTraceDbLoader(fs, new CharSequenceInputBuffer(inputText),
+            matchers, nodes, loadError).loadAll();
+
+        final Throwable throwable = loadError.get();
+        if (throwable != null)
+            throw new IOException("failed to load trace", throwable);
+
+        checkIds();
+
+        nrChildren = info.getNrNodes() == 0 ? 0
+            : nodes.getChildrenEnd(info.getNrNodes() - 1);
+    }
+
+    public void writeTo(final Path target)
+        throws IOException
+    {
+        final int nrNodes = info.getNrNodes();
+
+        // Build the string pool, sharing identical strings
+        final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        final Map<String, Integer> refs = new HashMap<>();
+        final int nrMatchers = matchers.size();
+
+        int nrRecords = 0;
+
+        RuleInfo ruleInfo;
+
+        for (int id = 0; id < nrMatchers; id++) {
+            ruleInfo = matchers.get(id);
+            if (ruleInfo == null)
+                continue;
+            nrRecords++;
+            addString(pool, refs, ruleInfo.getClassName());
+            addString(pool, refs, ruleInfo.getType().name());
+            addString(pool, refs, ruleInfo.getName());
+        }
+
+        final long matchersOffset = HEADER_SIZE;
+        final long stringsOffset = matchersOffset
+            + (long) MATCHER_RECORD_SIZE * nrRecords;
+        final long nodesOffset = align(stringsOffset + pool.size());
+        final long childrenOffset = nodesOffset
+            + (long) NODE_RECORD_SIZE * nrNodes;
+        final long inputOffset = align(childrenOffset
+            + (long) Integer.BYTES * (nrNodes + 1 + nrChildren));
+
+        try (
+            final FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ) {
+            writeHeader(channel, nrRecords, matchersOffset, stringsOffset,
+                nodesOffset, childrenOffset, inputOffset);
+
+            for (int id = 0; id < nrMatchers; id++) {
+                ruleInfo = matchers.get(id);
+                if (ruleInfo == null)
+                    continue;
+                ensure(channel, MATCHER_RECORD_SIZE);
+                buf.putInt(id);
+                buf.putInt(refs.get(ruleInfo.getClassName()));
+                buf.putInt(refs.get(ruleInfo.getType().name()));
+                buf.putInt(refs.get(ruleInfo.getName()));
+            }
+
+            putBytes(channel, pool.toByteArray());
+
+            pad(channel, nodesOffset - stringsOffset - pool.size());
+
+            writeNodes(channel);
+            writeChildren(channel);
+
+            pad(channel, inputOffset - position(channel));
+
+            ensure(channel, Integer.BYTES);
+            buf.putInt(inputText.length());
+
+            putChars(channel, inputText.toString());
+
+            flush(channel);
+        }
+    }
+
+    private void checkIds()
+        throws IOException
+    {
+        final int nrNodes = info.getNrNodes();
+
+        if (nodes.size() != nrNodes)
+            throw new IOException("trace announces " + nrNodes
+                + " nodes but has " + nodes.size());
+
+        for (int id = 0; id < nrNodes; id++)
+            if (nodes.getRow(id) == NodeStore.NO_ROW)
+                throw new IOException("node ids are not dense (missing id "
+                    + id + ')');
+    }
+
+    private void writeHeader(final FileChannel channel, final int nrRecords,
+        final long matchersOffset, final long stringsOffset,
+        final long nodesOffset, final long childrenOffset,
+        final long inputOffset)
+        throws IOException
+    {
+        final long epoch = info.getTime().atZone(ZoneId.systemDefault())
+            .toInstant().toEpochMilli();
+
+        buf.putInt(MAGIC_OFFSET, MAGIC);
+        buf.putInt(VERSION_OFFSET, VERSION);
+        buf.putLong(EPOCH_OFFSET, epoch);
+        buf.putInt(TREE_DEPTH_OFFSET, info.getTreeDepth());
+        buf.putInt(NR_MATCHERS_OFFSET, info.getNrMatchers());
+        buf.putInt(NR_LINES_OFFSET, info.getNrLines());
+        buf.putInt(NR_CHARS_OFFSET, info.getNrChars());
+        buf.putInt(NR_CODE_POINTS_OFFSET, info.getNrCodePoints());
+        buf.putInt(NR_NODES_OFFSET, info.getNrNodes());
+        buf.putInt(MATCHER_RECORDS_OFFSET, nrRecords);
+        buf.putInt(MATCHER_RECORDS_OFFSET + Integer.BYTES, 0);
+        buf.putLong(MATCHERS_SECTION_OFFSET, matchersOffset);
+        buf.putLong(STRINGS_SECTION_OFFSET, stringsOffset);
+        buf.putLong(NODES_SECTION_OFFSET, nodesOffset);
+        buf.putLong(CHILDREN_SECTION_OFFSET, childrenOffset);
+        buf.putLong(INPUT_SECTION_OFFSET, inputOffset);
+        buf.position(HEADER_SIZE);
+    }
+
+    private void writeNodes(final FileChannel channel)
+        throws IOException
+    {
+        final int nrNodes = info.getNrNodes();
+
+        int row;
+
+        for (int id = 0; id < nrNodes; id++) {
+            row = nodes.getRow(id);
+            ensure(channel, NODE_RECORD_SIZE);
+            buf.putInt(nodes.getParentId(row));
+            buf.putInt(nodes.getLevel(row));
+            buf.putInt(nodes.getMatcherId(row));
+            buf.putInt(nodes.getStartIndex(row));
+            buf.putInt(nodes.getEndIndex(row));
+            buf.putInt(nodes.isSuccess(row) ? FLAG_SUCCESS : 0);
+            buf.putLong(nodes.getTime(row));
+        }
+    }
+
+    private void writeChildren(final FileChannel channel)
+        throws IOException
+    {
+        final int nrNodes = info.getNrNodes();
+
+        for (int id = 0; id < nrNodes; id++) {
+            ensure(channel, Integer.BYTES);
+            buf.putInt(nodes.getChildrenStart(id));
+        }
+
+        ensure(channel, Integer.BYTES);
+        buf.putInt(nrChildren);
+
+        for (int index = 0; index < nrChildren; index++) {
+            ensure(channel, Integer.BYTES);
+            buf.putInt(nodes.getChild(index));
+        }
+    }
+
+    private void putBytes(final FileChannel channel, final byte[] bytes)
+        throws IOException
+    {
+        int offset = 0;
+        int count;
+
+        while (offset < bytes.length) {
+            ensure(channel, 1);
+            count = Math.min(buf.remaining(), bytes.length - offset);
+            buf.put(bytes, offset, count);
+            offset += count;
+        }
+    }
+
+    /*
+     * Chars are copied by blocks, through a view of the buffer; the view
+     * shares the byte order of the buffer, but not its position.
+     */
+    private void putChars(final FileChannel channel, final String text)
+        throws IOException
+    {
+        final char[] block = new char[BUFFER_SIZE / Character.BYTES];
+        final int length = text.length();
+
+        int index = 0;
+        int count;
+        CharBuffer view;
+
+        while (index < length) {
+            ensure(channel, Character.BYTES);
+            view = buf.asCharBuffer();
+            count = Math.min(view.remaining(), length - index);
+            text.getChars(index, index + count, block, 0);
+            view.put(block, 0, count);
+            buf.position(buf.position() + count * Character.BYTES);
+            index += count;
+        }
+    }
+
+    private void pad(final FileChannel channel, final long nrBytes)
+        throws IOException
+    {
+        for (long l = 0L; l < nrBytes; l++) {
+            ensure(channel, 1);
+            buf.put((byte) 0);
+        }
+    }
+
+    private long position(final FileChannel channel)
+        throws IOException
+    {
+        return channel.position() + buf.position();
+    }
+
+    private void ensure(final FileChannel channel, final int nrBytes)
+        throws IOException
+    {
+        if (buf.remaining() < nrBytes)
+            flush(channel);
+    }
+
+    private void flush(final FileChannel channel)
+        throws IOException
+    {
+        buf.flip();
+        while (buf.hasRemaining())
+            channel.write(buf);
+        buf.clear();
+    }
+
+    private static void addString(final ByteArrayOutputStream pool,
+        final Map<String, Integer> refs, final String s)
+    {
+        refs.computeIfAbsent(s, key -> {
+            final int ref = pool.size();
+            final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES)
+                .order(ORDER).putInt(bytes.length);
+            try {
+                pool.write(length.array());
+                pool.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return ref;
+        });
+    }
+
+    private static long align(final long offset)
+    {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    public static void main(final String... args)
+        throws IOException
+    {
+        if (args.length != 2) {
+            System.err.println("Syntax: Zip2Bin <trace zip> <binary trace>");
+            System.exit(2);
+        }
+
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+
+        new Zip2Bin(Paths.get(args[0]).toRealPath())
+            .writeTo(Paths.get(args[1]));
+
+        System.out.println("Converted in " + stopwatch.stop());
+    }
+}
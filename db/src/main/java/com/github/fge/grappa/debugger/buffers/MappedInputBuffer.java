@@ -0,0 +1,331 @@
+package com.github.fge.grappa.debugger.buffers;
+
+import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.support.Chars;
+import com.github.fge.grappa.support.IndexRange;
+import com.github.fge.grappa.support.Position;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An {@link InputBuffer} over input text which is not held on the heap
+ *
+ * <p>The text is either a file of UTF-16 code units, in native byte order, as
+ * written by {@link #write(Reader, Path)}, or a {@link CharBuffer} already
+ * mapped by the caller. Files are mapped in chunks of 256 Mi characters, which
+ * means that the text may be larger than 2 GiB; no character is ever copied
+ * except by the extraction methods.</p>
+ *
+ * <p>When the buffer is created, the start offsets of all lines are recorded
+ * in an array, and positions are then found using a binary search. As with
+ * {@link CharSequenceInputBuffer}, lines are delimited by {@code \n} only, and
+ * line ranges, positions and extracted text are the same; the exception is
+ * that {@link #extractLine(int)} returns an empty string for an empty line,
+ * including the empty last line after a trailing newline, where {@link
+ * CharSequenceInputBuffer} throws an exception.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class MappedInputBuffer
+    implements InputBuffer
+{
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    // In characters
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final CharBuffer[] chunks;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final int length;
+
+    private int[] lineStarts = new int[1024];
+    private int nrLines = 0;
+
+    /**
+     * Write text to a file, in the format read by {@link #open(Path)}
+     *
+     * @param reader the text
+     * @param file the file to write to; it is overwritten if it exists
+     * @throws IOException failed to read the text or to write the file, or
+     * the text is longer than {@link Integer#MAX_VALUE} characters
+     */
+    public static void write(final Reader reader, final Path file)
+        throws IOException
+    {
+        final ByteBuffer bytes = ByteBuffer
+            .allocateDirect(WRITE_BUFFER_SIZE * Character.BYTES)
+            .order(ByteOrder.nativeOrder());
+        final CharBuffer chars = bytes.asCharBuffer();
+
+        long nrChars = 0L;
+
+        try (
+            final FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ) {
+            while (reader.read(chars) != -1) {
+                nrChars += chars.position();
+                if (nrChars > Integer.MAX_VALUE)
+                    throw new IOException("input text too long");
+                bytes.limit(chars.position() * Character.BYTES);
+                while (bytes.hasRemaining())
+                    channel.write(bytes);
+                bytes.clear();
+                chars.clear();
+            }
+        }
+    }
+
+    /**
+     * Open a file written by {@link #write(Reader, Path)}
+     *
+     * <p>The mapping remains valid after the file is deleted, at least on
+     * Unix systems.</p>
+     *
+     * @param file the file
+     * @return a new buffer
+     * @throws IOException failed to map the file, or the file is not a valid
+     * text file
+     */
+    public static MappedInputBuffer open(final Path file)
+        throws IOException
+    {
+        try (
+            final FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ);
+        ) {
+            final long size = channel.size();
+
+            if (size % Character.BYTES != 0L
+                || size / Character.BYTES > Integer.MAX_VALUE)
+                throw new IOException("invalid input text file " + file);
+
+            final int length = (int) (size / Character.BYTES);
+            final int nrChunks = (int) ((length + (long) CHUNK_SIZE - 1L)
+                >>> CHUNK_SHIFT);
+            final CharBuffer[] chunks = new CharBuffer[nrChunks];
+
+            long offset = 0L;
+            long chunkBytes;
+
+            for (int i = 0; i < nrChunks; i++) {
+                chunkBytes = Math.min(size - offset,
+                    (long) CHUNK_SIZE * Character.BYTES);
+                chunks[i] = channel
+                    .map(FileChannel.MapMode.READ_ONLY, offset, chunkBytes)
+                    .order(ByteOrder.nativeOrder())
+                    .asCharBuffer();
+                offset += chunkBytes;
+            }
+
+            return new MappedInputBuffer(chunks, CHUNK_SHIFT, length);
+        }
+    }
+
+    /**
+     * Create a buffer over a character buffer
+     *
+     * <p>The buffer is used from its position to its limit; changing either
+     * afterwards has no effect.</p>
+     *
+     * @param text the text
+     * @return a new buffer
+     */
+    public static MappedInputBuffer wrap(final CharBuffer text)
+    {
+        return wrap(text, CHUNK_SHIFT);
+    }
+
+    // With smaller chunks, so that tests can cross chunk boundaries
+    @VisibleForTesting
+    static MappedInputBuffer wrap(final CharBuffer text, final int chunkShift)
+    {
+        final CharBuffer buf = text.slice();
+        final int length = buf.remaining();
+        final long chunkSize = 1L << chunkShift;
+        final int nrChunks = (int) ((length + chunkSize - 1L) >>> chunkShift);
+        final CharBuffer[] chunks = new CharBuffer[nrChunks];
+
+        int start;
+
+        for (int i = 0; i < nrChunks; i++) {
+            start = i << chunkShift;
+            buf.limit((int) Math.min(length, start + chunkSize))
+                .position(start);
+            chunks[i] = buf.slice();
+        }
+
+        return new MappedInputBuffer(chunks, chunkShift, length);
+    }
+
+    private MappedInputBuffer(final CharBuffer[] chunks, final int chunkShift,
+        final int length)
+    {
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        chunkMask = (1 << chunkShift) - 1;
+        this.length = length;
+        indexLines();
+    }
+
+    @Override
+    public char charAt(final int index)
+    {
+        Preconditions.checkArgument(index >= 0, "index is negative");
+        return index < length ? rawCharAt(index) : Chars.EOI;
+    }
+
+    @Override
+    public int codePointAt(final int index)
+    {
+        if (index >= length)
+            return -1;
+
+        Preconditions.checkArgument(index >= 0, "index is negative");
+
+        final char c = rawCharAt(index);
+
+        if (!Character.isHighSurrogate(c) || index == length - 1)
+            return c;
+
+        final char next = rawCharAt(index + 1);
+
+        return Character.isLowSurrogate(next)
+            ? Character.toCodePoint(c, next) : c;
+    }
+
+    @Override
+    public String extract(final int start, final int end)
+    {
+        final int realStart = Math.max(start, 0);
+        final int realEnd = Math.min(end, length);
+
+        if (realStart >= realEnd)
+            return "";
+
+        final char[] dst = new char[realEnd - realStart];
+
+        int index = realStart;
+        int offset = 0;
+        int count;
+        CharBuffer chunk;
+
+        while (index < realEnd) {
+            chunk = chunks[index >>> chunkShift].duplicate();
+            chunk.position(index & chunkMask);
+            count = Math.min(chunk.remaining(), realEnd - index);
+            chunk.get(dst, offset, count);
+            index += count;
+            offset += count;
+        }
+
+        return new String(dst);
+    }
+
+    @Override
+    public String extract(final IndexRange range)
+    {
+        return extract(range.start, range.end);
+    }
+
+    @Override
+    public Position getPosition(final int index)
+    {
+        Preconditions.checkArgument(index >= 0, "index is negative");
+
+        final int line = index >= length ? nrLines - 1 : lineOf(index);
+
+        return new Position(line + 1,
+            Math.min(index, length) - lineStarts[line] + 1);
+    }
+
+    @Override
+    public String extractLine(final int lineNumber)
+    {
+        final IndexRange range = getLineRange(lineNumber);
+        final int start = range.start;
+        int end = range.end;
+
+        if (end > start && rawCharAt(end - 1) == '\n')
+            end--;
+        if (end > start && rawCharAt(end - 1) == '\r')
+            end--;
+
+        return extract(start, end);
+    }
+
+    @Override
+    public IndexRange getLineRange(final int lineNumber)
+    {
+        Preconditions.checkArgument(lineNumber > 0,
+            "line number is negative");
+
+        final int line = Math.min(lineNumber, nrLines) - 1;
+        final int end = line + 1 < nrLines ? lineStarts[line + 1] : length;
+
+        return new IndexRange(lineStarts[line], end);
+    }
+
+    @Override
+    public int getLineCount()
+    {
+        return nrLines;
+    }
+
+    @Override
+    public int length()
+    {
+        return length;
+    }
+
+    private char rawCharAt(final int index)
+    {
+        return chunks[index >>> chunkShift].get(index & chunkMask);
+    }
+
+    // Zero based
+    private int lineOf(final int index)
+    {
+        final int ret = Arrays.binarySearch(lineStarts, 0, nrLines, index);
+        return ret >= 0 ? ret : -ret - 2;
+    }
+
+    private void indexLines()
+    {
+        addLineStart(0);
+
+        int base = 0;
+        int size;
+
+        for (final CharBuffer chunk: chunks) {
+            size = chunk.limit();
+            for (int i = 0; i < size; i++)
+                if (chunk.get(i) == '\n')
+                    addLineStart(base + i + 1);
+            base += size;
+        }
+
+        lineStarts = Arrays.copyOf(lineStarts, nrLines);
+    }
+
+    private void addLineStart(final int start)
+    {
+        if (nrLines == lineStarts.length)
+            lineStarts = Arrays.copyOf(lineStarts, nrLines * 2);
+        lineStarts[nrLines++] = start;
+    }
+}
@@ -0,0 +1,338 @@
+package com.github.fge.grappa.debugger.h2.db;
+
+import com.github.fge.filesystem.MoreFiles;
+import com.github.fge.filesystem.RecursionMode;
+import com.google.common.hash.Hashing;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk cache of prepared H2 trace databases
+ *
+ * <p>Each entry is a directory of the cache directory, named after the
+ * SHA-256 hash of the trace file it was built from; opening an unchanged trace
+ * again therefore reuses its database instead of loading it.</p>
+ *
+ * <p>Hashing a large trace takes time, so each entry also records the real
+ * path, size and last modification time of the file it was last hashed from;
+ * a file is only hashed again if no entry records these same values. Like
+ * build tools do, this assumes that a file is not modified without changing
+ * either its size or its last modification time.</p>
+ *
+ * <p>An entry is only complete once its trace was fully loaded and its
+ * database closed; a marker file, containing {@link #FORMAT_VERSION}, is then
+ * written. Entries with no marker, or with a marker from another version, are
+ * emptied when acquired. Schema changes are detected when the database is
+ * migrated (see {@link H2TraceDbFactory}).</p>
+ *
+ * <p>The cache is bounded in size: when an entry is released, the least
+ * recently used entries are deleted until the total size of the cache is
+ * within bounds. Entries in use are never deleted.</p>
+ *
+ * <p>An entry can only be used by one trace at a time in a given JVM; see
+ * {@link #acquire(Path)}.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class H2DbCache
+{
+    /**
+     * The version of the content of cache entries
+     *
+     * <p>It must be increased whenever the loader changes what it writes to a
+     * database, or which files it keeps along with it.</p>
+     */
+    public static final int FORMAT_VERSION = 4;
+
+    public static final Path DEFAULT_DIRECTORY = Paths.get(
+        System.getProperty("user.home"), ".grappa-debugger", "h2-cache");
+
+    public static final long DEFAULT_MAX_SIZE = 2L * 1024L * 1024L * 1024L;
+
+    private static final String MARKER_FILE = "complete";
+    private static final String SOURCE_FILE = "source";
+
+    // Shared by all caches, since several may use the same directory
+    private static final Set<Path> IN_USE = ConcurrentHashMap.newKeySet();
+
+    private final Path directory;
+    private final long maxSize;
+
+    public H2DbCache(final Path directory, final long maxSize)
+        throws IOException
+    {
+        if (maxSize <= 0L)
+            throw new IllegalArgumentException("maximum cache size must be"
+                + " strictly positive");
+
+        this.directory = Files.createDirectories(directory).toRealPath();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Acquire the entry for a trace file
+     *
+     * @param traceFile the trace file
+     * @return the entry, or null if it is already in use
+     * @throws IOException failed to hash the file, or to prepare the entry
+     */
+    @Nullable
+    public Entry acquire(final Path traceFile)
+        throws IOException
+    {
+        final Path realPath = traceFile.toRealPath();
+        final BasicFileAttributes attributes = Files.readAttributes(realPath,
+            BasicFileAttributes.class);
+
+        // Read before hashing: a file modified meanwhile is hashed again
+        final String source = attributes.size() + "\n"
+            + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) + '\n'
+            + realPath;
+
+        final String recorded = findKey(source);
+        final String key = recorded != null ? recorded
+            : com.google.common.io.Files.asByteSource(realPath.toFile())
+                .hash(Hashing.sha256())
+                .toString();
+
+        final Path path = directory.resolve(key);
+
+        if (!IN_USE.add(path))
+            return null;
+
+        try {
+            Files.createDirectories(path);
+            if (recorded == null)
+                Files.write(path.resolve(SOURCE_FILE),
+                    source.getBytes(StandardCharsets.UTF_8));
+            final boolean complete = isComplete(path);
+            if (complete)
+                touch(path);
+            else
+                clear(path);
+            return new Entry(path, complete);
+        } catch (IOException | RuntimeException e) {
+            IN_USE.remove(path);
+            throw e;
+        }
+    }
+
+    /*
+     * Return the name of the entry recording this source, if any.
+     */
+    @Nullable
+    private String findKey(final String source)
+        throws IOException
+    {
+        final byte[] expected = source.getBytes(StandardCharsets.UTF_8);
+        final List<Path> entries;
+
+        try (
+            final Stream<Path> stream = Files.list(directory);
+        ) {
+            entries = stream.filter(Files::isDirectory)
+                .collect(Collectors.toList());
+        }
+
+        Path file;
+
+        for (final Path entry: entries) {
+            file = entry.resolve(SOURCE_FILE);
+            if (Files.isRegularFile(file)
+                && Arrays.equals(Files.readAllBytes(file), expected))
+                return entry.getFileName().toString();
+        }
+
+        return null;
+    }
+
+    private void evict()
+        throws IOException
+    {
+        final List<Path> entries;
+
+        try (
+            final Stream<Path> stream = Files.list(directory);
+        ) {
+            entries = stream.filter(Files::isDirectory)
+                .filter(path -> !IN_USE.contains(path))
+                .collect(Collectors.toList());
+        }
+
+        long size = 0L;
+
+        for (final Path entry: entries)
+            size += sizeOf(entry);
+
+        for (final Path path: IN_USE)
+            if (path.startsWith(directory) && Files.isDirectory(path))
+                size += sizeOf(path);
+
+        // Incomplete entries, with no marker, come first
+        entries.sort(Comparator.comparing(H2DbCache::lastAccess));
+
+        for (final Path entry: entries) {
+            if (size <= maxSize)
+                break;
+            size -= sizeOf(entry);
+            MoreFiles.deleteRecursive(entry, RecursionMode.KEEP_GOING);
+        }
+    }
+
+    private static boolean isComplete(final Path entry)
+        throws IOException
+    {
+        final Path marker = entry.resolve(MARKER_FILE);
+
+        if (!Files.isRegularFile(marker))
+            return false;
+
+        final String content = new String(Files.readAllBytes(marker),
+            StandardCharsets.UTF_8);
+
+        return content.equals(Integer.toString(FORMAT_VERSION));
+    }
+
+    private static void touch(final Path entry)
+        throws IOException
+    {
+        Files.setLastModifiedTime(entry.resolve(MARKER_FILE),
+            FileTime.from(Instant.now()));
+    }
+
+    private static FileTime lastAccess(final Path entry)
+    {
+        try {
+            return Files.getLastModifiedTime(entry.resolve(MARKER_FILE));
+        } catch (IOException ignored) {
+            return FileTime.fromMillis(0L);
+        }
+    }
+
+    private static long sizeOf(final Path entry)
+        throws IOException
+    {
+        try (
+            final Stream<Path> stream = Files.walk(entry);
+        ) {
+            return stream.filter(Files::isRegularFile)
+                .mapToLong(path -> path.toFile().length())
+                .sum();
+        }
+    }
+
+    // The source file still describes the trace this entry is for
+    private static void clear(final Path entry)
+        throws IOException
+    {
+        final Path source = entry.resolve(SOURCE_FILE);
+        final List<Path> children;
+
+        try (
+            final Stream<Path> stream = Files.list(entry);
+        ) {
+            children = stream.filter(path -> !path.equals(source))
+                .collect(Collectors.toList());
+        }
+
+        for (final Path child: children)
+            MoreFiles.deleteRecursive(child, RecursionMode.KEEP_GOING);
+    }
+
+    /**
+     * An entry of the cache, for exclusive use by one trace
+     */
+    public final class Entry
+    {
+        private final Path path;
+        private boolean complete;
+
+        private Entry(final Path path, final boolean complete)
+        {
+            this.path = path;
+            this.complete = complete;
+        }
+
+        /**
+         * Return the directory of this entry
+         *
+         * @return the directory
+         */
+        public Path getPath()
+        {
+            return path;
+        }
+
+        /**
+         * Tell whether this entry holds a fully loaded database
+         *
+         * @return true if it does
+         */
+        public boolean isComplete()
+        {
+            return complete;
+        }
+
+        /**
+         * Delete the content of this entry
+         *
+         * <p>The database must be closed.</p>
+         *
+         * @throws IOException failed to delete a file
+         */
+        public void invalidate()
+            throws IOException
+        {
+            complete = false;
+            clear(path);
+        }
+
+        /**
+         * Release this entry
+         *
+         * <p>The database must be closed. If this entry is not complete, it
+         * is marked as complete if {@code loaded} is true, and emptied
+         * otherwise. Least recently used entries are then evicted, if
+         * needed.</p>
+         *
+         * @param loaded whether the database was fully loaded
+         * @throws IOException failed to write the marker, or to evict entries
+         */
+        public void release(final boolean loaded)
+            throws IOException
+        {
+            try {
+                if (!complete) {
+                    if (loaded) {
+                        Files.write(path.resolve(MARKER_FILE),
+                            Integer.toString(FORMAT_VERSION)
+                                .getBytes(StandardCharsets.UTF_8));
+                        complete = true;
+                    } else {
+                        clear(path);
+                    }
+                }
+            } finally {
+                IN_USE.remove(path);
+            }
+
+            evict();
+        }
+    }
+}
@@ -2,57 +2,48 @@ package com.github.fge.grappa.debugger.h2.db;
 
 import com.github.fge.filesystem.MoreFiles;
 import com.github.fge.filesystem.RecursionMode;
-import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
 import com.github.fge.grappa.buffers.InputBuffer;
 import com.github.fge.grappa.debugger.ParseInfo;
 import com.github.fge.grappa.debugger.TraceDb;
 import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+import com.github.fge.grappa.debugger.TraceSource;
+import com.github.fge.grappa.debugger.ZipTraceSource;
+import com.github.fge.grappa.debugger.buffers.MappedInputBuffer;
+import com.github.fge.grappa.debugger.h2.db.load.H2ImportMode;
 import com.github.fge.grappa.debugger.h2.db.load.H2TraceDbLoader;
 import com.github.fge.grappa.debugger.h2.model.H2TraceModel;
+import com.github.fge.grappa.debugger.model.CachingTraceModel;
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.lambdas.Throwing;
-import com.google.common.io.CharStreams;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.h2.jdbcx.JdbcConnectionPool;
 import org.jooq.DSLContext;
 
-import java.io.BufferedReader;
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.net.URI;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.io.Reader;
 import java.nio.file.Path;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Collections;
-import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Pattern;
 
 public final class H2TraceDb
     implements TraceDb
 {
-    private static final Pattern SEMICOLON = Pattern.compile(";");
-    private static final Charset UTF8 = StandardCharsets.UTF_8;
+    // The input text, decoded, in the database directory
+    private static final String INPUT_TEXT_FILE = "input.chars";
 
-    private static final Map<String, ?> ENV
-        = Collections.singletonMap("readonly", "true");
+    // Seconds to wait for the loader to stop when the database is cached
+    private static final long LOADER_TIMEOUT = 30L;
 
-    private static final String INFO_PATH = "/info.csv";
-    private static final String INPUT_TEXT_PATH = "/input.txt";
-
-
-    private final FileSystem fs;
+    private final TraceSource source;
     private final Path dbpath;
     private final DSLContext jooq;
     private final JdbcConnectionPool pool;
+    @Nullable
+    private final H2DbCache.Entry cacheEntry;
 
     private final H2TraceDbLoader loader;
     private final AtomicReference<Throwable> loadError
@@ -68,23 +59,103 @@ public final class H2TraceDb
 
     private final ParseInfo info;
     private final InputBuffer inputBuffer;
+    private final TraceModel model;
 
     public H2TraceDb(final Path zipfile, final Path dbpath,
         final DSLContext jooq, final JdbcConnectionPool pool)
         throws IOException
     {
-        final URI uri = URI.create("jar:" + zipfile.toUri());
+        this(zipfile, dbpath, jooq, pool, H2ImportMode.BATCH,
+            H2TraceDbLoader.DEFAULT_BATCH_SIZE,
+            H2TraceDbLoader.DEFAULT_NR_WRITERS);
+    }
+
+    public H2TraceDb(final Path zipfile, final Path dbpath,
+        final DSLContext jooq, final JdbcConnectionPool pool,
+        final H2ImportMode importMode, final int batchSize,
+        final int nrWriters)
+        throws IOException
+    {
+        this(ZipTraceSource.open(zipfile), zipfile, dbpath, jooq, pool,
+            importMode, batchSize, nrWriters);
+    }
+
+    public H2TraceDb(final TraceSource source, @Nullable final Path zipfile,
+        final Path dbpath, final DSLContext jooq, final JdbcConnectionPool pool,
+        final H2ImportMode importMode, final int batchSize,
+        final int nrWriters)
+        throws IOException
+    {
+        this(source, zipfile, dbpath, jooq, pool, importMode, batchSize,
+            nrWriters, null);
+    }
 
-        fs = FileSystems.newFileSystem(uri, ENV);
+    /**
+     * Constructor
+     *
+     * <p>If a cache entry is given and {@link H2DbCache.Entry#isComplete()
+     * complete}, the database is reused as is; otherwise, it is loaded from
+     * the source. The entry is released when this database is closed.</p>
+     *
+     * @param source the trace
+     * @param zipfile the path to the trace zip, if the source is a zip
+     * @param dbpath the directory of the database
+     * @param jooq the jOOQ context
+     * @param pool the connection pool
+     * @param importMode the import mode for nodes
+     * @param batchSize the number of rows per insert batch
+     * @param nrWriters the number of node writers in batch mode
+     * @param cacheEntry the cache entry of the database, if any
+     * @throws IOException failed to read from the source
+     *
+     * @see H2TraceDbLoader
+     */
+    public H2TraceDb(final TraceSource source, @Nullable final Path zipfile,
+        final Path dbpath, final DSLContext jooq, final JdbcConnectionPool pool,
+        final H2ImportMode importMode, final int batchSize,
+        final int nrWriters, @Nullable final H2DbCache.Entry cacheEntry)
+        throws IOException
+    {
+        this.source = source;
         this.dbpath = dbpath;
         this.jooq = jooq;
         this.pool = pool;
+        this.cacheEntry = cacheEntry;
+
+        // Read these first: the loader closes the source once done
+        info = source.getParseInfo();
+        inputBuffer = openInputBuffer(source, dbpath.resolve(INPUT_TEXT_FILE),
+            cacheEntry != null && cacheEntry.isComplete());
+
+        loader = new H2TraceDbLoader(source, inputBuffer, zipfile, jooq,
+            loadError, importMode, batchSize, nrWriters);
+        model = new CachingTraceModel(new H2TraceModel(jooq, inputBuffer,
+            loader.getChildrenCounts(), loader::getLineDepths,
+            loader::getNodePositions, loader::isMatcherStatsReady),
+            loader.getStatus());
+        if (cacheEntry != null && cacheEntry.isComplete())
+            executor.submit(Throwing.runnable(
+                () -> loader.loadCached(dbpath)));
+        else
+            executor.submit(Throwing.runnable(loader::loadAll));
+    }
 
-        loader = new H2TraceDbLoader(fs, jooq, loadError);
-        executor.submit(Throwing.runnable(loader::loadAll));
-
-        info = loadParseInfo();
-        inputBuffer = loadInputBuffer();
+    /*
+     * The input text is decoded to a file and mapped, rather than read on the
+     * heap; a cached database already has this file.
+     */
+    private static InputBuffer openInputBuffer(final TraceSource source,
+        final Path file, final boolean cached)
+        throws IOException
+    {
+        if (!cached)
+            try (
+                final Reader reader = source.openInputText();
+            ) {
+                MappedInputBuffer.write(reader, file);
+            }
+
+        return MappedInputBuffer.open(file);
     }
 
     @Override
@@ -108,50 +179,7 @@ public final class H2TraceDb
     @Override
     public TraceModel getModel()
     {
-        return new H2TraceModel(jooq, inputBuffer);
-    }
-
-    private ParseInfo loadParseInfo()
-        throws IOException
-    {
-        final Path path = fs.getPath(INFO_PATH);
-
-        try (
-            final BufferedReader reader = Files.newBufferedReader(path, UTF8);
-        ) {
-            final String[] elements = SEMICOLON.split(reader.readLine());
-
-            final long epoch = Long.parseLong(elements[0]);
-            final Instant instant = Instant.ofEpochMilli(epoch);
-            final ZoneId zone = ZoneId.systemDefault();
-            final LocalDateTime time = LocalDateTime.ofInstant(instant, zone);
-
-            final int treeDepth = Integer.parseInt(elements[1]);
-            final int nrMatchers = Integer.parseInt(elements[2]);
-            final int nrLines = Integer.parseInt(elements[3]);
-            final int nrChars = Integer.parseInt(elements[4]);
-            final int nrCodePoints = Integer.parseInt(elements[5]);
-            final int nrInvocations = Integer.parseInt(elements[6]);
-
-            return new ParseInfo(time, treeDepth, nrMatchers, nrLines, nrChars,
-                nrCodePoints, nrInvocations);
-        }
-    }
-
-    private InputBuffer loadInputBuffer()
-        throws IOException
-    {
-        final Path path = fs.getPath(INPUT_TEXT_PATH);
-
-        try (
-            final BufferedReader reader = Files.newBufferedReader(path, UTF8);
-        ) {
-            final StringBuilder sb = new StringBuilder();
-            CharStreams.copy(reader, sb);
-
-            return new CharSequenceInputBuffer(sb);
-        }
-
+        return model;
     }
 
     @Override
@@ -160,17 +188,29 @@ public final class H2TraceDb
     {
         IOException exception = null;
 
-        executor.shutdownNow();
+        // Let a cached load finish: it only reads a few files
+        if (cacheEntry != null && cacheEntry.isComplete())
+            executor.shutdown();
+        else
+            executor.shutdownNow();
+
+        // The cache entry may only be released once the loader is done
+        if (cacheEntry != null)
+            awaitLoader();
+
         pool.dispose();
 
         try {
-            fs.close();
+            source.close();
         } catch (IOException e) {
             exception = e;
         }
 
         try {
-            MoreFiles.deleteRecursive(dbpath, RecursionMode.KEEP_GOING);
+            if (cacheEntry == null)
+                MoreFiles.deleteRecursive(dbpath, RecursionMode.KEEP_GOING);
+            else
+                releaseCacheEntry(cacheEntry);
         } catch (IOException e) {
             if (exception == null)
                 exception = e;
@@ -181,4 +221,33 @@ public final class H2TraceDb
         if (exception != null)
             throw exception;
     }
+
+    private void awaitLoader()
+    {
+        try {
+            executor.awaitTermination(LOADER_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * A database loaded without error is kept, along with the files the
+     * loader needs to reuse it; a cached database which failed to load is
+     * discarded.
+     */
+    private void releaseCacheEntry(final H2DbCache.Entry entry)
+        throws IOException
+    {
+        final boolean loaded = loader.isLoadComplete();
+
+        try {
+            if (!loaded && entry.isComplete())
+                entry.invalidate();
+            if (loaded && !entry.isComplete())
+                loader.writeCacheFiles(dbpath);
+        } finally {
+            entry.release(loaded);
+        }
+    }
 }
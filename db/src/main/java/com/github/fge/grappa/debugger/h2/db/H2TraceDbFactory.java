@@ -1,6 +1,10 @@
 package com.github.fge.grappa.debugger.h2.db;
 
 import com.github.fge.grappa.debugger.ZipTraceDbFactory;
+import com.github.fge.grappa.debugger.ZipTraceSource;
+import com.github.fge.grappa.debugger.binary.BinaryTrace;
+import com.github.fge.grappa.debugger.h2.db.load.H2ImportMode;
+import com.github.fge.grappa.debugger.h2.db.load.H2TraceDbLoader;
 import org.flywaydb.core.Flyway;
 import org.h2.jdbcx.JdbcConnectionPool;
 import org.jooq.Configuration;
@@ -10,10 +14,13 @@ import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
 import org.jooq.impl.DefaultConfiguration;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Objects;
 
 @ParametersAreNonnullByDefault
 public final class H2TraceDbFactory
@@ -25,21 +32,106 @@ public final class H2TraceDbFactory
     private static final String H2_JDBC_URL_FORMAT
         = "jdbc:h2:%s;LOG=0;LOCK_MODE=0;UNDO_LOG=0;CACHE_SIZE=131072";
 
+    private final H2ImportMode importMode;
+    private final int batchSize;
+    private final int nrWriters;
+    @Nullable
+    private final H2DbCache cache;
+
+    public static H2TraceDbFactory defaultFactory()
+    {
+        return newBuilder().build();
+    }
+
+    public static Builder newBuilder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Constructor; equivalent to {@link #defaultFactory()}
+     */
+    public H2TraceDbFactory()
+    {
+        this(newBuilder(), null);
+    }
+
+    /**
+     * Constructor with a custom batch size for inserts
+     *
+     * @param batchSize the number of rows to insert per batch
+     *
+     * @see Builder#withBatchSize(int)
+     */
+    public H2TraceDbFactory(final int batchSize)
+    {
+        this(newBuilder().withBatchSize(batchSize), null);
+    }
+
+    private H2TraceDbFactory(final Builder builder,
+        @Nullable final H2DbCache cache)
+    {
+        importMode = builder.importMode;
+        batchSize = builder.batchSize;
+        nrWriters = builder.nrWriters;
+        this.cache = cache;
+    }
+
+    /**
+     * Open a trace
+     *
+     * <p>If this factory has a cache and the entry for this trace is not in
+     * use, the database is taken from, or built into, the cache; otherwise,
+     * it is built in a temporary directory, deleted when the trace is
+     * closed.</p>
+     *
+     * @param arg the path to the trace file
+     * @return the trace database
+     * @throws IOException failed to read the trace, or to create the database
+     */
     @Override
     public H2TraceDb create(final Path arg)
         throws IOException
     {
-        final Path dbpath
-            = Files.createTempDirectory("grappa-debugger").toRealPath();
+        final H2DbCache.Entry entry = cache == null ? null
+            : cache.acquire(arg);
+
+        if (entry == null)
+            return create(arg,
+                Files.createTempDirectory("grappa-debugger").toRealPath(),
+                null);
 
+        try {
+            return create(arg, entry.getPath(), entry);
+        } catch (IOException | RuntimeException e) {
+            try {
+                entry.release(false);
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+    }
+
+    private H2TraceDb create(final Path arg, final Path dbpath,
+        @Nullable final H2DbCache.Entry entry)
+        throws IOException
+    {
         final String jdbcUrl
             = String.format(H2_JDBC_URL_FORMAT, dbpath.resolve("db"));
 
-        initdb(jdbcUrl);
+        // Migrating a cached database means its schema is out of date
+        if (initdb(jdbcUrl) != 0 && entry != null && entry.isComplete()) {
+            entry.invalidate();
+            initdb(jdbcUrl);
+        }
 
         final JdbcConnectionPool pool = JdbcConnectionPool.create(jdbcUrl,
             H2_USERNAME, H2_PASSWORD);
 
+        // Writers each hold a connection for the whole duration of the load
+        pool.setMaxConnections(pool.getMaxConnections() + nrWriters);
+
         final ConnectionProvider provider = new H2ConnectionProvider(pool);
 
         final Configuration cfg = new DefaultConfiguration();
@@ -48,16 +140,125 @@ public final class H2TraceDbFactory
 
         final DSLContext jooq = DSL.using(cfg);
 
-        return new H2TraceDb(arg, dbpath, jooq, pool);
+        if (!BinaryTrace.isBinaryTrace(arg))
+            return new H2TraceDb(ZipTraceSource.open(arg), arg, dbpath, jooq,
+                pool, importMode, batchSize, nrWriters, entry);
+
+        return new H2TraceDb(BinaryTrace.open(arg), null, dbpath, jooq, pool,
+            importMode, batchSize, nrWriters, entry);
     }
 
-    private void initdb(final String jdbcUrl)
+    private int initdb(final String jdbcUrl)
     {
         final Flyway flyway = new Flyway();
 
         flyway.setLocations("classpath:db/h2");
         flyway.setDataSource(jdbcUrl, H2_USERNAME, H2_PASSWORD);
 
-        flyway.migrate();
+        return flyway.migrate();
+    }
+
+    public static final class Builder
+    {
+        private H2ImportMode importMode = H2ImportMode.BATCH;
+        private int batchSize = H2TraceDbLoader.DEFAULT_BATCH_SIZE;
+        private int nrWriters = H2TraceDbLoader.DEFAULT_NR_WRITERS;
+        @Nullable
+        private Path cacheDirectory = null;
+        private long cacheMaxSize = H2DbCache.DEFAULT_MAX_SIZE;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Keep prepared databases in a cache directory (default: no cache)
+         *
+         * @param cacheDirectory the cache directory
+         * @return this
+         *
+         * @see H2DbCache
+         * @see H2DbCache#DEFAULT_DIRECTORY
+         */
+        public Builder withCacheDirectory(final Path cacheDirectory)
+        {
+            this.cacheDirectory = Objects.requireNonNull(cacheDirectory);
+            return this;
+        }
+
+        /**
+         * Set the maximum size of the cache, in bytes (default: {@link
+         * H2DbCache#DEFAULT_MAX_SIZE})
+         *
+         * @param cacheMaxSize the maximum size
+         * @return this
+         */
+        public Builder withCacheMaxSize(final long cacheMaxSize)
+        {
+            if (cacheMaxSize <= 0L)
+                throw new IllegalArgumentException("maximum cache size must"
+                    + " be strictly positive");
+            this.cacheMaxSize = cacheMaxSize;
+            return this;
+        }
+
+        /**
+         * Set the import mode for nodes (default: {@link H2ImportMode#BATCH})
+         *
+         * @param importMode the import mode
+         * @return this
+         */
+        public Builder withImportMode(final H2ImportMode importMode)
+        {
+            this.importMode = Objects.requireNonNull(importMode);
+            return this;
+        }
+
+        /**
+         * Set the number of rows inserted per batch (default: {@link
+         * H2TraceDbLoader#DEFAULT_BATCH_SIZE})
+         *
+         * @param batchSize the batch size
+         * @return this
+         */
+        public Builder withBatchSize(final int batchSize)
+        {
+            if (batchSize <= 0)
+                throw new IllegalArgumentException("batch size must be"
+                    + " strictly positive");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Set the number of threads inserting nodes in {@link
+         * H2ImportMode#BATCH} mode (default: {@link
+         * H2TraceDbLoader#DEFAULT_NR_WRITERS})
+         *
+         * @param nrWriters the number of writers
+         * @return this
+         */
+        public Builder withWriters(final int nrWriters)
+        {
+            if (nrWriters <= 0)
+                throw new IllegalArgumentException("number of writers must be"
+                    + " strictly positive");
+            this.nrWriters = nrWriters;
+            return this;
+        }
+
+        public H2TraceDbFactory build()
+        {
+            if (cacheDirectory == null)
+                return new H2TraceDbFactory(this, null);
+
+            try {
+                return new H2TraceDbFactory(this,
+                    new H2DbCache(cacheDirectory, cacheMaxSize));
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot create cache"
+                    + " directory", e);
+            }
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.github.fge.grappa.debugger.h2.db.create;
 
 import com.github.fge.filesystem.MoreFiles;
 import com.github.fge.filesystem.RecursionMode;
+import com.github.fge.grappa.debugger.h2.db.load.H2TraceDbLoader;
 import org.flywaydb.core.Flyway;
 import org.jooq.util.GenerationTool;
 import org.jooq.util.jaxb.Configuration;
@@ -13,6 +14,10 @@ import org.jooq.util.jaxb.Target;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
 
 // Run at the ROOT of the project
 public final class H2DbCreator
@@ -35,13 +40,26 @@ public final class H2DbCreator
     }
 
     public int initdb()
+        throws SQLException
     {
         final Flyway flyway = new Flyway();
 
         flyway.setLocations("classpath:db/h2");
         flyway.setDataSource(jdbcUrl, H2_USERNAME, H2_PASSWORD);
 
-        return flyway.migrate();
+        final int applied = flyway.migrate();
+
+        // Keys and indexes are created after load, but jOOQ must see them
+        try (
+            final Connection connection = DriverManager.getConnection(jdbcUrl,
+                H2_USERNAME, H2_PASSWORD);
+            final Statement statement = connection.createStatement();
+        ) {
+            statement.execute("runscript from '"
+                + H2TraceDbLoader.INDEXES_SCRIPT + '\'');
+        }
+
+        return applied;
     }
 
     public void generateSources()
@@ -0,0 +1,90 @@
+package com.github.fge.grappa.debugger.h2.db.load;
+
+import org.jooq.DSLContext;
+import org.jooq.Table;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.function.IntConsumer;
+
+/**
+ * Batched insertion of rows into a table, using a single prepared statement
+ *
+ * <p>The statement is prepared only once, and rows are sent to the database
+ * in batches of a configurable size; the transaction is committed after each
+ * batch.</p>
+ *
+ * <p>After each batch is flushed, the number of rows in this batch is reported
+ * to the given {@link IntConsumer}.</p>
+ */
+@ParametersAreNonnullByDefault
+final class H2BatchInserter
+    implements AutoCloseable
+{
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final boolean autoCommit;
+    private final int batchSize;
+    private final IntConsumer onFlush;
+
+    private int pending = 0;
+
+    H2BatchInserter(final DSLContext jooq, final Connection connection,
+        final Table<?> table, final int batchSize, final IntConsumer onFlush)
+        throws SQLException
+    {
+        final int nrFields = table.fields().length;
+        final String sql = jooq.insertInto(table)
+            .values(Collections.nCopies(nrFields, null))
+            .getSQL();
+
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.onFlush = onFlush;
+
+        autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        statement = connection.prepareStatement(sql);
+    }
+
+    void insert(final Object[] values)
+        throws SQLException
+    {
+        final int len = values.length;
+
+        for (int i = 0; i < len; i++)
+            statement.setObject(i + 1, values[i]);
+
+        statement.addBatch();
+
+        if (++pending == batchSize)
+            flush();
+    }
+
+    private void flush()
+        throws SQLException
+    {
+        if (pending == 0)
+            return;
+
+        statement.executeBatch();
+        connection.commit();
+        onFlush.accept(pending);
+        pending = 0;
+    }
+
+    @Override
+    public void close()
+        throws SQLException
+    {
+        try {
+            flush();
+        } finally {
+            statement.close();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.fge.grappa.debugger.h2.db.load;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The number of children of each node of a trace, indexed by node id
+ *
+ * <p>Counts are filled while nodes are loaded, so that telling whether a node
+ * has children does not need to query the database. Like the database itself
+ * while a trace is loading, counts only account for the nodes loaded so
+ * far; they are only complete once {@link #isReady()} returns true.</p>
+ *
+ * <p>Ids outside of the range announced by the trace are ignored, and have no
+ * children.</p>
+ *
+ * <p>Counts can be saved to a file, so that they need not be computed again
+ * when a database is reused (see {@link #writeTo(Path)}).</p>
+ */
+public final class H2ChildrenCounts
+{
+    private final AtomicIntegerArray counts;
+    private volatile boolean ready = false;
+
+    public H2ChildrenCounts(final int nrNodes)
+    {
+        counts = new AtomicIntegerArray(nrNodes);
+    }
+
+    /**
+     * Tell whether counts account for all nodes of the trace
+     *
+     * @return true if they do
+     */
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    void setReady()
+    {
+        ready = true;
+    }
+
+    public int get(final int id)
+    {
+        return id >= 0 && id < counts.length() ? counts.get(id) : 0;
+    }
+
+    void increment(final int parentId)
+    {
+        if (parentId >= 0 && parentId < counts.length())
+            counts.incrementAndGet(parentId);
+    }
+
+    void set(final int id, final int count)
+    {
+        if (id >= 0 && id < counts.length())
+            counts.set(id, count);
+    }
+
+    /**
+     * Write all counts to a file
+     *
+     * <p>The file contains the number of counts, then all counts, as big
+     * endian integers.</p>
+     *
+     * @param path the file
+     * @throws IOException failed to write to the file
+     */
+    public void writeTo(final Path path)
+        throws IOException
+    {
+        final int length = counts.length();
+
+        try (
+            final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)));
+        ) {
+            out.writeInt(length);
+            for (int id = 0; id < length; id++)
+                out.writeInt(counts.get(id));
+        }
+    }
+
+    void readFrom(final Path path)
+        throws IOException
+    {
+        final int length = counts.length();
+
+        try (
+            final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)));
+        ) {
+            if (in.readInt() != length)
+                throw new IOException("children counts in " + path
+                    + " do not match the number of nodes");
+            for (int id = 0; id < length; id++)
+                counts.set(id, in.readInt());
+        }
+    }
+}
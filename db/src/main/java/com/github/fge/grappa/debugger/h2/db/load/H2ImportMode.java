@@ -0,0 +1,29 @@
+package com.github.fge.grappa.debugger.h2.db.load;
+
+/**
+ * How node rows are imported from a trace zip into the H2 database
+ *
+ * <p>Whatever the mode, matchers are always inserted in batches: their names
+ * may contain semicolons and quotes, which H2's CSV reader cannot cope with;
+ * and there are only a few of them anyway.</p>
+ *
+ * @see H2TraceDbLoader
+ */
+public enum H2ImportMode
+{
+    /**
+     * Parse {@code nodes.csv} in Java and insert rows in JDBC batches
+     *
+     * <p>The load status is updated after each batch.</p>
+     */
+    BATCH,
+    /**
+     * Have H2 read {@code nodes.csv} directly from the zip file, using {@code
+     * INSERT INTO ... SELECT FROM CSVREAD(...)}
+     *
+     * <p>No Java object is created per row; however, the number of loaded
+     * nodes is only updated once all nodes have been inserted.</p>
+     */
+    CSVREAD,
+    ;
+}
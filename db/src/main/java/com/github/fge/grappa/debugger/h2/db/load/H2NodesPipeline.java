@@ -0,0 +1,207 @@
+package com.github.fge.grappa.debugger.h2.db.load;
+
+import com.github.fge.grappa.debugger.NodeVisitor;
+import com.github.fge.grappa.debugger.TraceSource;
+import com.github.fge.grappa.debugger.model.TraceModelException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jooq.DSLContext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.NODES;
+
+/**
+ * Pipelined insertion of nodes
+ *
+ * <p>The calling thread visits the nodes of the trace source, and cuts them
+ * into chunks of rows, one chunk per insert batch; rows hold the values of
+ * the columns of the nodes table, in order. Chunks are handed to a fixed
+ * number of writers, in a round robin fashion, through bounded queues; each
+ * writer inserts the rows of its chunks using its own connection and counts
+ * the children of their parents.</p>
+ *
+ * <p>While the physical order of rows depends on how writers are scheduled,
+ * the set of rows does not; and models never rely on the physical order of
+ * rows. Loads are therefore deterministic whatever the number of writers.</p>
+ */
+@ParametersAreNonnullByDefault
+final class H2NodesPipeline
+{
+    // Compared by reference; signals the end of input to a writer
+    private static final List<Object[]> END_OF_INPUT = new ArrayList<>(0);
+
+    // Index of the parent id in a row
+    private static final int PARENT_ID_INDEX = 1;
+
+    private static final int QUEUE_CAPACITY = 4;
+    private static final long OFFER_TIMEOUT = 100L;
+
+    private final DSLContext jooq;
+    private final int batchSize;
+    private final int nrWriters;
+    private final IntConsumer onFlush;
+    private final H2ChildrenCounts childrenCounts;
+
+    private final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat("grappa-db-write-%d")
+        .build();
+
+    H2NodesPipeline(final DSLContext jooq, final int batchSize,
+        final int nrWriters, final IntConsumer onFlush,
+        final H2ChildrenCounts childrenCounts)
+    {
+        this.jooq = jooq;
+        this.batchSize = batchSize;
+        this.nrWriters = nrWriters;
+        this.onFlush = onFlush;
+        this.childrenCounts = childrenCounts;
+    }
+
+    void load(final TraceSource source)
+        throws IOException
+    {
+        final List<BlockingQueue<List<Object[]>>> queues
+            = new ArrayList<>(nrWriters);
+        final List<Future<?>> writers = new ArrayList<>(nrWriters);
+
+        final ExecutorService executor
+            = Executors.newFixedThreadPool(nrWriters, threadFactory);
+
+        try {
+            for (int i = 0; i < nrWriters; i++) {
+                final BlockingQueue<List<Object[]>> queue
+                    = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+                queues.add(queue);
+                writers.add(executor.submit(() -> write(queue)));
+            }
+
+            new Reader(queues, writers).read(source);
+
+            for (final Future<?> writer: writers)
+                writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TraceModelException("interrupted while loading nodes",
+                e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new TraceModelException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Returns false if the writer has terminated, which can only happen if it
+     * failed; the error is then reported when the writer's future is queried.
+     */
+    private static boolean handOff(final BlockingQueue<List<Object[]>> queue,
+        final List<Object[]> chunk, final Future<?> writer)
+        throws InterruptedException
+    {
+        while (!queue.offer(chunk, OFFER_TIMEOUT, TimeUnit.MILLISECONDS))
+            if (writer.isDone())
+                return false;
+        return true;
+    }
+
+    private void write(final BlockingQueue<List<Object[]>> queue)
+    {
+        jooq.connection(connection -> {
+            try (
+                final H2BatchInserter inserter = new H2BatchInserter(jooq,
+                    connection, NODES, batchSize, onFlush);
+            ) {
+                List<Object[]> chunk;
+                while ((chunk = queue.take()) != END_OF_INPUT)
+                    for (final Object[] row: chunk) {
+                        inserter.insert(row);
+                        childrenCounts.increment(
+                            (Integer) row[PARENT_ID_INDEX]);
+                    }
+            }
+        });
+    }
+
+    /*
+     * Once a writer has failed, the remaining nodes are still visited, but
+     * dropped.
+     */
+    private final class Reader
+        implements NodeVisitor
+    {
+        private final List<BlockingQueue<List<Object[]>>> queues;
+        private final List<Future<?>> writers;
+
+        private int writerIndex = 0;
+        private List<Object[]> chunk = new ArrayList<>(batchSize);
+        private boolean failed = false;
+
+        private Reader(final List<BlockingQueue<List<Object[]>>> queues,
+            final List<Future<?>> writers)
+        {
+            this.queues = queues;
+            this.writers = writers;
+        }
+
+        private void read(final TraceSource source)
+            throws IOException, InterruptedException
+        {
+            source.visitNodes(this);
+
+            if (!failed && !chunk.isEmpty())
+                handOff(queues.get(writerIndex), chunk,
+                    writers.get(writerIndex));
+
+            for (int i = 0; i < nrWriters; i++)
+                handOff(queues.get(i), END_OF_INPUT, writers.get(i));
+        }
+
+        @SuppressWarnings("AutoBoxing")
+        @Override
+        public void visitNode(final int parentId, final int id,
+            final int level, final boolean success, final int matcherId,
+            final int startIndex, final int endIndex, final long time)
+        {
+            if (failed)
+                return;
+
+            chunk.add(new Object[] {
+                id, parentId, level, success ? 1 : 0, matcherId, startIndex,
+                endIndex, time
+            });
+
+            if (chunk.size() < batchSize)
+                return;
+
+            try {
+                failed = !handOff(queues.get(writerIndex), chunk,
+                    writers.get(writerIndex));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TraceModelException(
+                    "interrupted while loading nodes", e);
+            }
+
+            writerIndex = (writerIndex + 1) % nrWriters;
+            chunk = new ArrayList<>(batchSize);
+        }
+    }
+}
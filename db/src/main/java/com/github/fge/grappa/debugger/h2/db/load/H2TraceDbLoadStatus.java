@@ -1,52 +1,45 @@
 package com.github.fge.grappa.debugger.h2.db.load;
 
-import com.github.fge.grappa.debugger.TraceDbLoadStatus;
-import com.github.fge.grappa.debugger.model.TraceModelException;
+import com.github.fge.grappa.debugger.BaseTraceDbLoadStatus;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public final class H2TraceDbLoadStatus
-    implements TraceDbLoadStatus
+    extends BaseTraceDbLoadStatus
 {
-    private final AtomicReference<Throwable> loadError;
-
-    private volatile boolean ready = false;
     private volatile int loadedMatchers = 0;
-    private volatile int loadedNodes = 0;
+    private final AtomicInteger loadedNodes = new AtomicInteger();
 
     public H2TraceDbLoadStatus(final AtomicReference<Throwable> loadError)
     {
-        this.loadError = loadError;
+        super(loadError);
     }
 
-    void setReady()
+    void setIndexing()
     {
-        ready = true;
+        setStage(TraceDbLoadStage.INDEXING);
     }
 
-    void incrementProcessedMatchers()
+    void setReady()
     {
-        loadedMatchers++;
+        setStage(TraceDbLoadStage.READY);
     }
 
-    void incrementProcessedNodes()
+    // Only ever called from the loading thread
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    void addProcessedMatchers(final int count)
     {
-        loadedNodes++;
+        loadedMatchers += count;
+        fireProgress();
     }
 
-    @Override
-    public boolean isReady()
+    // Called concurrently by node writers
+    void addProcessedNodes(final int count)
     {
-        final Throwable throwable = loadError.get();
-
-        if (throwable == null)
-            return ready;
-
-        if (throwable instanceof Error)
-            throw (Error) throwable;
-        if (throwable instanceof RuntimeException)
-            throw (RuntimeException) throwable;
-        throw new TraceModelException(throwable);
+        loadedNodes.addAndGet(count);
+        fireProgress();
     }
 
     @Override
@@ -58,6 +51,6 @@ public final class H2TraceDbLoadStatus
     @Override
     public int getLoadedNodes()
     {
-        return loadedNodes;
+        return loadedNodes.get();
     }
 }
@@ -1,51 +1,142 @@
 package com.github.fge.grappa.debugger.h2.db.load;
 
-import com.google.common.base.Charsets;
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
+import com.github.fge.grappa.debugger.TraceSource;
+import com.github.fge.grappa.debugger.TraceZip;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
+import com.github.fge.grappa.debugger.model.matches.MatcherStatsCollector;
+import com.github.fge.grappa.debugger.model.profiler.RepeatedCallsCollector;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
+import com.github.fge.lambdas.Throwing;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Record2;
+import org.jooq.Record8;
+import org.jooq.impl.DSL;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import static com.github.fge.grappa.debugger.h2.jooq.Tables.MATCHERS;
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.MATCHER_STATS;
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.MEMOIZATION_STATS;
 import static com.github.fge.grappa.debugger.h2.jooq.Tables.NODES;
 
 @ParametersAreNonnullByDefault
 public final class H2TraceDbLoader
 {
-    private static final Charset UTF8 = Charsets.UTF_8;
+    public static final int DEFAULT_BATCH_SIZE = 5000;
 
-    private static final String MATCHERS_PATH = "/matchers.csv";
-    private static final String NODES_PATH = "/nodes.csv";
+    /*
+     * More writers have shown no gain so far (see H2ImportBenchmark), while
+     * each of them holds a thread and a connection for the whole load.
+     */
+    public static final int DEFAULT_NR_WRITERS = 1;
 
-    private final CsvMatchersRecord csvToMatcher = new CsvMatchersRecord();
+    /**
+     * Script creating the keys and indexes of the nodes table
+     *
+     * <p>It is run once all nodes are loaded.</p>
+     */
+    public static final String INDEXES_SCRIPT
+        = "classpath:/db/h2-postload/create_indexes.sql";
+
+    // Columns of nodes.csv, in order, separated by the field separator
+    private static final String NODES_CSV_COLUMNS = "PARENT_ID;ID;LEVEL"
+        + ";SUCCESS;MATCHER_ID;START_INDEX;END_INDEX;TIME";
+    private static final String CSVREAD_OPTIONS
+        = "charset=UTF-8 fieldSeparator=;";
+
+    /*
+     * jOOQ cannot render it, but DIRECT matters here: without it, H2 first
+     * buffers the whole result of the SELECT before inserting anything.
+     */
+    private static final String NODES_CSVREAD_SQL = "insert into nodes"
+        + " (parent_id, id, level, success, matcher_id, start_index"
+        + ", end_index, time)"
+        + " direct select * from csvread({0}, {1}, {2})";
 
-    private final CsvNodesRecord csvToNode = new CsvNodesRecord();
+    // Files written by writeCacheFiles()
+    private static final String CHILDREN_COUNTS_FILE = "children_counts.bin";
+    private static final String LINE_DEPTHS_FILE = "line_depths.bin";
+    private static final String NODE_POSITIONS_FILE = "node_positions.bin";
+
+    private final CsvMatchersRecord csvToMatcher = new CsvMatchersRecord();
 
-    private final FileSystem fs;
-    private final Path matchersPath;
-    private final Path nodesPath;
+    private final TraceSource source;
+    private final InputBuffer inputBuffer;
+    @Nullable
+    private final Path zipfile;
     private final H2TraceDbLoadStatus status;
+    private final H2ChildrenCounts childrenCounts;
+
+    @Nullable
+    private volatile LineDepthIndex lineDepths = null;
+    @Nullable
+    private volatile NodePositionIndex nodePositions = null;
+    private volatile boolean matcherStatsReady = false;
 
     private final DSLContext jooq;
+    private final H2ImportMode importMode;
+    private final int batchSize;
+    private final int nrWriters;
 
     private final AtomicReference<Throwable> loadError;
 
-    public H2TraceDbLoader(final FileSystem fs, final DSLContext jooq,
-        final AtomicReference<Throwable> loadError)
+    /**
+     * Constructor
+     *
+     * <p>{@link H2ImportMode#CSVREAD} needs the path to the trace zip; if it
+     * is not available (for instance, the source is a binary trace), nodes
+     * are loaded in {@link H2ImportMode#BATCH} mode instead.</p>
+     *
+     * @param source the trace
+     * @param inputBuffer the input of the trace
+     * @param zipfile the path to the trace zip, if the trace is a zip
+     * @param jooq the jOOQ context
+     * @param loadError where to record load errors
+     * @param importMode the import mode for nodes
+     * @param batchSize the number of rows per insert batch
+     * @param nrWriters the number of node writers in batch mode
+     * @throws IOException failed to read the parse information
+     */
+    public H2TraceDbLoader(final TraceSource source,
+        final InputBuffer inputBuffer, @Nullable final Path zipfile,
+        final DSLContext jooq,
+        final AtomicReference<Throwable> loadError,
+        final H2ImportMode importMode, final int batchSize,
+        final int nrWriters)
+        throws IOException
     {
-        this.fs = fs;
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("batch size must be strictly"
+                + " positive");
+        if (nrWriters <= 0)
+            throw new IllegalArgumentException("number of writers must be"
+                + " strictly positive");
+
+        this.source = source;
+        this.inputBuffer = inputBuffer;
+        this.zipfile = zipfile;
         this.jooq = jooq;
         this.loadError = loadError;
+        this.importMode = zipfile == null ? H2ImportMode.BATCH : importMode;
+        this.batchSize = batchSize;
+        this.nrWriters = nrWriters;
         status = new H2TraceDbLoadStatus(loadError);
-
-        matchersPath = fs.getPath(MATCHERS_PATH);
-        nodesPath = fs.getPath(NODES_PATH);
+        childrenCounts
+            = new H2ChildrenCounts(source.getParseInfo().getNrNodes());
     }
 
     public H2TraceDbLoadStatus getStatus()
@@ -53,42 +144,306 @@ public final class H2TraceDbLoader
         return status;
     }
 
+    public H2ChildrenCounts getChildrenCounts()
+    {
+        return childrenCounts;
+    }
+
+    /**
+     * Return the line depth index of the trace
+     *
+     * @return the index, or null if it is not built yet
+     */
+    @Nullable
+    public LineDepthIndex getLineDepths()
+    {
+        return lineDepths;
+    }
+
+    /**
+     * Return the node position index of the trace
+     *
+     * @return the index, or null if it is not built yet
+     */
+    @Nullable
+    public NodePositionIndex getNodePositions()
+    {
+        return nodePositions;
+    }
+
+    /**
+     * Tell whether the matcher_stats and memoization_stats tables are filled
+     *
+     * @return true if it is
+     */
+    public boolean isMatcherStatsReady()
+    {
+        return matcherStatsReady;
+    }
+
+    /**
+     * Tell whether the trace was fully loaded without error
+     *
+     * @return true if it was
+     */
+    public boolean isLoadComplete()
+    {
+        return status.getStage() == TraceDbLoadStage.READY
+            && loadError.get() == null;
+    }
+
     @SuppressWarnings("ErrorNotRethrown")
     public void loadAll()
         throws IOException
     {
         try {
             insertMatchers(jooq);
-            insertNodes(jooq);
+            if (importMode == H2ImportMode.CSVREAD)
+                readNodesCsv(jooq);
+            else
+                insertNodes(jooq);
+            status.setIndexing();
+            createIndexes(jooq);
+            if (importMode == H2ImportMode.CSVREAD)
+                countChildren(jooq);
+            scanNodes(jooq);
         } catch (IOException | RuntimeException | Error e) {
             loadError.set(e);
         } finally {
-            fs.close();
+            source.close();
             status.setReady();
         }
     }
 
-    private void insertMatchers(final DSLContext jooq)
+    /**
+     * Load a trace whose database was filled by a previous {@link #loadAll()}
+     *
+     * <p>The database is not read at all: children counts, the line depth
+     * index and the node position index are read from files written by {@link
+     * #writeCacheFiles(Path)}.</p>
+     *
+     * @param directory the directory of the files
+     * @throws IOException failed to close the source
+     */
+    @SuppressWarnings("ErrorNotRethrown")
+    public void loadCached(final Path directory)
         throws IOException
     {
+        try {
+            childrenCounts.readFrom(directory.resolve(CHILDREN_COUNTS_FILE));
+            childrenCounts.setReady();
+            try (
+                final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(
+                        directory.resolve(LINE_DEPTHS_FILE))));
+            ) {
+                lineDepths = LineDepthIndex.readFrom(in);
+            }
+            try (
+                final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(
+                        directory.resolve(NODE_POSITIONS_FILE))));
+            ) {
+                nodePositions = NodePositionIndex.readFrom(in);
+            }
+            status.addProcessedMatchers(source.getParseInfo().getNrMatchers());
+            status.addProcessedNodes(source.getParseInfo().getNrNodes());
+            matcherStatsReady = true;
+        } catch (IOException | RuntimeException | Error e) {
+            loadError.set(e);
+        } finally {
+            source.close();
+            status.setReady();
+        }
+    }
+
+    /**
+     * Save the data which {@link #loadCached(Path)} needs
+     *
+     * <p>The trace must be fully loaded.</p>
+     *
+     * @param directory the directory where files are written
+     * @throws IOException failed to write a file
+     *
+     * @see #isLoadComplete()
+     */
+    public void writeCacheFiles(final Path directory)
+        throws IOException
+    {
+        final LineDepthIndex index = lineDepths;
+        final NodePositionIndex positions = nodePositions;
+
+        if (!isLoadComplete() || index == null || positions == null)
+            throw new IllegalStateException("trace is not fully loaded");
+
+        childrenCounts.writeTo(directory.resolve(CHILDREN_COUNTS_FILE));
+
         try (
-            final Stream<String> lines = Files.lines(matchersPath, UTF8);
+            final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(
+                    directory.resolve(LINE_DEPTHS_FILE))));
         ) {
-            lines.map(csvToMatcher)
-                .peek(ignored -> status.incrementProcessedMatchers())
-                .forEach(r -> jooq.insertInto(MATCHERS).set(r).execute());
+            index.writeTo(out);
         }
+
+        try (
+            final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(
+                    directory.resolve(NODE_POSITIONS_FILE))));
+        ) {
+            positions.writeTo(out);
+        }
+    }
+
+    private void insertMatchers(final DSLContext jooq)
+    {
+        jooq.connection(connection -> {
+            try (
+                final Stream<String> lines = source.getMatcherLines();
+                final H2BatchInserter inserter = new H2BatchInserter(jooq,
+                    connection, MATCHERS, batchSize,
+                    status::addProcessedMatchers);
+            ) {
+                lines.map(csvToMatcher)
+                    .map(Record::intoArray)
+                    .forEach(Throwing.consumer(inserter::insert));
+            }
+        });
     }
 
     private void insertNodes(final DSLContext jooq)
         throws IOException
     {
+        new H2NodesPipeline(jooq, batchSize, nrWriters,
+            status::addProcessedNodes, childrenCounts).load(source);
+
+        childrenCounts.setReady();
+    }
+
+    private void readNodesCsv(final DSLContext jooq)
+    {
+        final String csvPath = "zip:" + zipfile.toAbsolutePath() + '!'
+            + TraceZip.NODES_PATH;
+
+        // H2 evaluates CSVREAD's arguments when preparing the statement, so
+        // they cannot be bind values
+        final int inserted = jooq.execute(NODES_CSVREAD_SQL,
+            DSL.inline(csvPath), DSL.inline(NODES_CSV_COLUMNS),
+            DSL.inline(CSVREAD_OPTIONS));
+
+        status.addProcessedNodes(inserted);
+    }
+
+    private void createIndexes(final DSLContext jooq)
+    {
+        jooq.execute("runscript from {0}", DSL.inline(INDEXES_SCRIPT));
+    }
+
+    // In batch mode, writers count children as they go
+    private void countChildren(final DSLContext jooq)
+    {
+        try (
+            final Cursor<Record2<Integer, Integer>> cursor
+                = jooq.select(NODES.PARENT_ID, DSL.count())
+                .from(NODES)
+                .groupBy(NODES.PARENT_ID)
+                .fetchLazy();
+        ) {
+            cursor.forEach(r -> childrenCounts.set(r.value1(), r.value2()));
+        }
+
+        childrenCounts.setReady();
+    }
+
+    /*
+     * Both indexes, the per matcher statistics and the repeated calls are
+     * built in a single pass over the nodes, in any order.
+     */
+    @SuppressWarnings("AutoUnboxing")
+    private void scanNodes(final DSLContext jooq)
+        throws IOException
+    {
+        final int nrMatchers = source.getParseInfo().getNrMatchers();
+        final LineDepthIndex.Builder depthsBuilder
+            = LineDepthIndex.newBuilder(inputBuffer);
+        final NodePositionIndex.Builder positionsBuilder
+            = NodePositionIndex.newBuilder();
+        final MatcherStatsCollector collector = new MatcherStatsCollector(
+            nrMatchers, source.getParseInfo().getNrNodes());
+        final RepeatedCallsCollector repeatedCalls
+            = new RepeatedCallsCollector(nrMatchers);
+
         try (
-            final Stream<String> lines = Files.lines(nodesPath, UTF8);
+            final Cursor<Record8<Integer, Integer, Integer, Integer, Integer,
+                Integer, Integer, Long>> cursor = jooq.select(NODES.ID,
+                NODES.PARENT_ID, NODES.LEVEL, NODES.MATCHER_ID, NODES.SUCCESS,
+                NODES.START_INDEX, NODES.END_INDEX, NODES.TIME)
+                .from(NODES)
+                .fetchLazy();
         ) {
-            lines.map(csvToNode)
-                .peek(ignored -> status.incrementProcessedNodes())
-                .forEach(r -> jooq.insertInto(NODES).set(r).execute());
+            cursor.forEach(r -> {
+                final boolean success = r.value5() == 1;
+                depthsBuilder.addNode(r.value3(), r.value6(), r.value7());
+                positionsBuilder.addNode(r.value1(), success, r.value6(),
+                    r.value7());
+                collector.addNode(r.value1(), r.value2(), r.value4(),
+                    success, r.value6(), r.value7(), r.value8());
+                repeatedCalls.addNode(r.value1(), r.value4(), r.value6(),
+                    r.value8());
+            });
         }
+
+        lineDepths = depthsBuilder.build();
+        nodePositions = positionsBuilder.build();
+
+        writeMatcherStats(jooq, collector);
+        writeMemoizationStats(jooq, repeatedCalls);
+        matcherStatsReady = true;
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    private void writeMatcherStats(final DSLContext jooq,
+        final MatcherStatsCollector collector)
+    {
+        collector.finish();
+
+        jooq.connection(connection -> {
+            try (
+                final H2BatchInserter inserter = new H2BatchInserter(jooq,
+                    connection, MATCHER_STATS, batchSize, count -> {});
+            ) {
+                final int nrMatchers = collector.getNrMatchers();
+                for (int id = 0; id < nrMatchers; id++)
+                    if (collector.getCalls(id) > 0)
+                        inserter.insert(new Object[] {
+                            id, collector.getCalls(id),
+                            collector.getNonEmptyMatches(id),
+                            collector.getEmptyMatches(id),
+                            collector.getFailedMatches(id),
+                            collector.getTotalTime(id),
+                            collector.getSelfTime(id)
+                        });
+            }
+        });
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    private void writeMemoizationStats(final DSLContext jooq,
+        final RepeatedCallsCollector collector)
+    {
+        jooq.connection(connection -> {
+            try (
+                final H2BatchInserter inserter = new H2BatchInserter(jooq,
+                    connection, MEMOIZATION_STATS, batchSize, count -> {});
+            ) {
+                final int nrMatchers = collector.getNrMatchers();
+                for (int id = 0; id < nrMatchers; id++)
+                    if (collector.getRepeatedCalls(id) > 0)
+                        inserter.insert(new Object[] {
+                            id, collector.getRepeatedCalls(id),
+                            collector.getRepeatedTime(id)
+                        });
+            }
+        });
     }
 }
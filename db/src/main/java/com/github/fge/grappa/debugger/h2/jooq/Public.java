@@ -3,7 +3,9 @@
  */
 package com.github.fge.grappa.debugger.h2.jooq;
 
+import com.github.fge.grappa.debugger.h2.jooq.tables.MatcherStats;
 import com.github.fge.grappa.debugger.h2.jooq.tables.Matchers;
+import com.github.fge.grappa.debugger.h2.jooq.tables.MemoizationStats;
 import com.github.fge.grappa.debugger.h2.jooq.tables.Nodes;
 
 /**
@@ -42,7 +44,9 @@ public class Public extends org.jooq.impl.SchemaImpl {
 
 	private final java.util.List<org.jooq.Table<?>> getTables0() {
 		return java.util.Arrays.<org.jooq.Table<?>>asList(
+			MatcherStats.MATCHER_STATS,
 			Matchers.MATCHERS,
+			MemoizationStats.MEMOIZATION_STATS,
 			Nodes.NODES);
 	}
 }
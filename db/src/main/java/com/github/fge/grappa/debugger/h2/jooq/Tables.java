@@ -3,7 +3,9 @@
  */
 package com.github.fge.grappa.debugger.h2.jooq;
 
+import com.github.fge.grappa.debugger.h2.jooq.tables.MatcherStats;
 import com.github.fge.grappa.debugger.h2.jooq.tables.Matchers;
+import com.github.fge.grappa.debugger.h2.jooq.tables.MemoizationStats;
 import com.github.fge.grappa.debugger.h2.jooq.tables.Nodes;
 
 /**
@@ -19,11 +21,21 @@ import com.github.fge.grappa.debugger.h2.jooq.tables.Nodes;
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
 public class Tables {
 
+	/**
+	 * The table PUBLIC.MATCHER_STATS
+	 */
+	public static final MatcherStats MATCHER_STATS = MatcherStats.MATCHER_STATS;
+
 	/**
 	 * The table PUBLIC.MATCHERS
 	 */
 	public static final Matchers MATCHERS = Matchers.MATCHERS;
 
+	/**
+	 * The table PUBLIC.MEMOIZATION_STATS
+	 */
+	public static final MemoizationStats MEMOIZATION_STATS = MemoizationStats.MEMOIZATION_STATS;
+
 	/**
 	 * The table PUBLIC.NODES
 	 */
@@ -1,29 +1,39 @@
 package com.github.fge.grappa.debugger.h2.model;
 
 import com.github.fge.grappa.buffers.InputBuffer;
-import com.github.fge.grappa.debugger.h2.jooq.tables.Nodes;
+import com.github.fge.grappa.debugger.h2.db.load.H2ChildrenCounts;
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.grappa.debugger.model.TraceModelException;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
 import com.github.fge.grappa.debugger.model.matches.MatchesData;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
 import com.github.fge.grappa.debugger.model.rules.PerClassStatistics;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
 import com.github.fge.grappa.matchers.MatcherType;
-import com.github.fge.grappa.support.IndexRange;
-import org.jooq.CaseConditionStep;
+import org.jooq.CommonTableExpression;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Record1;
+import org.jooq.Record2;
+import org.jooq.SelectSeekStep1;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
 import javax.annotation.Nonnull;
+import java.util.Collections;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 import static com.github.fge.grappa.debugger.h2.jooq.Tables.MATCHERS;
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.MATCHER_STATS;
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.MEMOIZATION_STATS;
 import static com.github.fge.grappa.debugger.h2.jooq.Tables.NODES;
 
 @SuppressWarnings({ "AutoUnboxing", "AutoBoxing" })
@@ -37,13 +47,57 @@ public final class H2TraceModel
     private static final Condition FAILED_MATCHES_CONDITION
         = NODES.SUCCESS.eq(0);
 
+    private static final Field<?>[] NODE_FIELDS = {
+        NODES.PARENT_ID, NODES.ID, NODES.LEVEL, NODES.SUCCESS,
+        MATCHERS.CLASS_NAME, MATCHERS.MATCHER_TYPE, MATCHERS.NAME,
+        NODES.START_INDEX, NODES.END_INDEX, NODES.TIME
+    };
+
+    // The recursive common table expression of getAncestry()
+    private static final Table<Record> ANCESTORS
+        = DSL.table(DSL.name("ANCESTORS"));
+    private static final Field<Integer> ANCESTOR_ID
+        = DSL.field(DSL.name("ANCESTORS", "ID"), Integer.class);
+    private static final Field<Integer> ANCESTOR_PARENT_ID
+        = DSL.field(DSL.name("ANCESTORS", "PARENT_ID"), Integer.class);
+
     private final DSLContext jooq;
     private final InputBuffer inputBuffer;
+    private final H2ChildrenCounts childrenCounts;
+    private final ParseTreeNodeMapper nodeMapper;
+    private final Supplier<LineDepthIndex> lineDepths;
+    private final Supplier<NodePositionIndex> nodePositions;
+    private final BooleanSupplier matcherStatsReady;
 
-    public H2TraceModel(final DSLContext jooq, final InputBuffer inputBuffer)
+    /**
+     * Constructor
+     *
+     * <p>The line depth index, the node position index and the per matcher
+     * statistics are only available once the trace is loaded; until then,
+     * queries aggregate the nodes loaded so far.</p>
+     *
+     * @param jooq the jOOQ context
+     * @param inputBuffer the input of the trace
+     * @param childrenCounts the number of children of each node
+     * @param lineDepths the line depth index; supplies null until built
+     * @param nodePositions the node position index; supplies null until
+     * built
+     * @param matcherStatsReady tells whether the matcher_stats table is
+     * filled
+     */
+    public H2TraceModel(final DSLContext jooq, final InputBuffer inputBuffer,
+        final H2ChildrenCounts childrenCounts,
+        final Supplier<LineDepthIndex> lineDepths,
+        final Supplier<NodePositionIndex> nodePositions,
+        final BooleanSupplier matcherStatsReady)
     {
         this.jooq = jooq;
         this.inputBuffer = inputBuffer;
+        this.childrenCounts = childrenCounts;
+        this.lineDepths = lineDepths;
+        this.nodePositions = nodePositions;
+        this.matcherStatsReady = matcherStatsReady;
+        nodeMapper = new ParseTreeNodeMapper(id -> getNrChildren(id) >= 1);
     }
 
     @Nonnull
@@ -54,6 +108,38 @@ public final class H2TraceModel
         return getNodes(condition);
     }
 
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodeChildren(final int nodeId,
+        final int offset, final int limit)
+    {
+        return selectNodes(NODES.PARENT_ID.eq(nodeId))
+            .limit(offset, limit)
+            .fetch().map(nodeMapper);
+    }
+
+    @Override
+    public int getNrChildren(final int nodeId)
+    {
+        if (childrenCounts.isReady())
+            return childrenCounts.get(nodeId);
+
+        return jooq.selectCount()
+            .from(NODES)
+            .where(NODES.PARENT_ID.eq(nodeId))
+            .fetchOne().value1();
+    }
+
+    @Override
+    public int getNrChildrenBefore(final int nodeId, final int childId)
+    {
+        return jooq.selectCount()
+            .from(NODES)
+            .where(NODES.PARENT_ID.eq(nodeId))
+            .and(NODES.ID.lt(childId))
+            .fetchOne().value1();
+    }
+
     @Nonnull
     @Override
     public ParseTreeNode getNodeById(final int id)
@@ -67,23 +153,79 @@ public final class H2TraceModel
         return nodes.get(0);
     }
 
-    private List<ParseTreeNode> getNodes(final Condition condition)
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodePathAt(final int index)
+    {
+        final NodePositionIndex positions = nodePositions.get();
+        final int nodeId = positions != null ? positions.getNodeId(index)
+            : findNodeIdAt(index);
+
+        return nodeId == NodePositionIndex.NO_NODE ? Collections.emptyList()
+            : getAncestry(nodeId);
+    }
+
+    // Not loaded yet: see NodePositionIndex for which node is returned
+    private int findNodeIdAt(final int index)
+    {
+        final Record1<Integer> record = jooq.select(NODES.ID)
+            .from(NODES)
+            .where(NODES.SUCCESS.eq(1))
+            .and(NODES.START_INDEX.le(index))
+            .and(NODES.END_INDEX.gt(index))
+            .orderBy(NODES.START_INDEX.desc(), NODES.ID.desc())
+            .limit(1)
+            .fetchOne();
+
+        return record == null ? NodePositionIndex.NO_NODE : record.value1();
+    }
+
+    /*
+     * A single query, whatever the depth of the node.
+     *
+     * H2 does not support bind values in the definition of a recursive
+     * common table expression, hence the inlined node id.
+     */
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getAncestry(final int nodeId)
     {
-        final Nodes nodes2 = NODES.as("nodes2");
+        final CommonTableExpression<Record2<Integer, Integer>> ancestors
+            = DSL.name("ANCESTORS").fields("ID", "PARENT_ID")
+            .as(DSL.select(NODES.ID, NODES.PARENT_ID)
+                .from(NODES)
+                .where(NODES.ID.eq(DSL.inline(nodeId)))
+                .unionAll(DSL.select(NODES.ID, NODES.PARENT_ID)
+                    .from(NODES, ANCESTORS)
+                    .where(NODES.ID.eq(ANCESTOR_PARENT_ID))));
+
+        final List<ParseTreeNode> ret = jooq.withRecursive(ancestors)
+            .select(NODE_FIELDS)
+            .from(NODES, MATCHERS, ancestors)
+            .where(MATCHERS.ID.eq(NODES.MATCHER_ID))
+            .and(NODES.ID.eq(ANCESTOR_ID))
+            .orderBy(NODES.LEVEL)
+            .fetch().map(nodeMapper);
+
+        if (ret.isEmpty())
+            throw new TraceModelException("no node with id " + nodeId);
+
+        return ret;
+    }
 
-        final Field<Integer> nrChildren = jooq.select(DSL.count(nodes2.ID))
-            .from(nodes2)
-            .where(nodes2.PARENT_ID.eq(NODES.ID))
-            .asField("nrChildren");
+    private List<ParseTreeNode> getNodes(final Condition condition)
+    {
+        return selectNodes(condition).fetch().map(nodeMapper);
+    }
 
-        return jooq.select(NODES.PARENT_ID, NODES.ID, NODES.LEVEL,
-            NODES.SUCCESS, MATCHERS.CLASS_NAME, MATCHERS.MATCHER_TYPE,
-            MATCHERS.NAME, NODES.START_INDEX, NODES.END_INDEX, NODES.TIME,
-            nrChildren)
+    private SelectSeekStep1<Record, Integer> selectNodes(
+        final Condition condition)
+    {
+        return jooq.select(NODE_FIELDS)
             .from(NODES, MATCHERS)
             .where(MATCHERS.ID.eq(NODES.MATCHER_ID))
             .and(condition)
-            .fetch().map(ParseTreeNodeMapper.INSTANCE);
+            .orderBy(NODES.ID);
     }
 
     @Nonnull
@@ -103,6 +245,22 @@ public final class H2TraceModel
     @Nonnull
     @Override
     public List<PerClassStatistics> getRulesByClass()
+    {
+        if (!matcherStatsReady.getAsBoolean())
+            return aggregateRulesByClass();
+
+        return jooq.select(MATCHERS.CLASS_NAME,
+            DSL.sum(MATCHER_STATS.CALLS).as("nrCalls"),
+            DSL.count().as("nrRules"))
+            .from(MATCHERS, MATCHER_STATS)
+            .where(MATCHER_STATS.MATCHER_ID.eq(MATCHERS.ID))
+            .groupBy(MATCHERS.CLASS_NAME)
+            .fetch()
+            .map(PerClassStatisticsMapper.INSTANCE);
+    }
+
+    // Not loaded yet: aggregate the nodes loaded so far
+    private List<PerClassStatistics> aggregateRulesByClass()
     {
         return jooq.select(MATCHERS.CLASS_NAME, DSL.count().as("nrCalls"),
             DSL.countDistinct(NODES.MATCHER_ID).as("nrRules"))
@@ -118,35 +276,51 @@ public final class H2TraceModel
     public Map<Integer, Integer> getDepthMap(final int startLine,
         final int wantedLines)
     {
-        final List<IndexRange> ranges
-            = IntStream.range(startLine, startLine + wantedLines)
-            .mapToObj(inputBuffer::getLineRange)
-            .collect(Collectors.toList());
+        final LineDepthIndex index = lineDepths.get();
 
-        final int startIndex = ranges.get(0).start;
-        final int endIndex = ranges.get(ranges.size() - 1).end;
-        final Condition indexCondition = NODES.START_INDEX.lt(endIndex)
-            .and(NODES.END_INDEX.ge(startIndex));
+        if (index != null)
+            return index.getDepthMap(startLine, wantedLines);
 
-        final Field<Integer> lineField = getLineField(startLine, ranges);
+        // Not loaded yet: only index the wanted lines
+        final int startIndex = inputBuffer.getLineRange(startLine).start;
+        final int endIndex
+            = inputBuffer.getLineRange(startLine + wantedLines - 1).end;
 
-        final Map<Integer, Integer> ret = new HashMap<>();
+        final LineDepthIndex.Builder builder
+            = LineDepthIndex.newBuilder(inputBuffer, startLine, wantedLines);
 
-        jooq.select(lineField, DSL.max(NODES.LEVEL))
+        jooq.select(NODES.LEVEL, NODES.START_INDEX, NODES.END_INDEX)
             .from(NODES)
-            .where(indexCondition)
-            .groupBy(lineField)
-            .forEach(r -> ret.put(r.value1(), r.value2() + 1));
-
-        IntStream.range(startLine, startLine + wantedLines)
-            .forEach(line -> ret.putIfAbsent(line, 0));
+            .where(NODES.START_INDEX.lt(endIndex))
+            .and(NODES.END_INDEX.ge(startIndex))
+            .forEach(r -> builder.addNode(r.value1(), r.value2(),
+                r.value3()));
 
-        return ret;
+        return builder.build().getDepthMap(startLine, wantedLines);
     }
 
     @Nonnull
     @Override
     public MatchesData getMatchesData()
+    {
+        if (!matcherStatsReady.getAsBoolean())
+            return aggregateMatchesData();
+
+        return jooq.select(MATCHERS.NAME, MATCHERS.MATCHER_TYPE,
+            MATCHERS.CLASS_NAME,
+            DSL.sum(MATCHER_STATS.EMPTY_MATCHES).as("emptyMatches"),
+            DSL.sum(MATCHER_STATS.NONEMPTY_MATCHES).as("nonEmptyMatches"),
+            DSL.sum(MATCHER_STATS.FAILED_MATCHES).as("failedMatches"))
+            .from(MATCHERS, MATCHER_STATS)
+            .where(MATCHERS.ID.eq(MATCHER_STATS.MATCHER_ID))
+            .groupBy(MATCHERS.NAME, MATCHERS.MATCHER_TYPE, MATCHERS.CLASS_NAME)
+            .fetch().stream()
+            .map(MatchStatisticsMapper.INSTANCE::map)
+            .collect(MatchesData.asCollector());
+    }
+
+    // Not loaded yet: aggregate the nodes loaded so far
+    private MatchesData aggregateMatchesData()
     {
         final Field<Integer> emptyMatches = DSL.decode()
             .when(EMPTY_MATCHES_CONDITION, 1).otherwise(0);
@@ -168,23 +342,40 @@ public final class H2TraceModel
             .collect(MatchesData.asCollector());
     }
 
-    private Field<Integer> getLineField(final int startLine,
-        final List<IndexRange> ranges)
+    @Nonnull
+    @Override
+    public List<RuleProfile> getRuleProfiles()
     {
-        CaseConditionStep<Integer> step = DSL.decode()
-            .when(activeThisRange(ranges.get(0)), startLine);
+        if (!matcherStatsReady.getAsBoolean())
+            return Collections.emptyList();
 
-        final int size = ranges.size();
-
-        for (int i = 1; i < size; i++)
-            step = step.when(activeThisRange(ranges.get(i)), startLine + i);
-
-        return step.as("line");
+        return jooq.select(MATCHERS.NAME, MATCHERS.MATCHER_TYPE,
+            MATCHERS.CLASS_NAME, MATCHER_STATS.CALLS, MATCHER_STATS.TOTAL_TIME,
+            MATCHER_STATS.SELF_TIME)
+            .from(MATCHERS, MATCHER_STATS)
+            .where(MATCHERS.ID.eq(MATCHER_STATS.MATCHER_ID))
+            .fetch()
+            .map(RuleProfileMapper.INSTANCE);
     }
 
-    private static Condition activeThisRange(final IndexRange range)
+    // Written by the loader along with matcher_stats
+    @Nonnull
+    @Override
+    public List<MemoizationCandidate> getMemoizationCandidates()
     {
-        return NODES.START_INDEX.lt(range.end)
-            .and(NODES.END_INDEX.ge(range.start));
+        if (!matcherStatsReady.getAsBoolean())
+            return Collections.emptyList();
+
+        return jooq.select(MATCHERS.NAME, MATCHERS.MATCHER_TYPE,
+            MATCHERS.CLASS_NAME, MATCHER_STATS.CALLS,
+            MEMOIZATION_STATS.REPEATED_CALLS, MEMOIZATION_STATS.REPEATED_TIME)
+            .from(MATCHERS, MATCHER_STATS, MEMOIZATION_STATS)
+            .where(MATCHERS.ID.eq(MEMOIZATION_STATS.MATCHER_ID))
+            .and(MATCHER_STATS.MATCHER_ID.eq(MEMOIZATION_STATS.MATCHER_ID))
+            .orderBy(MEMOIZATION_STATS.REPEATED_TIME.desc(),
+                MEMOIZATION_STATS.REPEATED_CALLS.desc(),
+                MEMOIZATION_STATS.MATCHER_ID.asc())
+            .fetch()
+            .map(MemoizationCandidateMapper.INSTANCE);
     }
 }
@@ -0,0 +1,35 @@
+package com.github.fge.grappa.debugger.h2.model;
+
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.MATCHER_STATS;
+import static com.github.fge.grappa.debugger.h2.jooq.Tables.MEMOIZATION_STATS;
+
+public final class MemoizationCandidateMapper
+    implements RecordMapper<Record, MemoizationCandidate>
+{
+    public static final RecordMapper<Record, MemoizationCandidate> INSTANCE
+        = new MemoizationCandidateMapper();
+
+    private final RecordMapper<Record, RuleInfo> ruleInfoMapper
+        = RuleInfoMapper.INSTANCE;
+
+    private MemoizationCandidateMapper()
+    {
+    }
+
+    @SuppressWarnings("AutoUnboxing")
+    @Override
+    public MemoizationCandidate map(final Record record)
+    {
+        final RuleInfo info = ruleInfoMapper.map(record);
+        return new MemoizationCandidate(info,
+            record.getValue(MATCHER_STATS.CALLS),
+            record.getValue(MEMOIZATION_STATS.REPEATED_CALLS),
+            record.getValue(MEMOIZATION_STATS.REPEATED_TIME)
+        );
+    }
+}
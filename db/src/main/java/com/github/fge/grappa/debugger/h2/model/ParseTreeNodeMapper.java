@@ -6,17 +6,19 @@ import com.github.fge.grappa.matchers.MatcherType;
 import org.jooq.Record;
 import org.jooq.RecordMapper;
 
+import java.util.function.IntPredicate;
+
 import static com.github.fge.grappa.debugger.h2.jooq.Tables.MATCHERS;
 import static com.github.fge.grappa.debugger.h2.jooq.Tables.NODES;
 
 public final class ParseTreeNodeMapper
     implements RecordMapper<Record, ParseTreeNode>
 {
-    public static final RecordMapper<Record, ParseTreeNode> INSTANCE
-        = new ParseTreeNodeMapper();
+    private final IntPredicate hasChildren;
 
-    private ParseTreeNodeMapper()
+    public ParseTreeNodeMapper(final IntPredicate hasChildren)
     {
+        this.hasChildren = hasChildren;
     }
 
     @SuppressWarnings("AutoUnboxing")
@@ -31,20 +33,19 @@ public final class ParseTreeNodeMapper
             record.getValue(MATCHERS.NAME)
         );
 
+        final int id = record.getValue(NODES.ID);
         final boolean success = record.getValue(NODES.SUCCESS) == 1;
-        final boolean hasChildren
-            = record.getValue("nrChildren", Integer.class) >= 1;
 
         return new ParseTreeNode(
             record.getValue(NODES.PARENT_ID),
-            record.getValue(NODES.ID),
+            id,
             record.getValue(NODES.LEVEL),
             success,
             ruleInfo,
             record.getValue(NODES.START_INDEX),
             record.getValue(NODES.END_INDEX),
             record.getValue(NODES.TIME),
-            hasChildren
+            hasChildren.test(id)
         );
     }
 }
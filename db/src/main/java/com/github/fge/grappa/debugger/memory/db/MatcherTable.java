@@ -0,0 +1,52 @@
+package com.github.fge.grappa.debugger.memory.db;
+
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Arrays;
+
+/**
+ * In memory storage of the matchers of a trace, indexed by matcher id
+ *
+ * <p>Matchers are all added before any node is; the table is not modified
+ * afterwards.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class MatcherTable
+{
+    private RuleInfo[] rules;
+    private volatile int size = 0;
+
+    public MatcherTable(final int capacity)
+    {
+        rules = new RuleInfo[Math.max(capacity, 1)];
+    }
+
+    public void add(final int id, final RuleInfo ruleInfo)
+    {
+        if (id >= rules.length)
+            rules = Arrays.copyOf(rules, Math.max(id + 1, 2 * rules.length));
+
+        rules[id] = ruleInfo;
+
+        if (id >= size)
+            size = id + 1;
+    }
+
+    /**
+     * Return the number of matcher slots; some slots may be empty
+     *
+     * @return the number of slots
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    @Nullable
+    public RuleInfo get(final int id)
+    {
+        return id < size ? rules[id] : null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.fge.grappa.debugger.memory.db;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+import com.github.fge.grappa.debugger.TraceZip;
+import com.github.fge.grappa.debugger.memory.db.load.MemoryTraceDbLoader;
+import com.github.fge.grappa.debugger.memory.model.MemoryTraceModel;
+import com.github.fge.grappa.debugger.model.TraceModel;
+import com.github.fge.lambdas.Throwing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class MemoryTraceDb
+    implements TraceDb
+{
+    private static final Map<String, ?> ENV
+        = Collections.singletonMap("readonly", "true");
+
+    private final FileSystem fs;
+
+    private final MatcherTable matchers;
+    private final NodeColumns nodes;
+
+    private final MemoryTraceDbLoader loader;
+    private final AtomicReference<Throwable> loadError
+        = new AtomicReference<>();
+    private final ThreadFactory threadFactory
+        = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat("grappa-memory-load-%d")
+        .setUncaughtExceptionHandler((t, e) -> loadError.set(e))
+        .build();
+    private final ExecutorService executor
+        = Executors.newSingleThreadExecutor(threadFactory);
+
+    private final ParseInfo info;
+    private final InputBuffer inputBuffer;
+
+    public MemoryTraceDb(final Path zipfile)
+        throws IOException
+    {
+        final URI uri = URI.create("jar:" + zipfile.toUri());
+
+        fs = FileSystems.newFileSystem(uri, ENV);
+
+        info = TraceZip.readParseInfo(fs);
+        inputBuffer = TraceZip.readInputBuffer(fs);
+
+        matchers = new MatcherTable(info.getNrMatchers());
+        nodes = new NodeColumns(info.getNrNodes());
+
+        loader = new MemoryTraceDbLoader(fs, inputBuffer, matchers, nodes,
+            loadError);
+        executor.submit(Throwing.runnable(loader::loadAll));
+    }
+
+    @Override
+    public TraceDbLoadStatus getLoadStatus()
+    {
+        return loader.getStatus();
+    }
+
+    @Override
+    public ParseInfo getParseInfo()
+    {
+        return info;
+    }
+
+    @Override
+    public InputBuffer getInputBuffer()
+    {
+        return inputBuffer;
+    }
+
+    @Override
+    public TraceModel getModel()
+    {
+        return new MemoryTraceModel(matchers, nodes, inputBuffer,
+            loader::getLineDepths, loader::getNodePositions,
+            loader::getRuleProfiles);
+    }
+
+    /**
+     * Return an estimate of the memory used by nodes, in bytes
+     *
+     * @return the memory usage
+     * @see NodeColumns#getMemoryUsage()
+     */
+    public long getMemoryUsage()
+    {
+        return nodes.getMemoryUsage();
+    }
+
+    /**
+     * Return the average memory used per node, in bytes
+     *
+     * @return the memory used per node
+     * @see NodeColumns#getMemoryPerNode()
+     */
+    public double getMemoryPerNode()
+    {
+        return nodes.getMemoryPerNode();
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        executor.shutdownNow();
+        fs.close();
+    }
+}
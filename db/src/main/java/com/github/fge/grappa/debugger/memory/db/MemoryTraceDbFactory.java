@@ -0,0 +1,52 @@
+package com.github.fge.grappa.debugger.memory.db;
+
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.ZipTraceDbFactory;
+import com.github.fge.grappa.debugger.binary.BinaryTrace;
+import com.github.fge.grappa.debugger.binary.BinaryTraceDb;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A {@link ZipTraceDbFactory} keeping the whole trace in memory
+ *
+ * <p>No SQL engine is involved: nodes are kept in primitive arrays (see {@link
+ * NodeColumns}) and all model queries are answered by scanning them, or using
+ * the children index built once loaded.</p>
+ *
+ * <p>Use this only for traces which fit in memory; once a trace is loaded, an
+ * estimate of the memory used, in total and per node (see {@link
+ * MemoryTraceDb#getMemoryPerNode()}), is printed on the standard output.</p>
+ *
+ * <p>Binary traces (see {@link BinaryTrace}) are also accepted; they are not
+ * loaded in memory but mapped, see {@link BinaryTraceDb}.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class MemoryTraceDbFactory
+    implements ZipTraceDbFactory
+{
+    @Override
+    public TraceDb create(final Path arg)
+        throws IOException
+    {
+        if (BinaryTrace.isBinaryTrace(arg))
+            return new BinaryTraceDb(arg);
+
+        final MemoryTraceDb db = new MemoryTraceDb(arg);
+
+        db.getLoadStatus().whenReady()
+            .thenRun(() -> System.out.println(arg + ": " + describe(db)));
+
+        return db;
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    private static String describe(final MemoryTraceDb db)
+    {
+        return String.format("%d nodes, %.1f MiB, %.1f bytes per node",
+            db.getParseInfo().getNrNodes(),
+            (double) db.getMemoryUsage() / (1 << 20), db.getMemoryPerNode());
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.fge.grappa.debugger.memory.db;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Columnar, in memory storage of the nodes of a trace
+ *
+ * <p>Nodes are stored in parallel primitive arrays, in the order in which they
+ * were added (that is, the order of {@code nodes.csv}); this order is called
+ * the row order. An additional array maps node ids to rows.</p>
+ *
+ * <p>There is a single writer, and any number of readers. Readers only ever
+ * see the rows which are fully written, see {@link #size()}.</p>
+ *
+ * <p>Once all nodes are added, {@link #buildChildrenIndex()} builds an index
+ * of the children of each node, in compressed sparse row form: the children
+ * of node {@code id} are {@code children[childrenStart[id]]} up to {@code
+ * children[childrenStart[id + 1]]} (exclusive), in ascending id order.</p>
+ */
+public final class NodeColumns
+    implements NodeStore
+{
+    private final int capacity;
+
+    private final int[] ids;
+    private final int[] parentIds;
+    private final int[] levels;
+    private final BitSet success;
+    private final int[] matcherIds;
+    private final int[] startIndices;
+    private final int[] endIndices;
+    private final long[] times;
+
+    private final int[] rowById;
+
+    private int[] childrenStart;
+    private int[] children;
+
+    private volatile int size = 0;
+    private volatile boolean indexed = false;
+
+    public NodeColumns(final int capacity)
+    {
+        this.capacity = capacity;
+
+        ids = new int[capacity];
+        parentIds = new int[capacity];
+        levels = new int[capacity];
+        success = new BitSet(capacity);
+        matcherIds = new int[capacity];
+        startIndices = new int[capacity];
+        endIndices = new int[capacity];
+        times = new long[capacity];
+
+        rowById = new int[capacity];
+        Arrays.fill(rowById, NO_ROW);
+    }
+
+    // Writer only
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    public void add(final int parentId, final int id, final int level,
+        final boolean succeeded, final int matcherId, final int startIndex,
+        final int endIndex, final long time)
+    {
+        final int row = size;
+
+        if (row == capacity)
+            throw new IllegalStateException("more nodes than announced ("
+                + capacity + ')');
+
+        ids[row] = id;
+        parentIds[row] = parentId;
+        levels[row] = level;
+        success.set(row, succeeded);
+        matcherIds[row] = matcherId;
+        startIndices[row] = startIndex;
+        endIndices[row] = endIndex;
+        times[row] = time;
+        rowById[id] = row;
+
+        // Publishes the row
+        size = row + 1;
+    }
+
+    // Writer only
+    public void buildChildrenIndex()
+    {
+        final int nrNodes = size;
+        final int[] start = new int[capacity + 1];
+        final int[] list = new int[nrNodes];
+
+        int parentId;
+
+        for (int row = 0; row < nrNodes; row++) {
+            parentId = parentIds[row];
+            if (parentId >= 0)
+                start[parentId + 1]++;
+        }
+
+        for (int id = 0; id < capacity; id++)
+            start[id + 1] += start[id];
+
+        final int[] next = Arrays.copyOf(start, capacity);
+
+        // Walk ids in ascending order so that children come out sorted
+        int row;
+
+        for (int id = 0; id < capacity; id++) {
+            row = rowById[id];
+            if (row == NO_ROW)
+                continue;
+            parentId = parentIds[row];
+            if (parentId >= 0)
+                list[next[parentId]++] = id;
+        }
+
+        childrenStart = start;
+        children = list;
+        indexed = true;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isIndexed()
+    {
+        return indexed;
+    }
+
+    @Override
+    public int getRow(final int id)
+    {
+        if (id < 0 || id >= capacity)
+            return NO_ROW;
+        final int row = rowById[id];
+        return row < size ? row : NO_ROW;
+    }
+
+    @Override
+    public int getId(final int row)
+    {
+        return ids[row];
+    }
+
+    @Override
+    public int getParentId(final int row)
+    {
+        return parentIds[row];
+    }
+
+    @Override
+    public int getLevel(final int row)
+    {
+        return levels[row];
+    }
+
+    @Override
+    public boolean isSuccess(final int row)
+    {
+        return success.get(row);
+    }
+
+    @Override
+    public int getMatcherId(final int row)
+    {
+        return matcherIds[row];
+    }
+
+    @Override
+    public int getStartIndex(final int row)
+    {
+        return startIndices[row];
+    }
+
+    @Override
+    public int getEndIndex(final int row)
+    {
+        return endIndices[row];
+    }
+
+    @Override
+    public long getTime(final int row)
+    {
+        return times[row];
+    }
+
+    @Override
+    public int getChildrenStart(final int id)
+    {
+        return childrenStart[id];
+    }
+
+    @Override
+    public int getChildrenEnd(final int id)
+    {
+        return childrenStart[id + 1];
+    }
+
+    @Override
+    public int getChild(final int index)
+    {
+        return children[index];
+    }
+
+    /**
+     * Return an estimate of the memory used by this storage, in bytes
+     *
+     * <p>Only array payloads are accounted for.</p>
+     *
+     * @return the memory usage
+     */
+    public long getMemoryUsage()
+    {
+        // ids, parentIds, levels, matcherIds, startIndices, endIndices, rowById
+        long ret = 7L * Integer.BYTES * capacity;
+        ret += (long) Long.BYTES * capacity;
+        ret += success.size() / Byte.SIZE;
+
+        if (indexed)
+            ret += (long) Integer.BYTES * (childrenStart.length
+                + children.length);
+
+        return ret;
+    }
+
+    /**
+     * Return the average memory used per node, in bytes
+     *
+     * @return the memory used per node
+     * @see #getMemoryUsage()
+     */
+    public double getMemoryPerNode()
+    {
+        return capacity == 0 ? 0.0 : (double) getMemoryUsage() / capacity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.fge.grappa.debugger.memory.db;
+
+/**
+ * Row based read access to the nodes of a trace
+ *
+ * <p>Rows are numbered from 0 to {@link #size()} (exclusive); how rows relate
+ * to node ids is up to the implementation, use {@link #getRow(int)} to find
+ * the row of a given node.</p>
+ *
+ * <p>Once {@link #isIndexed()} returns true, the children of node {@code id}
+ * are {@code getChild(i)} for {@code i} from {@code getChildrenStart(id)} to
+ * {@code getChildrenEnd(id)} (exclusive), in ascending id order.</p>
+ *
+ * @see NodeColumns
+ */
+public interface NodeStore
+{
+    int NO_ROW = -1;
+
+    /**
+     * Return the number of rows visible to readers
+     *
+     * @return the number of rows
+     */
+    int size();
+
+    boolean isIndexed();
+
+    /**
+     * Return the row of a node, or {@link #NO_ROW} if this node is not loaded
+     * (yet)
+     *
+     * @param id the node id
+     * @return the row
+     */
+    int getRow(int id);
+
+    int getId(int row);
+
+    int getParentId(int row);
+
+    int getLevel(int row);
+
+    boolean isSuccess(int row);
+
+    int getMatcherId(int row);
+
+    int getStartIndex(int row);
+
+    int getEndIndex(int row);
+
+    long getTime(int row);
+
+    int getChildrenStart(int id);
+
+    int getChildrenEnd(int id);
+
+    int getChild(int index);
+}
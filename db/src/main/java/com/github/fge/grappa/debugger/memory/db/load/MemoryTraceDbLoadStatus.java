@@ -0,0 +1,51 @@
+package com.github.fge.grappa.debugger.memory.db.load;
+
+import com.github.fge.grappa.debugger.BaseTraceDbLoadStatus;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
+import com.github.fge.grappa.debugger.memory.db.MatcherTable;
+import com.github.fge.grappa.debugger.memory.db.NodeColumns;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class MemoryTraceDbLoadStatus
+    extends BaseTraceDbLoadStatus
+{
+    private final MatcherTable matchers;
+    private final NodeColumns nodes;
+
+    public MemoryTraceDbLoadStatus(final AtomicReference<Throwable> loadError,
+        final MatcherTable matchers, final NodeColumns nodes)
+    {
+        super(loadError);
+        this.matchers = matchers;
+        this.nodes = nodes;
+    }
+
+    void setIndexing()
+    {
+        setStage(TraceDbLoadStage.INDEXING);
+    }
+
+    void setReady()
+    {
+        setStage(TraceDbLoadStage.READY);
+    }
+
+    // Counts are read from the tables; the loader tells when to report them
+    void reportProgress()
+    {
+        fireProgress();
+    }
+
+    @Override
+    public int getLoadedMatchers()
+    {
+        return matchers.size();
+    }
+
+    @Override
+    public int getLoadedNodes()
+    {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.fge.grappa.debugger.memory.db.load;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.debugger.TraceZip;
+import com.github.fge.grappa.debugger.memory.db.MatcherTable;
+import com.github.fge.grappa.debugger.memory.db.NodeColumns;
+import com.github.fge.grappa.debugger.memory.model.MemoryTraceModel;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.matchers.MatcherType;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the matchers and nodes of a trace zip into a {@link MatcherTable} and
+ * a {@link NodeColumns}
+ *
+ * <p>Once all nodes are loaded, the children index of the nodes, the {@link
+ * LineDepthIndex} and the {@link NodePositionIndex} of the trace, and the
+ * {@link RuleProfile profiles} of its matchers are built.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class MemoryTraceDbLoader
+{
+    private static final Pattern SEMICOLON = Pattern.compile(";");
+    private static final Charset UTF8 = StandardCharsets.UTF_8;
+
+    // Report progress every this many nodes
+    private static final int PROGRESS_INTERVAL = 1 << 14;
+
+    private final FileSystem fs;
+    private final InputBuffer inputBuffer;
+    private final MatcherTable matchers;
+    private final NodeColumns nodes;
+    private final MemoryTraceDbLoadStatus status;
+
+    @Nullable
+    private volatile LineDepthIndex lineDepths = null;
+    @Nullable
+    private volatile NodePositionIndex nodePositions = null;
+    @Nullable
+    private volatile List<RuleProfile> ruleProfiles = null;
+
+    private final AtomicReference<Throwable> loadError;
+
+    public MemoryTraceDbLoader(final FileSystem fs,
+        final InputBuffer inputBuffer, final MatcherTable matchers,
+        final NodeColumns nodes, final AtomicReference<Throwable> loadError)
+    {
+        this.fs = fs;
+        this.inputBuffer = inputBuffer;
+        this.matchers = matchers;
+        this.nodes = nodes;
+        this.loadError = loadError;
+        status = new MemoryTraceDbLoadStatus(loadError, matchers, nodes);
+    }
+
+    public MemoryTraceDbLoadStatus getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * Return the line depth index of the trace
+     *
+     * @return the index, or null if it is not built yet
+     */
+    @Nullable
+    public LineDepthIndex getLineDepths()
+    {
+        return lineDepths;
+    }
+
+    /**
+     * Return the node position index of the trace
+     *
+     * @return the index, or null if it is not built yet
+     */
+    @Nullable
+    public NodePositionIndex getNodePositions()
+    {
+        return nodePositions;
+    }
+
+    /**
+     * Return the profiles of the matchers of the trace
+     *
+     * @return the profiles, or null if they are not built yet
+     */
+    @Nullable
+    public List<RuleProfile> getRuleProfiles()
+    {
+        return ruleProfiles;
+    }
+
+    @SuppressWarnings("ErrorNotRethrown")
+    public void loadAll()
+        throws IOException
+    {
+        try {
+            loadMatchers();
+            loadNodes();
+            status.setIndexing();
+            nodes.buildChildrenIndex();
+            lineDepths = MemoryTraceModel.buildLineDepths(nodes, inputBuffer);
+            nodePositions = MemoryTraceModel.buildNodePositions(nodes);
+            ruleProfiles = MemoryTraceModel.buildRuleProfiles(matchers, nodes);
+        } catch (IOException | RuntimeException | Error e) {
+            loadError.set(e);
+        } finally {
+            fs.close();
+            status.setReady();
+        }
+    }
+
+    private void loadMatchers()
+        throws IOException
+    {
+        String[] parts;
+        String line;
+
+        try (
+            final BufferedReader reader = Files.newBufferedReader(
+                fs.getPath(TraceZip.MATCHERS_PATH), UTF8);
+        ) {
+            while ((line = reader.readLine()) != null) {
+                parts = SEMICOLON.split(line, 4);
+                matchers.add(Integer.parseInt(parts[0]), new RuleInfo(parts[1],
+                    MatcherType.valueOf(parts[2]), parts[3]));
+            }
+        }
+
+        status.reportProgress();
+    }
+
+    private void loadNodes()
+        throws IOException
+    {
+        String[] parts;
+        String line;
+        int count = 0;
+
+        try (
+            final BufferedReader reader = Files.newBufferedReader(
+                fs.getPath(TraceZip.NODES_PATH), UTF8);
+        ) {
+            while ((line = reader.readLine()) != null) {
+                parts = SEMICOLON.split(line);
+                nodes.add(
+                    Integer.parseInt(parts[0]),
+                    Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]),
+                    Integer.parseInt(parts[3]) == 1,
+                    Integer.parseInt(parts[4]),
+                    Integer.parseInt(parts[5]),
+                    Integer.parseInt(parts[6]),
+                    Long.parseLong(parts[7])
+                );
+                if (++count % PROGRESS_INTERVAL == 0)
+                    status.reportProgress();
+            }
+        }
+
+        status.reportProgress();
+    }
+}
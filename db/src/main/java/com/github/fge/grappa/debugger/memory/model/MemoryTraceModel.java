@@ -0,0 +1,519 @@
+package com.github.fge.grappa.debugger.memory.model;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.debugger.memory.db.MatcherTable;
+import com.github.fge.grappa.debugger.memory.db.NodeStore;
+import com.github.fge.grappa.debugger.model.TraceModel;
+import com.github.fge.grappa.debugger.model.TraceModelException;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
+import com.github.fge.grappa.debugger.model.matches.MatchStatistics;
+import com.github.fge.grappa.debugger.model.matches.MatcherStatsCollector;
+import com.github.fge.grappa.debugger.model.matches.MatchesData;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RepeatedCallsCollector;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.rules.PerClassStatistics;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
+import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.matchers.MatcherType;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link TraceModel} answering all queries from a {@link NodeStore}
+ *
+ * <p>While the trace is still loading, queries only see the nodes loaded so
+ * far; node children are found, line depths computed and nodes looked up by
+ * position, by scanning all loaded nodes.</p>
+ */
+@SuppressWarnings("AutoBoxing")
+public final class MemoryTraceModel
+    implements TraceModel
+{
+    private final MatcherTable matchers;
+    private final NodeStore nodes;
+    private final InputBuffer inputBuffer;
+    private final Supplier<LineDepthIndex> lineDepths;
+    private final Supplier<NodePositionIndex> nodePositions;
+    private final Supplier<List<RuleProfile>> ruleProfiles;
+
+    /**
+     * Constructor
+     *
+     * @param matchers the matchers
+     * @param nodes the nodes
+     * @param inputBuffer the input of the trace
+     * @param lineDepths the line depth index; supplies null until built
+     * @param nodePositions the node position index; supplies null until
+     * built
+     * @param ruleProfiles the profiles of all matchers; supplies null until
+     * built
+     */
+    public MemoryTraceModel(final MatcherTable matchers,
+        final NodeStore nodes, final InputBuffer inputBuffer,
+        final Supplier<LineDepthIndex> lineDepths,
+        final Supplier<NodePositionIndex> nodePositions,
+        final Supplier<List<RuleProfile>> ruleProfiles)
+    {
+        this.matchers = matchers;
+        this.nodes = nodes;
+        this.inputBuffer = inputBuffer;
+        this.lineDepths = lineDepths;
+        this.nodePositions = nodePositions;
+        this.ruleProfiles = ruleProfiles;
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodeChildren(final int nodeId)
+    {
+        if (nodes.isIndexed())
+            return getIndexedChildren(nodes.getChildrenStart(nodeId),
+                nodes.getChildrenEnd(nodeId));
+
+        // Not loaded yet: find the children, then whether they have children
+        final int size = nodes.size();
+        final BitSet childRows = new BitSet();
+        final BitSet hasChildren = new BitSet();
+
+        for (int row = 0; row < size; row++)
+            if (nodes.getParentId(row) == nodeId)
+                childRows.set(row);
+
+        int parentRow;
+
+        for (int row = 0; row < size; row++) {
+            parentRow = nodes.getRow(nodes.getParentId(row));
+            if (parentRow != NodeStore.NO_ROW && childRows.get(parentRow))
+                hasChildren.set(parentRow);
+        }
+
+        return childRows.stream()
+            .mapToObj(row -> toNode(row, hasChildren.get(row)))
+            .sorted((n1, n2) -> Integer.compare(n1.getId(), n2.getId()))
+            .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodeChildren(final int nodeId,
+        final int offset, final int limit)
+    {
+        if (!nodes.isIndexed()) {
+            // Not loaded yet: all loaded nodes are scanned anyway
+            final List<ParseTreeNode> children = getNodeChildren(nodeId);
+            final int size = children.size();
+            final int from = Math.min(offset, size);
+            return new ArrayList<>(children.subList(from,
+                (int) Math.min((long) from + limit, size)));
+        }
+
+        final int end = nodes.getChildrenEnd(nodeId);
+        final int start = (int) Math.min(
+            (long) nodes.getChildrenStart(nodeId) + offset, end);
+
+        return getIndexedChildren(start,
+            (int) Math.min((long) start + limit, end));
+    }
+
+    @Override
+    public int getNrChildren(final int nodeId)
+    {
+        if (nodes.isIndexed())
+            return nodes.getChildrenEnd(nodeId)
+                - nodes.getChildrenStart(nodeId);
+
+        final int size = nodes.size();
+        int ret = 0;
+
+        for (int row = 0; row < size; row++)
+            if (nodes.getParentId(row) == nodeId)
+                ret++;
+
+        return ret;
+    }
+
+    @Override
+    public int getNrChildrenBefore(final int nodeId, final int childId)
+    {
+        if (!nodes.isIndexed()) {
+            final int size = nodes.size();
+            int ret = 0;
+
+            for (int row = 0; row < size; row++)
+                if (nodes.getParentId(row) == nodeId
+                    && nodes.getId(row) < childId)
+                    ret++;
+
+            return ret;
+        }
+
+        // Children are in ascending id order in the index
+        final int start = nodes.getChildrenStart(nodeId);
+        int low = start;
+        int high = nodes.getChildrenEnd(nodeId);
+        int mid;
+
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (nodes.getChild(mid) < childId)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low - start;
+    }
+
+    // Children at indices start (inclusive) to end (exclusive) in the index
+    private List<ParseTreeNode> getIndexedChildren(final int start,
+        final int end)
+    {
+        final List<ParseTreeNode> ret = new ArrayList<>(end - start);
+
+        int childId;
+
+        for (int index = start; index < end; index++) {
+            childId = nodes.getChild(index);
+            ret.add(toNode(nodes.getRow(childId), hasChildren(childId)));
+        }
+
+        return ret;
+    }
+
+    @Nonnull
+    @Override
+    public ParseTreeNode getNodeById(final int id)
+    {
+        final int row = nodes.getRow(id);
+
+        if (row == NodeStore.NO_ROW)
+            throw new TraceModelException("no node with id " + id);
+
+        if (nodes.isIndexed())
+            return toNode(row, hasChildren(id));
+
+        final int size = nodes.size();
+
+        for (int i = 0; i < size; i++)
+            if (nodes.getParentId(i) == id)
+                return toNode(row, true);
+
+        return toNode(row, false);
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodePathAt(final int index)
+    {
+        final NodePositionIndex positions = nodePositions.get();
+        final int nodeId = positions != null ? positions.getNodeId(index)
+            : findNodeIdAt(index);
+
+        return nodeId == NodePositionIndex.NO_NODE ? Collections.emptyList()
+            : getAncestry(nodeId);
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getAncestry(final int nodeId)
+    {
+        final List<ParseTreeNode> ret = new ArrayList<>();
+        ret.add(getNodeById(nodeId));
+
+        // All ancestors have children, obviously
+        int row = nodes.getRow(nodes.getParentId(nodes.getRow(nodeId)));
+
+        while (row != NodeStore.NO_ROW) {
+            ret.add(toNode(row, true));
+            row = nodes.getRow(nodes.getParentId(row));
+        }
+
+        Collections.reverse(ret);
+        return ret;
+    }
+
+    // Not loaded yet: see NodePositionIndex for which node is returned
+    private int findNodeIdAt(final int index)
+    {
+        final int size = nodes.size();
+        long best = -1L;
+        long key;
+
+        for (int row = 0; row < size; row++) {
+            if (!nodes.isSuccess(row) || nodes.getStartIndex(row) > index
+                || nodes.getEndIndex(row) <= index)
+                continue;
+            key = (long) nodes.getStartIndex(row) << 32 | nodes.getId(row);
+            if (key > best)
+                best = key;
+        }
+
+        return best == -1L ? NodePositionIndex.NO_NODE : (int) best;
+    }
+
+    @Nonnull
+    @Override
+    public Map<MatcherType, Integer> getMatchersByType()
+    {
+        final Map<MatcherType, Integer> ret = new EnumMap<>(MatcherType.class);
+        final int size = matchers.size();
+
+        RuleInfo ruleInfo;
+
+        for (int id = 0; id < size; id++) {
+            ruleInfo = matchers.get(id);
+            if (ruleInfo != null)
+                ret.merge(ruleInfo.getType(), 1, Integer::sum);
+        }
+
+        return ret;
+    }
+
+    @Nonnull
+    @Override
+    public List<PerClassStatistics> getRulesByClass()
+    {
+        final int[] calls = new int[matchers.size()];
+        final int size = nodes.size();
+
+        for (int row = 0; row < size; row++)
+            calls[nodes.getMatcherId(row)]++;
+
+        final Map<String, int[]> rulesAndCalls = new TreeMap<>();
+
+        RuleInfo ruleInfo;
+        int[] counts;
+
+        for (int id = 0; id < calls.length; id++) {
+            if (calls[id] == 0)
+                continue;
+            ruleInfo = matchers.get(id);
+            counts = rulesAndCalls.computeIfAbsent(ruleInfo.getClassName(),
+                className -> new int[2]);
+            counts[0]++;
+            counts[1] += calls[id];
+        }
+
+        return rulesAndCalls.entrySet().stream()
+            .map(entry -> new PerClassStatistics(entry.getKey(),
+                entry.getValue()[0], entry.getValue()[1]))
+            .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    @Override
+    public Map<Integer, Integer> getDepthMap(final int startLine,
+        final int wantedLines)
+    {
+        final LineDepthIndex index = lineDepths.get();
+
+        if (index != null)
+            return index.getDepthMap(startLine, wantedLines);
+
+        // Not loaded yet: only index the wanted lines
+        final LineDepthIndex.Builder builder
+            = LineDepthIndex.newBuilder(inputBuffer, startLine, wantedLines);
+
+        return addNodes(nodes, builder).build()
+            .getDepthMap(startLine, wantedLines);
+    }
+
+    @Nonnull
+    @Override
+    public MatchesData getMatchesData()
+    {
+        final int nrMatchers = matchers.size();
+        final int[] nonEmpty = new int[nrMatchers];
+        final int[] empty = new int[nrMatchers];
+        final int[] failed = new int[nrMatchers];
+
+        final int size = nodes.size();
+
+        int matcherId;
+
+        for (int row = 0; row < size; row++) {
+            matcherId = nodes.getMatcherId(row);
+            if (!nodes.isSuccess(row))
+                failed[matcherId]++;
+            else if (nodes.getStartIndex(row) == nodes.getEndIndex(row))
+                empty[matcherId]++;
+            else
+                nonEmpty[matcherId]++;
+        }
+
+        /*
+         * Like the H2 model, group by rule (class name, type and name) rather
+         * than by matcher id
+         */
+        final Map<List<Object>, int[]> byRule = new LinkedHashMap<>();
+        final Map<List<Object>, RuleInfo> rules = new HashMap<>();
+
+        RuleInfo ruleInfo;
+        List<Object> key;
+        int[] counts;
+
+        for (int id = 0; id < nrMatchers; id++) {
+            if (nonEmpty[id] + empty[id] + failed[id] == 0)
+                continue;
+            ruleInfo = matchers.get(id);
+            key = Arrays.asList(ruleInfo.getClassName(), ruleInfo.getType(),
+                ruleInfo.getName());
+            rules.putIfAbsent(key, ruleInfo);
+            counts = byRule.computeIfAbsent(key, k -> new int[3]);
+            counts[0] += nonEmpty[id];
+            counts[1] += empty[id];
+            counts[2] += failed[id];
+        }
+
+        return byRule.entrySet().stream()
+            .map(entry -> new MatchStatistics(rules.get(entry.getKey()),
+                entry.getValue()[0], entry.getValue()[1], entry.getValue()[2]))
+            .collect(MatchesData.asCollector());
+    }
+
+    @Nonnull
+    @Override
+    public List<RuleProfile> getRuleProfiles()
+    {
+        final List<RuleProfile> profiles = ruleProfiles.get();
+
+        if (profiles != null)
+            return profiles;
+
+        // Not loaded yet: the ids of the nodes loaded so far are not dense
+        return profile(matchers, nodes, getMaxId() + 1);
+    }
+
+    @Nonnull
+    @Override
+    public List<MemoizationCandidate> getMemoizationCandidates()
+    {
+        final RepeatedCallsCollector collector
+            = new RepeatedCallsCollector(matchers.size());
+        final int size = nodes.size();
+
+        for (int row = 0; row < size; row++)
+            collector.addNode(nodes.getId(row), nodes.getMatcherId(row),
+                nodes.getStartIndex(row), nodes.getTime(row));
+
+        return collector.getCandidates(matchers::get);
+    }
+
+    /**
+     * Build the line depth index of all nodes of a store
+     *
+     * @param nodes the nodes
+     * @param inputBuffer the input of the trace
+     * @return the index
+     */
+    public static LineDepthIndex buildLineDepths(final NodeStore nodes,
+        final InputBuffer inputBuffer)
+    {
+        return addNodes(nodes, LineDepthIndex.newBuilder(inputBuffer)).build();
+    }
+
+    /**
+     * Build the node position index of all nodes of a store
+     *
+     * @param nodes the nodes
+     * @return the index
+     */
+    public static NodePositionIndex buildNodePositions(final NodeStore nodes)
+    {
+        final NodePositionIndex.Builder builder
+            = NodePositionIndex.newBuilder();
+        final int size = nodes.size();
+
+        for (int row = 0; row < size; row++)
+            builder.addNode(nodes.getId(row), nodes.isSuccess(row),
+                nodes.getStartIndex(row), nodes.getEndIndex(row));
+
+        return builder.build();
+    }
+
+    /**
+     * Build the profiles of all matchers of a store
+     *
+     * <p>All nodes must be loaded.</p>
+     *
+     * @param matchers the matchers
+     * @param nodes the nodes
+     * @return the profiles, as an unmodifiable list
+     *
+     * @see MatcherStatsCollector
+     */
+    public static List<RuleProfile> buildRuleProfiles(
+        final MatcherTable matchers, final NodeStore nodes)
+    {
+        return Collections.unmodifiableList(
+            profile(matchers, nodes, nodes.size()));
+    }
+
+    private static List<RuleProfile> profile(final MatcherTable matchers,
+        final NodeStore nodes, final int nrNodes)
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(matchers.size(), nrNodes);
+        final int size = nodes.size();
+
+        for (int row = 0; row < size; row++)
+            collector.addNode(nodes.getId(row), nodes.getParentId(row),
+                nodes.getMatcherId(row), nodes.isSuccess(row),
+                nodes.getStartIndex(row), nodes.getEndIndex(row),
+                nodes.getTime(row));
+
+        collector.finish();
+
+        return collector.getRuleProfiles(matchers::get);
+    }
+
+    private static LineDepthIndex.Builder addNodes(final NodeStore nodes,
+        final LineDepthIndex.Builder builder)
+    {
+        final int size = nodes.size();
+
+        for (int row = 0; row < size; row++)
+            builder.addNode(nodes.getLevel(row), nodes.getStartIndex(row),
+                nodes.getEndIndex(row));
+
+        return builder;
+    }
+
+    private int getMaxId()
+    {
+        final int size = nodes.size();
+        int ret = -1;
+
+        for (int row = 0; row < size; row++)
+            ret = Math.max(ret, nodes.getId(row));
+
+        return ret;
+    }
+
+    private boolean hasChildren(final int id)
+    {
+        return nodes.getChildrenEnd(id) > nodes.getChildrenStart(id);
+    }
+
+    private ParseTreeNode toNode(final int row, final boolean hasChildren)
+    {
+        return new ParseTreeNode(nodes.getParentId(row), nodes.getId(row),
+            nodes.getLevel(row), nodes.isSuccess(row),
+            matchers.get(nodes.getMatcherId(row)), nodes.getStartIndex(row),
+            nodes.getEndIndex(row), nodes.getTime(row), hasChildren);
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.fge.grappa.debugger.model;
+
+import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+import com.github.fge.grappa.debugger.model.matches.MatchesData;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.rules.PerClassStatistics;
+import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
+import com.github.fge.grappa.matchers.MatcherType;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TraceModel} caching the results of another model
+ *
+ * <p>All results are cached in a single cache bounded by weight: lists and
+ * maps weigh one plus their number of elements, other results weigh one. The
+ * least recently used results are evicted first once the maximum weight is
+ * reached.</p>
+ *
+ * <p>Results are only cached once the trace is {@link
+ * TraceDbLoadStatus#isReady() ready}; before that, all calls are delegated to
+ * the underlying model, since its results may be built from partially loaded
+ * data. Such calls are accounted for neither as hits nor as misses.</p>
+ *
+ * <p>Cached lists and maps are returned as unmodifiable views.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class CachingTraceModel
+    implements TraceModel
+{
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 1_000_000L;
+
+    private final TraceModel model;
+    private final TraceDbLoadStatus status;
+    private final Cache<Key, Object> cache;
+
+    public CachingTraceModel(final TraceModel model,
+        final TraceDbLoadStatus status)
+    {
+        this(model, status, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param model the model to cache the results of
+     * @param status the load status of the trace
+     * @param maximumWeight the maximum weight of cached results
+     */
+    public CachingTraceModel(final TraceModel model,
+        final TraceDbLoadStatus status, final long maximumWeight)
+    {
+        this.model = Objects.requireNonNull(model);
+        this.status = Objects.requireNonNull(status);
+        cache = CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher(CachingTraceModel::weigh)
+            .recordStats()
+            .build();
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodeChildren(final int nodeId)
+    {
+        return get(new Key(Method.NODE_CHILDREN, nodeId, 0),
+            () -> Collections.unmodifiableList(model.getNodeChildren(nodeId)));
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodeChildren(final int nodeId,
+        final int offset, final int limit)
+    {
+        return get(new Key(Method.NODE_CHILDREN_PAGE, nodeId, offset, limit),
+            () -> Collections.unmodifiableList(
+                model.getNodeChildren(nodeId, offset, limit)));
+    }
+
+    @Override
+    public int getNrChildren(final int nodeId)
+    {
+        return get(new Key(Method.NR_CHILDREN, nodeId, 0),
+            () -> model.getNrChildren(nodeId));
+    }
+
+    @Override
+    public int getNrChildrenBefore(final int nodeId, final int childId)
+    {
+        return get(new Key(Method.NR_CHILDREN_BEFORE, nodeId, childId),
+            () -> model.getNrChildrenBefore(nodeId, childId));
+    }
+
+    @Nonnull
+    @Override
+    public ParseTreeNode getNodeById(final int id)
+    {
+        return get(new Key(Method.NODE_BY_ID, id, 0),
+            () -> model.getNodeById(id));
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getAncestry(final int nodeId)
+    {
+        return get(new Key(Method.ANCESTRY, nodeId, 0),
+            () -> Collections.unmodifiableList(model.getAncestry(nodeId)));
+    }
+
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodePathAt(final int index)
+    {
+        return get(new Key(Method.NODE_PATH_AT, index, 0),
+            () -> Collections.unmodifiableList(model.getNodePathAt(index)));
+    }
+
+    @Nonnull
+    @Override
+    public Map<MatcherType, Integer> getMatchersByType()
+    {
+        return get(new Key(Method.MATCHERS_BY_TYPE, 0, 0),
+            () -> Collections.unmodifiableMap(model.getMatchersByType()));
+    }
+
+    @Nonnull
+    @Override
+    public List<PerClassStatistics> getRulesByClass()
+    {
+        return get(new Key(Method.RULES_BY_CLASS, 0, 0),
+            () -> Collections.unmodifiableList(model.getRulesByClass()));
+    }
+
+    @Nonnull
+    @Override
+    public Map<Integer, Integer> getDepthMap(final int startLine,
+        final int wantedLines)
+    {
+        return get(new Key(Method.DEPTH_MAP, startLine, wantedLines),
+            () -> Collections.unmodifiableMap(
+                model.getDepthMap(startLine, wantedLines)));
+    }
+
+    @Nonnull
+    @Override
+    public MatchesData getMatchesData()
+    {
+        return get(new Key(Method.MATCHES_DATA, 0, 0), model::getMatchesData);
+    }
+
+    @Nonnull
+    @Override
+    public List<RuleProfile> getRuleProfiles()
+    {
+        return get(new Key(Method.RULE_PROFILES, 0, 0),
+            () -> Collections.unmodifiableList(model.getRuleProfiles()));
+    }
+
+    @Nonnull
+    @Override
+    public List<MemoizationCandidate> getMemoizationCandidates()
+    {
+        return get(new Key(Method.MEMOIZATION_CANDIDATES, 0, 0),
+            () -> Collections.unmodifiableList(
+                model.getMemoizationCandidates()));
+    }
+
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(final Key key, final Supplier<T> supplier)
+    {
+        if (!status.isReady())
+            return supplier.get();
+
+        try {
+            return (T) cache.get(key, supplier::get);
+        } catch (UncheckedExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw e;
+        } catch (ExecutionException e) {
+            throw new TraceModelException(e.getCause());
+        }
+    }
+
+    private static int weigh(final Key key, final Object value)
+    {
+        if (value instanceof Collection)
+            return ((Collection<?>) value).size() + 1;
+        if (value instanceof Map)
+            return ((Map<?, ?>) value).size() + 1;
+        return 1;
+    }
+
+    private enum Method
+    {
+        NODE_CHILDREN,
+        NODE_CHILDREN_PAGE,
+        NR_CHILDREN,
+        NR_CHILDREN_BEFORE,
+        NODE_BY_ID,
+        ANCESTRY,
+        NODE_PATH_AT,
+        MATCHERS_BY_TYPE,
+        RULES_BY_CLASS,
+        DEPTH_MAP,
+        MATCHES_DATA,
+        RULE_PROFILES,
+        MEMOIZATION_CANDIDATES,
+    }
+
+    private static final class Key
+    {
+        private final Method method;
+        private final int arg1;
+        private final int arg2;
+        private final int arg3;
+
+        private Key(final Method method, final int arg1, final int arg2)
+        {
+            this(method, arg1, arg2, 0);
+        }
+
+        private Key(final Method method, final int arg1, final int arg2,
+            final int arg3)
+        {
+            this.method = method;
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            this.arg3 = arg3;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * (31 * (31 * method.hashCode() + arg1) + arg2) + arg3;
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            final Key other = (Key) obj;
+            return method == other.method && arg1 == other.arg1
+                && arg2 == other.arg2 && arg3 == other.arg3;
+        }
+    }
+}
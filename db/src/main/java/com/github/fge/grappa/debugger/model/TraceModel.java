@@ -1,7 +1,11 @@
 package com.github.fge.grappa.debugger.model;
 
 import com.github.fge.grappa.debugger.model.matches.MatchesData;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RepeatedCallsCollector;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
 import com.github.fge.grappa.debugger.model.rules.PerClassStatistics;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
 import com.github.fge.grappa.matchers.MatcherType;
 
@@ -14,9 +18,67 @@ public interface TraceModel
     @Nonnull
     List<ParseTreeNode> getNodeChildren(int nodeId);
 
+    /**
+     * Return a page of the children of a node
+     *
+     * <p>Children are ordered by id, as with {@link #getNodeChildren(int)}.
+     * </p>
+     *
+     * @param nodeId the id of the node
+     * @param offset the number of children to skip
+     * @param limit the maximum number of children to return
+     * @return the children; empty if offset is past the last child
+     */
+    @Nonnull
+    List<ParseTreeNode> getNodeChildren(int nodeId, int offset, int limit);
+
+    /**
+     * Return the number of children of a node
+     *
+     * @param nodeId the id of the node
+     * @return the number of children
+     */
+    int getNrChildren(int nodeId);
+
+    /**
+     * Return the number of children of a node with a lower id than a given
+     * child; this is the offset of the page of children starting with this
+     * child
+     *
+     * @param nodeId the id of the node
+     * @param childId the id of the child
+     * @return the number of earlier children
+     *
+     * @see #getNodeChildren(int, int, int)
+     */
+    int getNrChildrenBefore(int nodeId, int childId);
+
     @Nonnull
     ParseTreeNode getNodeById(int id);
 
+    /**
+     * Return a node along with all its ancestors
+     *
+     * @param nodeId the id of the node
+     * @return the nodes, from the root of the tree to the node
+     * @throws TraceModelException no node with this id
+     */
+    @Nonnull
+    List<ParseTreeNode> getAncestry(int nodeId);
+
+    /**
+     * Return the innermost successful node matching a position of the input,
+     * along with all its ancestors
+     *
+     * <p>See {@link NodePositionIndex} for which node is the innermost.</p>
+     *
+     * @param index the position in the input
+     * @return the nodes, from the root of the tree to the innermost node;
+     * empty if no successful node matches this position
+     */
+    @Nonnull
+    List<ParseTreeNode> getNodePathAt(int index);
+
     @Nonnull
     Map<MatcherType, Integer> getMatchersByType();
 
@@ -28,4 +90,30 @@ public interface TraceModel
 
     @Nonnull
     MatchesData getMatchesData();
+
+    /**
+     * Return the time spent in each matcher of the trace
+     *
+     * <p>Only matchers which have been called at least once are returned.
+     * Database backed implementations compute profiles when the trace is
+     * loaded, and may return an empty list until then.</p>
+     *
+     * @return the profiles, one per matcher
+     */
+    @Nonnull
+    List<RuleProfile> getRuleProfiles();
+
+    /**
+     * Return the matchers invoked more than once at the same position of the
+     * input
+     *
+     * <p>Implementations should compute this in one pass over the nodes of the
+     * trace, in any order, using a {@link RepeatedCallsCollector}; database
+     * backed implementations do so when the trace is loaded, and may return
+     * an empty list until then.</p>
+     *
+     * @return the candidates, by descending time memoization could save
+     */
+    @Nonnull
+    List<MemoizationCandidate> getMemoizationCandidates();
 }
@@ -0,0 +1,278 @@
+package com.github.fge.grappa.debugger.model.depth;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+import com.github.fge.grappa.support.IndexRange;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The maximum depth of the parse tree at each line of the input
+ *
+ * <p>The depth of a line is one plus the highest level of all nodes which
+ * overlap this line, or 0 if no node overlaps it. A node overlaps a line if it
+ * starts before the end of the line and ends at or after its start.</p>
+ *
+ * <p>An index may only cover a window of lines of the input (see {@link
+ * #newBuilder(InputBuffer, int, int)}); lines outside of this window have
+ * depth 0. Lines are numbered from 1.</p>
+ *
+ * <p>Instances are built using a {@link Builder}, to which nodes are added in
+ * any order; once built, an index is immutable. An index can also be saved
+ * using {@link #writeTo(DataOutput)}, and read back using {@link
+ * #readFrom(DataInput)}.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class LineDepthIndex
+{
+    private final int startLine;
+    private final int[] depths;
+
+    /**
+     * Return a builder covering all lines of an input
+     *
+     * @param inputBuffer the input
+     * @return a builder
+     */
+    public static Builder newBuilder(final InputBuffer inputBuffer)
+    {
+        return new Builder(inputBuffer, 1, inputBuffer.getLineCount());
+    }
+
+    /**
+     * Return a builder covering a window of lines of an input
+     *
+     * <p>The window is clamped to the lines of the input.</p>
+     *
+     * @param inputBuffer the input
+     * @param startLine the first line of the window
+     * @param nrLines the number of lines of the window
+     * @return a builder
+     */
+    public static Builder newBuilder(final InputBuffer inputBuffer,
+        final int startLine, final int nrLines)
+    {
+        final int first = Math.max(startLine, 1);
+        final int last = Math.min(startLine + nrLines,
+            inputBuffer.getLineCount() + 1);
+
+        return new Builder(inputBuffer, first, Math.max(last - first, 0));
+    }
+
+    /**
+     * Read an index written by {@link #writeTo(DataOutput)}
+     *
+     * @param in the input
+     * @return the index
+     * @throws IOException failed to read from the input
+     */
+    public static LineDepthIndex readFrom(final DataInput in)
+        throws IOException
+    {
+        final int startLine = in.readInt();
+        final int[] depths = new int[in.readInt()];
+
+        for (int i = 0; i < depths.length; i++)
+            depths[i] = in.readInt();
+
+        return new LineDepthIndex(startLine, depths);
+    }
+
+    private LineDepthIndex(final int startLine, final int[] depths)
+    {
+        this.startLine = startLine;
+        this.depths = depths;
+    }
+
+    /**
+     * Return the depth of a line
+     *
+     * @param line the line
+     * @return the depth; 0 if the line is not covered by this index
+     */
+    public int getDepth(final int line)
+    {
+        final int index = line - startLine;
+        return index >= 0 && index < depths.length ? depths[index] : 0;
+    }
+
+    /**
+     * Return the depths of a range of lines
+     *
+     * @param startLine the first line
+     * @param wantedLines the number of lines
+     * @return a map with line numbers as keys and depths as values
+     *
+     * @see #getDepth(int)
+     */
+    @SuppressWarnings("AutoBoxing")
+    public Map<Integer, Integer> getDepthMap(final int startLine,
+        final int wantedLines)
+    {
+        final Map<Integer, Integer> ret = new HashMap<>(wantedLines);
+
+        for (int line = startLine; line < startLine + wantedLines; line++)
+            ret.put(line, getDepth(line));
+
+        return ret;
+    }
+
+    /**
+     * Write this index
+     *
+     * @param out the output
+     * @throws IOException failed to write to the output
+     */
+    public void writeTo(final DataOutput out)
+        throws IOException
+    {
+        out.writeInt(startLine);
+        out.writeInt(depths.length);
+
+        for (final int depth: depths)
+            out.writeInt(depth);
+    }
+
+    /**
+     * Builder for a {@link LineDepthIndex}
+     *
+     * <p>Adding a node costs O(log n), where n is the number of lines of the
+     * window: the depth of the node is applied to the range of lines which it
+     * overlaps in a segment tree, which is only flattened when the index is
+     * built.</p>
+     *
+     * <p>This class is not thread safe.</p>
+     */
+    public static final class Builder
+    {
+        private final int startLine;
+        private final int nrLines;
+        private final int[] lineStarts;
+        private final int[] lineEnds;
+
+        private final int leaves;
+        private final int[] tree;
+
+        private Builder(final InputBuffer inputBuffer, final int startLine,
+            final int nrLines)
+        {
+            this.startLine = startLine;
+            this.nrLines = nrLines;
+
+            lineStarts = new int[nrLines];
+            lineEnds = new int[nrLines];
+
+            IndexRange range;
+
+            for (int i = 0; i < nrLines; i++) {
+                range = inputBuffer.getLineRange(startLine + i);
+                lineStarts[i] = range.start;
+                lineEnds[i] = range.end;
+            }
+
+            int n = 1;
+            while (n < nrLines)
+                n <<= 1;
+
+            leaves = n;
+            tree = new int[2 * n];
+        }
+
+        /**
+         * Add a node
+         *
+         * @param level the level of the node
+         * @param startIndex the start index of the node
+         * @param endIndex the end index of the node
+         * @return this
+         */
+        public Builder addNode(final int level, final int startIndex,
+            final int endIndex)
+        {
+            final int first = firstEndingAfter(startIndex);
+            final int last = lastStartingAtOrBefore(endIndex);
+
+            if (first > last)
+                return this;
+
+            final int depth = level + 1;
+
+            int low = first + leaves;
+            int high = last + leaves + 1;
+
+            while (low < high) {
+                if ((low & 1) == 1) {
+                    if (tree[low] < depth)
+                        tree[low] = depth;
+                    low++;
+                }
+                if ((high & 1) == 1) {
+                    high--;
+                    if (tree[high] < depth)
+                        tree[high] = depth;
+                }
+                low >>= 1;
+                high >>= 1;
+            }
+
+            return this;
+        }
+
+        public LineDepthIndex build()
+        {
+            final int[] nodes = tree.clone();
+
+            for (int i = 1; i < leaves; i++) {
+                if (nodes[2 * i] < nodes[i])
+                    nodes[2 * i] = nodes[i];
+                if (nodes[2 * i + 1] < nodes[i])
+                    nodes[2 * i + 1] = nodes[i];
+            }
+
+            final int[] depths = new int[nrLines];
+            System.arraycopy(nodes, leaves, depths, 0, nrLines);
+
+            return new LineDepthIndex(startLine, depths);
+        }
+
+        // Index of the first line whose end is strictly greater than index
+        private int firstEndingAfter(final int index)
+        {
+            int low = 0;
+            int high = nrLines;
+            int mid;
+
+            while (low < high) {
+                mid = (low + high) >>> 1;
+                if (lineEnds[mid] > index)
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+
+            return low;
+        }
+
+        // Index of the last line whose start is lower than or equal to index
+        private int lastStartingAtOrBefore(final int index)
+        {
+            int low = 0;
+            int high = nrLines;
+            int mid;
+
+            while (low < high) {
+                mid = (low + high) >>> 1;
+                if (lineStarts[mid] > index)
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+
+            return low - 1;
+        }
+    }
+}
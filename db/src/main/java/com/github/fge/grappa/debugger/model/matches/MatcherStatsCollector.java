@@ -0,0 +1,151 @@
+package com.github.fge.grappa.debugger.model.matches;
+
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Computes per matcher statistics of a trace in one pass over its nodes
+ *
+ * <p>For each matcher, this class counts the number of calls, of non empty,
+ * empty and failed matches, and sums the time spent in the matcher; the self
+ * time of a matcher is this time minus the time spent in the children of its
+ * nodes.</p>
+ *
+ * <p>Nodes may be added in any order. Self times are only computed by {@link
+ * #finish()}, which must be called once all nodes are added and before
+ * reading any time.</p>
+ *
+ * <p>Node ids are expected to be dense, starting from 0; the time of nodes
+ * whose parent id is out of this range is not subtracted from the time of
+ * their parent.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ */
+public final class MatcherStatsCollector
+{
+    private static final int NO_MATCHER = -1;
+
+    private final int[] calls;
+    private final int[] nonEmptyMatches;
+    private final int[] emptyMatches;
+    private final int[] failedMatches;
+    private final long[] totalTimes;
+    private final long[] selfTimes;
+
+    // Indexed by node id; only needed until finish() is called
+    private int[] matcherIds;
+    private long[] childrenTimes;
+
+    public MatcherStatsCollector(final int nrMatchers, final int nrNodes)
+    {
+        calls = new int[nrMatchers];
+        nonEmptyMatches = new int[nrMatchers];
+        emptyMatches = new int[nrMatchers];
+        failedMatches = new int[nrMatchers];
+        totalTimes = new long[nrMatchers];
+        selfTimes = new long[nrMatchers];
+
+        matcherIds = new int[nrNodes];
+        Arrays.fill(matcherIds, NO_MATCHER);
+        childrenTimes = new long[nrNodes];
+    }
+
+    public void addNode(final int id, final int parentId, final int matcherId,
+        final boolean success, final int startIndex, final int endIndex,
+        final long time)
+    {
+        calls[matcherId]++;
+
+        if (!success)
+            failedMatches[matcherId]++;
+        else if (startIndex == endIndex)
+            emptyMatches[matcherId]++;
+        else
+            nonEmptyMatches[matcherId]++;
+
+        totalTimes[matcherId] += time;
+
+        if (id >= 0 && id < matcherIds.length)
+            matcherIds[id] = matcherId;
+        if (parentId >= 0 && parentId < childrenTimes.length)
+            childrenTimes[parentId] += time;
+    }
+
+    public void finish()
+    {
+        if (matcherIds == null)
+            return;
+
+        System.arraycopy(totalTimes, 0, selfTimes, 0, totalTimes.length);
+
+        int matcherId;
+
+        for (int id = 0; id < matcherIds.length; id++) {
+            matcherId = matcherIds[id];
+            if (matcherId != NO_MATCHER)
+                selfTimes[matcherId] -= childrenTimes[id];
+        }
+
+        matcherIds = null;
+        childrenTimes = null;
+    }
+
+    public int getNrMatchers()
+    {
+        return calls.length;
+    }
+
+    public int getCalls(final int matcherId)
+    {
+        return calls[matcherId];
+    }
+
+    public int getNonEmptyMatches(final int matcherId)
+    {
+        return nonEmptyMatches[matcherId];
+    }
+
+    public int getEmptyMatches(final int matcherId)
+    {
+        return emptyMatches[matcherId];
+    }
+
+    public int getFailedMatches(final int matcherId)
+    {
+        return failedMatches[matcherId];
+    }
+
+    public long getTotalTime(final int matcherId)
+    {
+        return totalTimes[matcherId];
+    }
+
+    public long getSelfTime(final int matcherId)
+    {
+        return selfTimes[matcherId];
+    }
+
+    /**
+     * Return the profile of all matchers called at least once
+     *
+     * @param ruleInfos the rule of each matcher, by matcher id
+     * @return the profiles, by ascending matcher id
+     */
+    public List<RuleProfile> getRuleProfiles(
+        final IntFunction<RuleInfo> ruleInfos)
+    {
+        final List<RuleProfile> ret = new ArrayList<>();
+
+        for (int id = 0; id < calls.length; id++)
+            if (calls[id] > 0)
+                ret.add(new RuleProfile(ruleInfos.apply(id), calls[id],
+                    totalTimes[id], selfTimes[id]));
+
+        return ret;
+    }
+}
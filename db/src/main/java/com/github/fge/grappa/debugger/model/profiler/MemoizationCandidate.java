@@ -0,0 +1,59 @@
+package com.github.fge.grappa.debugger.model.profiler;
+
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.internal.NonFinalForTesting;
+
+/**
+ * Invocations of one matcher repeated at the same position of the input
+ *
+ * <p>A call is repeated when the matcher was already called at the same
+ * start index earlier in the parse, which happens after backtracking. If the
+ * matcher were memoized, repeated calls would be answered from the result of
+ * the first call; the repeated time, that is the total time of all repeated
+ * calls (children included), is therefore the time memoization could
+ * save.</p>
+ *
+ * <p>Since the time of a call includes the time of its children, the repeated
+ * times of different matchers overlap and do not add up.</p>
+ *
+ * <p>All times are in nanoseconds.</p>
+ *
+ * @see RepeatedCallsCollector
+ */
+@NonFinalForTesting
+public class MemoizationCandidate
+{
+    private final RuleInfo ruleInfo;
+    private final int calls;
+    private final int repeatedCalls;
+    private final long repeatedTime;
+
+    public MemoizationCandidate(final RuleInfo ruleInfo, final int calls,
+        final int repeatedCalls, final long repeatedTime)
+    {
+        this.ruleInfo = ruleInfo;
+        this.calls = calls;
+        this.repeatedCalls = repeatedCalls;
+        this.repeatedTime = repeatedTime;
+    }
+
+    public RuleInfo getRuleInfo()
+    {
+        return ruleInfo;
+    }
+
+    public int getCalls()
+    {
+        return calls;
+    }
+
+    public int getRepeatedCalls()
+    {
+        return repeatedCalls;
+    }
+
+    public long getRepeatedTime()
+    {
+        return repeatedTime;
+    }
+}
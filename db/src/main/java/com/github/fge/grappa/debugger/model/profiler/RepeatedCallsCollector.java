@@ -0,0 +1,180 @@
+package com.github.fge.grappa.debugger.model.profiler;
+
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Finds repeated matcher invocations in one pass over the nodes of a trace
+ *
+ * <p>Nodes are grouped by matcher id and start index using an open addressing
+ * hash map from these pairs, packed into a long, to the id and time of the
+ * first call in the group. Since node ids are attributed in the order in which
+ * rules are called, the first call is the one with the lowest id, and all
+ * others are repeated calls; nodes may therefore be added in any order.</p>
+ *
+ * <p>Memory usage is proportional to the number of distinct pairs; the map
+ * never holds more than three quarters of its capacity.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @see MemoizationCandidate
+ */
+public final class RepeatedCallsCollector
+{
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    // Slots are never 0: keys are stored plus one
+    private static final long EMPTY = 0L;
+
+    private static final Comparator<MemoizationCandidate> BY_REPEATED_TIME
+        = Comparator.comparingLong(MemoizationCandidate::getRepeatedTime)
+            .thenComparingInt(MemoizationCandidate::getRepeatedCalls)
+            .reversed();
+
+    private final int[] calls;
+    private final int[] repeatedCalls;
+    private final long[] repeatedTimes;
+
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int[] firstIds = new int[INITIAL_CAPACITY];
+    private long[] firstTimes = new long[INITIAL_CAPACITY];
+    private int nrKeys = 0;
+
+    public RepeatedCallsCollector(final int nrMatchers)
+    {
+        calls = new int[nrMatchers];
+        repeatedCalls = new int[nrMatchers];
+        repeatedTimes = new long[nrMatchers];
+    }
+
+    public void addNode(final int id, final int matcherId,
+        final int startIndex, final long time)
+    {
+        calls[matcherId]++;
+
+        final long value = ((long) matcherId << 32 | startIndex & 0xFFFFFFFFL)
+            + 1;
+        final int mask = slots.length - 1;
+
+        int index = hash(value) & mask;
+        long slot;
+
+        while ((slot = slots[index]) != EMPTY) {
+            if (slot == value) {
+                addRepeatedCall(index, id, matcherId, time);
+                return;
+            }
+            index = index + 1 & mask;
+        }
+
+        slots[index] = value;
+        firstIds[index] = id;
+        firstTimes[index] = time;
+
+        if (++nrKeys > slots.length / 4 * 3)
+            grow();
+    }
+
+    // If this call is before the first one seen so far, that one is repeated
+    private void addRepeatedCall(final int index, final int id,
+        final int matcherId, final long time)
+    {
+        repeatedCalls[matcherId]++;
+
+        if (id > firstIds[index]) {
+            repeatedTimes[matcherId] += time;
+            return;
+        }
+
+        repeatedTimes[matcherId] += firstTimes[index];
+        firstIds[index] = id;
+        firstTimes[index] = time;
+    }
+
+    public int getNrMatchers()
+    {
+        return calls.length;
+    }
+
+    public int getCalls(final int matcherId)
+    {
+        return calls[matcherId];
+    }
+
+    public int getRepeatedCalls(final int matcherId)
+    {
+        return repeatedCalls[matcherId];
+    }
+
+    public long getRepeatedTime(final int matcherId)
+    {
+        return repeatedTimes[matcherId];
+    }
+
+    /**
+     * Return all matchers with repeated calls
+     *
+     * @param ruleInfos the rule of each matcher, by matcher id
+     * @return the candidates, by descending repeated time, then descending
+     * number of repeated calls
+     */
+    public List<MemoizationCandidate> getCandidates(
+        final IntFunction<RuleInfo> ruleInfos)
+    {
+        final List<MemoizationCandidate> ret = new ArrayList<>();
+
+        for (int id = 0; id < calls.length; id++)
+            if (repeatedCalls[id] > 0)
+                ret.add(new MemoizationCandidate(ruleInfos.apply(id),
+                    calls[id], repeatedCalls[id], repeatedTimes[id]));
+
+        ret.sort(BY_REPEATED_TIME);
+        return ret;
+    }
+
+    private void grow()
+    {
+        final long[] oldSlots = slots;
+        final int[] oldIds = firstIds;
+        final long[] oldTimes = firstTimes;
+        final int capacity = oldSlots.length * 2;
+
+        slots = new long[capacity];
+        firstIds = new int[capacity];
+        firstTimes = new long[capacity];
+
+        final int mask = capacity - 1;
+        long value;
+        int index;
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            value = oldSlots[i];
+            if (value == EMPTY)
+                continue;
+            index = hash(value) & mask;
+            while (slots[index] != EMPTY)
+                index = index + 1 & mask;
+            slots[index] = value;
+            firstIds[index] = oldIds[i];
+            firstTimes[index] = oldTimes[i];
+        }
+    }
+
+    // The finalizer of MurmurHash3's 64 bit variant
+    private static int hash(final long value)
+    {
+        long h = value;
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return (int) h;
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.fge.grappa.debugger.model.profiler;
+
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.internal.NonFinalForTesting;
+
+/**
+ * Time spent in one matcher of a trace
+ *
+ * <p>The total time of a matcher is the sum of the times of all its nodes,
+ * which include the time spent in their children; its self time is this time
+ * minus the time of the children of its nodes. The self times of all matchers
+ * therefore add up to the total time of the parse.</p>
+ *
+ * <p>All times are in nanoseconds.</p>
+ */
+@NonFinalForTesting
+public class RuleProfile
+{
+    private final RuleInfo ruleInfo;
+    private final int calls;
+    private final long totalTime;
+    private final long selfTime;
+
+    public RuleProfile(final RuleInfo ruleInfo, final int calls,
+        final long totalTime, final long selfTime)
+    {
+        this.ruleInfo = ruleInfo;
+        this.calls = calls;
+        this.totalTime = totalTime;
+        this.selfTime = selfTime;
+    }
+
+    public RuleInfo getRuleInfo()
+    {
+        return ruleInfo;
+    }
+
+    public int getCalls()
+    {
+        return calls;
+    }
+
+    public long getTotalTime()
+    {
+        return totalTime;
+    }
+
+    public long getSelfTime()
+    {
+        return selfTime;
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.fge.grappa.debugger.model.tree;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The innermost successful node matching each position of the input
+ *
+ * <p>A node matches a position if it is successful and its start index is
+ * lower than or equal to the position, and its end index is strictly greater
+ * than the position; empty matches therefore match no position. Of all nodes
+ * matching a position, the innermost is the one which starts last; if several
+ * start at the same index, it is the one with the highest id. Since node ids
+ * are attributed in the order in which rules are called, this is always the
+ * deepest node of the tree at this position, except when sibling nodes overlap
+ * (for instance, a successful test predicate followed by the rule it
+ * tests).</p>
+ *
+ * <p>The input is split into segments of consecutive positions matched by the
+ * same node, so that looking up a position costs O(log n), where n is the
+ * number of segments; there are at most twice as many segments as there are
+ * nodes.</p>
+ *
+ * <p>Instances are built using a {@link Builder}, to which nodes are added in
+ * any order; once built, an index is immutable. An index can also be saved
+ * using {@link #writeTo(DataOutput)}, and read back using {@link
+ * #readFrom(DataInput)}.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class NodePositionIndex
+{
+    /**
+     * Returned by {@link #getNodeId(int)} if no node matches a position
+     */
+    public static final int NO_NODE = -1;
+
+    // The start of each segment, in ascending order, and the node matching it
+    private final int[] starts;
+    private final int[] nodeIds;
+
+    public static Builder newBuilder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Read an index written by {@link #writeTo(DataOutput)}
+     *
+     * @param in the input
+     * @return the index
+     * @throws IOException failed to read from the input
+     */
+    public static NodePositionIndex readFrom(final DataInput in)
+        throws IOException
+    {
+        final int nrSegments = in.readInt();
+        final int[] starts = new int[nrSegments];
+        final int[] nodeIds = new int[nrSegments];
+
+        for (int i = 0; i < nrSegments; i++) {
+            starts[i] = in.readInt();
+            nodeIds[i] = in.readInt();
+        }
+
+        return new NodePositionIndex(starts, nodeIds);
+    }
+
+    private NodePositionIndex(final int[] starts, final int[] nodeIds)
+    {
+        this.starts = starts;
+        this.nodeIds = nodeIds;
+    }
+
+    /**
+     * Return the id of the innermost node matching a position
+     *
+     * @param index the position in the input
+     * @return the id of the node; {@link #NO_NODE} if no node matches this
+     * position
+     */
+    public int getNodeId(final int index)
+    {
+        int low = 0;
+        int high = starts.length;
+        int mid;
+
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (starts[mid] > index)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+
+        return low == 0 ? NO_NODE : nodeIds[low - 1];
+    }
+
+    /**
+     * Write this index
+     *
+     * @param out the output
+     * @throws IOException failed to write to the output
+     */
+    public void writeTo(final DataOutput out)
+        throws IOException
+    {
+        out.writeInt(starts.length);
+
+        for (int i = 0; i < starts.length; i++) {
+            out.writeInt(starts[i]);
+            out.writeInt(nodeIds[i]);
+        }
+    }
+
+    /**
+     * Builder for a {@link NodePositionIndex}
+     *
+     * <p>Nodes are recorded as they are added; building the index sorts them
+     * by start index, then sweeps over them with a stack of the nodes which
+     * may still match the current position. This costs O(n log n), where n is
+     * the number of nodes.</p>
+     *
+     * <p>This class is not thread safe.</p>
+     */
+    public static final class Builder
+    {
+        // Start index (high 32 bits) and id (low 32 bits) of each node
+        private long[] keys = new long[1024];
+        private int nrNodes = 0;
+
+        // End index of each node, by id
+        private int[] ends = new int[1024];
+
+        // The segments built so far
+        private int[] starts;
+        private int[] nodeIds;
+        private int nrSegments;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Add a node
+         *
+         * <p>Failed nodes and empty matches are ignored.</p>
+         *
+         * @param id the id of the node
+         * @param success whether the node is successful
+         * @param startIndex the start index of the node
+         * @param endIndex the end index of the node
+         * @return this
+         */
+        public Builder addNode(final int id, final boolean success,
+            final int startIndex, final int endIndex)
+        {
+            if (!success || startIndex >= endIndex)
+                return this;
+
+            if (nrNodes == keys.length)
+                keys = Arrays.copyOf(keys, nrNodes * 2);
+            keys[nrNodes++] = (long) startIndex << 32 | id;
+
+            if (id >= ends.length)
+                ends = Arrays.copyOf(ends, Math.max(ends.length * 2, id + 1));
+            ends[id] = endIndex;
+
+            return this;
+        }
+
+        public NodePositionIndex build()
+        {
+            final long[] sorted = Arrays.copyOf(keys, nrNodes);
+            Arrays.sort(sorted);
+
+            starts = new int[2 * nrNodes];
+            nodeIds = new int[2 * nrNodes];
+            nrSegments = 0;
+
+            final int[] stack = new int[nrNodes];
+            int depth = 0;
+
+            int startIndex;
+            int id;
+
+            for (final long key: sorted) {
+                startIndex = (int) (key >>> 32);
+                id = (int) key;
+                depth = unwind(stack, depth, startIndex);
+                stack[depth++] = id;
+                addSegment(startIndex, id);
+            }
+
+            unwind(stack, depth, Integer.MAX_VALUE);
+
+            return new NodePositionIndex(Arrays.copyOf(starts, nrSegments),
+                Arrays.copyOf(nodeIds, nrSegments));
+        }
+
+        /*
+         * Pop all nodes which end at or before the given index, and return
+         * the new depth of the stack.
+         *
+         * Only the top of the stack matches the current position; nodes below
+         * it may have ended already, in which case they are popped as soon as
+         * they reach the top.
+         */
+        private int unwind(final int[] stack, final int depth,
+            final int index)
+        {
+            int ret = depth;
+            int end;
+
+            while (ret > 0 && (end = ends[stack[ret - 1]]) <= index) {
+                ret--;
+                while (ret > 0 && ends[stack[ret - 1]] <= end)
+                    ret--;
+                addSegment(end, ret == 0 ? NO_NODE : stack[ret - 1]);
+            }
+
+            return ret;
+        }
+
+        private void addSegment(final int start, final int nodeId)
+        {
+            if (nrSegments > 0 && starts[nrSegments - 1] == start)
+                nrSegments--;
+
+            if (nrSegments > 0 && nodeIds[nrSegments - 1] == nodeId)
+                return;
+
+            starts[nrSegments] = start;
+            nodeIds[nrSegments] = nodeId;
+            nrSegments++;
+        }
+    }
+}
@@ -5,14 +5,22 @@ import com.github.fge.grappa.buffers.InputBuffer;
 import com.github.fge.grappa.debugger.ParseInfo;
 import com.github.fge.grappa.debugger.TraceDb;
 import com.github.fge.grappa.debugger.TraceDbLoadStatus;
+import com.github.fge.grappa.debugger.model.CachingTraceModel;
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.grappa.debugger.model.TraceModelException;
-import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
-    .ParseInfoRecord;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
 import com.github.fge.grappa.debugger.postgresql.model.PostgresqlTraceModel;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Record3;
+import org.jooq.Record4;
+import org.jooq.Record7;
 import org.jooq.impl.DSL;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -28,21 +36,94 @@ public final class PostgresqlTraceDb
     private final DSLContext jooq;
     private final UUID uuid;
     private final ParseInfo parseInfo;
-    private final InputBuffer inputBuffer;
-
-    @SuppressWarnings("AutoUnboxing")
+    private final Supplier<InputBuffer> inputBuffer
+        = Suppliers.memoize(this::fetchInputBuffer);
+    private final Supplier<LineDepthIndex> lineDepths
+        = Suppliers.memoize(this::indexLineDepths);
+    private final Supplier<NodePositionIndex> nodePositions
+        = Suppliers.memoize(this::indexNodePositions);
+    private final TraceModel model;
+
+    /**
+     * Constructor
+     *
+     * <p>Only the statistics of the trace are read here, in a single row; the
+     * input text is only fetched when first needed.</p>
+     *
+     * @param jooq the jOOQ context
+     * @param uuid the id of the trace
+     * @throws TraceModelException no trace with this id
+     */
     public PostgresqlTraceDb(final DSLContext jooq, final UUID uuid)
     {
         this.jooq = jooq;
         this.uuid = uuid;
 
-        final ParseInfoRecord record = jooq.selectFrom(PARSE_INFO)
+        final Record7<Timestamp, Integer, Integer, Integer, Integer, Integer,
+            Integer> record = jooq.select(PARSE_INFO.DATE,
+                PARSE_INFO.TREE_DEPTH, PARSE_INFO.NR_MATCHERS,
+                PARSE_INFO.NR_LINES, PARSE_INFO.NR_CHARS,
+                PARSE_INFO.NR_CODE_POINTS, PARSE_INFO.NR_NODES)
+            .from(PARSE_INFO)
             .where(PARSE_INFO.ID.eq(uuid))
             .fetchOne();
 
         if (record == null)
             throw new TraceModelException("no trace found with id " + uuid);
 
+        final LocalDateTime time = record.value1().toLocalDateTime();
+
+        parseInfo = record.value7() == null ? computeParseInfo(time)
+            : new ParseInfo(time, record.value2(), record.value3(),
+                record.value4(), record.value5(), record.value6(),
+                record.value7());
+
+        model = new CachingTraceModel(new PostgresqlTraceModel(uuid, jooq,
+            lineDepths::get, nodePositions::get), status);
+    }
+
+    @Override
+    public TraceDbLoadStatus getLoadStatus()
+    {
+        return status;
+    }
+
+    @Override
+    public ParseInfo getParseInfo()
+    {
+        return parseInfo;
+    }
+
+    @Override
+    public InputBuffer getInputBuffer()
+    {
+        return inputBuffer.get();
+    }
+
+    @Override
+    public TraceModel getModel()
+    {
+        return model;
+    }
+
+    private InputBuffer fetchInputBuffer()
+    {
+        final String content = jooq.select(PARSE_INFO.CONTENT)
+            .from(PARSE_INFO)
+            .where(PARSE_INFO.ID.eq(uuid))
+            .fetchOne().value1();
+
+        return new CharSequenceInputBuffer(content);
+    }
+
+    /*
+     * Traces imported before statistics were stored in parse_info: compute
+     * them from nodes, matchers and the input text, and store them so that
+     * this is only done once.
+     */
+    @SuppressWarnings("AutoUnboxing")
+    private ParseInfo computeParseInfo(final LocalDateTime time)
+    {
         final int treeDepth = jooq.select(DSL.max(NODES.LEVEL))
             .from(NODES)
             .where(NODES.PARSE_INFO_ID.eq(uuid))
@@ -58,40 +139,67 @@ public final class PostgresqlTraceDb
             .where(MATCHERS.PARSE_INFO_ID.eq(uuid))
             .fetchOne().value1();
 
-        final LocalDateTime time = record.getDate().toLocalDateTime();
-        final String content = record.getContent();
-        inputBuffer = new CharSequenceInputBuffer(content);
+        final InputBuffer buffer = inputBuffer.get();
+        final String content = buffer.extract(0, buffer.length());
 
         final int length = content.length();
-        final int nrLines = inputBuffer.getLineCount();
+        final int nrLines = buffer.getLineCount();
         final int nrCodePoints = content.codePointCount(0, length);
 
-        parseInfo = new ParseInfo(time, treeDepth, nrMatchers, nrLines, length,
-            nrCodePoints, nrNodes);
-    }
-
-    @Override
-    public TraceDbLoadStatus getLoadStatus()
-    {
-        return status;
-    }
+        jooq.update(PARSE_INFO)
+            .set(PARSE_INFO.TREE_DEPTH, treeDepth)
+            .set(PARSE_INFO.NR_MATCHERS, nrMatchers)
+            .set(PARSE_INFO.NR_LINES, nrLines)
+            .set(PARSE_INFO.NR_CHARS, length)
+            .set(PARSE_INFO.NR_CODE_POINTS, nrCodePoints)
+            .set(PARSE_INFO.NR_NODES, nrNodes)
+            .where(PARSE_INFO.ID.eq(uuid))
+            .execute();
 
-    @Override
-    public ParseInfo getParseInfo()
-    {
-        return parseInfo;
+        return new ParseInfo(time, treeDepth, nrMatchers, nrLines, length,
+            nrCodePoints, nrNodes);
     }
 
-    @Override
-    public InputBuffer getInputBuffer()
+    // Built on first use: there is no load step to build it from
+    private LineDepthIndex indexLineDepths()
     {
-        return inputBuffer;
+        final LineDepthIndex.Builder builder
+            = LineDepthIndex.newBuilder(inputBuffer.get());
+
+        try (
+            final Cursor<Record3<Integer, Integer, Integer>> cursor
+                = jooq.select(NODES.LEVEL, NODES.START_INDEX, NODES.END_INDEX)
+                .from(NODES)
+                .where(NODES.PARSE_INFO_ID.eq(uuid))
+                .fetchLazy();
+        ) {
+            cursor.forEach(r -> builder.addNode(r.value1(), r.value2(),
+                r.value3()));
+        }
+
+        return builder.build();
     }
 
-    @Override
-    public TraceModel getModel()
+    // Built on first use, as the line depth index is
+    @SuppressWarnings("AutoUnboxing")
+    private NodePositionIndex indexNodePositions()
     {
-        return new PostgresqlTraceModel(uuid, jooq, inputBuffer);
+        final NodePositionIndex.Builder builder
+            = NodePositionIndex.newBuilder();
+
+        try (
+            final Cursor<Record4<Integer, Integer, Integer, Integer>> cursor
+                = jooq.select(NODES.ID, NODES.SUCCESS, NODES.START_INDEX,
+                NODES.END_INDEX)
+                .from(NODES)
+                .where(NODES.PARSE_INFO_ID.eq(uuid))
+                .fetchLazy();
+        ) {
+            cursor.forEach(r -> builder.addNode(r.value1(), r.value2() == 1,
+                r.value3(), r.value4()));
+        }
+
+        return builder.build();
     }
 
     @Override
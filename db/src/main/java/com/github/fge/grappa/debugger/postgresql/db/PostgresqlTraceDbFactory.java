@@ -20,6 +20,9 @@ import java.io.Reader;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.UUID;
@@ -36,6 +39,7 @@ public final class PostgresqlTraceDbFactory
     private final String password;
     private final DSLContext jooq;
     private final Configuration cfg;
+    private final PostgresqlTraceRetention retention;
 
     public static PostgresqlTraceDbFactory defaultFactory()
     {
@@ -75,6 +79,7 @@ public final class PostgresqlTraceDbFactory
         cfg.set(SQLDialect.POSTGRES);
 
         jooq = DSL.using(cfg);
+        retention = new PostgresqlTraceRetention(jooq);
     }
 
     public String getJdbcUrl()
@@ -102,6 +107,51 @@ public final class PostgresqlTraceDbFactory
         return jooq;
     }
 
+    /**
+     * List all stored traces
+     *
+     * @return the traces, oldest first
+     */
+    public List<StoredTrace> listTraces()
+    {
+        return retention.listTraces();
+    }
+
+    /**
+     * Delete a trace
+     *
+     * @param uuid the id of the trace
+     * @return true if the trace existed
+     *
+     * @see PostgresqlTraceRetention
+     */
+    public boolean deleteTrace(final UUID uuid)
+    {
+        return retention.deleteTrace(uuid);
+    }
+
+    /**
+     * Delete all traces recorded before a given date
+     *
+     * @param date the date
+     * @return the number of deleted traces
+     */
+    public int deleteTracesBefore(final LocalDateTime date)
+    {
+        return retention.deleteTracesBefore(date);
+    }
+
+    /**
+     * Delete all traces older than a given age
+     *
+     * @param age the age
+     * @return the number of deleted traces
+     */
+    public int deleteTracesOlderThan(final Duration age)
+    {
+        return retention.deleteTracesOlderThan(age);
+    }
+
     public static final class Builder
     {
         private static final String DEFAULT_CFG_FILE
@@ -1,16 +1,29 @@
 package com.github.fge.grappa.debugger.postgresql.db;
 
+import com.github.fge.grappa.debugger.TraceDbLoadListener;
+import com.github.fge.grappa.debugger.TraceDbLoadStage;
 import com.github.fge.grappa.debugger.TraceDbLoadStatus;
 
+import java.util.concurrent.CompletableFuture;
+
 public final class PostgresqlTraceDbLoadStatus
     implements TraceDbLoadStatus
 {
+    private final CompletableFuture<Void> ready
+        = CompletableFuture.completedFuture(null);
+
     @Override
     public boolean isReady()
     {
         return true;
     }
 
+    @Override
+    public TraceDbLoadStage getStage()
+    {
+        return TraceDbLoadStage.READY;
+    }
+
     @Override
     public int getLoadedMatchers()
     {
@@ -24,4 +37,20 @@ public final class PostgresqlTraceDbLoadStatus
         // TODO
         return 0;
     }
+
+    @Override
+    public CompletableFuture<Void> whenReady()
+    {
+        return ready;
+    }
+
+    @Override
+    public void addListener(final TraceDbLoadListener listener)
+    {
+    }
+
+    @Override
+    public void removeListener(final TraceDbLoadListener listener)
+    {
+    }
 }
@@ -0,0 +1,178 @@
+package com.github.fge.grappa.debugger.postgresql.db;
+
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MATCHERS;
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MATCHER_STATS;
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MEMOIZATION_STATS;
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.NODES;
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.PARSE_INFO;
+
+/**
+ * Listing and deletion of the traces stored in the PostgreSQL database
+ *
+ * <p>Nodes of a trace are deleted in chunks of consecutive node ids, each in
+ * its own statement; since nodes are partitioned on the trace id and indexed
+ * on (trace id, node id), each chunk only locks the rows it deletes, and the
+ * database remains usable while a large trace is deleted.</p>
+ *
+ * <p>The trace record itself is deleted last; a trace whose deletion fails
+ * midway is therefore still listed, and its deletion may be retried.</p>
+ *
+ * @see PostgresqlTraceDbFactory#listTraces()
+ */
+@ParametersAreNonnullByDefault
+public final class PostgresqlTraceRetention
+{
+    public static final int DEFAULT_CHUNK_SIZE = 100_000;
+
+    private final DSLContext jooq;
+    private final int chunkSize;
+
+    public PostgresqlTraceRetention(final DSLContext jooq)
+    {
+        this(jooq, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PostgresqlTraceRetention(final DSLContext jooq, final int chunkSize)
+    {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunk size must be at least"
+                + " 1");
+        this.jooq = jooq;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * List all stored traces
+     *
+     * @return the traces, oldest first
+     */
+    public List<StoredTrace> listTraces()
+    {
+        return jooq.select(PARSE_INFO.ID, PARSE_INFO.DATE)
+            .from(PARSE_INFO)
+            .orderBy(PARSE_INFO.DATE, PARSE_INFO.ID)
+            .fetch(r -> new StoredTrace(r.value1(),
+                r.value2().toLocalDateTime()));
+    }
+
+    /**
+     * Delete a trace
+     *
+     * @param uuid the id of the trace
+     * @return true if the trace existed
+     */
+    @SuppressWarnings("AutoUnboxing")
+    public boolean deleteTrace(final UUID uuid)
+    {
+        jooq.deleteFrom(MATCHER_STATS)
+            .where(MATCHER_STATS.PARSE_INFO_ID.eq(uuid))
+            .execute();
+        jooq.deleteFrom(MEMOIZATION_STATS)
+            .where(MEMOIZATION_STATS.PARSE_INFO_ID.eq(uuid))
+            .execute();
+
+        final Integer maxId = jooq.select(DSL.max(NODES.ID))
+            .from(NODES)
+            .where(NODES.PARSE_INFO_ID.eq(uuid))
+            .fetchOne().value1();
+
+        if (maxId != null)
+            for (long start = 0L; start <= maxId; start += chunkSize)
+                jooq.deleteFrom(NODES)
+                    .where(NODES.PARSE_INFO_ID.eq(uuid))
+                    .and(NODES.ID.ge((int) start))
+                    .and(NODES.ID.le((int) Math.min(start + chunkSize - 1,
+                        maxId)))
+                    .execute();
+
+        jooq.deleteFrom(MATCHERS)
+            .where(MATCHERS.PARSE_INFO_ID.eq(uuid))
+            .execute();
+
+        return jooq.deleteFrom(PARSE_INFO)
+            .where(PARSE_INFO.ID.eq(uuid))
+            .execute() != 0;
+    }
+
+    /**
+     * Delete all traces recorded before a given date
+     *
+     * @param date the date
+     * @return the number of deleted traces
+     */
+    public int deleteTracesBefore(final LocalDateTime date)
+    {
+        final List<UUID> uuids = jooq.select(PARSE_INFO.ID)
+            .from(PARSE_INFO)
+            .where(PARSE_INFO.DATE.lt(Timestamp.valueOf(date)))
+            .fetch(PARSE_INFO.ID);
+
+        int ret = 0;
+
+        for (final UUID uuid: uuids)
+            if (deleteTrace(uuid))
+                ret++;
+
+        return ret;
+    }
+
+    /**
+     * Delete all traces older than a given age
+     *
+     * @param age the age
+     * @return the number of deleted traces
+     */
+    public int deleteTracesOlderThan(final Duration age)
+    {
+        return deleteTracesBefore(LocalDateTime.now().minus(age));
+    }
+
+    public static void main(final String... args)
+    {
+        if (args.length == 0) {
+            System.err.println("usage: list | delete uuid... | older-than"
+                + " days");
+            System.exit(2);
+        }
+
+        final PostgresqlTraceDbFactory factory
+            = PostgresqlTraceDbFactory.defaultFactory();
+
+        switch (args[0]) {
+            case "list":
+                factory.listTraces().forEach(System.out::println);
+                break;
+            case "delete":
+                for (int i = 1; i < args.length; i++)
+                    System.out.println(args[i] + ": "
+                        + (factory.deleteTrace(UUID.fromString(args[i]))
+                        ? "deleted" : "not found"));
+                break;
+            case "older-than":
+                if (args.length != 2) {
+                    System.err.println("missing number of days");
+                    System.exit(2);
+                }
+                final Duration age
+                    = Duration.ofDays(Long.parseLong(args[1]));
+                System.out.println(factory.deleteTracesOlderThan(age)
+                    + " trace(s) deleted");
+                break;
+            default:
+                System.err.println("unknown command " + args[0]);
+                System.exit(2);
+        }
+
+        System.exit(0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.fge.grappa.debugger.postgresql.db;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A trace stored in the PostgreSQL database
+ *
+ * @see PostgresqlTraceRetention#listTraces()
+ */
+public final class StoredTrace
+{
+    private final UUID id;
+    private final LocalDateTime time;
+
+    public StoredTrace(final UUID id, final LocalDateTime time)
+    {
+        this.id = id;
+        this.time = time;
+    }
+
+    public UUID getId()
+    {
+        return id;
+    }
+
+    public LocalDateTime getTime()
+    {
+        return time;
+    }
+
+    @Override
+    public String toString()
+    {
+        return id + " (" + time + ')';
+    }
+}
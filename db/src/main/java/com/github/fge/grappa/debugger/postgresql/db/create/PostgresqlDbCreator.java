@@ -44,7 +44,8 @@ public final class PostgresqlDbCreator
 
         final Database database = new Database()
             .withName("org.jooq.util.postgres.PostgresDatabase")
-            .withIncludes(".*").withExcludes("schema_version")
+            .withIncludes(".*")
+            .withExcludes("schema_version|nodes_p[0-9]+|matchers_p[0-9]+")
             .withInputSchema("public");
 
         final String pkg = "com.github.fge.grappa.debugger.postgresql.jooq";
@@ -3,11 +3,17 @@
  */
 package com.github.fge.grappa.debugger.postgresql.jooq;
 
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.MatcherStats;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.Matchers;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.MemoizationStats;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.Nodes;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.ParseInfo;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
+	.MatcherStatsRecord;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
 	.MatchersRecord;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
+	.MemoizationStatsRecord;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
 	.NodesRecord;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
@@ -37,7 +43,9 @@ public class Keys {
 	// UNIQUE and PRIMARY KEY definitions
 	// -------------------------------------------------------------------------
 
+	public static final org.jooq.UniqueKey<MatcherStatsRecord> MATCHER_STATS_PARSE_INFO_ID_MATCHER_ID_KEY = UniqueKeys0.MATCHER_STATS_PARSE_INFO_ID_MATCHER_ID_KEY;
 	public static final org.jooq.UniqueKey<MatchersRecord> MATCHERS_PARSE_INFO_ID_ID_KEY = UniqueKeys0.MATCHERS_PARSE_INFO_ID_ID_KEY;
+	public static final org.jooq.UniqueKey<MemoizationStatsRecord> MEMOIZATION_STATS_PARSE_INFO_ID_MATCHER_ID_KEY = UniqueKeys0.MEMOIZATION_STATS_PARSE_INFO_ID_MATCHER_ID_KEY;
 	public static final org.jooq.UniqueKey<NodesRecord> NODES_PARSE_INFO_ID_ID_KEY = UniqueKeys0.NODES_PARSE_INFO_ID_ID_KEY;
 	public static final org.jooq.UniqueKey<ParseInfoRecord> PARSE_INFO_PKEY = UniqueKeys0.PARSE_INFO_PKEY;
 
@@ -45,7 +53,9 @@ public class Keys {
 	// FOREIGN KEY definitions
 	// -------------------------------------------------------------------------
 
+	public static final org.jooq.ForeignKey<MatcherStatsRecord, ParseInfoRecord> MATCHER_STATS__MATCHER_STATS_PARSE_INFO_ID_FKEY = ForeignKeys0.MATCHER_STATS__MATCHER_STATS_PARSE_INFO_ID_FKEY;
 	public static final org.jooq.ForeignKey<MatchersRecord, ParseInfoRecord> MATCHERS__MATCHERS_PARSE_INFO_ID_FKEY = ForeignKeys0.MATCHERS__MATCHERS_PARSE_INFO_ID_FKEY;
+	public static final org.jooq.ForeignKey<MemoizationStatsRecord, ParseInfoRecord> MEMOIZATION_STATS__MEMOIZATION_STATS_PARSE_INFO_ID_FKEY = ForeignKeys0.MEMOIZATION_STATS__MEMOIZATION_STATS_PARSE_INFO_ID_FKEY;
 	public static final org.jooq.ForeignKey<NodesRecord, ParseInfoRecord> NODES__NODES_PARSE_INFO_ID_FKEY = ForeignKeys0.NODES__NODES_PARSE_INFO_ID_FKEY;
 	public static final org.jooq.ForeignKey<NodesRecord, MatchersRecord> NODES__NODES_PARSE_INFO_ID_FKEY1 = ForeignKeys0.NODES__NODES_PARSE_INFO_ID_FKEY1;
 
@@ -54,8 +64,12 @@ public class Keys {
 	// -------------------------------------------------------------------------
 
 	private static class UniqueKeys0 extends org.jooq.impl.AbstractKeys {
+		public static final org.jooq.UniqueKey<MatcherStatsRecord> MATCHER_STATS_PARSE_INFO_ID_MATCHER_ID_KEY = createUniqueKey(
+			MatcherStats.MATCHER_STATS, MatcherStats.MATCHER_STATS.PARSE_INFO_ID, MatcherStats.MATCHER_STATS.MATCHER_ID);
 		public static final org.jooq.UniqueKey<MatchersRecord> MATCHERS_PARSE_INFO_ID_ID_KEY = createUniqueKey(
 			Matchers.MATCHERS, Matchers.MATCHERS.PARSE_INFO_ID, Matchers.MATCHERS.ID);
+		public static final org.jooq.UniqueKey<MemoizationStatsRecord> MEMOIZATION_STATS_PARSE_INFO_ID_MATCHER_ID_KEY = createUniqueKey(
+			MemoizationStats.MEMOIZATION_STATS, MemoizationStats.MEMOIZATION_STATS.PARSE_INFO_ID, MemoizationStats.MEMOIZATION_STATS.MATCHER_ID);
 		public static final org.jooq.UniqueKey<NodesRecord> NODES_PARSE_INFO_ID_ID_KEY = createUniqueKey(
 			Nodes.NODES, Nodes.NODES.PARSE_INFO_ID, Nodes.NODES.ID);
 		public static final org.jooq.UniqueKey<ParseInfoRecord> PARSE_INFO_PKEY = createUniqueKey(
@@ -63,10 +77,16 @@ public class Keys {
 	}
 
 	private static class ForeignKeys0 extends org.jooq.impl.AbstractKeys {
+		public static final org.jooq.ForeignKey<MatcherStatsRecord, ParseInfoRecord> MATCHER_STATS__MATCHER_STATS_PARSE_INFO_ID_FKEY = AbstractKeys
+			.createForeignKey(Keys.PARSE_INFO_PKEY, MatcherStats.MATCHER_STATS,
+				MatcherStats.MATCHER_STATS.PARSE_INFO_ID);
 		public static final org.jooq.ForeignKey<MatchersRecord, ParseInfoRecord> MATCHERS__MATCHERS_PARSE_INFO_ID_FKEY = AbstractKeys
 
 			.createForeignKey(Keys.PARSE_INFO_PKEY, Matchers.MATCHERS,
 				Matchers.MATCHERS.PARSE_INFO_ID);
+		public static final org.jooq.ForeignKey<MemoizationStatsRecord, ParseInfoRecord> MEMOIZATION_STATS__MEMOIZATION_STATS_PARSE_INFO_ID_FKEY = AbstractKeys
+			.createForeignKey(Keys.PARSE_INFO_PKEY, MemoizationStats.MEMOIZATION_STATS,
+				MemoizationStats.MEMOIZATION_STATS.PARSE_INFO_ID);
 		public static final org.jooq.ForeignKey<NodesRecord, ParseInfoRecord> NODES__NODES_PARSE_INFO_ID_FKEY = AbstractKeys
 			.createForeignKey(Keys.PARSE_INFO_PKEY,
 				Nodes
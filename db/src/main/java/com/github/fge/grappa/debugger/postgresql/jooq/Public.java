@@ -3,7 +3,9 @@
  */
 package com.github.fge.grappa.debugger.postgresql.jooq;
 
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.MatcherStats;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.Matchers;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.MemoizationStats;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.Nodes;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.ParseInfo;
 
@@ -43,7 +45,9 @@ public class Public extends org.jooq.impl.SchemaImpl {
 
 	private final java.util.List<org.jooq.Table<?>> getTables0() {
 		return java.util.Arrays.<org.jooq.Table<?>>asList(
+			MatcherStats.MATCHER_STATS,
 			Matchers.MATCHERS,
+			MemoizationStats.MEMOIZATION_STATS,
 			Nodes.NODES,
 			ParseInfo.PARSE_INFO);
 	}
@@ -3,7 +3,9 @@
  */
 package com.github.fge.grappa.debugger.postgresql.jooq;
 
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.MatcherStats;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.Matchers;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.MemoizationStats;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.Nodes;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.ParseInfo;
 
@@ -20,11 +22,21 @@ import com.github.fge.grappa.debugger.postgresql.jooq.tables.ParseInfo;
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
 public class Tables {
 
+	/**
+	 * The table public.matcher_stats
+	 */
+	public static final MatcherStats MATCHER_STATS = MatcherStats.MATCHER_STATS;
+
 	/**
 	 * The table public.matchers
 	 */
 	public static final Matchers MATCHERS = Matchers.MATCHERS;
 
+	/**
+	 * The table public.memoization_stats
+	 */
+	public static final MemoizationStats MEMOIZATION_STATS = MemoizationStats.MEMOIZATION_STATS;
+
 	/**
 	 * The table public.nodes
 	 */
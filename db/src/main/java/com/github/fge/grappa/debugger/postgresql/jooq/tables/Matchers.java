@@ -39,7 +39,7 @@ public class Matchers extends org.jooq.impl.TableImpl<MatchersRecord> {
 	/**
 	 * The column <code>public.matchers.parse_info_id</code>.
 	 */
-	public final org.jooq.TableField<MatchersRecord, java.util.UUID> PARSE_INFO_ID = createField("parse_info_id", org.jooq.impl.SQLDataType.UUID, this, "");
+	public final org.jooq.TableField<MatchersRecord, java.util.UUID> PARSE_INFO_ID = createField("parse_info_id", org.jooq.impl.SQLDataType.UUID.nullable(false), this, "");
 
 	/**
 	 * The column <code>public.matchers.id</code>.
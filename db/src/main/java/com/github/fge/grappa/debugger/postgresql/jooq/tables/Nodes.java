@@ -39,7 +39,7 @@ public class Nodes extends org.jooq.impl.TableImpl<NodesRecord> {
 	/**
 	 * The column <code>public.nodes.parse_info_id</code>.
 	 */
-	public final org.jooq.TableField<NodesRecord, java.util.UUID> PARSE_INFO_ID = createField("parse_info_id", org.jooq.impl.SQLDataType.UUID, this, "");
+	public final org.jooq.TableField<NodesRecord, java.util.UUID> PARSE_INFO_ID = createField("parse_info_id", org.jooq.impl.SQLDataType.UUID.nullable(false), this, "");
 
 	/**
 	 * The column <code>public.nodes.id</code>.
@@ -81,6 +81,11 @@ public class Nodes extends org.jooq.impl.TableImpl<NodesRecord> {
 	 */
 	public final org.jooq.TableField<NodesRecord, java.lang.Long> TIME = createField("time", org.jooq.impl.SQLDataType.BIGINT.nullable(false), this, "");
 
+	/**
+	 * The column <code>public.nodes.nr_children</code>.
+	 */
+	public final org.jooq.TableField<NodesRecord, java.lang.Integer> NR_CHILDREN = createField("nr_children", org.jooq.impl.SQLDataType.INTEGER.nullable(false).defaulted(true), this, "");
+
 	/**
 	 * Create a <code>public.nodes</code> table reference
 	 */
@@ -51,6 +51,36 @@ public class ParseInfo extends org.jooq.impl.TableImpl<ParseInfoRecord> {
 	 */
 	public final org.jooq.TableField<ParseInfoRecord, java.lang.String> CONTENT = createField("content", org.jooq.impl.SQLDataType.CLOB.nullable(false), this, "");
 
+	/**
+	 * The column <code>public.parse_info.tree_depth</code>.
+	 */
+	public final org.jooq.TableField<ParseInfoRecord, java.lang.Integer> TREE_DEPTH = createField("tree_depth", org.jooq.impl.SQLDataType.INTEGER, this, "");
+
+	/**
+	 * The column <code>public.parse_info.nr_matchers</code>.
+	 */
+	public final org.jooq.TableField<ParseInfoRecord, java.lang.Integer> NR_MATCHERS = createField("nr_matchers", org.jooq.impl.SQLDataType.INTEGER, this, "");
+
+	/**
+	 * The column <code>public.parse_info.nr_lines</code>.
+	 */
+	public final org.jooq.TableField<ParseInfoRecord, java.lang.Integer> NR_LINES = createField("nr_lines", org.jooq.impl.SQLDataType.INTEGER, this, "");
+
+	/**
+	 * The column <code>public.parse_info.nr_chars</code>.
+	 */
+	public final org.jooq.TableField<ParseInfoRecord, java.lang.Integer> NR_CHARS = createField("nr_chars", org.jooq.impl.SQLDataType.INTEGER, this, "");
+
+	/**
+	 * The column <code>public.parse_info.nr_code_points</code>.
+	 */
+	public final org.jooq.TableField<ParseInfoRecord, java.lang.Integer> NR_CODE_POINTS = createField("nr_code_points", org.jooq.impl.SQLDataType.INTEGER, this, "");
+
+	/**
+	 * The column <code>public.parse_info.nr_nodes</code>.
+	 */
+	public final org.jooq.TableField<ParseInfoRecord, java.lang.Integer> NR_NODES = createField("nr_nodes", org.jooq.impl.SQLDataType.INTEGER, this, "");
+
 	/**
 	 * Create a <code>public.parse_info</code> table reference
 	 */
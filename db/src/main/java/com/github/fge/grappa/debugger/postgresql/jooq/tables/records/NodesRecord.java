@@ -16,7 +16,7 @@ import com.github.fge.grappa.debugger.postgresql.jooq.tables.Nodes;
 	comments = "This class is generated by jOOQ"
 )
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> implements org.jooq.Record9<java.util.UUID, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long> {
+public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> implements org.jooq.Record10<java.util.UUID, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long, java.lang.Integer> {
 
 	private static final long serialVersionUID = -1625460392;
 
@@ -146,24 +146,38 @@ public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> impl
 		return (java.lang.Long) getValue(8);
 	}
 
+	/**
+	 * Setter for <code>public.nodes.nr_children</code>.
+	 */
+	public void setNrChildren(java.lang.Integer value) {
+		setValue(9, value);
+	}
+
+	/**
+	 * Getter for <code>public.nodes.nr_children</code>.
+	 */
+	public java.lang.Integer getNrChildren() {
+		return (java.lang.Integer) getValue(9);
+	}
+
 	// -------------------------------------------------------------------------
-	// Record9 type implementation
+	// Record10 type implementation
 	// -------------------------------------------------------------------------
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row9<java.util.UUID, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long> fieldsRow() {
-		return (org.jooq.Row9) super.fieldsRow();
+	public org.jooq.Row10<java.util.UUID, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long, java.lang.Integer> fieldsRow() {
+		return (org.jooq.Row10) super.fieldsRow();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row9<java.util.UUID, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long> valuesRow() {
-		return (org.jooq.Row9) super.valuesRow();
+	public org.jooq.Row10<java.util.UUID, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Long, java.lang.Integer> valuesRow() {
+		return (org.jooq.Row10) super.valuesRow();
 	}
 
 	/**
@@ -238,6 +252,14 @@ public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> impl
 		return Nodes.NODES.TIME;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field10() {
+		return Nodes.NODES.NR_CHILDREN;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -310,6 +332,14 @@ public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> impl
 		return getTime();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value10() {
+		return getNrChildren();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -395,7 +425,16 @@ public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> impl
 	 * {@inheritDoc}
 	 */
 	@Override
-	public NodesRecord values(java.util.UUID value1, java.lang.Integer value2, java.lang.Integer value3, java.lang.Integer value4, java.lang.Integer value5, java.lang.Integer value6, java.lang.Integer value7, java.lang.Integer value8, java.lang.Long value9) {
+	public NodesRecord value10(java.lang.Integer value) {
+		setNrChildren(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NodesRecord values(java.util.UUID value1, java.lang.Integer value2, java.lang.Integer value3, java.lang.Integer value4, java.lang.Integer value5, java.lang.Integer value6, java.lang.Integer value7, java.lang.Integer value8, java.lang.Long value9, java.lang.Integer value10) {
 		return this;
 	}
 
@@ -413,7 +452,7 @@ public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> impl
 	/**
 	 * Create a detached, initialised NodesRecord
 	 */
-	public NodesRecord(java.util.UUID parseInfoId, java.lang.Integer id, java.lang.Integer parentId, java.lang.Integer level, java.lang.Integer success, java.lang.Integer matcherId, java.lang.Integer startIndex, java.lang.Integer endIndex, java.lang.Long time) {
+	public NodesRecord(java.util.UUID parseInfoId, java.lang.Integer id, java.lang.Integer parentId, java.lang.Integer level, java.lang.Integer success, java.lang.Integer matcherId, java.lang.Integer startIndex, java.lang.Integer endIndex, java.lang.Long time, java.lang.Integer nrChildren) {
 		super(Nodes.NODES);
 
 		setValue(0, parseInfoId);
@@ -425,5 +464,6 @@ public class NodesRecord extends org.jooq.impl.TableRecordImpl<NodesRecord> impl
 		setValue(6, startIndex);
 		setValue(7, endIndex);
 		setValue(8, time);
+		setValue(9, nrChildren);
 	}
 }
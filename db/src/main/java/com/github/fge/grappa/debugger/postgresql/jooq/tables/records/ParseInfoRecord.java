@@ -16,7 +16,7 @@ import com.github.fge.grappa.debugger.postgresql.jooq.tables.ParseInfo;
 	comments = "This class is generated by jOOQ"
 )
 @java.lang.SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfoRecord> implements org.jooq.Record3<java.util.UUID, java.sql.Timestamp, java.lang.String> {
+public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfoRecord> implements org.jooq.Record9<java.util.UUID, java.sql.Timestamp, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer> {
 
 	private static final long serialVersionUID = 1036128975;
 
@@ -62,6 +62,90 @@ public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfo
 		return (java.lang.String) getValue(2);
 	}
 
+	/**
+	 * Setter for <code>public.parse_info.tree_depth</code>.
+	 */
+	public void setTreeDepth(java.lang.Integer value) {
+		setValue(3, value);
+	}
+
+	/**
+	 * Getter for <code>public.parse_info.tree_depth</code>.
+	 */
+	public java.lang.Integer getTreeDepth() {
+		return (java.lang.Integer) getValue(3);
+	}
+
+	/**
+	 * Setter for <code>public.parse_info.nr_matchers</code>.
+	 */
+	public void setNrMatchers(java.lang.Integer value) {
+		setValue(4, value);
+	}
+
+	/**
+	 * Getter for <code>public.parse_info.nr_matchers</code>.
+	 */
+	public java.lang.Integer getNrMatchers() {
+		return (java.lang.Integer) getValue(4);
+	}
+
+	/**
+	 * Setter for <code>public.parse_info.nr_lines</code>.
+	 */
+	public void setNrLines(java.lang.Integer value) {
+		setValue(5, value);
+	}
+
+	/**
+	 * Getter for <code>public.parse_info.nr_lines</code>.
+	 */
+	public java.lang.Integer getNrLines() {
+		return (java.lang.Integer) getValue(5);
+	}
+
+	/**
+	 * Setter for <code>public.parse_info.nr_chars</code>.
+	 */
+	public void setNrChars(java.lang.Integer value) {
+		setValue(6, value);
+	}
+
+	/**
+	 * Getter for <code>public.parse_info.nr_chars</code>.
+	 */
+	public java.lang.Integer getNrChars() {
+		return (java.lang.Integer) getValue(6);
+	}
+
+	/**
+	 * Setter for <code>public.parse_info.nr_code_points</code>.
+	 */
+	public void setNrCodePoints(java.lang.Integer value) {
+		setValue(7, value);
+	}
+
+	/**
+	 * Getter for <code>public.parse_info.nr_code_points</code>.
+	 */
+	public java.lang.Integer getNrCodePoints() {
+		return (java.lang.Integer) getValue(7);
+	}
+
+	/**
+	 * Setter for <code>public.parse_info.nr_nodes</code>.
+	 */
+	public void setNrNodes(java.lang.Integer value) {
+		setValue(8, value);
+	}
+
+	/**
+	 * Getter for <code>public.parse_info.nr_nodes</code>.
+	 */
+	public java.lang.Integer getNrNodes() {
+		return (java.lang.Integer) getValue(8);
+	}
+
 	// -------------------------------------------------------------------------
 	// Primary key information
 	// -------------------------------------------------------------------------
@@ -75,23 +159,23 @@ public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfo
 	}
 
 	// -------------------------------------------------------------------------
-	// Record3 type implementation
+	// Record9 type implementation
 	// -------------------------------------------------------------------------
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row3<java.util.UUID, java.sql.Timestamp, java.lang.String> fieldsRow() {
-		return (org.jooq.Row3) super.fieldsRow();
+	public org.jooq.Row9<java.util.UUID, java.sql.Timestamp, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer> fieldsRow() {
+		return (org.jooq.Row9) super.fieldsRow();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public org.jooq.Row3<java.util.UUID, java.sql.Timestamp, java.lang.String> valuesRow() {
-		return (org.jooq.Row3) super.valuesRow();
+	public org.jooq.Row9<java.util.UUID, java.sql.Timestamp, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer, java.lang.Integer> valuesRow() {
+		return (org.jooq.Row9) super.valuesRow();
 	}
 
 	/**
@@ -118,6 +202,54 @@ public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfo
 		return ParseInfo.PARSE_INFO.CONTENT;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field4() {
+		return ParseInfo.PARSE_INFO.TREE_DEPTH;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field5() {
+		return ParseInfo.PARSE_INFO.NR_MATCHERS;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field6() {
+		return ParseInfo.PARSE_INFO.NR_LINES;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field7() {
+		return ParseInfo.PARSE_INFO.NR_CHARS;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field8() {
+		return ParseInfo.PARSE_INFO.NR_CODE_POINTS;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public org.jooq.Field<java.lang.Integer> field9() {
+		return ParseInfo.PARSE_INFO.NR_NODES;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -142,6 +274,54 @@ public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfo
 		return getContent();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value4() {
+		return getTreeDepth();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value5() {
+		return getNrMatchers();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value6() {
+		return getNrLines();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value7() {
+		return getNrChars();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value8() {
+		return getNrCodePoints();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public java.lang.Integer value9() {
+		return getNrNodes();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -173,7 +353,61 @@ public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfo
 	 * {@inheritDoc}
 	 */
 	@Override
-	public ParseInfoRecord values(java.util.UUID value1, java.sql.Timestamp value2, java.lang.String value3) {
+	public ParseInfoRecord value4(java.lang.Integer value) {
+		setTreeDepth(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ParseInfoRecord value5(java.lang.Integer value) {
+		setNrMatchers(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ParseInfoRecord value6(java.lang.Integer value) {
+		setNrLines(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ParseInfoRecord value7(java.lang.Integer value) {
+		setNrChars(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ParseInfoRecord value8(java.lang.Integer value) {
+		setNrCodePoints(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ParseInfoRecord value9(java.lang.Integer value) {
+		setNrNodes(value);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ParseInfoRecord values(java.util.UUID value1, java.sql.Timestamp value2, java.lang.String value3, java.lang.Integer value4, java.lang.Integer value5, java.lang.Integer value6, java.lang.Integer value7, java.lang.Integer value8, java.lang.Integer value9) {
 		return this;
 	}
 
@@ -191,11 +425,17 @@ public class ParseInfoRecord extends org.jooq.impl.UpdatableRecordImpl<ParseInfo
 	/**
 	 * Create a detached, initialised ParseInfoRecord
 	 */
-	public ParseInfoRecord(java.util.UUID id, java.sql.Timestamp date, java.lang.String content) {
+	public ParseInfoRecord(java.util.UUID id, java.sql.Timestamp date, java.lang.String content, java.lang.Integer treeDepth, java.lang.Integer nrMatchers, java.lang.Integer nrLines, java.lang.Integer nrChars, java.lang.Integer nrCodePoints, java.lang.Integer nrNodes) {
 		super(ParseInfo.PARSE_INFO);
 
 		setValue(0, id);
 		setValue(1, date);
 		setValue(2, content);
+		setValue(3, treeDepth);
+		setValue(4, nrMatchers);
+		setValue(5, nrLines);
+		setValue(6, nrChars);
+		setValue(7, nrCodePoints);
+		setValue(8, nrNodes);
 	}
 }
@@ -32,8 +32,7 @@ public final class ParseTreeNodeMapper
         );
 
         final boolean success = record.getValue(NODES.SUCCESS) == 1;
-        final boolean hasChildren
-            = record.getValue("nrChildren", Integer.class) >= 1;
+        final boolean hasChildren = record.getValue(NODES.NR_CHILDREN) >= 1;
 
         return new ParseTreeNode(
             record.getValue(NODES.PARENT_ID),
@@ -1,53 +1,69 @@
 package com.github.fge.grappa.debugger.postgresql.model;
 
-import com.github.fge.grappa.buffers.InputBuffer;
 import com.github.fge.grappa.debugger.model.TraceModel;
 import com.github.fge.grappa.debugger.model.TraceModelException;
+import com.github.fge.grappa.debugger.model.depth.LineDepthIndex;
 import com.github.fge.grappa.debugger.model.matches.MatchesData;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
 import com.github.fge.grappa.debugger.model.rules.PerClassStatistics;
+import com.github.fge.grappa.debugger.model.tree.NodePositionIndex;
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
-import com.github.fge.grappa.debugger.postgresql.jooq.tables.Nodes;
 import com.github.fge.grappa.matchers.MatcherType;
-import com.github.fge.grappa.support.IndexRange;
-import org.jooq.CaseConditionStep;
+import org.jooq.CommonTableExpression;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Record2;
+import org.jooq.SelectConditionStep;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
 import javax.annotation.Nonnull;
+import java.util.Collections;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
 import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MATCHERS;
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MATCHER_STATS;
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MEMOIZATION_STATS;
 import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.NODES;
 
 @SuppressWarnings({ "AutoBoxing", "AutoUnboxing" })
 public final class PostgresqlTraceModel
     implements TraceModel
 {
-    private static final Condition EMPTY_MATCHES_CONDITION = NODES.SUCCESS.eq(1)
-        .and(NODES.START_INDEX.equal(NODES.END_INDEX));
-    private static final Condition NONEMPTY_MATCHES_CONDITION
-        = NODES.SUCCESS.eq(1).and(NODES.START_INDEX.ne(NODES.END_INDEX));
-    private static final Condition FAILED_MATCHES_CONDITION
-        = NODES.SUCCESS.eq(0);
+    private static final Field<?>[] NODE_FIELDS = {
+        NODES.PARENT_ID, NODES.ID, NODES.LEVEL, NODES.SUCCESS,
+        MATCHERS.CLASS_NAME, MATCHERS.MATCHER_TYPE, MATCHERS.NAME,
+        NODES.START_INDEX, NODES.END_INDEX, NODES.TIME, NODES.NR_CHILDREN
+    };
+
+    // The recursive common table expression of getAncestry()
+    private static final Table<Record> ANCESTORS
+        = DSL.table(DSL.name("ancestors"));
+    private static final Field<Integer> ANCESTOR_ID
+        = DSL.field(DSL.name("ancestors", "id"), Integer.class);
+    private static final Field<Integer> ANCESTOR_PARENT_ID
+        = DSL.field(DSL.name("ancestors", "parent_id"), Integer.class);
 
     private final UUID uuid;
     private final DSLContext jooq;
-    private final InputBuffer inputBuffer;
+    private final Supplier<LineDepthIndex> lineDepths;
+    private final Supplier<NodePositionIndex> nodePositions;
 
     public PostgresqlTraceModel(final UUID uuid, final DSLContext jooq,
-        final InputBuffer inputBuffer)
+        final Supplier<LineDepthIndex> lineDepths,
+        final Supplier<NodePositionIndex> nodePositions)
     {
         this.uuid = uuid;
         this.jooq = jooq;
-        this.inputBuffer = inputBuffer;
+        this.lineDepths = lineDepths;
+        this.nodePositions = nodePositions;
     }
 
     @Nonnull
@@ -58,6 +74,43 @@ public final class PostgresqlTraceModel
         return getNodes(condition);
     }
 
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodeChildren(final int nodeId,
+        final int offset, final int limit)
+    {
+        return selectNodes(NODES.PARENT_ID.eq(nodeId))
+            .orderBy(NODES.ID)
+            .limit(offset, limit)
+            .fetch().map(ParseTreeNodeMapper.INSTANCE);
+    }
+
+    @Override
+    public int getNrChildren(final int nodeId)
+    {
+        final Integer nrChildren = jooq.select(NODES.NR_CHILDREN)
+            .from(NODES)
+            .where(NODES.PARSE_INFO_ID.eq(uuid))
+            .and(NODES.ID.eq(nodeId))
+            .fetchOne(NODES.NR_CHILDREN);
+
+        if (nrChildren == null)
+            throw new TraceModelException("no node with id " + nodeId);
+
+        return nrChildren;
+    }
+
+    @Override
+    public int getNrChildrenBefore(final int nodeId, final int childId)
+    {
+        return jooq.selectCount()
+            .from(NODES)
+            .where(NODES.PARSE_INFO_ID.eq(uuid))
+            .and(NODES.PARENT_ID.eq(nodeId))
+            .and(NODES.ID.lt(childId))
+            .fetchOne().value1();
+    }
+
     @Nonnull
     @Override
     public ParseTreeNode getNodeById(final int id)
@@ -71,24 +124,57 @@ public final class PostgresqlTraceModel
         return nodes.get(0);
     }
 
-    private List<ParseTreeNode> getNodes(final Condition condition)
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getNodePathAt(final int index)
     {
-        final Nodes nodes2 = NODES.as("nodes2");
+        final int nodeId = nodePositions.get().getNodeId(index);
 
-        final Field<Integer> nrChildren = jooq.select(DSL.count(nodes2.ID))
-            .from(nodes2)
-            .where(nodes2.PARENT_ID.eq(NODES.ID))
-            .and(nodes2.PARSE_INFO_ID.eq(uuid))
-            .asField("nrChildren");
+        return nodeId == NodePositionIndex.NO_NODE ? Collections.emptyList()
+            : getAncestry(nodeId);
+    }
+
+    // A single query, whatever the depth of the node
+    @Nonnull
+    @Override
+    public List<ParseTreeNode> getAncestry(final int nodeId)
+    {
+        final CommonTableExpression<Record2<Integer, Integer>> ancestors
+            = DSL.name("ancestors").fields("id", "parent_id")
+            .as(DSL.select(NODES.ID, NODES.PARENT_ID)
+                .from(NODES)
+                .where(NODES.PARSE_INFO_ID.eq(uuid))
+                .and(NODES.ID.eq(nodeId))
+                .unionAll(DSL.select(NODES.ID, NODES.PARENT_ID)
+                    .from(NODES, ANCESTORS)
+                    .where(NODES.PARSE_INFO_ID.eq(uuid))
+                    .and(NODES.ID.eq(ANCESTOR_PARENT_ID))));
 
-        return jooq.select(NODES.PARENT_ID, NODES.ID, NODES.LEVEL,
-            NODES.SUCCESS, MATCHERS.CLASS_NAME, MATCHERS.MATCHER_TYPE,
-            MATCHERS.NAME, NODES.START_INDEX, NODES.END_INDEX, NODES.TIME,
-            nrChildren)
+        final List<ParseTreeNode> ret = jooq.withRecursive(ancestors)
+            .select(NODE_FIELDS)
             .from(NODES).join(MATCHERS).onKey()
+            .join(ancestors).on(NODES.ID.eq(ANCESTOR_ID))
             .where(NODES.PARSE_INFO_ID.eq(uuid))
-            .and(condition)
+            .orderBy(NODES.LEVEL)
             .fetch().map(ParseTreeNodeMapper.INSTANCE);
+
+        if (ret.isEmpty())
+            throw new TraceModelException("no node with id " + nodeId);
+
+        return ret;
+    }
+
+    private List<ParseTreeNode> getNodes(final Condition condition)
+    {
+        return selectNodes(condition).fetch().map(ParseTreeNodeMapper.INSTANCE);
+    }
+
+    private SelectConditionStep<Record> selectNodes(final Condition condition)
+    {
+        return jooq.select(NODE_FIELDS)
+            .from(NODES).join(MATCHERS).onKey()
+            .where(NODES.PARSE_INFO_ID.eq(uuid))
+            .and(condition);
     }
 
     @Nonnull
@@ -110,9 +196,12 @@ public final class PostgresqlTraceModel
     @Override
     public List<PerClassStatistics> getRulesByClass()
     {
-        return jooq.select(MATCHERS.CLASS_NAME, DSL.count().as("nrCalls"),
-            DSL.countDistinct(NODES.MATCHER_ID).as("nrRules"))
-            .from(MATCHERS).join(NODES).onKey()
+        return jooq.select(MATCHERS.CLASS_NAME,
+            DSL.sum(MATCHER_STATS.CALLS).as("nrCalls"),
+            DSL.count().as("nrRules"))
+            .from(MATCHERS).join(MATCHER_STATS)
+            .on(MATCHER_STATS.PARSE_INFO_ID.eq(MATCHERS.PARSE_INFO_ID))
+            .and(MATCHER_STATS.MATCHER_ID.eq(MATCHERS.ID))
             .where(MATCHERS.PARSE_INFO_ID.eq(uuid))
             .groupBy(MATCHERS.CLASS_NAME)
             .fetch()
@@ -124,50 +213,21 @@ public final class PostgresqlTraceModel
     public Map<Integer, Integer> getDepthMap(final int startLine,
         final int wantedLines)
     {
-        final List<IndexRange> ranges
-            = IntStream.range(startLine, startLine + wantedLines)
-            .mapToObj(inputBuffer::getLineRange)
-            .collect(Collectors.toList());
-
-        final int startIndex = ranges.get(0).start;
-        final int endIndex = ranges.get(ranges.size() - 1).end;
-        final Condition indexCondition = NODES.START_INDEX.lt(endIndex)
-            .and(NODES.END_INDEX.ge(startIndex));
-
-        final Field<Integer> lineField = getLineField(startLine, ranges);
-
-        final Map<Integer, Integer> ret = new HashMap<>();
-
-        jooq.select(lineField, DSL.max(NODES.LEVEL))
-            .from(NODES)
-            .where(indexCondition)
-            .and(NODES.PARSE_INFO_ID.eq(uuid))
-            .groupBy(lineField)
-            .forEach(r -> ret.put(r.value1(), r.value2() + 1));
-
-        IntStream.range(startLine, startLine + wantedLines)
-            .forEach(line -> ret.putIfAbsent(line, 0));
-
-        return ret;
+        return lineDepths.get().getDepthMap(startLine, wantedLines);
     }
 
     @Nonnull
     @Override
     public MatchesData getMatchesData()
     {
-        final Field<Integer> emptyMatches = DSL.decode()
-            .when(EMPTY_MATCHES_CONDITION, 1).otherwise(0);
-        final Field<Integer> nonEmptyMatches = DSL.decode()
-            .when(NONEMPTY_MATCHES_CONDITION, 1).otherwise(0);
-        final Field<Integer> failedMatches = DSL.decode()
-            .when(FAILED_MATCHES_CONDITION, 1).otherwise(0);
-
         return jooq.select(MATCHERS.NAME, MATCHERS.MATCHER_TYPE,
             MATCHERS.CLASS_NAME,
-            DSL.sum(emptyMatches).as("emptyMatches"),
-            DSL.sum(nonEmptyMatches).as("nonEmptyMatches"),
-            DSL.sum(failedMatches).as("failedMatches"))
-            .from(MATCHERS).join(NODES).onKey()
+            DSL.sum(MATCHER_STATS.EMPTY_MATCHES).as("emptyMatches"),
+            DSL.sum(MATCHER_STATS.NONEMPTY_MATCHES).as("nonEmptyMatches"),
+            DSL.sum(MATCHER_STATS.FAILED_MATCHES).as("failedMatches"))
+            .from(MATCHERS).join(MATCHER_STATS)
+            .on(MATCHER_STATS.PARSE_INFO_ID.eq(MATCHERS.PARSE_INFO_ID))
+            .and(MATCHER_STATS.MATCHER_ID.eq(MATCHERS.ID))
             .where(MATCHERS.PARSE_INFO_ID.eq(uuid))
             .groupBy(MATCHERS.NAME, MATCHERS.MATCHER_TYPE, MATCHERS.CLASS_NAME)
             .fetch().stream()
@@ -175,23 +235,40 @@ public final class PostgresqlTraceModel
             .collect(MatchesData.asCollector());
     }
 
-    private Field<Integer> getLineField(final int startLine,
-        final List<IndexRange> ranges)
+    @Nonnull
+    @Override
+    public List<RuleProfile> getRuleProfiles()
     {
-        CaseConditionStep<Integer> step = DSL.decode()
-            .when(activeThisRange(ranges.get(0)), startLine);
-
-        final int size = ranges.size();
-
-        for (int i = 1; i < size; i++)
-            step = step.when(activeThisRange(ranges.get(i)), startLine + i);
-
-        return step.as("line");
+        return jooq.select(MATCHERS.NAME, MATCHERS.MATCHER_TYPE,
+            MATCHERS.CLASS_NAME, MATCHER_STATS.CALLS, MATCHER_STATS.TOTAL_TIME,
+            MATCHER_STATS.SELF_TIME)
+            .from(MATCHERS).join(MATCHER_STATS)
+            .on(MATCHER_STATS.PARSE_INFO_ID.eq(MATCHERS.PARSE_INFO_ID))
+            .and(MATCHER_STATS.MATCHER_ID.eq(MATCHERS.ID))
+            .where(MATCHERS.PARSE_INFO_ID.eq(uuid))
+            .fetch()
+            .map(RuleProfileMapper.INSTANCE);
     }
 
-    private static Condition activeThisRange(final IndexRange range)
+    // Written by Zip2Db when the trace is imported
+    @Nonnull
+    @Override
+    public List<MemoizationCandidate> getMemoizationCandidates()
     {
-        return NODES.START_INDEX.lt(range.end)
-            .and(NODES.END_INDEX.ge(range.start));
+        return jooq.select(MATCHERS.NAME, MATCHERS.MATCHER_TYPE,
+            MATCHERS.CLASS_NAME, MATCHER_STATS.CALLS,
+            MEMOIZATION_STATS.REPEATED_CALLS, MEMOIZATION_STATS.REPEATED_TIME)
+            .from(MATCHERS).join(MATCHER_STATS)
+            .on(MATCHER_STATS.PARSE_INFO_ID.eq(MATCHERS.PARSE_INFO_ID))
+            .and(MATCHER_STATS.MATCHER_ID.eq(MATCHERS.ID))
+            .join(MEMOIZATION_STATS)
+            .on(MEMOIZATION_STATS.PARSE_INFO_ID.eq(MATCHERS.PARSE_INFO_ID))
+            .and(MEMOIZATION_STATS.MATCHER_ID.eq(MATCHERS.ID))
+            .where(MATCHERS.PARSE_INFO_ID.eq(uuid))
+            .orderBy(MEMOIZATION_STATS.REPEATED_TIME.desc(),
+                MEMOIZATION_STATS.REPEATED_CALLS.desc(),
+                MEMOIZATION_STATS.MATCHER_ID.asc())
+            .fetch()
+            .map(MemoizationCandidateMapper.INSTANCE);
     }
 }
@@ -0,0 +1,34 @@
+package com.github.fge.grappa.debugger.postgresql.model;
+
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static com.github.fge.grappa.debugger.postgresql.jooq.Tables.MATCHER_STATS;
+
+public final class RuleProfileMapper
+    implements RecordMapper<Record, RuleProfile>
+{
+    public static final RecordMapper<Record, RuleProfile> INSTANCE
+        = new RuleProfileMapper();
+
+    private final RecordMapper<Record, RuleInfo> ruleInfoMapper
+        = RuleInfoMapper.INSTANCE;
+
+    private RuleProfileMapper()
+    {
+    }
+
+    @SuppressWarnings("AutoUnboxing")
+    @Override
+    public RuleProfile map(final Record record)
+    {
+        final RuleInfo info = ruleInfoMapper.map(record);
+        return new RuleProfile(info,
+            record.getValue(MATCHER_STATS.CALLS),
+            record.getValue(MATCHER_STATS.TOTAL_TIME),
+            record.getValue(MATCHER_STATS.SELF_TIME)
+        );
+    }
+}
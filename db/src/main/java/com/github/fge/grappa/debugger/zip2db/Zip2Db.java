@@ -1,33 +1,50 @@
 package com.github.fge.grappa.debugger.zip2db;
 
-import com.github.fge.filesystem.MoreFileSystems;
 import com.github.fge.filesystem.MoreFiles;
 import com.github.fge.filesystem.RecursionMode;
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.TraceSource;
+import com.github.fge.grappa.debugger.ZipTraceSource;
+import com.github.fge.grappa.debugger.binary.BinaryTrace;
+import com.github.fge.grappa.debugger.model.matches.MatcherStatsCollector;
+import com.github.fge.grappa.debugger.model.profiler.RepeatedCallsCollector;
 import com.github.fge.grappa.debugger.postgresql.db.PostgresqlTraceDbFactory;
+import com.github.fge.grappa.debugger.postgresql.db.PostgresqlTraceRetention;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.Nodes;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
+    .MatcherStatsRecord;
+import com.github.fge.grappa.debugger.postgresql.jooq.tables.records
+    .MemoizationStatsRecord;
 import com.github.fge.grappa.debugger.postgresql.jooq.tables.records.ParseInfoRecord;
 import com.github.fge.lambdas.Throwing;
 import com.github.fge.lambdas.runnable.ThrowingRunnable;
+import com.github.fge.lambdas.supplier.ThrowingLongSupplier;
 import com.google.common.base.Stopwatch;
-import com.google.common.io.CharStreams;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 
+import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.FileSystem;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -42,11 +59,6 @@ public final class Zip2Db
     private static final Function<String, String> CSV_ESCAPE
         = TraceCsvEscaper.ESCAPER::apply;
 
-    private static final String INFO_PATH = "/info.csv";
-    private static final String INPUT_PATH = "/input.txt";
-    private static final String MATCHERS_PATH = "/matchers.csv";
-    private static final String NODES_PATH = "/nodes.csv";
-
     private static final List<Field<?>> MATCHERS_FIELDS = Arrays.asList(
         MATCHERS.PARSE_INFO_ID, MATCHERS.ID, MATCHERS.CLASS_NAME,
         MATCHERS.MATCHER_TYPE, MATCHERS.NAME
@@ -61,45 +73,135 @@ public final class Zip2Db
     // Not sure, but...
     private static final int COMMIT_INTERVAL = 100;
 
-    private final FileSystem fs;
+    private static final String COPY_MATCHERS = "copy matchers"
+        + " (parse_info_id, id, class_name, matcher_type, name)"
+        + " from stdin with (format csv, delimiter ';')";
+
+    private static final String COPY_NODES = "copy nodes"
+        + " (parse_info_id, parent_id, id, level, success, matcher_id,"
+        + " start_index, end_index, time)"
+        + " from stdin with (format csv, delimiter ';')";
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final TraceSource source;
     private final DSLContext jooq;
     private final UUID uuid;
+    private final Zip2DbImportMode importMode;
+    private final String logPrefix;
+    private final MatcherStatsCollector matcherStats;
+    private final RepeatedCallsCollector repeatedCalls;
 
+    @Nullable
     private final Path tmpdir;
 
-    public Zip2Db(final FileSystem fs, final DSLContext jooq, final UUID uuid)
+    public Zip2Db(final TraceSource source, final DSLContext jooq,
+        final UUID uuid)
+        throws IOException
+    {
+        this(source, jooq, uuid, Zip2DbImportMode.COPY);
+    }
+
+    public Zip2Db(final TraceSource source, final DSLContext jooq,
+        final UUID uuid, final Zip2DbImportMode importMode)
+        throws IOException
+    {
+        this(source, jooq, uuid, importMode, "");
+    }
+
+    /**
+     * Constructor
+     *
+     * @param source the trace
+     * @param jooq the jOOQ context
+     * @param uuid the id of the trace in the database
+     * @param importMode the import mode for matchers and nodes
+     * @param name the name of the trace in progress messages; may be empty
+     * @throws IOException failed to create the temporary directory
+     */
+    public Zip2Db(final TraceSource source, final DSLContext jooq,
+        final UUID uuid, final Zip2DbImportMode importMode, final String name)
         throws IOException
     {
-        this.fs = fs;
+        this.source = source;
         this.jooq = jooq;
         this.uuid = uuid;
+        this.importMode = importMode;
+        logPrefix = name.isEmpty() ? "" : '[' + name + "] ";
+
+        final ParseInfo info = source.getParseInfo();
+        matcherStats = new MatcherStatsCollector(info.getNrMatchers(),
+            info.getNrNodes());
+        repeatedCalls = new RepeatedCallsCollector(info.getNrMatchers());
 
-        tmpdir = Files.createTempDirectory("zip2db");
+        tmpdir = importMode == Zip2DbImportMode.LOAD_CSV
+            ? Files.createTempDirectory("zip2db") : null;
     }
 
     public void removeTmpdir()
         throws IOException
     {
-        MoreFiles.deleteRecursive(tmpdir, RecursionMode.KEEP_GOING);
+        if (tmpdir != null)
+            MoreFiles.deleteRecursive(tmpdir, RecursionMode.KEEP_GOING);
+    }
+
+    /**
+     * Open a trace file for import
+     *
+     * @param file the file, either a trace zip or a binary trace
+     * @return the trace
+     * @throws IOException failed to open the file
+     */
+    public static TraceSource openSource(final Path file)
+        throws IOException
+    {
+        return BinaryTrace.isBinaryTrace(file) ? BinaryTrace.open(file)
+            : ZipTraceSource.open(file);
+    }
+
+    public UUID getUuid()
+    {
+        return uuid;
+    }
+
+    /**
+     * Delete all rows of this trace from the database
+     *
+     * <p>This is meant to clean up after a failed {@link #run()}.</p>
+     *
+     * @see PostgresqlTraceRetention#deleteTrace(UUID)
+     */
+    public void deleteTrace()
+    {
+        new PostgresqlTraceRetention(jooq).deleteTrace(uuid);
     }
 
     public void run()
     {
-        time(this::generateMatchersCsv, "Generate matchers CSV");
-        time(this::generateNodesCsv, "Generate nodes CSV");
+        if (importMode == Zip2DbImportMode.LOAD_CSV) {
+            time(this::generateMatchersCsv, "Generate matchers CSV");
+            time(this::generateNodesCsv, "Generate nodes CSV");
+        }
         time(this::writeInfo, "Write info record");
-        time(this::writeMatchers, "Write matchers");
-        time(this::writeNodes, "Write nodes");
+        if (importMode == Zip2DbImportMode.LOAD_CSV) {
+            timeRows(this::writeMatchers, "Write matchers");
+            timeRows(this::writeNodes, "Write nodes");
+        } else {
+            timeRows(this::copyMatchers, "Copy matchers");
+            timeRows(this::copyNodes, "Copy nodes");
+        }
+        time(this::countChildren, "Count children");
+        time(this::writeMatcherStats, "Write matcher stats");
+        time(this::writeMemoizationStats, "Write memoization stats");
     }
 
     private void generateMatchersCsv()
         throws IOException
     {
-        final Path src = fs.getPath(MATCHERS_PATH);
         final Path dst = tmpdir.resolve("matchers.csv");
 
         try (
-            final Stream<String> lines = Files.lines(src);
+            final Stream<String> lines = source.getMatcherLines();
             final BufferedWriter writer = Files.newBufferedWriter(dst,
                 StandardOpenOption.CREATE_NEW);
         ) {
@@ -118,70 +220,84 @@ public final class Zip2Db
         return String.join(";", parts) + '\n';
     }
 
+    // Also collects matcher statistics and repeated calls, so that nodes are
+    // only read once
     private void generateNodesCsv()
         throws IOException
     {
-        final Path src = fs.getPath(NODES_PATH);
         final Path dst = tmpdir.resolve("nodes.csv");
+        final String prefix = '"' + uuid.toString() + '"';
+        final StringBuilder sb = new StringBuilder(128);
 
         try (
-            final Stream<String> lines = Files.lines(src);
             final BufferedWriter writer = Files.newBufferedWriter(dst,
                 StandardOpenOption.CREATE_NEW);
         ) {
-            lines.map(this::toNodesLine)
-                .forEach(Throwing.consumer(writer::write));
+            source.visitNodes((parentId, id, level, success, matcherId,
+                startIndex, endIndex, time) -> {
+                matcherStats.addNode(id, parentId, matcherId, success,
+                    startIndex, endIndex, time);
+                repeatedCalls.addNode(id, matcherId, startIndex, time);
+                sb.setLength(0);
+                sb.append(prefix);
+                appendQuoted(sb, parentId);
+                appendQuoted(sb, id);
+                appendQuoted(sb, level);
+                appendQuoted(sb, success ? 1 : 0);
+                appendQuoted(sb, matcherId);
+                appendQuoted(sb, startIndex);
+                appendQuoted(sb, endIndex);
+                appendQuoted(sb, time);
+                writer.append(sb.append('\n'));
+            });
         }
     }
 
-    private String toNodesLine(final String input)
+    private static void appendQuoted(final StringBuilder sb, final long value)
     {
-        final List<String> parts = new ArrayList<>();
-        parts.add('"' + uuid.toString() + '"');
-        SEMICOLON.splitAsStream(input)
-            .map(s -> '"' + CSV_ESCAPE.apply(s) + '"')
-            .forEach(parts::add);
-        return String.join(";", parts) + '\n';
+        sb.append(";\"").append(value).append('"');
     }
 
-    private void writeInfo()
-        throws IOException
+    /*
+     * Lines for COPY, in PostgreSQL's CSV format: quotes in values are
+     * doubled, and since values of node lines are all numbers, they need not
+     * be quoted at all.
+     */
+    private String toMatchersCopyLine(final String input)
     {
-        final Path path = fs.getPath(INFO_PATH);
-
-        try (
-            final BufferedReader reader = Files.newBufferedReader(path);
-        ) {
-            final String[] elements = SEMICOLON.split(reader.readLine());
-
-            final long epoch = Long.parseLong(elements[0]);
-            final Instant instant = Instant.ofEpochMilli(epoch);
-            final ZoneId zone = ZoneId.systemDefault();
-            final LocalDateTime time = LocalDateTime.ofInstant(instant, zone);
+        final StringBuilder sb = new StringBuilder(input.length() + 48);
 
-            final ParseInfoRecord record = jooq.newRecord(PARSE_INFO);
+        sb.append(uuid);
 
-            record.setId(uuid);
-            record.setContent(loadText());
-            record.setDate(Timestamp.valueOf(time));
+        for (final String value: SEMICOLON.split(input, 4))
+            sb.append(";\"").append(value.replace("\"", "\"\""))
+                .append('"');
 
-            record.insert();
-        }
+        return sb.append('\n').toString();
     }
 
-    private String loadText()
+    @SuppressWarnings("AutoBoxing")
+    private void writeInfo()
         throws IOException
     {
-        final Path path = fs.getPath(INPUT_PATH);
+        final ParseInfo info = source.getParseInfo();
 
-        try (
-            final BufferedReader reader = Files.newBufferedReader(path);
-        ) {
-            return CharStreams.toString(reader);
-        }
+        final ParseInfoRecord record = jooq.newRecord(PARSE_INFO);
+
+        record.setId(uuid);
+        record.setContent(source.getInputText().toString());
+        record.setDate(Timestamp.valueOf(info.getTime()));
+        record.setTreeDepth(info.getTreeDepth());
+        record.setNrMatchers(info.getNrMatchers());
+        record.setNrLines(info.getNrLines());
+        record.setNrChars(info.getNrChars());
+        record.setNrCodePoints(info.getNrCodePoints());
+        record.setNrNodes(info.getNrNodes());
+
+        record.insert();
     }
 
-    private void writeMatchers()
+    private long writeMatchers()
         throws IOException
     {
         final Path path = tmpdir.resolve("matchers.csv");
@@ -189,17 +305,18 @@ public final class Zip2Db
         try (
             final BufferedReader reader = Files.newBufferedReader(path);
         ) {
-            jooq.loadInto(MATCHERS)
+            return jooq.loadInto(MATCHERS)
                 .commitAfter(COMMIT_INTERVAL)
                 .onErrorAbort()
                 .loadCSV(reader)
                 .fields(MATCHERS_FIELDS)
                 .separator(';')
-                .execute();
+                .execute()
+                .stored();
         }
     }
 
-    private void writeNodes()
+    private long writeNodes()
         throws IOException
     {
         final Path path = tmpdir.resolve("nodes.csv");
@@ -207,42 +324,181 @@ public final class Zip2Db
         try (
             final BufferedReader reader = Files.newBufferedReader(path);
         ) {
-            jooq.loadInto(NODES)
+            return jooq.loadInto(NODES)
                 .commitAfter(COMMIT_INTERVAL)
                 .onErrorAbort()
                 .loadCSV(reader)
                 .fields(NODES_FIELDS)
                 .separator(';')
-                .execute();
+                .execute()
+                .stored();
         }
     }
 
+    private long copyMatchers()
+        throws IOException
+    {
+        return copyIn(COPY_MATCHERS, writer -> {
+            try (
+                final Stream<String> lines = source.getMatcherLines();
+            ) {
+                lines.map(this::toMatchersCopyLine)
+                    .forEach(Throwing.consumer(writer::write));
+            }
+        });
+    }
+
+    // Also collects matcher statistics and repeated calls, so that nodes are
+    // only read once
+    private long copyNodes()
+        throws IOException
+    {
+        final String prefix = uuid.toString() + ';';
+        final StringBuilder sb = new StringBuilder(96);
+
+        return copyIn(COPY_NODES, writer -> source.visitNodes((parentId, id,
+            level, success, matcherId, startIndex, endIndex, time) -> {
+            matcherStats.addNode(id, parentId, matcherId, success,
+                startIndex, endIndex, time);
+            repeatedCalls.addNode(id, matcherId, startIndex, time);
+            sb.setLength(0);
+            sb.append(prefix).append(parentId).append(';').append(id)
+                .append(';').append(level).append(';').append(success ? 1 : 0)
+                .append(';').append(matcherId).append(';').append(startIndex)
+                .append(';').append(endIndex).append(';').append(time)
+                .append('\n');
+            writer.append(sb);
+        }));
+    }
+
+    /*
+     * Lines are written to the server as they are produced; the copy is
+     * cancelled on failure, so that no partial data is committed.
+     */
+    private long copyIn(final String sql, final CopyProducer producer)
+    {
+        return jooq.connectionResult(connection -> {
+            final PGConnection pgConnection
+                = connection.unwrap(PGConnection.class);
+            final PGCopyOutputStream out = new PGCopyOutputStream(pgConnection,
+                sql, COPY_BUFFER_SIZE);
+            final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+            try {
+                producer.writeTo(writer);
+                writer.flush();
+                return out.endCopy();
+            } catch (IOException | SQLException | RuntimeException e) {
+                try {
+                    if (out.isActive())
+                        out.cancelCopy();
+                } catch (SQLException e2) {
+                    e.addSuppressed(e2);
+                }
+                throw e;
+            }
+        });
+    }
+
+    private void countChildren()
+    {
+        final Nodes children = NODES.as("children");
+        final Field<Integer> nrChildren = DSL.count().as("nr_children");
+
+        final Table<?> counts = jooq.select(children.PARENT_ID, nrChildren)
+            .from(children)
+            .where(children.PARSE_INFO_ID.eq(uuid))
+            .groupBy(children.PARENT_ID)
+            .asTable("counts");
+
+        jooq.update(NODES)
+            .set(NODES.NR_CHILDREN, counts.field(nrChildren))
+            .from(counts)
+            .where(NODES.PARSE_INFO_ID.eq(uuid))
+            .and(NODES.ID.eq(counts.field(children.PARENT_ID)))
+            .execute();
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    private void writeMatcherStats()
+    {
+        matcherStats.finish();
+
+        final int nrMatchers = matcherStats.getNrMatchers();
+        final List<MatcherStatsRecord> records = new ArrayList<>(nrMatchers);
+
+        for (int id = 0; id < nrMatchers; id++)
+            if (matcherStats.getCalls(id) > 0)
+                records.add(new MatcherStatsRecord(uuid, id,
+                    matcherStats.getCalls(id),
+                    matcherStats.getNonEmptyMatches(id),
+                    matcherStats.getEmptyMatches(id),
+                    matcherStats.getFailedMatches(id),
+                    matcherStats.getTotalTime(id),
+                    matcherStats.getSelfTime(id)));
+
+        jooq.batchInsert(records).execute();
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    private void writeMemoizationStats()
+    {
+        final int nrMatchers = repeatedCalls.getNrMatchers();
+        final List<MemoizationStatsRecord> records = new ArrayList<>();
+
+        for (int id = 0; id < nrMatchers; id++)
+            if (repeatedCalls.getRepeatedCalls(id) > 0)
+                records.add(new MemoizationStatsRecord(uuid, id,
+                    repeatedCalls.getRepeatedCalls(id),
+                    repeatedCalls.getRepeatedTime(id)));
+
+        jooq.batchInsert(records).execute();
+    }
+
     private void time(final ThrowingRunnable runnable, final String description)
     {
-        System.out.println(description + ": start");
+        System.out.println(logPrefix + description + ": start");
         final Stopwatch stopwatch = Stopwatch.createStarted();
         runnable.run();
-        System.out.println(description + ": done (" + stopwatch.stop() + ')');
+        System.out.println(logPrefix + description + ": done ("
+            + stopwatch.stop() + ')');
+    }
+
+    private void timeRows(final ThrowingLongSupplier supplier,
+        final String description)
+    {
+        System.out.println(logPrefix + description + ": start");
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        final long rows = supplier.getAsLong();
+        stopwatch.stop();
+
+        final long micros = Math.max(stopwatch.elapsed(TimeUnit.MICROSECONDS),
+            1L);
+        System.out.printf("%s%s: done (%s, %d rows, %.0f rows/s)%n", logPrefix,
+            description, stopwatch, rows, rows * 1_000_000.0 / micros);
     }
 
     public static void main(final String... args)
         throws IOException
     {
-        if (args.length != 1) {
-            System.err.println("missing zip argument");
+        if (args.length == 0) {
+            System.err.println("missing trace file argument");
             System.exit(2);
         }
 
-        final Path zip = Paths.get(args[0]).toRealPath();
+        final Path file = Paths.get(args[0]).toRealPath();
+        final Zip2DbImportMode importMode = args.length > 1
+            ? Zip2DbImportMode.valueOf(args[1]) : Zip2DbImportMode.COPY;
 
         final UUID uuid = UUID.randomUUID();
         final DSLContext jooq = PostgresqlTraceDbFactory.defaultFactory()
             .getJooq();
 
         try (
-            final FileSystem fs = MoreFileSystems.openZip(zip, true);
+            final TraceSource source = openSource(file);
         ) {
-            final Zip2Db zip2Db = new Zip2Db(fs, jooq, uuid);
+            final Zip2Db zip2Db = new Zip2Db(source, jooq, uuid, importMode);
             try {
                 zip2Db.run();
             } finally {
@@ -250,4 +506,11 @@ public final class Zip2Db
             }
         }
     }
+
+    @FunctionalInterface
+    private interface CopyProducer
+    {
+        void writeTo(Writer writer)
+            throws IOException;
+    }
 }
@@ -0,0 +1,239 @@
+package com.github.fge.grappa.debugger.zip2db;
+
+import com.github.fge.grappa.debugger.TraceSource;
+import com.github.fge.grappa.debugger.postgresql.db.PostgresqlTraceDbFactory;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jooq.DSLContext;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Import several traces into PostgreSQL at once
+ *
+ * <p>Arguments are either a directory, in which case all {@code .zip} and
+ * {@code .gtrace} files in this directory are imported, or a glob such as
+ * {@code traces/*&#47;*.zip}; and, optionally, the number of traces imported
+ * concurrently (default 4).</p>
+ *
+ * <p>Each trace is imported by a {@link Zip2Db} in {@link
+ * Zip2DbImportMode#COPY COPY} mode; all workers share the connection pool of
+ * the default {@link PostgresqlTraceDbFactory}, so the number of workers
+ * should stay below the size of that pool.</p>
+ *
+ * <p>A trace which fails to import is deleted from the database and reported,
+ * but does not stop the import of other traces; the exit code is 1 if any
+ * trace failed. A throughput summary is printed at the end.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class Zip2DbBatch
+{
+    private static final int DEFAULT_WORKERS = 4;
+
+    private static final PathMatcher TRACE_FILES = FileSystems.getDefault()
+        .getPathMatcher("glob:*.{zip,gtrace}");
+
+    private Zip2DbBatch()
+    {
+        throw new Error("nice try!");
+    }
+
+    public static void main(final String... args)
+        throws IOException, InterruptedException
+    {
+        if (args.length == 0) {
+            System.err.println("missing directory or glob argument");
+            System.exit(2);
+        }
+
+        final List<Path> files = findTraces(args[0]);
+        final int nrWorkers = args.length > 1 ? Integer.parseInt(args[1])
+            : DEFAULT_WORKERS;
+
+        if (files.isEmpty()) {
+            System.err.println("no trace files found");
+            System.exit(2);
+        }
+
+        if (nrWorkers < 1) {
+            System.err.println("number of workers must be at least 1");
+            System.exit(2);
+        }
+
+        final DSLContext jooq = PostgresqlTraceDbFactory.defaultFactory()
+            .getJooq();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            nrWorkers, new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("zip2db-%d")
+                .build());
+
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        final List<Future<Result>> futures = new ArrayList<>(files.size());
+
+        for (final Path file: files)
+            futures.add(executor.submit(() -> ingest(jooq, file)));
+
+        final List<Result> results = new ArrayList<>(files.size());
+
+        try {
+            for (final Future<Result> future: futures)
+                results.add(future.get());
+        } catch (ExecutionException e) {
+            // ingest() catches all exceptions; only errors may end up here
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        stopwatch.stop();
+
+        final boolean success = printSummary(results, stopwatch);
+        System.exit(success ? 0 : 1);
+    }
+
+    private static List<Path> findTraces(final String arg)
+        throws IOException
+    {
+        final Path path = Paths.get(arg);
+
+        if (Files.isDirectory(path))
+            try (
+                final Stream<Path> stream = Files.list(path);
+            ) {
+                return stream.filter(Files::isRegularFile)
+                    .filter(p -> TRACE_FILES.matches(p.getFileName()))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+
+        final PathMatcher matcher = FileSystems.getDefault()
+            .getPathMatcher("glob:" + arg);
+
+        try (
+            final Stream<Path> stream = Files.walk(globBase(arg));
+        ) {
+            return stream.filter(Files::isRegularFile)
+                .filter(matcher::matches)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    // The longest leading directory of the glob with no special character
+    private static Path globBase(final String glob)
+    {
+        final Path path = Paths.get(glob.replaceAll("[*?\\[{].*$", "x"));
+        final Path parent = path.getParent();
+
+        return parent != null ? parent : Paths.get("");
+    }
+
+    private static Result ingest(final DSLContext jooq, final Path file)
+    {
+        final String name = file.getFileName().toString();
+        final UUID uuid = UUID.randomUUID();
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+
+        int nrNodes = 0;
+
+        try (
+            final TraceSource source = Zip2Db.openSource(file);
+        ) {
+            nrNodes = source.getParseInfo().getNrNodes();
+
+            final Zip2Db zip2Db = new Zip2Db(source, jooq, uuid,
+                Zip2DbImportMode.COPY, name);
+
+            try {
+                zip2Db.run();
+            } catch (RuntimeException e) {
+                try {
+                    zip2Db.deleteTrace();
+                } catch (RuntimeException e2) {
+                    e.addSuppressed(e2);
+                }
+                throw e;
+            } finally {
+                zip2Db.removeTmpdir();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println('[' + name + "] import failed: " + e);
+            return new Result(file, uuid, nrNodes, stopwatch.stop(), e);
+        }
+
+        return new Result(file, uuid, nrNodes, stopwatch.stop(), null);
+    }
+
+    private static boolean printSummary(final List<Result> results,
+        final Stopwatch stopwatch)
+    {
+        long nrNodes = 0L;
+        int nrFailures = 0;
+
+        System.out.println();
+        System.out.println("Summary:");
+
+        for (final Result result: results) {
+            if (result.error == null) {
+                nrNodes += result.nrNodes;
+                System.out.printf("  OK     %s: %s, %d nodes (%s)%n",
+                    result.file, result.uuid, result.nrNodes,
+                    result.stopwatch);
+            } else {
+                nrFailures++;
+                System.out.printf("  FAILED %s: %s (%s)%n", result.file,
+                    result.error, result.stopwatch);
+            }
+        }
+
+        final int nrImported = results.size() - nrFailures;
+        final double seconds = Math.max(
+            stopwatch.elapsed(TimeUnit.MICROSECONDS), 1L) / 1_000_000.0;
+
+        System.out.printf("%d traces imported, %d failed, in %s%n", nrImported,
+            nrFailures, stopwatch);
+        System.out.printf("Throughput: %.2f traces/s, %.0f nodes/s%n",
+            nrImported / seconds, nrNodes / seconds);
+
+        return nrFailures == 0;
+    }
+
+    private static final class Result
+    {
+        private final Path file;
+        private final UUID uuid;
+        private final int nrNodes;
+        private final Stopwatch stopwatch;
+        @Nullable
+        private final Exception error;
+
+        private Result(final Path file, final UUID uuid, final int nrNodes,
+            final Stopwatch stopwatch, @Nullable final Exception error)
+        {
+            this.file = file;
+            this.uuid = uuid;
+            this.nrNodes = nrNodes;
+            this.stopwatch = stopwatch;
+            this.error = error;
+        }
+    }
+}
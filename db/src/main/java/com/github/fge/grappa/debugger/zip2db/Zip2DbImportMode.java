@@ -0,0 +1,24 @@
+package com.github.fge.grappa.debugger.zip2db;
+
+/**
+ * How matcher and node rows are imported into PostgreSQL by {@link Zip2Db}
+ */
+public enum Zip2DbImportMode
+{
+    /**
+     * Stream rows from the trace directly to the server, using {@code COPY
+     * ... FROM STDIN}
+     *
+     * <p>No temporary file is written, and each table is loaded using a
+     * single statement.</p>
+     */
+    COPY,
+    /**
+     * Rewrite the trace CSVs into a temporary directory, then load them using
+     * jOOQ's loader API
+     *
+     * <p>Rows are inserted one by one, with a commit every few rows.</p>
+     */
+    LOAD_CSV,
+    ;
+}
@@ -0,0 +1,7 @@
+-- Run by H2TraceDbLoader once all nodes are loaded: building these in one go
+-- is much cheaper than maintaining them at each insert
+
+alter table nodes add primary key(id);
+alter table nodes add foreign key (matcher_id) references matchers(id);
+create index nodes_parent_id on nodes(parent_id);
+create index nodes_indices on nodes(start_index, end_index);
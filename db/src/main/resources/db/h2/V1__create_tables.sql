@@ -18,7 +18,5 @@ create table nodes (
     time bigint not null
 );
 
-alter table nodes add primary key(id);
-alter table nodes add foreign key (matcher_id) references matchers(id);
-create index nodes_parent_id on nodes(parent_id);
-create index nodes_indices on nodes(start_index, end_index);
+-- Primary key, foreign key and indexes for nodes are created once the nodes
+-- are loaded; see h2-postload/create_indexes.sql
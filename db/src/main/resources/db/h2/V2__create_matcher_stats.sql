@@ -0,0 +1,12 @@
+-- Per matcher statistics; filled by H2TraceDbLoader once all nodes are loaded
+-- so that the matches and rules tabs do not need to aggregate all nodes
+
+create table matcher_stats (
+    matcher_id integer not null,
+    calls integer not null,
+    nonempty_matches integer not null,
+    empty_matches integer not null,
+    failed_matches integer not null,
+    total_time bigint not null,
+    self_time bigint not null
+);
@@ -0,0 +1,10 @@
+-- Repeated calls of each matcher, for the memoization candidates of the
+-- profiler tab; filled by H2TraceDbLoader along with matcher_stats. A call is
+-- repeated if the same matcher was already called at the same input index; only
+-- matchers with repeated calls have a row.
+
+create table memoization_stats (
+    matcher_id integer not null,
+    repeated_calls integer not null,
+    repeated_time bigint not null
+);
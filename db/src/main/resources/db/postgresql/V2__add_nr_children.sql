@@ -0,0 +1,12 @@
+-- Number of children of each node; filled by Zip2Db once all nodes of a trace
+-- are loaded, so that reading nodes does not need to count them
+
+alter table nodes add column nr_children integer default 0 not null;
+
+update nodes n set nr_children = c.nr_children
+    from (
+        select parse_info_id, parent_id, count(*) as nr_children
+        from nodes
+        group by parse_info_id, parent_id
+    ) c
+    where n.parse_info_id = c.parse_info_id and n.id = c.parent_id;
@@ -0,0 +1,33 @@
+-- Per matcher statistics; filled by Zip2Db once all nodes of a trace are
+-- loaded, so that the matches and rules tabs do not need to aggregate all
+-- nodes. The self time of a matcher is its total time minus the time spent in
+-- the children of its nodes.
+
+create table matcher_stats (
+    parse_info_id uuid not null references parse_info(id),
+    matcher_id integer not null,
+    calls integer not null,
+    nonempty_matches integer not null,
+    empty_matches integer not null,
+    failed_matches integer not null,
+    total_time bigint not null,
+    self_time bigint not null,
+    unique (parse_info_id, matcher_id)
+);
+
+insert into matcher_stats
+    select n.parse_info_id, n.matcher_id, count(*),
+        sum(case when n.success = 1 and n.start_index <> n.end_index
+            then 1 else 0 end),
+        sum(case when n.success = 1 and n.start_index = n.end_index
+            then 1 else 0 end),
+        sum(case when n.success = 0 then 1 else 0 end),
+        sum(n.time),
+        sum(n.time) - coalesce(sum(c.children_time), 0)
+    from nodes n
+    left join (
+        select parse_info_id, parent_id, sum(time) as children_time
+        from nodes
+        group by parse_info_id, parent_id
+    ) c on c.parse_info_id = n.parse_info_id and c.parent_id = n.id
+    group by n.parse_info_id, n.matcher_id;
@@ -0,0 +1,82 @@
+-- Partition nodes and matchers by trace, and make their indexes lead with
+-- parse_info_id, so that queries for one trace only read that trace's rows
+-- however many traces are stored.
+--
+-- Tables are hash partitioned on parse_info_id: all rows of a trace are in the
+-- same partition, and queries filtering on a trace id only scan that
+-- partition. A list partition per trace would need DDL for each new trace.
+--
+-- Requires PostgreSQL 12 or later (foreign keys to a partitioned table).
+--
+-- Existing rows are copied to the new tables; constraint names are kept, so
+-- that they still match the generated jOOQ keys.
+
+alter table nodes rename to nodes_unpartitioned;
+alter table nodes_unpartitioned
+    rename constraint nodes_parse_info_id_id_key
+    to nodes_unpartitioned_parse_info_id_id_key;
+
+alter table matchers rename to matchers_unpartitioned;
+alter table matchers_unpartitioned
+    rename constraint matchers_parse_info_id_id_key
+    to matchers_unpartitioned_parse_info_id_id_key;
+
+create table matchers (
+    parse_info_id uuid not null,
+    id integer not null,
+    class_name varchar(255) not null,
+    matcher_type varchar(30) not null,
+    name varchar(1024) not null,
+    constraint matchers_parse_info_id_fkey foreign key (parse_info_id)
+        references parse_info(id),
+    constraint matchers_parse_info_id_id_key unique (parse_info_id, id)
+) partition by hash (parse_info_id);
+
+create table nodes (
+    parse_info_id uuid not null,
+    id integer not null,
+    parent_id integer not null,
+    level integer not null,
+    success integer not null,
+    matcher_id integer not null,
+    start_index integer not null,
+    end_index integer not null,
+    time bigint not null,
+    nr_children integer default 0 not null,
+    constraint nodes_parse_info_id_fkey foreign key (parse_info_id)
+        references parse_info(id),
+    constraint nodes_parse_info_id_fkey1 foreign key (parse_info_id, matcher_id)
+        references matchers(parse_info_id, id),
+    constraint nodes_parse_info_id_id_key unique (parse_info_id, id)
+) partition by hash (parse_info_id);
+
+do $$
+begin
+    for i in 0..15 loop
+        execute format('create table matchers_p%s partition of matchers'
+            || ' for values with (modulus 16, remainder %s)', i, i);
+        execute format('create table nodes_p%s partition of nodes'
+            || ' for values with (modulus 16, remainder %s)', i, i);
+    end loop;
+end
+$$;
+
+create index nodes_parse_info_id_parent_id on nodes(parse_info_id, parent_id);
+create index nodes_parse_info_id_indices
+    on nodes(parse_info_id, start_index, end_index);
+
+insert into matchers (parse_info_id, id, class_name, matcher_type, name)
+    select parse_info_id, id, class_name, matcher_type, name
+    from matchers_unpartitioned;
+
+insert into nodes (parse_info_id, id, parent_id, level, success, matcher_id,
+        start_index, end_index, time, nr_children)
+    select parse_info_id, id, parent_id, level, success, matcher_id,
+        start_index, end_index, time, nr_children
+    from nodes_unpartitioned;
+
+drop table nodes_unpartitioned;
+drop table matchers_unpartitioned;
+
+analyze matchers;
+analyze nodes;
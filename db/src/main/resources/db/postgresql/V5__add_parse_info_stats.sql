@@ -0,0 +1,12 @@
+-- Trace statistics, written by Zip2Db when a trace is imported, so that
+-- opening a trace does not need to scan its nodes or its input text.
+--
+-- These columns are null for traces imported before this migration; they are
+-- then computed and stored the first time such a trace is opened.
+
+alter table parse_info add column tree_depth integer;
+alter table parse_info add column nr_matchers integer;
+alter table parse_info add column nr_lines integer;
+alter table parse_info add column nr_chars integer;
+alter table parse_info add column nr_code_points integer;
+alter table parse_info add column nr_nodes integer;
@@ -0,0 +1,23 @@
+-- Repeated calls of each matcher, for the memoization candidates of the
+-- profiler tab; filled by Zip2Db once all nodes of a trace are loaded. A call
+-- is repeated if the same matcher was already called, with a lower node id, at
+-- the same input index; only matchers with repeated calls have a row.
+
+create table memoization_stats (
+    parse_info_id uuid not null references parse_info(id),
+    matcher_id integer not null,
+    repeated_calls integer not null,
+    repeated_time bigint not null,
+    unique (parse_info_id, matcher_id)
+);
+
+insert into memoization_stats
+    select parse_info_id, matcher_id, count(*), sum(time)
+    from (
+        select parse_info_id, matcher_id, time,
+            row_number() over (partition by parse_info_id, matcher_id,
+                start_index order by id) as nth_call
+        from nodes
+    ) calls
+    where nth_call > 1
+    group by parse_info_id, matcher_id;
@@ -0,0 +1,146 @@
+package com.github.fge.grappa.debugger.buffers;
+
+import com.github.fge.filesystem.MoreFiles;
+import com.github.fge.filesystem.RecursionMode;
+import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
+import com.github.fge.grappa.buffers.InputBuffer;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MappedInputBufferTest
+{
+    // Chunks of 4 characters
+    private static final int CHUNK_SHIFT = 2;
+
+    @DataProvider
+    public Iterator<Object[]> inputs()
+    {
+        return Stream.of("a", "ab\ncd", "ab\ncd\n\nef", "abcd\nefgh\nijkl",
+            "ab\r\ncd\r\nef", "\ud83d\ude00ab\ud83d\ude00\ncd\ud83d",
+            "abc\ud83d\ude00d\n\ud83d\ude00")
+            .map(input -> new Object[] { input })
+            .iterator();
+    }
+
+    @Test(dataProvider = "inputs")
+    public void sameAsCharSequenceInputBufferTest(final String input)
+    {
+        final InputBuffer expected = new CharSequenceInputBuffer(input);
+
+        assertSame(MappedInputBuffer.wrap(CharBuffer.wrap(input)), expected,
+            input);
+        assertSame(MappedInputBuffer.wrap(CharBuffer.wrap(input), CHUNK_SHIFT),
+            expected, input);
+    }
+
+    /*
+     * CharSequenceInputBuffer throws an exception for these lines
+     */
+    @Test
+    public void emptyLinesTest()
+    {
+        assertEmptyLines("", 1);
+        assertEmptyLines("\n", 1, 2);
+        assertEmptyLines("\n\n", 1, 2, 3);
+        assertEmptyLines("a\n", 2);
+        assertEmptyLines("a\r\n", 2);
+        assertEmptyLines("a\r\n\r\nb", 2);
+    }
+
+    @Test
+    public void extractAcrossChunksTest()
+    {
+        final String input = "0123456789abcdefghij";
+        final CharBuffer text = CharBuffer.wrap("xx" + input + "yy", 2, 22);
+        final InputBuffer buffer = MappedInputBuffer.wrap(text, CHUNK_SHIFT);
+
+        assertThat(buffer.length()).isEqualTo(input.length());
+
+        int realStart, realEnd;
+
+        for (int start = -1; start <= input.length() + 1; start++)
+            for (int end = start; end <= input.length() + 1; end++) {
+                realStart = Math.min(Math.max(start, 0), input.length());
+                realEnd = Math.max(Math.min(end, input.length()), realStart);
+                assertThat(buffer.extract(start, end))
+                    .as("[%d, %d)", start, end)
+                    .isEqualTo(input.substring(realStart, realEnd));
+            }
+    }
+
+    @Test
+    public void writeOpenTest()
+        throws IOException
+    {
+        final String input = "ab\r\ncd\n\ud83d\ude00";
+        final Path tmpdir = Files.createTempDirectory("mappedbuffer");
+
+        try {
+            final Path file = tmpdir.resolve("input.txt");
+
+            MappedInputBuffer.write(new StringReader(input), file);
+
+            assertThat(Files.size(file)).isEqualTo(2L * input.length());
+            assertSame(MappedInputBuffer.open(file),
+                new CharSequenceInputBuffer(input), input);
+        } finally {
+            MoreFiles.deleteRecursive(tmpdir, RecursionMode.KEEP_GOING);
+        }
+    }
+
+    private static void assertSame(final InputBuffer actual,
+        final InputBuffer expected, final String input)
+    {
+        final int length = expected.length();
+        final int nrLines = expected.getLineCount();
+
+        assertThat(actual.length()).isEqualTo(length);
+        assertThat(actual.getLineCount()).isEqualTo(nrLines);
+
+        for (int index = 0; index <= length + 1; index++) {
+            assertThat(actual.charAt(index)).as("char %d", index)
+                .isEqualTo(expected.charAt(index));
+            assertThat(actual.codePointAt(index)).as("code point %d", index)
+                .isEqualTo(expected.codePointAt(index));
+            assertThat(actual.getPosition(index)).as("position %d", index)
+                .isEqualTo(expected.getPosition(index));
+        }
+
+        for (int line = 1; line <= nrLines + 1; line++)
+            assertThat(actual.getLineRange(line)).as("range %d", line)
+                .isEqualTo(expected.getLineRange(line));
+
+        for (int line = 1; line <= nrLines; line++)
+            assertThat(actual.extractLine(line)).as("line %d", line)
+                .isEqualTo(expected.extractLine(line));
+
+        assertThat(actual.extract(0, length)).isEqualTo(input);
+    }
+
+    private static void assertEmptyLines(final String input,
+        final int... lines)
+    {
+        final InputBuffer expected = new CharSequenceInputBuffer(input);
+        final InputBuffer actual
+            = MappedInputBuffer.wrap(CharBuffer.wrap(input), CHUNK_SHIFT);
+
+        assertThat(actual.getLineCount()).isEqualTo(expected.getLineCount());
+
+        for (final int line: lines) {
+            assertThat(actual.getLineRange(line)).as("range %d", line)
+                .isEqualTo(expected.getLineRange(line));
+            assertThat(actual.extractLine(line)).as("line %d", line)
+                .isEmpty();
+        }
+    }
+}
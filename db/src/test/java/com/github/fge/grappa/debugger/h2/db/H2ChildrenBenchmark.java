@@ -0,0 +1,77 @@
+package com.github.fge.grappa.debugger.h2.db;
+
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.model.TraceModel;
+import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
+import com.google.common.base.Stopwatch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the time needed to read the children of a wide node
+ *
+ * <p>Arguments are the path to the zip file and, optionally, the number of
+ * runs (default 50). The node used is the child of the root node with the
+ * most children; the first fifth of the runs is not accounted for.</p>
+ */
+public final class H2ChildrenBenchmark
+{
+    private static final int DEFAULT_RUNS = 50;
+
+    private H2ChildrenBenchmark()
+    {
+        throw new Error("nice try!");
+    }
+
+    public static void main(final String... args)
+        throws Exception
+    {
+        if (args.length == 0)
+            throw new IllegalArgumentException("missing zip argument");
+
+        final Path zip = Paths.get(args[0]).toRealPath();
+        final int runs = args.length > 1 ? Integer.parseInt(args[1])
+            : DEFAULT_RUNS;
+
+        final TraceDb db = H2TraceDbFactory.defaultFactory().create(zip);
+
+        try {
+            db.getLoadStatus().whenReady().get();
+
+            final TraceModel model = db.getModel();
+
+            int nodeId = 0;
+            int nrChildren = 0;
+            int size;
+
+            for (final ParseTreeNode node: model.getNodeChildren(0)) {
+                size = model.getNodeChildren(node.getId()).size();
+                if (size > nrChildren) {
+                    nodeId = node.getId();
+                    nrChildren = size;
+                }
+            }
+
+            final long[] times = new long[runs];
+            Stopwatch stopwatch;
+
+            for (int run = 0; run < runs; run++) {
+                stopwatch = Stopwatch.createStarted();
+                model.getNodeChildren(nodeId);
+                times[run] = stopwatch.stop().elapsed(TimeUnit.MICROSECONDS);
+            }
+
+            final long[] measured = Arrays.copyOfRange(times, runs / 5, runs);
+            Arrays.sort(measured);
+
+            System.out.printf("node %d, %d children: median %.1f ms, min %.1f"
+                + " ms%n", nodeId, nrChildren,
+                measured[measured.length / 2] / 1000.0, measured[0] / 1000.0);
+        } finally {
+            db.close();
+        }
+    }
+}
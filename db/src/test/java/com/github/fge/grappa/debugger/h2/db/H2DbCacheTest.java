@@ -0,0 +1,160 @@
+package com.github.fge.grappa.debugger.h2.db;
+
+import com.github.fge.filesystem.MoreFiles;
+import com.github.fge.filesystem.RecursionMode;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class H2DbCacheTest
+{
+    private static final long MAX_SIZE = 1L << 20;
+
+    private Path tmpdir;
+    private Path traceFile;
+    private H2DbCache cache;
+
+    @BeforeMethod
+    public void init()
+        throws IOException
+    {
+        tmpdir = Files.createTempDirectory("h2dbcache");
+        traceFile = tmpdir.resolve("trace.zip");
+        write("first content");
+        cache = new H2DbCache(tmpdir.resolve("cache"), MAX_SIZE);
+    }
+
+    @AfterMethod
+    public void cleanup()
+        throws IOException
+    {
+        MoreFiles.deleteRecursive(tmpdir, RecursionMode.KEEP_GOING);
+    }
+
+    @Test
+    public void completeEntryReusedTest()
+        throws IOException
+    {
+        final H2DbCache.Entry first = cache.acquire(traceFile);
+
+        assertThat(first).isNotNull();
+        assertThat(first.isComplete()).isFalse();
+        first.release(true);
+
+        final H2DbCache.Entry second = cache.acquire(traceFile);
+
+        assertThat(second).isNotNull();
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(second.isComplete()).isTrue();
+        second.release(true);
+    }
+
+    @Test
+    public void entryInUseTest()
+        throws IOException
+    {
+        final H2DbCache.Entry entry = cache.acquire(traceFile);
+
+        assertThat(entry).isNotNull();
+        assertThat(cache.acquire(traceFile)).isNull();
+        entry.release(false);
+    }
+
+    /*
+     * Same size and modification time: the file is not hashed again, hence
+     * the change goes unnoticed.
+     */
+    @Test
+    public void unchangedAttributesNotHashedTest()
+        throws IOException
+    {
+        final H2DbCache.Entry first = cache.acquire(traceFile);
+        first.release(true);
+
+        final FileTime mtime = Files.getLastModifiedTime(traceFile);
+        write("other content");
+        Files.setLastModifiedTime(traceFile, mtime);
+
+        final H2DbCache.Entry second = cache.acquire(traceFile);
+
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(second.isComplete()).isTrue();
+        second.release(true);
+    }
+
+    @Test
+    public void changedFileHashedAgainTest()
+        throws IOException
+    {
+        final H2DbCache.Entry first = cache.acquire(traceFile);
+        first.release(true);
+
+        final FileTime mtime = Files.getLastModifiedTime(traceFile);
+        write("other content");
+        Files.setLastModifiedTime(traceFile,
+            FileTime.fromMillis(mtime.toMillis() + 2000L));
+
+        final H2DbCache.Entry second = cache.acquire(traceFile);
+
+        assertThat(second.getPath()).isNotEqualTo(first.getPath());
+        assertThat(second.isComplete()).isFalse();
+        second.release(true);
+    }
+
+    /*
+     * A touched file is hashed again, but its content did not change: this is
+     * still the same entry.
+     */
+    @Test
+    public void touchedFileSameEntryTest()
+        throws IOException
+    {
+        final H2DbCache.Entry first = cache.acquire(traceFile);
+        first.release(true);
+
+        final FileTime mtime = Files.getLastModifiedTime(traceFile);
+        Files.setLastModifiedTime(traceFile,
+            FileTime.fromMillis(mtime.toMillis() + 2000L));
+
+        final H2DbCache.Entry second = cache.acquire(traceFile);
+
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(second.isComplete()).isTrue();
+        second.release(true);
+    }
+
+    /*
+     * Emptying an entry does not forget which trace it is for.
+     */
+    @Test
+    public void clearedEntryKeepsSourceTest()
+        throws IOException
+    {
+        final H2DbCache.Entry first = cache.acquire(traceFile);
+        first.release(false);
+
+        final FileTime mtime = Files.getLastModifiedTime(traceFile);
+        write("other content");
+        Files.setLastModifiedTime(traceFile, mtime);
+
+        final H2DbCache.Entry second = cache.acquire(traceFile);
+
+        assertThat(second.getPath()).isEqualTo(first.getPath());
+        assertThat(second.isComplete()).isFalse();
+        second.release(false);
+    }
+
+    private void write(final String content)
+        throws IOException
+    {
+        Files.write(traceFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
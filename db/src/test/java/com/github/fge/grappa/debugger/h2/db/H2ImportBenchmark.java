@@ -0,0 +1,76 @@
+package com.github.fge.grappa.debugger.h2.db;
+
+import com.github.fge.grappa.debugger.TraceDb;
+import com.github.fge.grappa.debugger.h2.db.load.H2ImportMode;
+import com.github.fge.grappa.debugger.h2.db.load.H2TraceDbLoader;
+import com.google.common.base.Stopwatch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare load times of a trace zip for all {@link H2ImportMode}s
+ *
+ * <p>Arguments are the path to the zip file and, optionally, the number of
+ * runs per import mode (default 3) and a comma separated list of numbers of
+ * writers to try in {@link H2ImportMode#BATCH} mode (default: {@link
+ * H2TraceDbLoader#DEFAULT_NR_WRITERS}).</p>
+ */
+public final class H2ImportBenchmark
+{
+    private static final int DEFAULT_RUNS = 3;
+
+    private H2ImportBenchmark()
+    {
+        throw new Error("nice try!");
+    }
+
+    public static void main(final String... args)
+        throws Exception
+    {
+        if (args.length == 0)
+            throw new IllegalArgumentException("missing zip argument");
+
+        final Path zip = Paths.get(args[0]).toRealPath();
+        final int runs = args.length > 1 ? Integer.parseInt(args[1])
+            : DEFAULT_RUNS;
+        final int[] writers = args.length > 2
+            ? Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt)
+                .toArray()
+            : new int[] { H2TraceDbLoader.DEFAULT_NR_WRITERS };
+
+        for (final int nrWriters: writers)
+            for (int run = 1; run <= runs; run++)
+                System.out.printf("%s, %d writer(s), run %d: %d ms%n",
+                    H2ImportMode.BATCH, nrWriters, run,
+                    load(zip, H2ImportMode.BATCH, nrWriters));
+
+        for (int run = 1; run <= runs; run++)
+            System.out.printf("%s, run %d: %d ms%n", H2ImportMode.CSVREAD,
+                run, load(zip, H2ImportMode.CSVREAD,
+                    H2TraceDbLoader.DEFAULT_NR_WRITERS));
+    }
+
+    private static long load(final Path zip, final H2ImportMode mode,
+        final int nrWriters)
+        throws Exception
+    {
+        final H2TraceDbFactory factory = H2TraceDbFactory.newBuilder()
+            .withImportMode(mode)
+            .withWriters(nrWriters)
+            .build();
+
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+
+        final TraceDb db = factory.create(zip);
+
+        try {
+            db.getLoadStatus().whenReady().get();
+            return stopwatch.stop().elapsed(TimeUnit.MILLISECONDS);
+        } finally {
+            db.close();
+        }
+    }
+}
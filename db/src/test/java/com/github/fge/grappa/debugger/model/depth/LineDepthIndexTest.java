@@ -0,0 +1,190 @@
+package com.github.fge.grappa.debugger.model.depth;
+
+import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
+import com.github.fge.grappa.buffers.InputBuffer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public final class LineDepthIndexTest
+{
+    /*
+     * Line 1 is [0, 3), line 2 is [3, 6), line 3 is [6, 7), line 4 is [7, 9);
+     * line ranges include the line terminator.
+     */
+    private static final String INPUT = "ab\ncd\n\nef";
+
+    private InputBuffer buffer;
+
+    @BeforeMethod
+    public void init()
+    {
+        buffer = new CharSequenceInputBuffer(INPUT);
+    }
+
+    @Test
+    public void noNodesTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer).build();
+
+        assertDepths(index, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void nodeWithinLineTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer)
+            .addNode(2, 4, 5)
+            .build();
+
+        assertDepths(index, 0, 3, 0, 0);
+    }
+
+    @Test
+    public void nodeOverSeveralLinesTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer)
+            .addNode(0, 1, 8)
+            .build();
+
+        assertDepths(index, 1, 1, 1, 1);
+    }
+
+    @Test
+    public void highestLevelWinsTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer)
+            .addNode(4, 7, 9)
+            .addNode(0, 0, 9)
+            .addNode(1, 0, 4)
+            .addNode(6, 3, 4)
+            .addNode(2, 1, 2)
+            .build();
+
+        assertDepths(index, 3, 7, 1, 5);
+    }
+
+    /*
+     * A node ending at the start of a line overlaps it; an empty node overlaps
+     * the line it is on only.
+     */
+    @Test
+    public void lineBoundariesTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer)
+            .addNode(1, 0, 3)
+            .addNode(3, 7, 7)
+            .addNode(5, 6, 6)
+            .build();
+
+        assertDepths(index, 2, 2, 6, 4);
+    }
+
+    /*
+     * An empty node at the end of the input starts at the end of the last
+     * line, and therefore overlaps no line.
+     */
+    @Test
+    public void nodesPastEndOfInputTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer)
+            .addNode(0, 9, 9)
+            .addNode(1, 12, 15)
+            .addNode(2, 8, 12)
+            .build();
+
+        assertDepths(index, 0, 0, 0, 3);
+    }
+
+    @Test
+    public void windowTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer, 2, 2)
+            .addNode(0, 0, 9)
+            .addNode(3, 0, 1)
+            .addNode(2, 4, 5)
+            .build();
+
+        assertDepths(index, 0, 3, 1, 0);
+    }
+
+    @Test
+    public void windowClampedTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer, -3, 100)
+            .addNode(0, 0, 9)
+            .build();
+
+        assertDepths(index, 1, 1, 1, 1);
+        assertThat(index.getDepth(0)).isEqualTo(0);
+        assertThat(index.getDepth(5)).isEqualTo(0);
+    }
+
+    @Test
+    public void emptyWindowTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer, 10, 5)
+            .addNode(0, 0, 9)
+            .build();
+
+        assertDepths(index, 0, 0, 0, 0);
+    }
+
+    @SuppressWarnings({ "AutoBoxing", "unchecked" })
+    @Test
+    public void depthMapTest()
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer)
+            .addNode(0, 0, 9)
+            .addNode(1, 3, 4)
+            .build();
+
+        assertThat(index.getDepthMap(2, 4)).containsOnly(entry(2, 2),
+            entry(3, 1), entry(4, 1), entry(5, 0));
+    }
+
+    @Test
+    public void writeReadTest()
+        throws IOException
+    {
+        final LineDepthIndex index = LineDepthIndex.newBuilder(buffer, 2, 3)
+            .addNode(0, 0, 9)
+            .addNode(2, 4, 5)
+            .build();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (
+            final DataOutputStream out = new DataOutputStream(bytes);
+        ) {
+            index.writeTo(out);
+        }
+
+        final LineDepthIndex read;
+
+        try (
+            final DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        ) {
+            read = LineDepthIndex.readFrom(in);
+        }
+
+        assertDepths(read, 0, 3, 1, 1);
+    }
+
+    private static void assertDepths(final LineDepthIndex index,
+        final int... expected)
+    {
+        for (int i = 0; i < expected.length; i++)
+            assertThat(index.getDepth(i + 1)).as("line %d", i + 1)
+                .isEqualTo(expected[i]);
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.fge.grappa.debugger.model.matches;
+
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.matchers.MatcherType;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MatcherStatsCollectorTest
+{
+    private static final IntFunction<RuleInfo> RULE_INFOS = id
+        -> new RuleInfo("Matcher" + id, MatcherType.TERMINAL, "rule" + id);
+
+    @Test
+    public void matchCountsTest()
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(2, 5);
+
+        collector.addNode(0, -1, 0, true, 0, 4, 100L);
+        collector.addNode(1, 0, 1, true, 0, 2, 10L);
+        collector.addNode(2, 0, 1, true, 2, 2, 10L);
+        collector.addNode(3, 0, 1, false, 2, 2, 10L);
+        collector.addNode(4, 0, 1, false, 2, 3, 10L);
+        collector.finish();
+
+        assertThat(collector.getNrMatchers()).isEqualTo(2);
+
+        assertThat(collector.getCalls(0)).isEqualTo(1);
+        assertThat(collector.getNonEmptyMatches(0)).isEqualTo(1);
+        assertThat(collector.getEmptyMatches(0)).isEqualTo(0);
+        assertThat(collector.getFailedMatches(0)).isEqualTo(0);
+
+        assertThat(collector.getCalls(1)).isEqualTo(4);
+        assertThat(collector.getNonEmptyMatches(1)).isEqualTo(1);
+        assertThat(collector.getEmptyMatches(1)).isEqualTo(1);
+        assertThat(collector.getFailedMatches(1)).isEqualTo(2);
+    }
+
+    /*
+     * Matcher 1 calls itself: the time of its inner call is part of the
+     * total time of its outer call, and is only counted once in its self
+     * time.
+     */
+    @Test
+    public void timesTest()
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(3, 5);
+
+        collector.addNode(0, -1, 0, true, 0, 10, 100L);
+        collector.addNode(1, 0, 1, true, 0, 5, 60L);
+        collector.addNode(2, 1, 1, true, 0, 3, 25L);
+        collector.addNode(3, 2, 2, true, 0, 1, 5L);
+        collector.addNode(4, 0, 2, false, 5, 5, 15L);
+        collector.finish();
+
+        assertThat(collector.getTotalTime(0)).isEqualTo(100L);
+        assertThat(collector.getSelfTime(0)).isEqualTo(25L);
+
+        assertThat(collector.getTotalTime(1)).isEqualTo(85L);
+        assertThat(collector.getSelfTime(1)).isEqualTo(55L);
+
+        assertThat(collector.getTotalTime(2)).isEqualTo(20L);
+        assertThat(collector.getSelfTime(2)).isEqualTo(20L);
+    }
+
+    @Test
+    public void nodesInAnyOrderTest()
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(2, 3);
+
+        collector.addNode(2, 0, 1, true, 1, 2, 30L);
+        collector.addNode(1, 0, 1, true, 0, 1, 20L);
+        collector.addNode(0, -1, 0, true, 0, 2, 100L);
+        collector.finish();
+
+        assertThat(collector.getSelfTime(0)).isEqualTo(50L);
+        assertThat(collector.getSelfTime(1)).isEqualTo(50L);
+    }
+
+    /*
+     * The time of a node whose parent is out of range is not subtracted from
+     * anything; the time of children of an unknown node is not either.
+     */
+    @Test
+    public void parentsOutOfRangeTest()
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(2, 3);
+
+        collector.addNode(0, -1, 0, true, 0, 2, 100L);
+        collector.addNode(1, 42, 1, true, 0, 1, 20L);
+        collector.addNode(2, 1, 1, true, 0, 1, 10L);
+        collector.addNode(7, 0, 1, true, 1, 2, 30L);
+        collector.addNode(8, 7, 0, true, 1, 2, 5L);
+        collector.finish();
+
+        assertThat(collector.getSelfTime(0)).isEqualTo(75L);
+        assertThat(collector.getSelfTime(1)).isEqualTo(50L);
+    }
+
+    @Test
+    public void finishTwiceTest()
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(1, 2);
+
+        collector.addNode(0, -1, 0, true, 0, 2, 100L);
+        collector.addNode(1, 0, 0, true, 0, 1, 40L);
+        collector.finish();
+        collector.finish();
+
+        assertThat(collector.getTotalTime(0)).isEqualTo(140L);
+        assertThat(collector.getSelfTime(0)).isEqualTo(100L);
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void ruleProfilesTest()
+    {
+        final MatcherStatsCollector collector
+            = new MatcherStatsCollector(4, 3);
+
+        collector.addNode(0, -1, 2, true, 0, 2, 100L);
+        collector.addNode(1, 0, 0, true, 0, 1, 20L);
+        collector.addNode(2, 0, 0, true, 1, 2, 30L);
+        collector.finish();
+
+        final List<RuleProfile> profiles
+            = collector.getRuleProfiles(RULE_INFOS);
+
+        assertThat(profiles).extracting(p -> p.getRuleInfo().getName())
+            .containsExactly("rule0", "rule2");
+
+        final RuleProfile profile = profiles.get(0);
+
+        assertThat(profile.getCalls()).isEqualTo(2);
+        assertThat(profile.getTotalTime()).isEqualTo(50L);
+        assertThat(profile.getSelfTime()).isEqualTo(50L);
+
+        assertThat(profiles.get(1).getSelfTime()).isEqualTo(50L);
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.fge.grappa.debugger.model.profiler;
+
+import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.matchers.MatcherType;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class RepeatedCallsCollectorTest
+{
+    private static final IntFunction<RuleInfo> RULE_INFOS = id
+        -> new RuleInfo("Matcher" + id, MatcherType.TERMINAL, "rule" + id);
+
+    @Test
+    public void firstCallNotRepeatedTest()
+    {
+        final RepeatedCallsCollector collector = new RepeatedCallsCollector(2);
+
+        collector.addNode(0, 0, 0, 10L);
+        collector.addNode(1, 1, 0, 20L);
+        collector.addNode(2, 0, 1, 30L);
+
+        assertThat(collector.getCalls(0)).isEqualTo(2);
+        assertThat(collector.getCalls(1)).isEqualTo(1);
+        assertThat(collector.getRepeatedCalls(0)).isEqualTo(0);
+        assertThat(collector.getRepeatedCalls(1)).isEqualTo(0);
+        assertThat(collector.getCandidates(RULE_INFOS)).isEmpty();
+    }
+
+    /*
+     * Matcher 0 at index 0 is packed as key 0, which must not be confused
+     * with an empty slot.
+     */
+    @Test
+    public void repeatedCallsTest()
+    {
+        final RepeatedCallsCollector collector = new RepeatedCallsCollector(3);
+
+        collector.addNode(0, 0, 0, 5L);
+        collector.addNode(1, 0, 0, 7L);
+        collector.addNode(2, 0, 0, 11L);
+        collector.addNode(3, 2, Integer.MAX_VALUE, 13L);
+        collector.addNode(4, 2, Integer.MAX_VALUE, 17L);
+        collector.addNode(5, 1, 2, 19L);
+
+        assertThat(collector.getNrMatchers()).isEqualTo(3);
+        assertThat(collector.getCalls(0)).isEqualTo(3);
+        assertThat(collector.getRepeatedCalls(0)).isEqualTo(2);
+        assertThat(collector.getRepeatedTime(0)).isEqualTo(18L);
+        assertThat(collector.getRepeatedCalls(1)).isEqualTo(0);
+        assertThat(collector.getRepeatedTime(1)).isEqualTo(0L);
+        assertThat(collector.getRepeatedCalls(2)).isEqualTo(1);
+        assertThat(collector.getRepeatedTime(2)).isEqualTo(17L);
+    }
+
+    /*
+     * The start index is in the low 32 bits of a key and the matcher id in
+     * the high 32 bits; neither may leak into the other.
+     */
+    @Test
+    public void keysDoNotOverlapTest()
+    {
+        final RepeatedCallsCollector collector = new RepeatedCallsCollector(2);
+
+        collector.addNode(0, 1, 0, 1L);
+        collector.addNode(1, 0, 1, 1L);
+        collector.addNode(2, 0, -1, 1L);
+        collector.addNode(3, 1, -1, 1L);
+
+        assertThat(collector.getRepeatedCalls(0)).isEqualTo(0);
+        assertThat(collector.getRepeatedCalls(1)).isEqualTo(0);
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void candidatesOrderTest()
+    {
+        final RepeatedCallsCollector collector = new RepeatedCallsCollector(4);
+
+        // Matcher 0: 1 repeated call, 50 ns
+        collector.addNode(0, 0, 0, 1L);
+        collector.addNode(1, 0, 0, 50L);
+
+        // Matcher 1: no repeated calls
+        collector.addNode(2, 1, 0, 1000L);
+
+        // Matcher 2: 2 repeated calls, 50 ns
+        collector.addNode(3, 2, 0, 1L);
+        collector.addNode(4, 2, 0, 20L);
+        collector.addNode(5, 2, 0, 30L);
+
+        // Matcher 3: 1 repeated call, 100 ns
+        collector.addNode(6, 3, 4, 1L);
+        collector.addNode(7, 3, 4, 100L);
+
+        final List<MemoizationCandidate> candidates
+            = collector.getCandidates(RULE_INFOS);
+
+        assertThat(candidates).extracting(c -> c.getRuleInfo().getName())
+            .containsExactly("rule3", "rule2", "rule0");
+
+        final MemoizationCandidate candidate = candidates.get(1);
+
+        assertThat(candidate.getCalls()).isEqualTo(3);
+        assertThat(candidate.getRepeatedCalls()).isEqualTo(2);
+        assertThat(candidate.getRepeatedTime()).isEqualTo(50L);
+    }
+
+    /*
+     * The first call is the one with the lowest id, whatever the order in
+     * which nodes are added: the time of the others is the repeated time.
+     */
+    @Test
+    public void nodesInAnyOrderTest()
+    {
+        final RepeatedCallsCollector collector = new RepeatedCallsCollector(1);
+
+        collector.addNode(7, 0, 3, 70L);
+        collector.addNode(2, 0, 3, 20L);
+        collector.addNode(9, 0, 3, 90L);
+        collector.addNode(1, 0, 3, 10L);
+        collector.addNode(5, 0, 3, 50L);
+
+        assertThat(collector.getCalls(0)).isEqualTo(5);
+        assertThat(collector.getRepeatedCalls(0)).isEqualTo(4);
+        assertThat(collector.getRepeatedTime(0)).isEqualTo(230L);
+    }
+
+    /*
+     * Enough distinct keys for the map to grow several times; many of them
+     * collide in a table of the initial capacity, and have to be probed for
+     * both before and after the map grows.
+     */
+    @Test
+    public void resizeTest()
+    {
+        final int nrMatchers = 7;
+        final int nrIndices = 100_000;
+        final RepeatedCallsCollector collector
+            = new RepeatedCallsCollector(nrMatchers);
+
+        int nodeId = 0;
+
+        for (int index = 0; index < nrIndices; index++)
+            for (int id = 0; id < nrMatchers; id++)
+                collector.addNode(nodeId++, id, index, 1L);
+
+        for (int id = 0; id < nrMatchers; id++)
+            assertThat(collector.getRepeatedCalls(id)).isEqualTo(0);
+
+        for (int index = nrIndices - 1; index >= 0; index--)
+            for (int id = 0; id < nrMatchers; id++)
+                collector.addNode(nodeId++, id, index, 2L);
+
+        for (int id = 0; id < nrMatchers; id++) {
+            assertThat(collector.getCalls(id)).isEqualTo(2 * nrIndices);
+            assertThat(collector.getRepeatedCalls(id)).isEqualTo(nrIndices);
+            assertThat(collector.getRepeatedTime(id))
+                .isEqualTo(2L * nrIndices);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.fge.grappa.debugger.model.tree;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static com.github.fge.grappa.debugger.model.tree.NodePositionIndex.NO_NODE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class NodePositionIndexTest
+{
+    @Test
+    public void emptyIndexTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .build();
+
+        assertThat(index.getNodeId(0)).isEqualTo(NO_NODE);
+        assertThat(index.getNodeId(42)).isEqualTo(NO_NODE);
+    }
+
+    @Test
+    public void nestedNodesTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 2, 10)
+            .addNode(1, true, 4, 7)
+            .addNode(2, true, 5, 7)
+            .build();
+
+        assertNodeIds(index, NO_NODE, NO_NODE, 0, 0, 1, 2, 2, 0, 0, 0,
+            NO_NODE);
+    }
+
+    @Test
+    public void nodesInAnyOrderTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(2, true, 5, 7)
+            .addNode(0, true, 2, 10)
+            .addNode(1, true, 4, 7)
+            .build();
+
+        assertNodeIds(index, NO_NODE, NO_NODE, 0, 0, 1, 2, 2, 0, 0, 0,
+            NO_NODE);
+    }
+
+    @Test
+    public void failedAndEmptyNodesIgnoredTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 0, 6)
+            .addNode(1, false, 1, 4)
+            .addNode(2, true, 3, 3)
+            .addNode(3, true, 4, 5)
+            .addNode(4, false, 4, 4)
+            .build();
+
+        assertNodeIds(index, 0, 0, 0, 0, 3, 0, NO_NODE);
+    }
+
+    /*
+     * A successful test predicate and the rule it tests start at the same
+     * index; the latter, which has the highest id, wins.
+     */
+    @Test
+    public void sameStartIndexTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 0, 6)
+            .addNode(1, true, 0, 3)
+            .addNode(2, true, 0, 5)
+            .build();
+
+        assertNodeIds(index, 2, 2, 2, 2, 2, 0, NO_NODE);
+    }
+
+    /*
+     * Node 1 is below node 2 in the stack, but ends first; it must be popped
+     * along with node 2, and not reappear after it.
+     */
+    @Test
+    public void overlappingSiblingsTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 0, 10)
+            .addNode(1, true, 2, 4)
+            .addNode(2, true, 3, 6)
+            .build();
+
+        assertNodeIds(index, 0, 0, 1, 2, 2, 2, 0, 0, 0, 0, NO_NODE);
+    }
+
+    @Test
+    public void overlappingSiblingsEndingLastTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 0, 8)
+            .addNode(1, true, 1, 7)
+            .addNode(2, true, 2, 4)
+            .addNode(3, true, 3, 9)
+            .build();
+
+        assertNodeIds(index, 0, 1, 2, 3, 3, 3, 3, 3, 3, NO_NODE);
+    }
+
+    @Test
+    public void nodesEndingTogetherTest()
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 0, 5)
+            .addNode(1, true, 2, 5)
+            .addNode(2, true, 3, 5)
+            .addNode(3, true, 5, 7)
+            .build();
+
+        assertNodeIds(index, 0, 0, 1, 2, 2, 3, 3, NO_NODE);
+    }
+
+    /*
+     * More nodes, and higher ids, than the initial capacity of the builder
+     */
+    @Test
+    public void builderGrowthTest()
+    {
+        final int nrLeaves = 5000;
+        final NodePositionIndex.Builder builder
+            = NodePositionIndex.newBuilder();
+
+        builder.addNode(0, true, 0, nrLeaves);
+
+        for (int i = 1; i <= nrLeaves; i++)
+            builder.addNode(2 * i, true, i - 1, i);
+
+        final NodePositionIndex index = builder.build();
+
+        for (int i = 0; i < nrLeaves; i++)
+            assertThat(index.getNodeId(i)).isEqualTo(2 * i + 2);
+        assertThat(index.getNodeId(nrLeaves)).isEqualTo(NO_NODE);
+    }
+
+    @Test
+    public void randomNodesTest()
+    {
+        final Random random = new Random(42L);
+        final int length = 200;
+        final int nrNodes = 500;
+
+        final boolean[] success = new boolean[nrNodes];
+        final int[] starts = new int[nrNodes];
+        final int[] ends = new int[nrNodes];
+
+        final NodePositionIndex.Builder builder
+            = NodePositionIndex.newBuilder();
+
+        for (int id = nrNodes - 1; id >= 0; id--) {
+            success[id] = random.nextInt(4) != 0;
+            starts[id] = random.nextInt(length);
+            ends[id] = Math.min(starts[id] + random.nextInt(20), length);
+            builder.addNode(id, success[id], starts[id], ends[id]);
+        }
+
+        final NodePositionIndex index = builder.build();
+
+        int expected;
+
+        for (int position = 0; position <= length; position++) {
+            expected = NO_NODE;
+            for (int id = 0; id < nrNodes; id++) {
+                if (!success[id] || starts[id] > position
+                    || ends[id] <= position)
+                    continue;
+                if (expected == NO_NODE || starts[id] >= starts[expected])
+                    expected = id;
+            }
+            assertThat(index.getNodeId(position)).as("position %d", position)
+                .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void writeReadTest()
+        throws IOException
+    {
+        final NodePositionIndex index = NodePositionIndex.newBuilder()
+            .addNode(0, true, 0, 10)
+            .addNode(1, true, 2, 4)
+            .addNode(2, true, 3, 6)
+            .build();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (
+            final DataOutputStream out = new DataOutputStream(bytes);
+        ) {
+            index.writeTo(out);
+        }
+
+        final NodePositionIndex read;
+
+        try (
+            final DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        ) {
+            read = NodePositionIndex.readFrom(in);
+        }
+
+        assertNodeIds(read, 0, 0, 1, 2, 2, 2, 0, 0, 0, 0, NO_NODE);
+    }
+
+    private static void assertNodeIds(final NodePositionIndex index,
+        final int... expected)
+    {
+        for (int position = 0; position < expected.length; position++)
+            assertThat(index.getNodeId(position)).as("position %d", position)
+                .isEqualTo(expected[position]);
+    }
+}
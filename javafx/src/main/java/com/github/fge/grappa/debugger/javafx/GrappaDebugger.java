@@ -3,10 +3,12 @@ package com.github.fge.grappa.debugger.javafx;
 import com.github.fge.grappa.debugger.MainWindowFactory;
 import com.github.fge.grappa.debugger.ZipTraceDbFactory;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
+import com.github.fge.grappa.debugger.h2.db.H2DbCache;
 import com.github.fge.grappa.debugger.h2.db.H2TraceDbFactory;
 import com.github.fge.grappa.debugger.javafx.common.AlertFactory;
 import com.github.fge.grappa.debugger.javafx.main.JavafxMainWindowView;
 import com.github.fge.grappa.debugger.main.MainWindowPresenter;
+import com.github.fge.grappa.debugger.memory.db.MemoryTraceDbFactory;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.Scene;
@@ -29,6 +31,13 @@ public final class GrappaDebugger
     extends Application
     implements MainWindowFactory
 {
+    /*
+     * Set this property to "memory" to keep traces in memory instead of
+     * loading them into an H2 database
+     */
+    private static final String TRACE_DB_PROPERTY = "grappa.debugger.tracedb";
+    private static final String MEMORY_TRACE_DB = "memory";
+
     private static final URL BASE_WINDOW_FXML;
     private static final URL MATCH_HIGHLIGHT_CSS;
 
@@ -48,7 +57,7 @@ public final class GrappaDebugger
     private final GuiTaskRunner taskRunner
         = new GuiTaskRunner("grappa-debugger-%d", Platform::runLater);
 
-    private final ZipTraceDbFactory traceDbFactory = new H2TraceDbFactory();
+    private final ZipTraceDbFactory traceDbFactory = createTraceDbFactory();
 
     private final Map<MainWindowPresenter, Stage> windows = new HashMap<>();
 
@@ -64,6 +73,15 @@ public final class GrappaDebugger
         });
     }
 
+    private static ZipTraceDbFactory createTraceDbFactory()
+    {
+        return MEMORY_TRACE_DB.equals(System.getProperty(TRACE_DB_PROPERTY))
+            ? new MemoryTraceDbFactory()
+            : H2TraceDbFactory.newBuilder()
+                .withCacheDirectory(H2DbCache.DEFAULT_DIRECTORY)
+                .build();
+    }
+
     public static void main(final String... args)
     {
         launch(args);
@@ -0,0 +1,176 @@
+package com.github.fge.grappa.debugger.javafx.common.highlight;
+
+import com.github.fge.grappa.debugger.javafx.common.JavafxUtils;
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.StyleSpans;
+import org.fxmisc.richtext.StyleSpansBuilder;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Highlight matches in a code area by restyling it, without replacing its
+ * text
+ *
+ * <p>The area displays the {@link WindowText text of a window}. When a match
+ * is highlighted, only the characters between the previous match and the new
+ * one have their style changed; unlike {@link MatchHighlightText}, the
+ * matched text is not decorated, except that the markers for empty and failed
+ * matches are inserted in the text, and removed on the next highlight.</p>
+ *
+ * <p>Instances must only be used from the JavaFX application thread.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class IncrementalHighlighter
+{
+    private final CodeArea area;
+
+    @Nullable
+    private WindowText text = null;
+
+    // The current match, as offsets in the text of the window
+    private int matchStart = 0;
+    private int matchEnd = 0;
+    private int markerLength = 0;
+
+    public IncrementalHighlighter(final CodeArea area)
+    {
+        this.area = area;
+    }
+
+    /**
+     * Tell whether a match can be highlighted without displaying another
+     * window
+     *
+     * @param start the start index of the match
+     * @param end the end index of the match
+     * @return true if the displayed window contains the match
+     */
+    public boolean canHighlight(final int start, final int end)
+    {
+        return text != null && text.contains(start, end);
+    }
+
+    /**
+     * Display the text of a window, with no match highlighted
+     *
+     * @param text the text
+     */
+    public void display(final WindowText text)
+    {
+        this.text = text;
+        matchStart = 0;
+        matchEnd = 0;
+        markerLength = 0;
+
+        area.setParagraphGraphicFactory(
+            new WindowLineNumberFactory(text.getWindow()));
+        area.replaceText(text.getText());
+        area.setStyle(0, area.getLength(), JavafxUtils.STYLE_AFTERMATCH);
+    }
+
+    /**
+     * Forget about the displayed text
+     *
+     * <p>This must be called when the text of the area is changed by other
+     * means.</p>
+     */
+    public void invalidate()
+    {
+        text = null;
+    }
+
+    /**
+     * Convert an offset in the area to an index in the input buffer
+     *
+     * <p>The marker of the current match, if any, is accounted for; offsets
+     * within the marker have the index of the match.</p>
+     *
+     * @param offset the offset
+     * @return the index; -1 if no text is displayed
+     *
+     * @see WindowText#toIndex(int)
+     */
+    public int toIndex(final int offset)
+    {
+        if (text == null)
+            return -1;
+
+        int realOffset = offset;
+
+        if (offset >= matchStart + markerLength)
+            realOffset -= markerLength;
+        else if (offset > matchStart)
+            realOffset = matchStart;
+
+        return text.toIndex(realOffset);
+    }
+
+    /**
+     * Highlight a successful match
+     *
+     * @param start the start index of the match
+     * @param end the end index of the match
+     *
+     * @see #canHighlight(int, int)
+     */
+    public void highlightSuccess(final int start, final int end)
+    {
+        highlight(start, end, JavafxUtils.CSS_STYLE_MATCHSUCCESS,
+            start == end ? JavafxUtils.MATCH_EMPTY : null);
+    }
+
+    /**
+     * Highlight a failed match
+     *
+     * @param end the index where the match failed
+     *
+     * @see #canHighlight(int, int)
+     */
+    public void highlightFailure(final int end)
+    {
+        highlight(end, end, JavafxUtils.CSS_STYLE_MATCHFAILURE,
+            JavafxUtils.MATCH_FAILURE);
+    }
+
+    private void highlight(final int start, final int end,
+        final String matchStyle, @Nullable final String marker)
+    {
+        if (text == null)
+            throw new IllegalStateException("no text displayed");
+
+        if (markerLength != 0)
+            area.replaceText(matchStart, matchStart + markerLength, "");
+
+        final int newStart = text.toOffset(start);
+        final int newEnd = text.toOffset(end);
+        final int from = Math.min(matchStart, newStart);
+        final int to = Math.max(matchEnd, newEnd);
+
+        final StyleSpansBuilder<Collection<String>> builder
+            = new StyleSpansBuilder<>(3);
+
+        builder.add(JavafxUtils.STYLE_BEFOREMATCH, newStart - from);
+        builder.add(Collections.singleton(matchStyle), newEnd - newStart);
+        builder.add(JavafxUtils.STYLE_AFTERMATCH, to - newEnd);
+
+        final StyleSpans<Collection<String>> spans = builder.create();
+
+        area.setStyleSpans(from, spans);
+
+        matchStart = newStart;
+        matchEnd = newEnd;
+        markerLength = 0;
+
+        if (marker != null) {
+            markerLength = marker.length();
+            area.replaceText(newStart, newStart, marker);
+            area.setStyle(newStart, newStart + markerLength,
+                Collections.singleton(matchStyle));
+        }
+
+        area.moveTo(newStart);
+    }
+}
@@ -9,6 +9,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.regex.Pattern;
 
+/**
+ * The text displayed when a match is highlighted
+ *
+ * <p>Only the {@link TextWindow window} of the input text around the match is
+ * displayed; if the match extends past the end of the window, only its start
+ * is displayed.</p>
+ */
 public abstract class MatchHighlightText
 {
     private static final Pattern CRLF = Pattern.compile("\r\n");
@@ -18,6 +25,11 @@ public abstract class MatchHighlightText
     private final int startIndex;
     private final int endIndex;
     private final String matchStyle;
+    private final TextWindow window;
+
+    // Computed on demand, since they are needed more than once
+    private String beforeMatch = null;
+    private String afterMatch = null;
 
     public static MatchHighlightText failedMatch(final InputBuffer buffer,
         final int index)
@@ -44,14 +56,23 @@ public abstract class MatchHighlightText
         this.startIndex = startIndex;
         this.endIndex = endIndex;
         this.matchStyle = matchStyle;
+        window = TextWindow.around(buffer, startIndex, endIndex);
+    }
+
+    public final TextWindow getWindow()
+    {
+        return window;
     }
 
     protected final String textBeforeMatch()
     {
-        String extract = buffer.extract(0, startIndex);
-        extract = CRLF.matcher(extract).replaceAll("\n");
-        extract = CR_THEN_EOI.matcher(extract).replaceAll("");
-        return extract;
+        if (beforeMatch == null) {
+            String extract = buffer.extract(window.getStart(), startIndex);
+            extract = CRLF.matcher(extract).replaceAll("\n");
+            extract = CR_THEN_EOI.matcher(extract).replaceAll("");
+            beforeMatch = extract;
+        }
+        return beforeMatch;
     }
 
     public final int matchStartIndex()
@@ -62,7 +83,7 @@ public abstract class MatchHighlightText
     // TODO: rewrite... How?
     protected final String matchedText()
     {
-        final String extract = buffer.extract(startIndex, endIndex);
+        final String extract = buffer.extract(startIndex, matchEndIndex());
         final int len = extract.length();
         final StringBuilder sb = new StringBuilder(len);
 
@@ -89,8 +110,15 @@ public abstract class MatchHighlightText
 
     protected final String textAfterMatch()
     {
-        return CRLF.matcher(buffer.extract(endIndex, buffer.length()))
-            .replaceAll("\n");
+        if (afterMatch == null)
+            afterMatch = CRLF.matcher(buffer.extract(matchEndIndex(),
+                window.getEnd())).replaceAll("\n");
+        return afterMatch;
+    }
+
+    private int matchEndIndex()
+    {
+        return Math.min(endIndex, window.getEnd());
     }
 
     public final String fullText()
@@ -0,0 +1,103 @@
+package com.github.fge.grappa.debugger.javafx.common.highlight;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * The part of an input buffer displayed around a match
+ *
+ * <p>Only whole lines are displayed, from {@link #CONTEXT_LINES} lines before
+ * the start of the match up to as many lines after its end; the window is
+ * then clipped to at most {@link #CONTEXT_CHARS} characters before the match,
+ * and {@link #MAX_CHARS} characters in total, so that very long lines or
+ * matches never end up displayed whole.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class TextWindow
+{
+    public static final int CONTEXT_LINES = 500;
+    public static final int CONTEXT_CHARS = 1 << 16;
+    public static final int MAX_CHARS = 1 << 20;
+
+    private final int start;
+    private final int end;
+    private final int firstLine;
+    private final int lastLine;
+
+    /**
+     * Return the window around a match
+     *
+     * @param buffer the buffer
+     * @param startIndex the start index of the match
+     * @param endIndex the end index of the match
+     * @return the window
+     */
+    public static TextWindow around(final InputBuffer buffer,
+        final int startIndex, final int endIndex)
+    {
+        final int nrLines = buffer.getLineCount();
+        final int startLine = buffer.getPosition(startIndex).getLine();
+        final int endLine = buffer.getPosition(endIndex).getLine();
+
+        final int firstLine = Math.max(1, startLine - CONTEXT_LINES);
+        final int lastLine = Math.min(nrLines, endLine + CONTEXT_LINES);
+
+        final int start = Math.max(buffer.getLineRange(firstLine).start,
+            startIndex - CONTEXT_CHARS);
+        final int end = Math.min(buffer.getLineRange(lastLine).end,
+            start + MAX_CHARS);
+
+        return new TextWindow(start, end, buffer.getPosition(start).getLine(),
+            buffer.getPosition(end).getLine());
+    }
+
+    private TextWindow(final int start, final int end, final int firstLine,
+        final int lastLine)
+    {
+        this.start = start;
+        this.end = end;
+        this.firstLine = firstLine;
+        this.lastLine = lastLine;
+    }
+
+    /**
+     * Return the index of the first displayed character
+     *
+     * @return the index
+     */
+    public int getStart()
+    {
+        return start;
+    }
+
+    /**
+     * Return the index after the last displayed character
+     *
+     * @return the index
+     */
+    public int getEnd()
+    {
+        return end;
+    }
+
+    /**
+     * Return the line number, starting from 1, of the first displayed line
+     *
+     * @return the line number
+     */
+    public int getFirstLine()
+    {
+        return firstLine;
+    }
+
+    /**
+     * Return the line number, starting from 1, of the last displayed line
+     *
+     * @return the line number
+     */
+    public int getLastLine()
+    {
+        return lastLine;
+    }
+}
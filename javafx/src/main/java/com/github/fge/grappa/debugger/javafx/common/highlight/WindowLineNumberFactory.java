@@ -0,0 +1,59 @@
+package com.github.fge.grappa.debugger.javafx.common.highlight;
+
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import org.fxmisc.richtext.LineNumberFactory;
+
+import java.util.function.IntFunction;
+
+/**
+ * Paragraph graphics displaying the line numbers of a {@link TextWindow}
+ *
+ * <p>This is {@link LineNumberFactory}, with the same look, except that
+ * paragraphs are numbered starting from the first line of a window. A new
+ * factory should be set on the text area whenever another window is
+ * displayed.</p>
+ */
+public final class WindowLineNumberFactory
+    implements IntFunction<Node>
+{
+    private static final Insets INSETS = new Insets(0.0, 5.0, 0.0, 5.0);
+    private static final Paint TEXT_FILL = Color.web("#666");
+    private static final Font FONT
+        = Font.font("monospace", FontPosture.ITALIC, 13.0);
+    private static final Background BACKGROUND
+        = new Background(new BackgroundFill(Color.web("#ddd"), null, null));
+
+    private final int firstLine;
+    private final String format;
+
+    public WindowLineNumberFactory(final TextWindow window)
+    {
+        firstLine = window.getFirstLine();
+        final int digits = Integer.toString(window.getLastLine()).length();
+        format = "%" + digits + 'd';
+    }
+
+    @Override
+    public Node apply(final int paragraph)
+    {
+        @SuppressWarnings("AutoBoxing")
+        final Label label
+            = new Label(String.format(format, firstLine + paragraph));
+
+        label.setFont(FONT);
+        label.setBackground(BACKGROUND);
+        label.setTextFill(TEXT_FILL);
+        label.setPadding(INSETS);
+        label.getStyleClass().add("lineno");
+
+        return label;
+    }
+}
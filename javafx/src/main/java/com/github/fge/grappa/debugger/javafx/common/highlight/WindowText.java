@@ -0,0 +1,141 @@
+package com.github.fge.grappa.debugger.javafx.common.highlight;
+
+import com.github.fge.grappa.buffers.InputBuffer;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Arrays;
+
+/**
+ * The displayed text of a {@link TextWindow}
+ *
+ * <p>As with {@link MatchHighlightText}, {@code \r\n} sequences are displayed
+ * as {@code \n}. The indices of the removed {@code \r} characters are recorded
+ * when the text is built, so that an index in the input buffer is converted to
+ * an offset in the displayed text, and back, with a binary search, instead of
+ * processing the text again.</p>
+ */
+@ParametersAreNonnullByDefault
+public final class WindowText
+{
+    private final TextWindow window;
+    private final String text;
+    private final int[] removedCrs;
+
+    /**
+     * Build the text of a window
+     *
+     * @param buffer the buffer
+     * @param window the window
+     * @return the text
+     */
+    public static WindowText of(final InputBuffer buffer,
+        final TextWindow window)
+    {
+        final int start = window.getStart();
+        final String extract = buffer.extract(start, window.getEnd());
+        final int length = extract.length();
+        final StringBuilder sb = new StringBuilder(length);
+
+        int[] removedCrs = new int[16];
+        int nrRemoved = 0;
+        char c;
+
+        for (int i = 0; i < length; i++) {
+            c = extract.charAt(i);
+            if (c == '\r' && i + 1 < length && extract.charAt(i + 1) == '\n') {
+                if (nrRemoved == removedCrs.length)
+                    removedCrs = Arrays.copyOf(removedCrs, nrRemoved * 2);
+                removedCrs[nrRemoved++] = start + i;
+                continue;
+            }
+            sb.append(c);
+        }
+
+        return new WindowText(window, sb.toString(),
+            Arrays.copyOf(removedCrs, nrRemoved));
+    }
+
+    private WindowText(final TextWindow window, final String text,
+        final int[] removedCrs)
+    {
+        this.window = window;
+        this.text = text;
+        this.removedCrs = removedCrs;
+    }
+
+    public TextWindow getWindow()
+    {
+        return window;
+    }
+
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Tell whether a range of the input buffer is within this window
+     *
+     * @param start the start index
+     * @param end the end index
+     * @return true if the range is within the window
+     */
+    public boolean contains(final int start, final int end)
+    {
+        return start >= window.getStart() && end <= window.getEnd();
+    }
+
+    /**
+     * Convert an index in the input buffer to an offset in the displayed text
+     *
+     * <p>Indices outside of the window are clamped to its bounds; the index of
+     * a removed {@code \r} has the offset of the {@code \n} which follows
+     * it.</p>
+     *
+     * @param index the index
+     * @return the offset
+     */
+    public int toOffset(final int index)
+    {
+        final int realIndex = Math.max(window.getStart(),
+            Math.min(index, window.getEnd()));
+        int nrBefore = Arrays.binarySearch(removedCrs, realIndex);
+
+        if (nrBefore < 0)
+            nrBefore = -nrBefore - 1;
+
+        return realIndex - window.getStart() - nrBefore;
+    }
+
+    /**
+     * Convert an offset in the displayed text to an index in the input buffer
+     *
+     * <p>This is the reverse of {@link #toOffset(int)}: offsets outside of the
+     * text are clamped to its bounds, and the offset of a {@code \n} which
+     * replaced a {@code \r\n} sequence is converted to the index of the
+     * {@code \n}.</p>
+     *
+     * @param offset the offset
+     * @return the index
+     */
+    public int toIndex(final int offset)
+    {
+        final int realOffset = Math.max(0, Math.min(offset, text.length()));
+        final int start = window.getStart();
+
+        // The n-th removed \r is displayed at offset removedCrs[n] - start - n
+        int low = 0;
+        int high = removedCrs.length;
+        int mid;
+
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if (removedCrs[mid] - start - mid <= realOffset)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return start + realOffset + low;
+    }
+}
@@ -24,6 +24,8 @@ public class JavafxMainWindowView
 {
     private static final ExtensionFilter ZIP_FILES
         = new ExtensionFilter("ZIP files", "*.zip");
+    private static final ExtensionFilter BINARY_TRACE_FILES
+        = new ExtensionFilter("Binary trace files", "*.gtrace");
 
     private final Stage stage;
     private final GuiTaskRunner taskRunner;
@@ -43,7 +45,7 @@ public class JavafxMainWindowView
     public Path chooseFile()
     {
         final FileChooser chooser = new FileChooser();
-        chooser.getExtensionFilters().add(ZIP_FILES);
+        chooser.getExtensionFilters().addAll(ZIP_FILES, BINARY_TRACE_FILES);
         final File file = chooser.showOpenDialog(stage);
         return file == null ? null : file.toPath();
     }
@@ -3,6 +3,7 @@ package com.github.fge.grappa.debugger.javafx.trace;
 import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.javafx.common.JavafxView;
 import com.github.fge.grappa.debugger.javafx.trace.tabs.matches.JavafxMatchesTabView;
+import com.github.fge.grappa.debugger.javafx.trace.tabs.profiler.JavafxProfilerTabView;
 import com.github.fge.grappa.debugger.javafx.trace.tabs.rules.JavafxRulesTabView;
 import com.github.fge.grappa.debugger.javafx.trace.tabs.tree.JavafxTreeTabView;
 import com.github.fge.grappa.debugger.javafx.trace.tabs.treedepth.JavafxTreeDepthTabView;
@@ -10,11 +11,13 @@ import com.github.fge.grappa.debugger.main.MainWindowView;
 import com.github.fge.grappa.debugger.trace.TracePresenter;
 import com.github.fge.grappa.debugger.trace.TraceView;
 import com.github.fge.grappa.debugger.trace.tabs.matches.MatchesTabPresenter;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.rules.RulesTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.treedepth.TreeDepthTabPresenter;
 import com.github.fge.grappa.internal.NonFinalForTesting;
 import com.google.common.annotations.VisibleForTesting;
+import javafx.scene.control.ProgressBar;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
@@ -82,9 +85,17 @@ public class JavafxTraceView
         display.progressMessage.setText(sb.toString());
     }
 
+    @Override
+    public void reportIndexing()
+    {
+        display.progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        display.progressMessage.setText("building indexes");
+    }
+
     @Override
     public void showLoadComplete()
     {
+        display.progressBar.setProgress(1.0);
         display.progressMessage.setText("load complete");
     }
 
@@ -191,4 +202,29 @@ public class JavafxTraceView
     {
         return new JavafxTreeDepthTabView();
     }
+
+    @Override
+    public void loadProfilerTab(final ProfilerTabPresenter tabPresenter)
+    {
+        final JavafxProfilerTabView tabView;
+
+        try {
+            tabView = getProfilerTabView();
+        } catch (IOException e) {
+            parentView.showError("Load error", "Unable to load profiler tab",
+                e);
+            return;
+        }
+
+        tabView.getDisplay().setPresenter(tabPresenter);
+        tabPresenter.setView(tabView);
+        display.profilerTab.setContent(tabView.getNode());
+    }
+
+    @VisibleForTesting
+    JavafxProfilerTabView getProfilerTabView()
+        throws IOException
+    {
+        return new JavafxProfilerTabView();
+    }
 }
@@ -46,6 +46,9 @@ public class TraceDisplay
     @FXML
     protected Tab treeDepthTab;
 
+    @FXML
+    protected Tab profilerTab;
+
     @Override
     public void init()
     {
@@ -0,0 +1,32 @@
+package com.github.fge.grappa.debugger.javafx.trace.tabs.profiler;
+
+import javafx.scene.control.TableCell;
+
+import java.util.function.Function;
+
+/**
+ * A table cell displaying its value as formatted text
+ *
+ * <p>Unlike a column of strings, the column of such a cell is sorted by the
+ * values themselves.</p>
+ *
+ * @param <S> the type of the rows of the table
+ * @param <T> the type of the values of the column
+ */
+public final class FormattedTableCell<S, T>
+    extends TableCell<S, T>
+{
+    private final Function<? super T, String> formatter;
+
+    public FormattedTableCell(final Function<? super T, String> formatter)
+    {
+        this.formatter = formatter;
+    }
+
+    @Override
+    protected void updateItem(final T item, final boolean empty)
+    {
+        super.updateItem(item, empty);
+        setText(empty || item == null ? null : formatter.apply(item));
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.fge.grappa.debugger.javafx.trace.tabs.profiler;
+
+import com.github.fge.grappa.debugger.ParseInfo;
+import com.github.fge.grappa.debugger.javafx.common.JavafxUtils;
+import com.github.fge.grappa.debugger.javafx.common.JavafxView;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabPresenter;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabView;
+import com.github.fge.grappa.internal.NonFinalForTesting;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.util.List;
+
+@ParametersAreNonnullByDefault
+@NonFinalForTesting
+public class JavafxProfilerTabView
+    extends JavafxView<ProfilerTabPresenter, ProfilerTabDisplay>
+    implements ProfilerTabView
+{
+    public JavafxProfilerTabView()
+        throws IOException
+    {
+        super("/javafx/tabs/profiler.fxml");
+    }
+
+    @Override
+    public void displayInfo(final ParseInfo info)
+    {
+    }
+
+    @Override
+    public void displayRuleProfiles(final List<RuleProfile> profiles)
+    {
+        final long parseTime = profiles.stream()
+            .mapToLong(RuleProfile::getSelfTime).sum();
+
+        display.parseTime = parseTime;
+        display.totalTime.setText(JavafxUtils.nanosToString(parseTime));
+
+        // Keep the sort order chosen by the user, if any
+        if (display.profileTable.getSortOrder().isEmpty())
+            display.profileTable.getSortOrder().setAll(display.selfTime);
+        display.profileTable.getItems().setAll(profiles);
+        display.profileTable.sort();
+    }
+
+    @Override
+    public void displayMemoizationCandidates(
+        final List<MemoizationCandidate> candidates)
+    {
+        if (display.memoTable.getSortOrder().isEmpty())
+            display.memoTable.getSortOrder().setAll(display.repeatedTime);
+        display.memoTable.getItems().setAll(candidates);
+        display.memoTable.sort();
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.fge.grappa.debugger.javafx.trace.tabs.profiler;
+
+import com.github.fge.grappa.debugger.javafx.common.JavafxDisplay;
+import com.github.fge.grappa.debugger.javafx.common.JavafxUtils;
+import com.github.fge.grappa.debugger.model.profiler.MemoizationCandidate;
+import com.github.fge.grappa.debugger.model.profiler.RuleProfile;
+import com.github.fge.grappa.debugger.trace.tabs.profiler.ProfilerTabPresenter;
+import com.github.fge.grappa.matchers.MatcherType;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import static com.github.fge.grappa.debugger.javafx.common.JavafxUtils.setColumnValue;
+
+public class ProfilerTabDisplay
+    extends JavafxDisplay<ProfilerTabPresenter>
+{
+    /*
+     * Sum of the self times of all rules; this is the time of the parse
+     */
+    protected long parseTime = 0L;
+
+    @FXML
+    protected Label totalTime;
+
+    /*
+     * Profile table
+     */
+    @FXML
+    protected TableView<RuleProfile> profileTable;
+
+    @FXML
+    protected TableColumn<RuleProfile, String> ruleName;
+
+    @FXML
+    protected TableColumn<RuleProfile, String> ruleClass;
+
+    @FXML
+    protected TableColumn<RuleProfile, MatcherType> ruleType;
+
+    @FXML
+    protected TableColumn<RuleProfile, Integer> nrCalls;
+
+    @FXML
+    protected TableColumn<RuleProfile, Long> selfTime;
+
+    @FXML
+    protected TableColumn<RuleProfile, Double> selfPct;
+
+    @FXML
+    protected TableColumn<RuleProfile, Long> ruleTotalTime;
+
+    @FXML
+    protected TableColumn<RuleProfile, Long> avgSelfTime;
+
+    /*
+     * Memoization candidates table
+     */
+    @FXML
+    protected TableView<MemoizationCandidate> memoTable;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, String> memoRuleName;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, String> memoRuleClass;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, MatcherType> memoRuleType;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, Integer> memoCalls;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, Integer> repeatedCalls;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, Double> repeatedPct;
+
+    @FXML
+    protected TableColumn<MemoizationCandidate, Long> repeatedTime;
+
+    @SuppressWarnings("AutoBoxing")
+    @Override
+    public void init()
+    {
+        /*
+         * Profile table
+         */
+        setColumnValue(ruleName, r -> r.getRuleInfo().getName());
+        setColumnValue(ruleClass, r -> r.getRuleInfo().getClassName());
+        setColumnValue(ruleType, r -> r.getRuleInfo().getType());
+        setColumnValue(nrCalls, RuleProfile::getCalls);
+        setColumnValue(selfTime, RuleProfile::getSelfTime);
+        setColumnValue(selfPct, r -> parseTime == 0L ? 0.0
+            : 100.0 * r.getSelfTime() / parseTime);
+        setColumnValue(ruleTotalTime, RuleProfile::getTotalTime);
+        setColumnValue(avgSelfTime, r -> r.getSelfTime() / r.getCalls());
+
+        selfTime.setCellFactory(
+            column -> new FormattedTableCell<>(JavafxUtils::nanosToString));
+        selfPct.setCellFactory(column -> new FormattedTableCell<>(
+            pct -> String.format("%.02f%%", pct)));
+        ruleTotalTime.setCellFactory(
+            column -> new FormattedTableCell<>(JavafxUtils::nanosToString));
+        avgSelfTime.setCellFactory(
+            column -> new FormattedTableCell<>(JavafxUtils::nanosToString));
+
+        profileTable.setColumnResizePolicy(
+            TableView.CONSTRAINED_RESIZE_POLICY);
+
+        /*
+         * Memoization candidates table
+         */
+        setColumnValue(memoRuleName, c -> c.getRuleInfo().getName());
+        setColumnValue(memoRuleClass, c -> c.getRuleInfo().getClassName());
+        setColumnValue(memoRuleType, c -> c.getRuleInfo().getType());
+        setColumnValue(memoCalls, MemoizationCandidate::getCalls);
+        setColumnValue(repeatedCalls, MemoizationCandidate::getRepeatedCalls);
+        setColumnValue(repeatedPct,
+            c -> 100.0 * c.getRepeatedCalls() / c.getCalls());
+        setColumnValue(repeatedTime, MemoizationCandidate::getRepeatedTime);
+
+        repeatedPct.setCellFactory(column -> new FormattedTableCell<>(
+            pct -> String.format("%.02f%%", pct)));
+        repeatedTime.setCellFactory(
+            column -> new FormattedTableCell<>(JavafxUtils::nanosToString));
+
+        memoTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+    }
+}
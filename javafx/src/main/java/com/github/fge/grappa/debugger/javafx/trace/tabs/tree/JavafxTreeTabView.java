@@ -6,19 +6,29 @@ import com.github.fge.grappa.debugger.common.GuiTaskRunner;
 import com.github.fge.grappa.debugger.common.TracingCharEscaper;
 import com.github.fge.grappa.debugger.javafx.common.JavafxUtils;
 import com.github.fge.grappa.debugger.javafx.common.JavafxView;
+import com.github.fge.grappa.debugger.javafx.common.highlight.IncrementalHighlighter;
 import com.github.fge.grappa.debugger.javafx.common.highlight.MatchHighlightText;
+import com.github.fge.grappa.debugger.javafx.common.highlight.TextWindow;
+import com.github.fge.grappa.debugger.javafx.common.highlight.WindowLineNumberFactory;
+import com.github.fge.grappa.debugger.javafx.common.highlight.WindowText;
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
 import com.github.fge.grappa.debugger.model.tree.RuleInfo;
+import com.github.fge.grappa.debugger.trace.tabs.tree.ChildrenPage;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabView;
 import com.github.fge.grappa.internal.NonFinalForTesting;
 import com.github.fge.grappa.support.Position;
 import com.google.common.escape.CharEscaper;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
 import javafx.scene.paint.Color;
 import org.fxmisc.richtext.CodeArea;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
@@ -37,13 +47,34 @@ public class JavafxTreeTabView
 
     private final GuiTaskRunner taskRunner;
 
+    private final IncrementalHighlighter highlighter;
+
+    // Only the latest text computation is displayed
+    private final Object highlightKey = new Object();
+
     private InputBuffer buffer;
 
+    // Run again when the highlight mode changes
+    @Nullable
+    private Runnable lastHighlight = null;
+
     public JavafxTreeTabView(final GuiTaskRunner taskRunner)
         throws IOException
     {
         super("/javafx/tabs/tree.fxml");
         this.taskRunner = Objects.requireNonNull(taskRunner);
+        highlighter = new IncrementalHighlighter(display.inputText);
+        display.decorateMatches.selectedProperty()
+            .addListener((observable, oldValue, newValue) -> rehighlight());
+        display.inputText.setOnMouseClicked(event -> {
+            if (event.isStillSincePress())
+                inputTextClicked();
+        });
+        display.parseTree.getSelectionModel().selectedItemProperty()
+            .addListener((observable, oldValue, newValue) -> {
+                if (newValue != null && newValue.getValue() != null)
+                    showNodePath(pathTo(newValue));
+            });
     }
 
     @SuppressWarnings("AutoBoxing")
@@ -57,17 +88,27 @@ public class JavafxTreeTabView
             info.getNrChars(), info.getNrCodePoints()));
     }
 
+    /*
+     * Only a window of the text is ever displayed; see TextWindow.
+     */
     @Override
     public void loadInputBuffer(final InputBuffer buffer)
     {
         this.buffer = buffer;
 
-        taskRunner.compute(() -> buffer.extract(0, buffer.length()), text -> {
-            display.inputText.appendText(text);
-            display.inputText.moveTo(0);
-        });
+        taskRunner.computeLatest(highlightKey,
+            () -> WindowText.of(buffer, TextWindow.around(buffer, 0, 0)),
+            text -> {
+                highlighter.display(text);
+                display.inputText.moveTo(0);
+            }
+        );
     }
 
+    /*
+     * Unless matches are decorated, a match within the displayed window is
+     * highlighted by restyling the text only; see IncrementalHighlighter.
+     */
     @Override
     public void highlightSuccess(final int start, final int end)
     {
@@ -76,11 +117,32 @@ public class JavafxTreeTabView
         final int realEnd = Math.min(end, length);
         final boolean emptyMatch = realStart == realEnd;
 
-        taskRunner.compute(
-            () -> emptyMatch
-                ? MatchHighlightText.emptyMatch(buffer, realStart)
-                : MatchHighlightText.nonemptyMatch(buffer, realStart, realEnd),
-            this::processHighlight
+        lastHighlight = () -> highlightSuccess(start, end);
+
+        if (display.decorateMatches.isSelected()) {
+            taskRunner.computeLatest(highlightKey,
+                () -> emptyMatch
+                    ? MatchHighlightText.emptyMatch(buffer, realStart)
+                    : MatchHighlightText.nonemptyMatch(buffer, realStart,
+                        realEnd),
+                this::processHighlight
+            );
+            return;
+        }
+
+        if (highlighter.canHighlight(realStart, realEnd)) {
+            taskRunner.cancel(highlightKey);
+            highlighter.highlightSuccess(realStart, realEnd);
+            return;
+        }
+
+        taskRunner.computeLatest(highlightKey,
+            () -> WindowText.of(buffer,
+                TextWindow.around(buffer, realStart, realEnd)),
+            text -> {
+                highlighter.display(text);
+                highlighter.highlightSuccess(realStart, realEnd);
+            }
         );
     }
 
@@ -90,16 +152,61 @@ public class JavafxTreeTabView
         final int length = buffer.length();
         final int realEnd = Math.min(end, length);
 
-        taskRunner.compute(
-            () -> MatchHighlightText.failedMatch(buffer, realEnd),
-            this::processHighlight
+        lastHighlight = () -> highlightFailure(end);
+
+        if (display.decorateMatches.isSelected()) {
+            taskRunner.computeLatest(highlightKey,
+                () -> MatchHighlightText.failedMatch(buffer, realEnd),
+                this::processHighlight
+            );
+            return;
+        }
+
+        if (highlighter.canHighlight(realEnd, realEnd)) {
+            taskRunner.cancel(highlightKey);
+            highlighter.highlightFailure(realEnd);
+            return;
+        }
+
+        taskRunner.computeLatest(highlightKey,
+            () -> WindowText.of(buffer,
+                TextWindow.around(buffer, realEnd, realEnd)),
+            text -> {
+                highlighter.display(text);
+                highlighter.highlightFailure(realEnd);
+            }
         );
     }
 
+    private void rehighlight()
+    {
+        if (lastHighlight == null)
+            return;
+
+        // The decorated text is not the text of a window
+        highlighter.invalidate();
+        lastHighlight.run();
+    }
+
+    /*
+     * Decorated matches are not the text of a window: clicks are ignored.
+     */
+    private void inputTextClicked()
+    {
+        final int index
+            = highlighter.toIndex(display.inputText.getCaretPosition());
+
+        if (index != -1)
+            display.inputTextClickEvent(index);
+    }
+
     private void processHighlight(final MatchHighlightText text)
     {
         final CodeArea area = display.inputText;
 
+        highlighter.invalidate();
+        area.setParagraphGraphicFactory(
+            new WindowLineNumberFactory(text.getWindow()));
         area.clear();
         area.appendText(text.fullText());
         area.setStyleSpans(0, text.getStyleSpans());
@@ -144,18 +251,80 @@ public class JavafxTreeTabView
     }
 
     @Override
-    public void waitForChildren()
+    public void showNodePath(final List<ParseTreeNode> path)
     {
-        display.currentItem.loadingProperty().setValue(true);
+        display.nodePath.setText(path.stream()
+            .map(node -> node.getRuleInfo().getName())
+            .collect(Collectors.joining(" > ")));
     }
 
     @Override
-    public void setTreeChildren(final List<ParseTreeNode> children)
+    public void revealNode(final List<ParseTreeNode> path,
+        final List<ChildrenPage> pages)
+    {
+        final TreeView<ParseTreeNode> tree = display.parseTree;
+        TreeItem<ParseTreeNode> item = tree.getRoot();
+
+        // The tree is not displayed yet
+        if (item == null || item.getValue().getId() != path.get(0).getId())
+            return;
+
+        final int size = pages.size();
+
+        for (int i = 0; i < size; i++) {
+            item = revealChild((ParseTreeItem) item, pages.get(i),
+                path.get(i + 1).getId());
+            if (item == null)
+                return;
+        }
+
+        tree.getSelectionModel().select(item);
+        tree.scrollTo(tree.getRow(item));
+    }
+
+    /*
+     * An expanded item is only expanded again if the child is not among its
+     * loaded children: this would collapse its other children.
+     */
+    @Nullable
+    private TreeItem<ParseTreeNode> revealChild(final ParseTreeItem item,
+        final ChildrenPage page, final int childId)
+    {
+        if (item.isExpanded()) {
+            final TreeItem<ParseTreeNode> child = findChild(item, childId);
+            if (child != null)
+                return child;
+        }
+
+        item.expandWith(page.getOffset(), display.toItems(page.getChildren()),
+            page.getNrChildren());
+        return findChild(item, childId);
+    }
+
+    @Nullable
+    private static TreeItem<ParseTreeNode> findChild(
+        final TreeItem<ParseTreeNode> item, final int childId)
     {
-        final List<ParseTreeItem> items = children.stream()
-            .map(node -> new ParseTreeItem(display, node))
-            .collect(Collectors.toList());
-        display.currentItem.getChildren().setAll(items);
-        display.currentItem.loadingProperty().setValue(false);
+        ParseTreeNode value;
+
+        for (final TreeItem<ParseTreeNode> child: item.getChildren()) {
+            value = child.getValue();
+            if (value != null && value.getId() == childId)
+                return child;
+        }
+
+        return null;
+    }
+
+    private static List<ParseTreeNode> pathTo(
+        final TreeItem<ParseTreeNode> item)
+    {
+        final List<ParseTreeNode> ret = new ArrayList<>();
+
+        for (TreeItem<ParseTreeNode> i = item; i != null; i = i.getParent())
+            ret.add(i.getValue());
+
+        Collections.reverse(ret);
+        return ret;
     }
 }
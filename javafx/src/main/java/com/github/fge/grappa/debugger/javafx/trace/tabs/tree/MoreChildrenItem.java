@@ -0,0 +1,117 @@
+package com.github.fge.grappa.debugger.javafx.trace.tabs.tree;
+
+import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
+import javafx.scene.control.TreeItem;
+
+/**
+ * Placeholder for the children of a {@link ParseTreeItem} which are not loaded
+ * yet
+ *
+ * <p>This item has no value, and is either the first child of its parent, for
+ * children before the ones loaded, or the last one, for children after them;
+ * selecting it loads the page of children next to the loaded ones.</p>
+ */
+public final class MoreChildrenItem
+    extends TreeItem<ParseTreeNode>
+{
+    private final ParseTreeItem parent;
+    private final boolean earlier;
+    private final int offset;
+    private final int remaining;
+
+    private boolean requested = false;
+
+    /**
+     * Constructor for the children after the loaded ones
+     *
+     * @param parent the parent item
+     * @param offset the number of children up to the last loaded one
+     * @param remaining the number of children not loaded yet
+     */
+    public MoreChildrenItem(final ParseTreeItem parent, final int offset,
+        final int remaining)
+    {
+        this(parent, false, offset, remaining);
+    }
+
+    private MoreChildrenItem(final ParseTreeItem parent, final boolean earlier,
+        final int offset, final int remaining)
+    {
+        this.parent = parent;
+        this.earlier = earlier;
+        this.offset = offset;
+        this.remaining = remaining;
+    }
+
+    /**
+     * Build a placeholder for the children before the loaded ones
+     *
+     * @param parent the parent item
+     * @param offset the number of children before the first loaded one
+     * @return the placeholder
+     */
+    public static MoreChildrenItem earlier(final ParseTreeItem parent,
+        final int offset)
+    {
+        return new MoreChildrenItem(parent, true, offset, offset);
+    }
+
+    public ParseTreeItem getParentItem()
+    {
+        return parent;
+    }
+
+    /**
+     * Tell whether this item stands for the children before the loaded ones
+     *
+     * @return true if so, false if it stands for the children after them
+     */
+    public boolean isEarlier()
+    {
+        return earlier;
+    }
+
+    /**
+     * Return the offset of this placeholder among the children
+     *
+     * <p>This is the number of children before the ones this item stands for,
+     * or, for a placeholder for {@link #isEarlier() earlier children}, the
+     * number of children it stands for.</p>
+     *
+     * @return the offset
+     */
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    public String getText()
+    {
+        return String.format(earlier ? "(%d earlier children...)"
+            : "(%d more children...)", remaining);
+    }
+
+    /**
+     * Tell whether the next page of children should be requested
+     *
+     * @return true the first time only
+     */
+    public boolean request()
+    {
+        if (requested)
+            return false;
+        requested = true;
+        return true;
+    }
+
+    boolean isRequested()
+    {
+        return requested;
+    }
+
+    @Override
+    public boolean isLeaf()
+    {
+        return true;
+    }
+}
@@ -3,8 +3,14 @@ package com.github.fge.grappa.debugger.javafx.trace.tabs.tree;
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.ObservableList;
 import javafx.scene.control.TreeItem;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
 public final class ParseTreeItem
     extends TreeItem<ParseTreeNode>
 {
@@ -13,6 +19,19 @@ public final class ParseTreeItem
 
     private final boolean leaf;
 
+    private int nrChildren = 0;
+
+    // Offsets of the first loaded child, and after the last loaded child
+    private int loadedStart = 0;
+    private int loadedEnd = 0;
+
+    // Set while expanding this item with children loaded beforehand
+    private boolean preloaded = false;
+
+    // Identifies the latest request for the first children of this item
+    @Nullable
+    private Object pendingRequest = null;
+
     public ParseTreeItem(final TreeTabDisplay display,
         final ParseTreeNode value)
     {
@@ -20,10 +39,13 @@ public final class ParseTreeItem
         leaf = !value.hasChildren();
         expandedProperty().addListener((observable, oldValue, newValue) -> {
             if (!newValue) {
+                pendingRequest = null;
+                loadingProperty.setValue(false);
                 getChildren().clear();
                 return;
             }
-            display.needChildrenEvent(this);
+            if (!preloaded)
+                display.needChildrenEvent(this);
         });
     }
 
@@ -32,6 +54,159 @@ public final class ParseTreeItem
         return loadingProperty;
     }
 
+    /**
+     * Record a request for the first children of this item
+     *
+     * @return the request, to give back to {@link #childrenLoaded(Object,
+     * List, int)}
+     */
+    public Object requestChildren()
+    {
+        final Object request = new Object();
+        pendingRequest = request;
+        loadingProperty.setValue(true);
+        return request;
+    }
+
+    /**
+     * Set the first children of this item, if still requested
+     *
+     * <p>Nothing is done if this item was collapsed, or its children requested
+     * again, or set by other means, since the request was made.</p>
+     *
+     * @param request the request returned by {@link #requestChildren()}
+     * @param items the children
+     * @param nrChildren the total number of children
+     */
+    public void childrenLoaded(final Object request,
+        final List<ParseTreeItem> items, final int nrChildren)
+    {
+        if (request == pendingRequest)
+            setChildren(0, items, nrChildren);
+    }
+
+    /**
+     * Set a page of children of this item
+     *
+     * <p>If there are children before or after the given ones, a {@link
+     * MoreChildrenItem} stands for them.</p>
+     *
+     * @param offset the number of children before the given ones
+     * @param items the children
+     * @param nrChildren the total number of children
+     */
+    public void setChildren(final int offset, final List<ParseTreeItem> items,
+        final int nrChildren)
+    {
+        final List<TreeItem<ParseTreeNode>> children
+            = new ArrayList<>(items.size() + 2);
+
+        pendingRequest = null;
+        this.nrChildren = nrChildren;
+        loadedStart = offset;
+        loadedEnd = offset + items.size();
+
+        if (loadedStart > 0)
+            children.add(MoreChildrenItem.earlier(this, loadedStart));
+        children.addAll(items);
+        if (loadedEnd < nrChildren)
+            children.add(new MoreChildrenItem(this, loadedEnd,
+                nrChildren - loadedEnd));
+
+        getChildren().setAll(children);
+        loadingProperty.setValue(false);
+    }
+
+    /**
+     * Expand this item with children loaded beforehand
+     *
+     * <p>Unlike when this item is expanded from the tree, its children are
+     * not requested.</p>
+     *
+     * @param offset the number of children before the given ones
+     * @param items the children
+     * @param nrChildren the total number of children
+     *
+     * @see #setChildren(int, List, int)
+     */
+    public void expandWith(final int offset, final List<ParseTreeItem> items,
+        final int nrChildren)
+    {
+        setChildren(offset, items, nrChildren);
+        preloaded = true;
+        try {
+            setExpanded(true);
+        } finally {
+            preloaded = false;
+        }
+    }
+
+    /**
+     * Record a request for the children in place of a {@link MoreChildrenItem}
+     *
+     * @param placeholder the placeholder
+     * @return false if these children were already requested
+     *
+     * @see MoreChildrenItem#request()
+     */
+    public boolean requestMoreChildren(final MoreChildrenItem placeholder)
+    {
+        if (!placeholder.request())
+            return false;
+        loadingProperty.setValue(true);
+        return true;
+    }
+
+    /**
+     * Add children to this item, in place of a {@link MoreChildrenItem}
+     *
+     * <p>Nothing is done unless this placeholder is still the first, or last,
+     * child of this item; it is not if this item was collapsed since the
+     * children were requested, even if it was expanded again.</p>
+     *
+     * @param placeholder the placeholder the children were requested for
+     * @param items the children
+     */
+    public void addChildren(final MoreChildrenItem placeholder,
+        final List<ParseTreeItem> items)
+    {
+        final ObservableList<TreeItem<ParseTreeNode>> children = getChildren();
+        final int size = children.size();
+        final int index = placeholder.isEarlier() ? 0 : size - 1;
+
+        if (size == 0 || children.get(index) != placeholder)
+            return;
+
+        final List<TreeItem<ParseTreeNode>> added
+            = new ArrayList<>(items.size() + 1);
+
+        if (placeholder.isEarlier()) {
+            loadedStart = Math.max(0, loadedStart - items.size());
+            if (loadedStart > 0)
+                added.add(MoreChildrenItem.earlier(this, loadedStart));
+            added.addAll(items);
+        } else {
+            loadedEnd += items.size();
+            added.addAll(items);
+            if (loadedEnd < nrChildren)
+                added.add(new MoreChildrenItem(this, loadedEnd,
+                    nrChildren - loadedEnd));
+        }
+
+        children.remove(index);
+        children.addAll(index, added);
+        loadingProperty.setValue(pendingRequest != null
+            || isRequested(children.get(0))
+            || isRequested(children.get(children.size() - 1)));
+    }
+
+    // The page of children for the other placeholder may still be loading
+    private static boolean isRequested(final TreeItem<ParseTreeNode> item)
+    {
+        return item instanceof MoreChildrenItem
+            && ((MoreChildrenItem) item).isRequested();
+    }
+
     @Override
     public boolean isLeaf()
     {
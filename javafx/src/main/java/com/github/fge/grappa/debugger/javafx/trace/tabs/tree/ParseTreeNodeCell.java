@@ -7,6 +7,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TreeCell;
+import javafx.scene.control.TreeItem;
 import javafx.scene.layout.HBox;
 import javafx.scene.text.Text;
 import org.fxmisc.easybind.EasyBind;
@@ -25,6 +26,11 @@ public final class ParseTreeNodeCell
         selectedProperty().addListener((observable, oldValue, newValue) -> {
             if (!newValue)
                 return;
+            final TreeItem<ParseTreeNode> item = getTreeItem();
+            if (item instanceof MoreChildrenItem) {
+                display.needMoreChildrenEvent((MoreChildrenItem) item);
+                return;
+            }
             final ParseTreeNode node = getItem();
             if (node != null)
                 display.parseTreeNodeShowEvent(node);
@@ -32,7 +38,8 @@ public final class ParseTreeNodeCell
 
         final ObservableValue<Boolean> loading
             = EasyBind.select(treeItemProperty())
-            .selectObject(item -> ((ParseTreeItem) item).loadingProperty());
+            .selectObject(item -> item instanceof ParseTreeItem
+                ? ((ParseTreeItem) item).loadingProperty() : null);
 
         loading.addListener(new ChangeListener<Boolean>()
         {
@@ -60,7 +67,8 @@ public final class ParseTreeNodeCell
                 final ParseTreeNode oldValue, final ParseTreeNode newValue)
             {
                 if (newValue == null) {
-                    setGraphic(null);
+                    if (!(getTreeItem() instanceof MoreChildrenItem))
+                        setGraphic(null);
                     return;
                 }
                 text.setText(String.format("%s (%s)",
@@ -69,6 +77,17 @@ public final class ParseTreeNodeCell
                 setGraphic(hBox);
             }
         });
+
+        // Placeholders have no value; see MoreChildrenItem
+        treeItemProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue instanceof MoreChildrenItem) {
+                text.setText(((MoreChildrenItem) newValue).getText());
+                setGraphic(hBox);
+                return;
+            }
+            if (getItem() == null)
+                setGraphic(null);
+        });
     }
 }
 
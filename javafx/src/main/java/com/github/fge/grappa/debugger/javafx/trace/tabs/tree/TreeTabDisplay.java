@@ -5,12 +5,16 @@ import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TreeView;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
 
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 public class TreeTabDisplay
     extends JavafxDisplay<TreeTabPresenter>
@@ -51,6 +55,9 @@ public class TreeTabDisplay
     @FXML
     protected Label nodeTime;
 
+    @FXML
+    protected Label nodePath;
+
     /*
      * Text
      */
@@ -60,7 +67,8 @@ public class TreeTabDisplay
     @FXML
     protected CodeArea inputText;
 
-    protected ParseTreeItem currentItem;
+    @FXML
+    protected CheckBox decorateMatches;
 
     @Override
     public void init()
@@ -75,9 +83,46 @@ public class TreeTabDisplay
         presenter.handleParseTreeNodeShow(node);
     }
 
-    public void needChildrenEvent(final ParseTreeItem parseTreeItem)
+    public void inputTextClickEvent(final int index)
+    {
+        presenter.handleInputTextClick(index);
+    }
+
+    /*
+     * The children are given to the item which requested them: other items
+     * may be expanded before they are loaded.
+     */
+    public void needChildrenEvent(final ParseTreeItem item)
+    {
+        final Object request = item.requestChildren();
+
+        presenter.handleNeedChildren(item.getValue(),
+            page -> item.childrenLoaded(request, toItems(page.getChildren()),
+                page.getNrChildren()));
+    }
+
+    public void needMoreChildrenEvent(final MoreChildrenItem item)
+    {
+        final ParseTreeItem parent = item.getParentItem();
+
+        if (!parent.requestMoreChildren(item))
+            return;
+
+        final Consumer<List<ParseTreeNode>> onLoaded
+            = children -> parent.addChildren(item, toItems(children));
+
+        if (item.isEarlier())
+            presenter.handleNeedEarlierChildren(parent.getValue(),
+                item.getOffset(), onLoaded);
+        else
+            presenter.handleNeedMoreChildren(parent.getValue(),
+                item.getOffset(), onLoaded);
+    }
+
+    List<ParseTreeItem> toItems(final List<ParseTreeNode> children)
     {
-        currentItem = parseTreeItem;
-        presenter.handleNeedChildren(currentItem.getValue());
+        return children.stream()
+            .map(node -> new ParseTreeItem(this, node))
+            .collect(Collectors.toList());
     }
 }
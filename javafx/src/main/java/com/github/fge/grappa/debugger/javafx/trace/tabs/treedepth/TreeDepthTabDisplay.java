@@ -1,6 +1,7 @@
 package com.github.fge.grappa.debugger.javafx.trace.tabs.treedepth;
 
 import com.github.fge.grappa.debugger.javafx.common.JavafxDisplay;
+import com.github.fge.grappa.debugger.trace.tabs.treedepth.TreeDepthInfo;
 import com.github.fge.grappa.debugger.trace.tabs.treedepth.TreeDepthTabPresenter;
 import com.google.common.annotations.VisibleForTesting;
 import javafx.event.ActionEvent;
@@ -60,7 +61,28 @@ public class TreeDepthTabDisplay
     {
         hbox.minWidthProperty().bind(toolbar.widthProperty());
 
-        linesDisplayed.getItems().addAll(10, 25, 50);
+        linesDisplayed.getItems().addAll(10, 25, 50, 100, 500,
+            TreeDepthInfo.ALL_LINES);
+        linesDisplayed.setConverter(new StringConverter<Integer>()
+        {
+            @Override
+            public String toString(final Integer object)
+            {
+                if (object == null)
+                    return "";
+                //noinspection AutoUnboxing
+                return object == TreeDepthInfo.ALL_LINES ? "all"
+                    : object.toString();
+            }
+
+            @Override
+            public Integer fromString(final String string)
+            {
+                //noinspection AutoBoxing
+                return "all".equals(string) ? TreeDepthInfo.ALL_LINES
+                    : Integer.parseInt(string);
+            }
+        });
         linesDisplayed.valueProperty().setValue(25);
         linesDisplayed.valueProperty().addListener(
             (observable, oldValue, newValue) -> {
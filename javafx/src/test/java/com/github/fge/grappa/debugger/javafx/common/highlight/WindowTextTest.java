@@ -0,0 +1,109 @@
+package com.github.fge.grappa.debugger.javafx.common.highlight;
+
+import com.github.fge.grappa.buffers.CharSequenceInputBuffer;
+import com.github.fge.grappa.buffers.InputBuffer;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class WindowTextTest
+{
+    @DataProvider
+    public Iterator<Object[]> testData()
+    {
+        final List<Object[]> list = new ArrayList<>();
+
+        String input;
+        int index;
+        int offset;
+
+        input = "abc";
+        index = 2;
+        offset = 2;
+        list.add(new Object[] { input, index, offset });
+
+        input = "a\r\nbc";
+        index = 1;
+        offset = 1;
+        list.add(new Object[] { input, index, offset });
+
+        input = "a\r\nbc";
+        index = 2;
+        offset = 1;
+        list.add(new Object[] { input, index, offset });
+
+        input = "a\r\nbc";
+        index = 3;
+        offset = 2;
+        list.add(new Object[] { input, index, offset });
+
+        input = "a\r\n\r\nb";
+        index = 5;
+        offset = 3;
+        list.add(new Object[] { input, index, offset });
+
+        input = "a\rb\r\nc";
+        index = 5;
+        offset = 4;
+        list.add(new Object[] { input, index, offset });
+
+        input = "ab\r\n";
+        index = 10;
+        offset = 3;
+        list.add(new Object[] { input, index, offset });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "testData")
+    public void offsetTest(final String input, final int index,
+        final int offset)
+    {
+        final InputBuffer buffer = new CharSequenceInputBuffer(input);
+        final WindowText text
+            = WindowText.of(buffer, TextWindow.around(buffer, 0, 0));
+
+        assertThat(text.getText()).isEqualTo(input.replace("\r\n", "\n"));
+        assertThat(text.toOffset(index)).isEqualTo(offset);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> inputs()
+    {
+        final List<Object[]> list = new ArrayList<>();
+
+        list.add(new Object[] { "abc" });
+        list.add(new Object[] { "a\r\nbc" });
+        list.add(new Object[] { "a\r\n\r\nb" });
+        list.add(new Object[] { "a\rb\r\nc" });
+        list.add(new Object[] { "ab\r\n" });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "inputs")
+    public void indexTest(final String input)
+    {
+        final InputBuffer buffer = new CharSequenceInputBuffer(input);
+        final WindowText text
+            = WindowText.of(buffer, TextWindow.around(buffer, 0, 0));
+        final String displayed = text.getText();
+        final int length = displayed.length();
+
+        int index;
+
+        for (int offset = 0; offset < length; offset++) {
+            index = text.toIndex(offset);
+            assertThat(buffer.charAt(index))
+                .isEqualTo(displayed.charAt(offset));
+            assertThat(text.toOffset(index)).isEqualTo(offset);
+        }
+
+        assertThat(text.toIndex(length)).isEqualTo(input.length());
+    }
+}
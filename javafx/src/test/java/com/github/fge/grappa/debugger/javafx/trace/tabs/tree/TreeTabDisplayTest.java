@@ -1,15 +1,26 @@
 package com.github.fge.grappa.debugger.javafx.trace.tabs.tree;
 
 import com.github.fge.grappa.debugger.model.tree.ParseTreeNode;
+import com.github.fge.grappa.debugger.trace.tabs.tree.ChildrenPage;
 import com.github.fge.grappa.debugger.trace.tabs.tree.TreeTabPresenter;
+import javafx.scene.control.TreeItem;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class TreeTabDisplayTest
@@ -46,7 +57,92 @@ public class TreeTabDisplayTest
 
         display.needChildrenEvent(item);
 
-        verify(presenter).handleNeedChildren(same(node));
-        assertThat(display.currentItem).isSameAs(item);
+        verify(presenter).handleNeedChildren(same(node), any());
+        assertThat(item.loadingProperty().get()).isTrue();
+    }
+
+    @Test
+    public void staleChildrenPageTest()
+    {
+        final ParseTreeNode node = mock(ParseTreeNode.class);
+        final ParseTreeNode child = mock(ParseTreeNode.class);
+        final ParseTreeItem item = new ParseTreeItem(display, node);
+        final ChildrenPage page
+            = new ChildrenPage(1, Collections.singletonList(child));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Consumer<ChildrenPage>> captor
+            = (ArgumentCaptor) ArgumentCaptor.forClass(Consumer.class);
+
+        display.needChildrenEvent(item);
+        display.needChildrenEvent(item);
+
+        verify(presenter, times(2)).handleNeedChildren(same(node),
+            captor.capture());
+
+        final List<Consumer<ChildrenPage>> callbacks = captor.getAllValues();
+
+        callbacks.get(0).accept(page);
+        assertThat(item.getChildren()).isEmpty();
+        assertThat(item.loadingProperty().get()).isTrue();
+
+        callbacks.get(1).accept(page);
+        assertThat(item.getChildren()).hasSize(1);
+        assertThat(item.loadingProperty().get()).isFalse();
+    }
+
+    @SuppressWarnings("AutoBoxing")
+    @Test
+    public void earlierChildrenTest()
+    {
+        final ParseTreeNode node = mock(ParseTreeNode.class);
+        final ParseTreeItem item = new ParseTreeItem(display, node);
+
+        item.expandWith(1500, display.toItems(mockNodes(10)), 3000);
+
+        final List<TreeItem<ParseTreeNode>> children = item.getChildren();
+
+        assertThat(children).hasSize(12);
+
+        final MoreChildrenItem earlier = (MoreChildrenItem) children.get(0);
+        final MoreChildrenItem more = (MoreChildrenItem) children.get(11);
+
+        assertThat(earlier.isEarlier()).isTrue();
+        assertThat(earlier.getText()).isEqualTo("(1500 earlier children...)");
+        assertThat(more.isEarlier()).isFalse();
+        assertThat(more.getOffset()).isEqualTo(1510);
+        assertThat(more.getText()).isEqualTo("(1490 more children...)");
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Consumer<List<ParseTreeNode>>> captor
+            = (ArgumentCaptor) ArgumentCaptor.forClass(Consumer.class);
+
+        display.needMoreChildrenEvent(earlier);
+
+        verify(presenter).handleNeedEarlierChildren(same(node), eq(1500),
+            captor.capture());
+        assertThat(item.loadingProperty().get()).isTrue();
+
+        captor.getValue().accept(mockNodes(1000));
+
+        assertThat(children).hasSize(1012);
+        assertThat(children.get(11)).isNotInstanceOf(MoreChildrenItem.class);
+        assertThat(children.get(1011)).isSameAs(more);
+        assertThat(item.loadingProperty().get()).isFalse();
+
+        final MoreChildrenItem rest = (MoreChildrenItem) children.get(0);
+
+        assertThat(rest.isEarlier()).isTrue();
+        assertThat(rest.getOffset()).isEqualTo(500);
+    }
+
+    private static List<ParseTreeNode> mockNodes(final int nrNodes)
+    {
+        final List<ParseTreeNode> ret = new ArrayList<>(nrNodes);
+
+        for (int i = 0; i < nrNodes; i++)
+            ret.add(mock(ParseTreeNode.class));
+
+        return ret;
     }
 }